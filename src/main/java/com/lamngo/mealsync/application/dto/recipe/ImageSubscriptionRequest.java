@@ -0,0 +1,20 @@
+package com.lamngo.mealsync.application.dto.recipe;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageSubscriptionRequest {
+
+    @NotEmpty(message = "Recipe IDs cannot be empty")
+    private List<UUID> recipeIds;
+}
@@ -0,0 +1,41 @@
+package com.lamngo.mealsync.application.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Recipe counts per filter value of the recipe listing, most frequent values first.
+ * Values are lower-case, as the listing filters match case-insensitively.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeFacetsDto {
+    private long totalRecipes;
+    private List<ValueCount> cuisines;
+    private List<ValueCount> difficulties;
+    private List<ValueCount> tags;
+    // Cumulative, like the maxTotalTime filter: a 10-minute recipe counts in every bucket
+    private List<TimeBucketCount> totalTime;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ValueCount {
+        private String value;
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimeBucketCount {
+        private int maxTotalTime;
+        private long count;
+    }
+}
@@ -0,0 +1,26 @@
+package com.lamngo.mealsync.application.dto.recipe;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ingredients at hand, in the same shape as the ingredients of /generate-recipes; quantities and
+ * units are ignored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeMatchRequest {
+    @NotNull(message = "Ingredients list cannot be null")
+    @NotEmpty(message = "Ingredients list cannot be empty")
+    @Size(max = 100, message = "Ingredients list cannot have more than 100 ingredients")
+    private List<DetectedIngredientDto> ingredients;
+}
@@ -0,0 +1,21 @@
+package com.lamngo.mealsync.application.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeMatchResultDto {
+
+    private RecipeReadDto recipe;
+    private int matchedIngredients;
+    private int totalIngredients;
+    // Ingredients of the recipe that were not in the request, in the recipe's normalized spelling
+    private List<String> missingIngredients;
+}
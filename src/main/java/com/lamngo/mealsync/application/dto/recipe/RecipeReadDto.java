@@ -21,6 +21,9 @@ public class RecipeReadDto {
     private List<String> instructions;
     private String cuisine;
     private String imageUrl;
+    private String cardImageUrl;
+    private String thumbnailImageUrl;
+    private String imageBlurHash;
     private String ingredientKey;
     private String description;
     private Integer preparationTime;
@@ -0,0 +1,19 @@
+package com.lamngo.mealsync.application.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSearchResultDto {
+
+    private RecipeReadDto recipe;
+    // Higher is more relevant; only comparable within one search
+    private double rank;
+    // Name and description excerpt with matched terms in <mark> tags
+    private String snippet;
+}
@@ -0,0 +1,23 @@
+package com.lamngo.mealsync.application.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What a conditional GET needs to know about a recipe without reading its content.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeVersionDto {
+    private UUID id;
+    // updatedAt, or createdAt for recipes never changed since
+    private Instant lastModified;
+    private boolean imageReady;
+}
@@ -0,0 +1,331 @@
+package com.lamngo.mealsync.application.event;
+
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Relays ImageGeneratedEvents, UserEvents, UserChannelsClosedEvents and the recipe change events (RecipeChangedEvent,
+ * RecipeFacetsChangedEvent, RecipeIngredientsChangedEvent) between application nodes.
+ *
+ * An image finished on node A has to reach SSE clients connected to node B, and a user's event channel
+ * may be open on a different node than the request that changed their subscription. Every local event
+ * is sent over the {@link EventTransport}; events from other nodes are re-published as local Spring
+ * events, so the SSE listeners and the in-flight bookkeeping run on every node without sticky sessions.
+ * Recipe changes are relayed so every node drops its cached copy of the recipe and updates its facet
+ * counts and ingredient index.
+ * Without a transport (app.events.transport=none, or a non-PostgreSQL database) events stay local.
+ */
+@Component
+public class ClusterEventRelay {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterEventRelay.class);
+    static final String TYPE_IMAGE_GENERATED = "image-generated";
+    static final String TYPE_USER_EVENT = "user-event";
+    static final String TYPE_USER_CHANNELS_CLOSED = "user-channels-closed";
+    static final String TYPE_RECIPE_CHANGED = "recipe-changed";
+    static final String TYPE_RECIPE_FACETS_CHANGED = "recipe-facets-changed";
+    static final String TYPE_RECIPE_INGREDIENTS_CHANGED = "recipe-ingredients-changed";
+    // Keep a message well below the 8000 byte NOTIFY payload limit
+    static final int MAX_RECIPE_IDS_PER_MESSAGE = 100;
+    static final int MAX_RECIPE_FACETS_PER_MESSAGE = 10;
+
+    private final EventTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+
+    public ClusterEventRelay(
+            ObjectProvider<EventTransport> transport,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.transport = transport.getIfAvailable();
+        this.eventPublisher = eventPublisher;
+        this.sentCounter = Counter.builder("mealsync.events.relayed")
+                .description("Events exchanged with other nodes")
+                .tag("direction", "out")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("mealsync.events.relayed")
+                .description("Events exchanged with other nodes")
+                .tag("direction", "in")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (transport == null) {
+            logger.info("No cluster event transport configured, events stay on this node");
+            return;
+        }
+        transport.start(this::onMessage);
+    }
+
+    @EventListener
+    public void onImageGenerated(ImageGeneratedEvent event) {
+        // Events this relay re-published came from another node already
+        if (transport == null || event.getSource() == this) {
+            return;
+        }
+        relay(toPayload(event), "image event for recipe " + event.getRecipeId());
+    }
+
+    /**
+     * User events are often published inside the transaction that caused them (a purchase, a trial
+     * expiring); they are only relayed once that transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        if (transport == null || event.getSource() == this) {
+            return;
+        }
+        relay(toPayload(event), "user event " + event.getTopic() + "/" + event.getName());
+    }
+
+    @EventListener
+    public void onUserChannelsClosed(UserChannelsClosedEvent event) {
+        if (transport == null || event.getSource() == this) {
+            return;
+        }
+        relay(toPayload(event), "channel close of user " + event.getUserId());
+    }
+
+    /**
+     * Only committed changes are relayed; other nodes cannot have read rows of a rolled-back transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (transport == null || event.getSource() == this) {
+            return;
+        }
+        for (String payload : toPayloads(event)) {
+            relay(payload, "change of " + event.getRecipeIds().size() + " recipes");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeIngredientsChanged(RecipeIngredientsChangedEvent event) {
+        if (transport == null || event.getSource() == this) {
+            return;
+        }
+        for (String payload : toPayloads(event)) {
+            relay(payload, "ingredient change of " + event.getRecipeIds().size() + " recipes");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeFacetsChanged(RecipeFacetsChangedEvent event) {
+        if (transport == null || event.getSource() == this) {
+            return;
+        }
+        for (String payload : toPayloads(event)) {
+            relay(payload, "facet change of " + (event.getAdded().size() + event.getRemoved().size()) + " recipes");
+        }
+    }
+
+    private void relay(String payload, String description) {
+        try {
+            transport.publish(payload);
+            sentCounter.increment();
+        } catch (Exception e) {
+            // Local listeners already ran; only clients on other nodes miss this update
+            logger.warn("Failed to relay {}: {}", description, e.getMessage());
+        }
+    }
+
+    void onMessage(String payload) {
+        try {
+            JSONObject message = new JSONObject(payload);
+            if (nodeId.equals(message.optString("node"))) {
+                return;
+            }
+            String type = message.optString("type");
+            if (TYPE_IMAGE_GENERATED.equals(type)) {
+                receivedCounter.increment();
+                eventPublisher.publishEvent(new ImageGeneratedEvent(
+                        this,
+                        UUID.fromString(message.getString("recipeId")),
+                        message.optString("recipeName", null),
+                        message.optString("imageUrl", null),
+                        message.optString("cardImageUrl", null),
+                        message.optString("thumbnailImageUrl", null),
+                        message.optString("blurHash", null),
+                        message.optBoolean("success"),
+                        message.optString("error", null),
+                        message.optLong("at", System.currentTimeMillis())));
+            } else if (TYPE_USER_EVENT.equals(type)) {
+                receivedCounter.increment();
+                eventPublisher.publishEvent(new UserEvent(
+                        this,
+                        UUID.fromString(message.getString("userId")),
+                        message.getString("topic"),
+                        message.getString("name"),
+                        message.getString("data"),
+                        message.optLong("at", System.currentTimeMillis())));
+            } else if (TYPE_USER_CHANNELS_CLOSED.equals(type)) {
+                receivedCounter.increment();
+                eventPublisher.publishEvent(new UserChannelsClosedEvent(this,
+                        UUID.fromString(message.getString("userId"))));
+            } else if (TYPE_RECIPE_CHANGED.equals(type)) {
+                receivedCounter.increment();
+                eventPublisher.publishEvent(new RecipeChangedEvent(this, recipeIds(message)));
+            } else if (TYPE_RECIPE_INGREDIENTS_CHANGED.equals(type)) {
+                receivedCounter.increment();
+                eventPublisher.publishEvent(new RecipeIngredientsChangedEvent(this, recipeIds(message)));
+            } else if (TYPE_RECIPE_FACETS_CHANGED.equals(type)) {
+                receivedCounter.increment();
+                eventPublisher.publishEvent(new RecipeFacetsChangedEvent(this,
+                        facetsFromJson(message.getJSONArray("added")),
+                        facetsFromJson(message.getJSONArray("removed"))));
+            }
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed cluster event: {}", e.getMessage());
+        }
+    }
+
+    String toPayload(ImageGeneratedEvent event) {
+        JSONObject message = new JSONObject();
+        message.put("type", TYPE_IMAGE_GENERATED);
+        message.put("node", nodeId);
+        message.put("recipeId", event.getRecipeId().toString());
+        message.put("recipeName", event.getRecipeName());
+        message.put("imageUrl", event.getImageUrl());
+        message.put("cardImageUrl", event.getCardImageUrl());
+        message.put("thumbnailImageUrl", event.getThumbnailImageUrl());
+        message.put("blurHash", event.getBlurHash());
+        message.put("success", event.isSuccess());
+        message.put("error", event.getErrorMessage());
+        message.put("at", event.getTimestamp());
+        return message.toString();
+    }
+
+    String toPayload(UserEvent event) {
+        JSONObject message = new JSONObject();
+        message.put("type", TYPE_USER_EVENT);
+        message.put("node", nodeId);
+        message.put("userId", event.getUserId().toString());
+        message.put("topic", event.getTopic());
+        message.put("name", event.getName());
+        // Kept as a string so the document arrives byte for byte
+        message.put("data", event.getData());
+        message.put("at", event.getTimestamp());
+        return message.toString();
+    }
+
+    String toPayload(UserChannelsClosedEvent event) {
+        JSONObject message = new JSONObject();
+        message.put("type", TYPE_USER_CHANNELS_CLOSED);
+        message.put("node", nodeId);
+        message.put("userId", event.getUserId().toString());
+        return message.toString();
+    }
+
+    List<String> toPayloads(RecipeChangedEvent event) {
+        return recipeIdPayloads(TYPE_RECIPE_CHANGED, event.getRecipeIds());
+    }
+
+    List<String> toPayloads(RecipeIngredientsChangedEvent event) {
+        return recipeIdPayloads(TYPE_RECIPE_INGREDIENTS_CHANGED, event.getRecipeIds());
+    }
+
+    private List<String> recipeIdPayloads(String type, Set<UUID> recipeIds) {
+        List<String> payloads = new ArrayList<>();
+        JSONArray ids = new JSONArray();
+        for (UUID recipeId : recipeIds) {
+            ids.put(recipeId.toString());
+            if (ids.length() == MAX_RECIPE_IDS_PER_MESSAGE) {
+                payloads.add(recipeIdPayload(type, ids));
+                ids = new JSONArray();
+            }
+        }
+        if (!ids.isEmpty()) {
+            payloads.add(recipeIdPayload(type, ids));
+        }
+        return payloads;
+    }
+
+    private String recipeIdPayload(String type, JSONArray recipeIds) {
+        JSONObject message = new JSONObject();
+        message.put("type", type);
+        message.put("node", nodeId);
+        message.put("recipeIds", recipeIds);
+        return message.toString();
+    }
+
+    private static Set<UUID> recipeIds(JSONObject message) {
+        JSONArray ids = message.getJSONArray("recipeIds");
+        Set<UUID> recipeIds = new HashSet<>();
+        for (int i = 0; i < ids.length(); i++) {
+            recipeIds.add(UUID.fromString(ids.getString(i)));
+        }
+        return recipeIds;
+    }
+
+    List<String> toPayloads(RecipeFacetsChangedEvent event) {
+        List<String> payloads = new ArrayList<>();
+        JSONArray added = new JSONArray();
+        JSONArray removed = new JSONArray();
+        List<RecipeFacets> all = new ArrayList<>(event.getAdded());
+        all.addAll(event.getRemoved());
+        for (int i = 0; i < all.size(); i++) {
+            (i < event.getAdded().size() ? added : removed).put(toJson(all.get(i)));
+            if (added.length() + removed.length() == MAX_RECIPE_FACETS_PER_MESSAGE) {
+                payloads.add(recipeFacetsChangedPayload(added, removed));
+                added = new JSONArray();
+                removed = new JSONArray();
+            }
+        }
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            payloads.add(recipeFacetsChangedPayload(added, removed));
+        }
+        return payloads;
+    }
+
+    private String recipeFacetsChangedPayload(JSONArray added, JSONArray removed) {
+        JSONObject message = new JSONObject();
+        message.put("type", TYPE_RECIPE_FACETS_CHANGED);
+        message.put("node", nodeId);
+        message.put("added", added);
+        message.put("removed", removed);
+        return message.toString();
+    }
+
+    private static JSONObject toJson(RecipeFacets facets) {
+        JSONObject json = new JSONObject();
+        json.put("cuisine", facets.getCuisine());
+        json.put("difficulty", facets.getDifficulty());
+        json.put("tags", new JSONArray(facets.getTags()));
+        json.put("totalTime", facets.getTotalTime());
+        return json;
+    }
+
+    private static List<RecipeFacets> facetsFromJson(JSONArray array) {
+        List<RecipeFacets> facets = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject json = array.getJSONObject(i);
+            JSONArray tagArray = json.getJSONArray("tags");
+            List<String> tags = new ArrayList<>(tagArray.length());
+            for (int j = 0; j < tagArray.length(); j++) {
+                tags.add(tagArray.getString(j));
+            }
+            facets.add(new RecipeFacets(json.optString("cuisine", null), json.optString("difficulty", null), tags,
+                    json.has("totalTime") ? json.getInt("totalTime") : null));
+        }
+        return facets;
+    }
+}
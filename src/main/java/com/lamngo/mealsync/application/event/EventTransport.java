@@ -0,0 +1,23 @@
+package com.lamngo.mealsync.application.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcast channel between application nodes, used by {@link ClusterEventRelay}.
+ *
+ * Delivery is at-most-once: messages sent while a node is reconnecting are lost, so consumers must treat
+ * them as hints and keep the database as the source of truth.
+ */
+public interface EventTransport {
+
+    /**
+     * Sends a message to every node, including this one. Must not block on the network: it is called
+     * on the image URL writer thread and after transactions commit.
+     */
+    void publish(String payload);
+
+    /**
+     * Starts delivering messages from all nodes to the handler. Called once at startup.
+     */
+    void start(Consumer<String> handler);
+}
@@ -2,6 +2,9 @@ package com.lamngo.mealsync.application.event;
 
 import org.springframework.context.ApplicationEvent;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
 /**
@@ -12,14 +15,37 @@ public class ImageGeneratedEvent extends ApplicationEvent {
     private final UUID recipeId;
     private final String recipeName;
     private final String imageUrl;
+    private final String cardImageUrl;
+    private final String thumbnailImageUrl;
+    private final String blurHash;
     private final boolean success;
     private final String errorMessage;
     
     public ImageGeneratedEvent(Object source, UUID recipeId, String recipeName, String imageUrl, boolean success, String errorMessage) {
-        super(source);
+        this(source, recipeId, recipeName, imageUrl, null, null, null, success, errorMessage);
+    }
+
+    public ImageGeneratedEvent(Object source, UUID recipeId, String recipeName, String imageUrl,
+                               String cardImageUrl, String thumbnailImageUrl, String blurHash,
+                               boolean success, String errorMessage) {
+        this(source, recipeId, recipeName, imageUrl, cardImageUrl, thumbnailImageUrl, blurHash, success, errorMessage,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Recreates an event with its original timestamp, e.g. when it is relayed from another node.
+     * The timestamp doubles as the SSE event id, so it must not change on the way.
+     */
+    public ImageGeneratedEvent(Object source, UUID recipeId, String recipeName, String imageUrl,
+                               String cardImageUrl, String thumbnailImageUrl, String blurHash,
+                               boolean success, String errorMessage, long timestamp) {
+        super(source, Clock.fixed(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC));
         this.recipeId = recipeId;
         this.recipeName = recipeName;
         this.imageUrl = imageUrl;
+        this.cardImageUrl = cardImageUrl;
+        this.thumbnailImageUrl = thumbnailImageUrl;
+        this.blurHash = blurHash;
         this.success = success;
         this.errorMessage = errorMessage;
     }
@@ -36,6 +62,18 @@ public class ImageGeneratedEvent extends ApplicationEvent {
         return imageUrl;
     }
     
+    public String getCardImageUrl() {
+        return cardImageUrl;
+    }
+    
+    public String getThumbnailImageUrl() {
+        return thumbnailImageUrl;
+    }
+    
+    public String getBlurHash() {
+        return blurHash;
+    }
+    
     public boolean isSuccess() {
         return success;
     }
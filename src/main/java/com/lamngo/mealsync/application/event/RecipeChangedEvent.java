@@ -0,0 +1,23 @@
+package com.lamngo.mealsync.application.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Spring event published when recipes are updated or deleted (including their image columns), so
+ * copies cached on this node and, through the {@link ClusterEventRelay}, on the other nodes are dropped.
+ */
+public class RecipeChangedEvent extends ApplicationEvent {
+    private final Set<UUID> recipeIds;
+
+    public RecipeChangedEvent(Object source, Set<UUID> recipeIds) {
+        super(source);
+        this.recipeIds = Set.copyOf(recipeIds);
+    }
+
+    public Set<UUID> getRecipeIds() {
+        return recipeIds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.lamngo.mealsync.application.event;
+
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Spring event published when recipes are created, deleted or change a counted value, with the facet
+ * values that were added and removed. Keeps the browsing counts of every node current without
+ * counting in the database (see RecipeFacetIndex); relayed by the {@link ClusterEventRelay}.
+ */
+public class RecipeFacetsChangedEvent extends ApplicationEvent {
+    private final List<RecipeFacets> added;
+    private final List<RecipeFacets> removed;
+
+    public RecipeFacetsChangedEvent(Object source, List<RecipeFacets> added, List<RecipeFacets> removed) {
+        super(source);
+        this.added = List.copyOf(added);
+        this.removed = List.copyOf(removed);
+    }
+
+    public List<RecipeFacets> getAdded() {
+        return added;
+    }
+
+    public List<RecipeFacets> getRemoved() {
+        return removed;
+    }
+}
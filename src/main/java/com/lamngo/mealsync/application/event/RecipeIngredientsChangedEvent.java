@@ -0,0 +1,24 @@
+package com.lamngo.mealsync.application.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Spring event published when recipes are created, saved or deleted, so the in-memory ingredient
+ * index of this node and, through the {@link ClusterEventRelay}, of the other nodes re-reads their
+ * ingredients. Image updates do not change ingredients and do not publish it.
+ */
+public class RecipeIngredientsChangedEvent extends ApplicationEvent {
+    private final Set<UUID> recipeIds;
+
+    public RecipeIngredientsChangedEvent(Object source, Set<UUID> recipeIds) {
+        super(source);
+        this.recipeIds = Set.copyOf(recipeIds);
+    }
+
+    public Set<UUID> getRecipeIds() {
+        return recipeIds;
+    }
+}
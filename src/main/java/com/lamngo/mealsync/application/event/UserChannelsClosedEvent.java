@@ -0,0 +1,23 @@
+package com.lamngo.mealsync.application.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.UUID;
+
+/**
+ * Spring event published when the last event channel of a user on a node closes, so state kept
+ * only for delivery to that user's channels (image watches) can be dropped. Relayed to every node by
+ * ClusterEventRelay, since the state may be kept on another node than the channel.
+ */
+public class UserChannelsClosedEvent extends ApplicationEvent {
+    private final UUID userId;
+
+    public UserChannelsClosedEvent(Object source, UUID userId) {
+        super(source);
+        this.userId = userId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+}
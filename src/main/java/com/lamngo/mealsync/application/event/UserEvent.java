@@ -0,0 +1,54 @@
+package com.lamngo.mealsync.application.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Spring event addressed to one user, delivered on that user's event channel.
+ * The topic decides which channels receive it; the data is a JSON document sent as is.
+ */
+public class UserEvent extends ApplicationEvent {
+    public static final String TOPIC_IMAGES = "images";
+    public static final String TOPIC_RECIPES = "recipes";
+    public static final String TOPIC_SUBSCRIPTION = "subscription";
+
+    private final UUID userId;
+    private final String topic;
+    private final String name;
+    private final String data;
+
+    public UserEvent(Object source, UUID userId, String topic, String name, String data) {
+        this(source, userId, topic, name, data, System.currentTimeMillis());
+    }
+
+    /**
+     * Recreates an event with its original timestamp, e.g. when it is relayed from another node.
+     */
+    public UserEvent(Object source, UUID userId, String topic, String name, String data, long timestamp) {
+        super(source, Clock.fixed(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC));
+        this.userId = userId;
+        this.topic = topic;
+        this.name = name;
+        this.data = data;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getData() {
+        return data;
+    }
+}
@@ -17,6 +17,7 @@ public interface RecipeIngredientMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "recipe", ignore = true)
+    @Mapping(target = "canonicalIngredientId", ignore = true)
     RecipeIngredient toRecipeIngredient(RecipeIngredientCreateDto recipeIngredientCreateDto);
 
     List<RecipeIngredient> toRecipeIngredientList(List<RecipeIngredientCreateDto> recipeIngredientCreateDtos);
@@ -16,6 +16,9 @@ import java.util.List;
 public interface RecipeMapper {
 
     @Mapping(target = "imageUrl", source = "imageUrl")
+    @Mapping(target = "cardImageUrl", source = "cardImageUrl")
+    @Mapping(target = "thumbnailImageUrl", source = "thumbnailImageUrl")
+    @Mapping(target = "imageBlurHash", source = "imageBlurHash")
     @Mapping(target = "id", source = "id")
     @Mapping(target = "name", source = "name")
     @Mapping(target = "description", source = "description")
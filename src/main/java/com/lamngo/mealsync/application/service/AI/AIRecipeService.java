@@ -134,7 +134,7 @@ public class AIRecipeService {
 
     /**
      * @deprecated Image generation has been moved to RecipeImageService.
-     * Use RecipeImageService.generateImagesForRecipes() instead.
+     * Use RecipeImageService.enqueueImagesForRecipes() instead.
      */
     @Deprecated
     public void addImageToRecipe(RecipeReadDto dto) {
@@ -154,7 +154,7 @@ public class AIRecipeService {
     
     /**
      * @deprecated Image generation has been moved to RecipeImageService.
-     * Use RecipeImageService.generateImagesForRecipes() instead.
+     * Use RecipeImageService.enqueueImagesForRecipes() instead.
      */
     @Deprecated
     public CompletableFuture<Void> addImagesToRecipesBatch(List<RecipeReadDto> recipeDtos) {
@@ -164,7 +164,7 @@ public class AIRecipeService {
     
     /**
      * @deprecated Image generation has been moved to RecipeImageService.
-     * Use RecipeImageService.generateImagesForRecipes() instead.
+     * Use RecipeImageService.enqueueImagesForRecipes() instead.
      */
     @Deprecated
     public CompletableFuture<Void> addImagesToRecipesBatchAsync(List<RecipeReadDto> recipeDtos) {
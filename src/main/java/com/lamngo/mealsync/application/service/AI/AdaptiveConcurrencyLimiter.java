@@ -0,0 +1,193 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AIMD concurrency limiter with a latency guard for calls to an external provider.
+ *
+ * - Success with latency close to the no-load baseline: additive increase (about +1 per limit's worth of calls)
+ * - Success with latency above baseline * tolerance: gentle decrease (provider is queueing)
+ * - Throttled (429/503): multiplicative decrease (halve)
+ *
+ * A limit is decreased at most once per window: only calls granted after the last decrease can cause
+ * the next one. A burst of calls failing together, all started under the old limit, then halves it
+ * once instead of once per call.
+ *
+ * Callers that exceed the limit wait in a FIFO queue without holding a thread.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double THROTTLE_BACKOFF_RATIO = 0.5;
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    // Lets the no-load baseline drift upward slowly so a permanently slower provider is re-learned
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+
+    private final Queue<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private double baselineRttNanos = Double.NaN;
+    // Number of decreases so far; a permit remembers the value it was granted under
+    private long window;
+
+    private final Counter throttledCounter;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double latencyTolerance, MeterRegistry meterRegistry) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTolerance = Math.max(1.0, latencyTolerance);
+
+        Gauge.builder("mealsync.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("mealsync.concurrency.in_flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Calls currently holding a permit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("mealsync.concurrency.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .description("Calls waiting for a permit")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("mealsync.concurrency.throttled")
+                .description("Calls rejected by the provider with 429/503")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a permit immediately when below the limit, otherwise once one is released.
+     * Every permit must be released exactly once through one of its on* methods.
+     */
+    public CompletableFuture<Permit> acquire() {
+        CompletableFuture<Permit> waiter;
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit(window));
+            }
+            waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+        }
+        return waiter;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return waiters.size();
+    }
+
+    private void release(long permitWindow, long rttNanos, Outcome outcome) {
+        synchronized (this) {
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> onSample(permitWindow, rttNanos);
+                case THROTTLED -> decrease(permitWindow, THROTTLE_BACKOFF_RATIO);
+                case IGNORED -> { }
+            }
+        }
+        if (outcome == Outcome.THROTTLED) {
+            throttledCounter.increment();
+        }
+        grantWaiters();
+    }
+
+    private void onSample(long permitWindow, long rttNanos) {
+        if (Double.isNaN(baselineRttNanos) || rttNanos < baselineRttNanos) {
+            baselineRttNanos = rttNanos;
+        } else {
+            baselineRttNanos += (rttNanos - baselineRttNanos) * BASELINE_DRIFT;
+        }
+
+        if (rttNanos > baselineRttNanos * latencyTolerance) {
+            decrease(permitWindow, LATENCY_BACKOFF_RATIO);
+        } else if (inFlight + 1 >= (int) limit / 2) {
+            // Only grow when the current limit is actually being used
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private void decrease(long permitWindow, double ratio) {
+        // Started under a limit that was already decreased since
+        if (permitWindow != window) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * ratio);
+        window++;
+    }
+
+    private void grantWaiters() {
+        while (true) {
+            CompletableFuture<Permit> next;
+            Permit permit;
+            synchronized (this) {
+                if (waiters.isEmpty() || inFlight >= (int) limit) {
+                    return;
+                }
+                next = waiters.poll();
+                inFlight++;
+                permit = new Permit(window);
+            }
+            // Completed outside the lock - dependent stages start the call on this thread
+            next.complete(permit);
+        }
+    }
+
+    private enum Outcome { SUCCESS, THROTTLED, IGNORED }
+
+    /**
+     * Slot held for the duration of one call. Latency is measured from when the permit was granted.
+     */
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final long window;
+        private boolean released;
+
+        private Permit(long window) {
+            this.window = window;
+        }
+
+        /** Call succeeded; its latency feeds the limit. */
+        public void onSuccess() {
+            releaseOnce(Outcome.SUCCESS);
+        }
+
+        /** Provider signalled overload (429/503); the limit is cut sharply, once per window. */
+        public void onThrottled() {
+            releaseOnce(Outcome.THROTTLED);
+        }
+
+        /** Call failed for a reason unrelated to load; the limit is left unchanged. */
+        public void onIgnore() {
+            releaseOnce(Outcome.IGNORED);
+        }
+
+        private void releaseOnce(Outcome outcome) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            release(window, System.nanoTime() - startNanos, outcome);
+        }
+    }
+}
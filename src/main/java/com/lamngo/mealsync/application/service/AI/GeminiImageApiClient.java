@@ -1,6 +1,7 @@
 package com.lamngo.mealsync.application.service.AI;
 
 import com.lamngo.mealsync.presentation.error.ImageGeneratorServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -19,6 +21,8 @@ import java.util.concurrent.CompletableFuture;
 /**
  * Low-level API client for Gemini Image Generation API.
  * Handles direct communication with Gemini API and returns base64-encoded images.
+ * Concurrent calls are bounded by an {@link AdaptiveConcurrencyLimiter} that grows while latency
+ * stays stable and backs off sharply when Gemini answers 429/503.
  */
 @Service
 @Slf4j
@@ -37,11 +41,26 @@ public class GeminiImageApiClient {
 
     @Value("${GEMINI_API_BASE_URL:https://generativelanguage.googleapis.com}")
     private String geminiApiBaseUrl;
+
+    @Value("${app.gemini.image.concurrency.initial-limit:4}")
+    private int initialConcurrencyLimit;
+
+    @Value("${app.gemini.image.concurrency.min-limit:1}")
+    private int minConcurrencyLimit;
+
+    @Value("${app.gemini.image.concurrency.max-limit:16}")
+    private int maxConcurrencyLimit;
+
+    @Value("${app.gemini.image.concurrency.latency-tolerance:2.0}")
+    private double latencyTolerance;
     
     private final PromptLoader promptLoader;
+    private final MeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
     
-    public GeminiImageApiClient(PromptLoader promptLoader) {
+    public GeminiImageApiClient(PromptLoader promptLoader, MeterRegistry meterRegistry) {
         this.promptLoader = promptLoader;
+        this.meterRegistry = meterRegistry;
     }
 
     @PostConstruct
@@ -49,12 +68,27 @@ public class GeminiImageApiClient {
         this.baseUrl = geminiApiBaseUrl;
         this.apiKey = geminiApiKey;
         
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter("gemini-image",
+                initialConcurrencyLimit, minConcurrencyLimit, maxConcurrencyLimit, latencyTolerance, meterRegistry);
+
         // Use OkHttp with async API for non-blocking I/O
-        // This is more efficient than blocking calls, especially for parallel requests
+        // This is more efficient than blocking calls, especially for parallel requests.
+        // The dispatcher must not cap below the adaptive limit (OkHttp defaults to 5 per host).
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), maxConcurrencyLimit));
+        dispatcher.setMaxRequestsPerHost(Math.max(1, maxConcurrencyLimit));
         this.httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
                 .build();
     }
 
+    /**
+     * Current adaptive concurrency limit for image generation calls.
+     */
+    public int getConcurrencyLimit() {
+        return concurrencyLimiter.getLimit();
+    }
+
     /**
      * Generate a single image using Gemini 2.5 Flash Image API
      */
@@ -128,12 +162,26 @@ public class GeminiImageApiClient {
 
     /**
      * Generate a single image asynchronously using OkHttp async API
-     * This is more efficient than blocking calls, especially for parallel requests
+     * This is more efficient than blocking calls, especially for parallel requests.
+     * Waits (without holding a thread) for a slot from the adaptive concurrency limiter.
      * 
      * @param prompt The prompt for image generation
      * @return CompletableFuture that completes with base64-encoded image string
      */
     public CompletableFuture<String> callGeminiAPISingleAsync(String prompt) {
+        return concurrencyLimiter.acquire()
+                .thenCompose(permit -> {
+                    try {
+                        return executeImageRequest(prompt, permit);
+                    } catch (RuntimeException e) {
+                        // Request could not be started - hand the slot back
+                        permit.onIgnore();
+                        throw e;
+                    }
+                });
+    }
+
+    private CompletableFuture<String> executeImageRequest(String prompt, AdaptiveConcurrencyLimiter.Permit permit) {
         CompletableFuture<String> future = new CompletableFuture<>();
         
         JSONObject requestBody = new JSONObject();
@@ -171,6 +219,12 @@ public class GeminiImageApiClient {
         httpClient.newCall(request).enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
+                // Timeouts mean Gemini is not keeping up; other I/O errors say nothing about load
+                if (e instanceof InterruptedIOException) {
+                    permit.onThrottled();
+                } else {
+                    permit.onIgnore();
+                }
                 log.error("Gemini API call failed: {}", e.getMessage(), e);
                 future.completeExceptionally(new ImageGeneratorServiceException(
                         "Gemini API call failed: " + e.getMessage(), e));
@@ -178,6 +232,13 @@ public class GeminiImageApiClient {
 
             @Override
             public void onResponse(Call call, Response response) throws IOException {
+                if (response.code() == 429 || response.code() == 503) {
+                    permit.onThrottled();
+                } else if (response.isSuccessful()) {
+                    permit.onSuccess();
+                } else {
+                    permit.onIgnore();
+                }
                 try (ResponseBody responseBodyObj = response.body()) {
                     if (!response.isSuccessful()) {
                         String errorBody = "No error body provided";
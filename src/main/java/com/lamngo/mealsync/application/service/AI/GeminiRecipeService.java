@@ -522,20 +522,8 @@ public class GeminiRecipeService implements IRecipeGenerationService {
             }
         }
 
-        // Initialize lazy-loaded collections before mapping to DTOs
-        // This prevents "could not initialize proxy - no Session" errors
-        for (Recipe recipe : recipes) {
-            if (recipe != null) {
-                // Force initialization of lazy collections
-                if (recipe.getTags() != null) {
-                    recipe.getTags().size(); // Access collection to initialize
-                }
-                if (recipe.getIngredients() != null) {
-                    recipe.getIngredients().size(); // Access collection to initialize
-                }
-            }
-        }
-
+        // Mapped inside the caller's transaction: lazy collections of the reused recipes are loaded
+        // on first access, in batches (hibernate.default_batch_fetch_size), not one recipe at a time
         return recipeMapper.toRecipeReadDtoList(recipes);
     }
 
@@ -0,0 +1,289 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.mapper.recipe.RecipeMapper;
+import com.lamngo.mealsync.domain.model.image.ImageJob;
+import com.lamngo.mealsync.domain.model.image.ImageJobStatus;
+import com.lamngo.mealsync.domain.repository.image.IImageJobRepo;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumes the durable image job table.
+ *
+ * Every node polls with SELECT ... FOR UPDATE SKIP LOCKED, so jobs are spread across nodes
+ * without coordination. A job is deleted once its image is stored; failures are retried with
+ * exponential backoff and dead-lettered after max attempts. Jobs left RUNNING by a crashed
+ * node are released after the lock timeout.
+ */
+@Component
+public class ImageJobWorker {
+    private static final Logger logger = LoggerFactory.getLogger(ImageJobWorker.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final IImageJobRepo imageJobRepo;
+    private final IRecipeRepo recipeRepo;
+    private final RecipeMapper recipeMapper;
+    private final RecipeImageService recipeImageService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long lockTimeoutMs;
+    private final String workerId;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong pendingJobs = new AtomicLong();
+    private final AtomicLong deadJobs = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+    private final Counter succeededCounter;
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+
+    public ImageJobWorker(
+            IImageJobRepo imageJobRepo,
+            IRecipeRepo recipeRepo,
+            RecipeMapper recipeMapper,
+            RecipeImageService recipeImageService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.images.jobs.enabled:true}") boolean enabled,
+            @Value("${app.images.jobs.max-in-flight:16}") int maxInFlight,
+            @Value("${app.images.jobs.max-attempts:5}") int maxAttempts,
+            @Value("${app.images.jobs.initial-backoff-ms:5000}") long initialBackoffMs,
+            @Value("${app.images.jobs.max-backoff-ms:600000}") long maxBackoffMs,
+            @Value("${app.images.jobs.lock-timeout-ms:300000}") long lockTimeoutMs) {
+        this.imageJobRepo = imageJobRepo;
+        this.recipeRepo = recipeRepo;
+        this.recipeMapper = recipeMapper;
+        this.recipeImageService = recipeImageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.workerId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        this.succeededCounter = Counter.builder("mealsync.image_jobs.completed")
+                .description("Image jobs finished by this node")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("mealsync.image_jobs.completed")
+                .description("Image jobs finished by this node")
+                .tag("outcome", "retry")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("mealsync.image_jobs.completed")
+                .description("Image jobs finished by this node")
+                .tag("outcome", "dead")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.image_jobs.pending", pendingJobs, AtomicLong::get)
+                .description("Image jobs waiting for a worker (cluster-wide)")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.image_jobs.dead", deadJobs, AtomicLong::get)
+                .description("Dead-lettered image jobs (cluster-wide)")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.image_jobs.oldest_pending_age_seconds", oldestPendingAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending image job")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.image_jobs.in_flight", inFlight, AtomicInteger::get)
+                .description("Image jobs currently being processed by this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims as many due jobs as there are free slots and starts them.
+     * Slots follow the adaptive Gemini concurrency limit, so jobs this node cannot start yet
+     * stay in the table for other nodes instead of waiting in memory.
+     * Generation is asynchronous, so the scheduler thread is released right away.
+     */
+    @Scheduled(fixedDelayString = "${app.images.jobs.poll-interval-ms:1000}")
+    public void pollJobs() {
+        if (!enabled) {
+            return;
+        }
+        int capacity = Math.min(maxInFlight, recipeImageService.getGenerationConcurrencyLimit()) - inFlight.get();
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<ImageJob> jobs;
+        try {
+            jobs = transactionTemplate.execute(status -> imageJobRepo.claimDueJobs(capacity, workerId, Instant.now()));
+        } catch (Exception e) {
+            logger.error("Failed to claim image jobs: {}", e.getMessage(), e);
+            return;
+        }
+        if (jobs == null || jobs.isEmpty()) {
+            return;
+        }
+
+        logger.debug("Worker {} claimed {} image jobs", workerId, jobs.size());
+        for (ImageJob job : jobs) {
+            try {
+                processJob(job);
+            } catch (Exception e) {
+                // Job stays RUNNING and is released by maintainQueue after the lock timeout
+                logger.error("Failed to process image job {}: {}", job.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Releases jobs held by crashed workers and refreshes the queue depth/age gauges.
+     */
+    @Scheduled(fixedDelayString = "${app.images.jobs.maintenance-interval-ms:30000}")
+    public void maintainQueue() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int released = imageJobRepo.releaseStaleJobs(Instant.now().minusMillis(lockTimeoutMs));
+            if (released > 0) {
+                logger.warn("Released {} image jobs whose worker stopped responding", released);
+            }
+
+            pendingJobs.set(imageJobRepo.countByStatus(ImageJobStatus.PENDING));
+            deadJobs.set(imageJobRepo.countByStatus(ImageJobStatus.DEAD));
+            oldestPendingAgeSeconds.set(imageJobRepo.findOldestCreatedAt(ImageJobStatus.PENDING)
+                    .map(createdAt -> Duration.between(createdAt, Instant.now()).toSeconds())
+                    .orElse(0L));
+        } catch (Exception e) {
+            logger.error("Image job maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void processJob(ImageJob job) {
+        Optional<RecipeReadDto> recipe;
+        try {
+            // Map inside a transaction - ingredients are lazily loaded
+            recipe = transactionTemplate.execute(status ->
+                    recipeRepo.getRecipeById(job.getRecipeId()).map(recipeMapper::toRecipeReadDto));
+        } catch (Exception e) {
+            handleFailure(job, null, e);
+            return;
+        }
+
+        if (recipe == null || recipe.isEmpty()) {
+            logger.info("Recipe {} no longer exists, dropping image job {}", job.getRecipeId(), job.getId());
+            dropJob(job);
+            return;
+        }
+        RecipeReadDto dto = recipe.get();
+        if (dto.getImageUrl() != null && !dto.getImageUrl().isEmpty()) {
+            dropJob(job);
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        CompletableFuture<Void> generation;
+        try {
+            generation = recipeImageService.generateImage(dto);
+        } catch (Exception e) {
+            generation = CompletableFuture.failedFuture(e);
+        }
+        generation.whenComplete((result, throwable) -> {
+            inFlight.decrementAndGet();
+            if (throwable == null) {
+                completeJob(job);
+            } else {
+                handleFailure(job, dto, throwable);
+            }
+        });
+    }
+
+    private void completeJob(ImageJob job) {
+        try {
+            imageJobRepo.deleteById(job.getId());
+            succeededCounter.increment();
+        } catch (Exception e) {
+            // The image is stored; at worst the job runs again and reuses it
+            logger.warn("Failed to delete finished image job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes a job that has nothing left to do.
+     */
+    private void dropJob(ImageJob job) {
+        try {
+            imageJobRepo.deleteById(job.getId());
+        } catch (Exception e) {
+            // Released by maintainQueue after the lock timeout and dropped again on the next claim
+            logger.warn("Failed to delete image job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void handleFailure(ImageJob job, RecipeReadDto dto, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        String error = truncate(cause.getClass().getSimpleName() + ": " + cause.getMessage());
+        try {
+            if (job.getAttempts() >= maxAttempts) {
+                logger.error("Image job {} for recipe {} failed {} times, moving to dead letter: {}",
+                        job.getId(), job.getRecipeId(), job.getAttempts(), error);
+                imageJobRepo.markDead(job.getId(), error, Instant.now());
+                deadLetteredCounter.increment();
+                if (dto != null) {
+                    recipeImageService.publishImageFailure(dto, "Image generation failed: " + cause.getMessage());
+                }
+                return;
+            }
+
+            long delayMs = backoffMillis(job.getAttempts());
+            logger.warn("Image job {} for recipe {} failed (attempt {}/{}), retrying in {} ms: {}",
+                    job.getId(), job.getRecipeId(), job.getAttempts(), maxAttempts, delayMs, error);
+            imageJobRepo.markForRetry(job.getId(), error, Instant.now().plusMillis(delayMs));
+            retriedCounter.increment();
+        } catch (Exception e) {
+            // Job stays RUNNING and is released by maintainQueue after the lock timeout
+            logger.error("Failed to record failure of image job {}: {}", job.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: random delay in [base/2, base], base = initial * 2^(attempt-1).
+     */
+    long backoffMillis(int attempt) {
+        long base = initialBackoffMs << Math.min(Math.max(attempt - 1, 0), 20);
+        base = Math.min(base, maxBackoffMs);
+        return base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+
+    private String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Transcodes generated recipe images into compact JPEG renditions (see {@link ImageVariant})
+ * and a BlurHash placeholder clients can show while the image loads.
+ * Work runs on the bounded imageTranscodeExecutor so CPU-heavy encoding never runs on
+ * OkHttp or S3 callback threads.
+ */
+@Component
+public class ImageTranscoder {
+    private static final Logger logger = LoggerFactory.getLogger(ImageTranscoder.class);
+    // Placeholder is computed from a tiny copy; 4x3 components fit the landscape food shots
+    private static final int PLACEHOLDER_SOURCE_DIMENSION = 32;
+    private static final int PLACEHOLDER_COMPONENTS_X = 4;
+    private static final int PLACEHOLDER_COMPONENTS_Y = 3;
+
+    private final Executor transcodeExecutor;
+
+    public ImageTranscoder(@Qualifier("imageTranscodeExecutor") Executor transcodeExecutor) {
+        this.transcodeExecutor = transcodeExecutor;
+    }
+
+    /**
+     * Transcodes the image on the transcode pool.
+     * Completes exceptionally when the pool is saturated or the image cannot be decoded,
+     * so callers can fall back to storing the original bytes.
+     */
+    public CompletableFuture<TranscodedImage> transcodeAsync(byte[] sourceBytes) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return transcode(sourceBytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, transcodeExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image transcode pool is saturated, skipping variants");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Decodes the image once and encodes every variant, downscaling from the previous
+     * (larger) rendition so each step only halves the work of the one before.
+     * The placeholder is derived from the thumbnail bitmap.
+     */
+    public TranscodedImage transcode(byte[] sourceBytes) throws IOException {
+        long startNs = System.nanoTime();
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(sourceBytes));
+        if (source == null) {
+            throw new IOException("Unsupported image format");
+        }
+
+        Map<ImageVariant, byte[]> variants = new EnumMap<>(ImageVariant.class);
+        BufferedImage current = toRgb(source);
+        for (ImageVariant variant : new ImageVariant[]{ImageVariant.FULL, ImageVariant.CARD, ImageVariant.THUMB}) {
+            current = scaleToFit(current, variant.getMaxDimension());
+            variants.put(variant, encodeJpeg(current, variant.getJpegQuality()));
+        }
+        String blurHash = BlurHash.encode(scaleToFit(current, PLACEHOLDER_SOURCE_DIMENSION),
+                PLACEHOLDER_COMPONENTS_X, PLACEHOLDER_COMPONENTS_Y);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Transcoded {}x{} image ({} bytes) into variants full={} card={} thumb={} bytes in {} ms, blurHash={}",
+                    source.getWidth(), source.getHeight(), sourceBytes.length,
+                    variants.get(ImageVariant.FULL).length, variants.get(ImageVariant.CARD).length,
+                    variants.get(ImageVariant.THUMB).length, (System.nanoTime() - startNs) / 1_000_000, blurHash);
+        }
+        return new TranscodedImage(variants, blurHash);
+    }
+
+    /**
+     * JPEG has no alpha channel, so transparent pixels are flattened onto white.
+     */
+    private BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, source.getWidth(), source.getHeight());
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Downscales in halving steps with bilinear interpolation, which avoids the aliasing of a
+     * single large bilinear step at a fraction of the cost of bicubic area averaging.
+     */
+    private BufferedImage scaleToFit(BufferedImage image, int maxDimension) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int longest = Math.max(width, height);
+        if (longest <= maxDimension) {
+            return image;
+        }
+
+        double scale = (double) maxDimension / longest;
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG encoder available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,33 @@
+package com.lamngo.mealsync.application.service.AI;
+
+/**
+ * Renditions produced for every generated recipe image.
+ * List screens fetch THUMB, cards fetch CARD, and the detail screen fetches FULL.
+ */
+public enum ImageVariant {
+    THUMB("thumb", 240, 0.75f),
+    CARD("card", 640, 0.80f),
+    FULL("full", 1280, 0.85f);
+
+    private final String suffix;
+    private final int maxDimension;
+    private final float jpegQuality;
+
+    ImageVariant(String suffix, int maxDimension, float jpegQuality) {
+        this.suffix = suffix;
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public float getJpegQuality() {
+        return jpegQuality;
+    }
+}
@@ -0,0 +1,147 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.domain.model.image.StoredImage;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.repository.image.IStoredImageRepo;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Finds images that can be attached to a recipe without calling Gemini.
+ *
+ * Two indexes are consulted:
+ * - recipes that share the ingredient key or have a very similar name (pg_trgm) and already have an image
+ * - content hashes of uploaded image bytes, so identical bytes are only stored once in S3
+ *
+ * Lookups never fail the caller; on any error the pipeline simply generates/uploads as usual.
+ */
+@Service
+public class RecipeImageReuseService {
+    private static final Logger logger = LoggerFactory.getLogger(RecipeImageReuseService.class);
+
+    private final IRecipeRepo recipeRepo;
+    private final IStoredImageRepo storedImageRepo;
+    private final boolean reuseEnabled;
+    private final double nameSimilarityThreshold;
+    private final long orphanGraceMs;
+
+    public RecipeImageReuseService(
+            IRecipeRepo recipeRepo,
+            IStoredImageRepo storedImageRepo,
+            @Value("${app.images.reuse.enabled:true}") boolean reuseEnabled,
+            @Value("${app.images.reuse.name-similarity-threshold:0.85}") double nameSimilarityThreshold,
+            @Value("${app.images.reuse.orphan-grace-ms:3600000}") long orphanGraceMs) {
+        this.recipeRepo = recipeRepo;
+        this.storedImageRepo = storedImageRepo;
+        this.reuseEnabled = reuseEnabled;
+        this.nameSimilarityThreshold = nameSimilarityThreshold;
+        this.orphanGraceMs = orphanGraceMs;
+    }
+
+    /**
+     * Looks for an already illustrated recipe equivalent to the given one.
+     * Exact ingredient key matches are checked first, then name similarity.
+     *
+     * @param dto Recipe that needs an image
+     * @return Image URLs of the equivalent recipe, if any
+     */
+    public Optional<RecipeImageUrls> findReusableImage(RecipeReadDto dto) {
+        if (!reuseEnabled || dto == null || dto.getId() == null) {
+            return Optional.empty();
+        }
+        try {
+            Optional<Recipe> donor = recipeRepo.findRecipeWithImageByIngredientKey(dto.getIngredientKey(), dto.getId());
+            if (donor.isEmpty()) {
+                donor = recipeRepo.findSimilarRecipeWithImage(dto.getName(), dto.getId(), nameSimilarityThreshold);
+            }
+            return donor.map(recipe -> {
+                logger.info("Reusing image of recipe '{}' (ID: {}) for '{}' (ID: {})",
+                        recipe.getName(), recipe.getId(), dto.getName(), dto.getId());
+                return new RecipeImageUrls(recipe.getImageUrl(), recipe.getCardImageUrl(), recipe.getThumbnailImageUrl(),
+                        recipe.getImageBlurHash());
+            });
+        } catch (Exception e) {
+            logger.warn("Image reuse lookup failed for recipe {} (ID: {}): {}", dto.getName(), dto.getId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the URLs of a previously uploaded image with identical bytes.
+     * Entries whose image is no longer referenced by any recipe (deleted from S3) are dropped, but only
+     * once they are older than app.images.reuse.orphan-grace-ms: a fresh entry has no referencing recipe
+     * until the batching writer has stored its URL.
+     */
+    public Optional<RecipeImageUrls> findByContent(String contentHash) {
+        if (!reuseEnabled) {
+            return Optional.empty();
+        }
+        try {
+            Optional<StoredImage> storedImage = storedImageRepo.findByContentHash(contentHash);
+            if (storedImage.isEmpty()) {
+                return Optional.empty();
+            }
+            StoredImage image = storedImage.get();
+            if (isPastGracePeriod(image) && recipeRepo.countRecipesByImageUrl(image.getImageUrl()) == 0) {
+                storedImageRepo.deleteByContentHash(contentHash);
+                return Optional.empty();
+            }
+            logger.debug("Image bytes {} already stored at {}", contentHash, image.getImageUrl());
+            return Optional.of(new RecipeImageUrls(image.getImageUrl(), image.getCardImageUrl(),
+                    image.getThumbnailImageUrl(), image.getBlurHash()));
+        } catch (Exception e) {
+            logger.warn("Content hash lookup failed for {}: {}", contentHash, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private boolean isPastGracePeriod(StoredImage image) {
+        // Recorded before created_at was set
+        if (image.getCreatedAt() == null) {
+            return true;
+        }
+        return image.getCreatedAt().plusMillis(orphanGraceMs).isBefore(Instant.now());
+    }
+
+    /**
+     * Records the storage location of freshly uploaded bytes.
+     */
+    public void recordContent(String contentHash, RecipeImageUrls imageUrls) {
+        if (!reuseEnabled || imageUrls == null || imageUrls.getImageUrl() == null) {
+            return;
+        }
+        try {
+            StoredImage storedImage = new StoredImage();
+            storedImage.setContentHash(contentHash);
+            storedImage.setImageUrl(imageUrls.getImageUrl());
+            storedImage.setCardImageUrl(imageUrls.getCardImageUrl());
+            storedImage.setThumbnailImageUrl(imageUrls.getThumbnailImageUrl());
+            storedImage.setBlurHash(imageUrls.getBlurHash());
+            storedImageRepo.save(storedImage);
+        } catch (Exception e) {
+            // Losing an index entry only costs a duplicate upload later
+            logger.warn("Could not record content hash {}: {}", contentHash, e.getMessage());
+        }
+    }
+
+    /**
+     * SHA-256 of the image bytes as lowercase hex.
+     */
+    public String contentHash(byte[] imageBytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(imageBytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,24 +2,35 @@ package com.lamngo.mealsync.application.service.AI;
 
 import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
 import com.lamngo.mealsync.application.event.ImageGeneratedEvent;
-import com.lamngo.mealsync.application.service.AWS.S3Service;
+import com.lamngo.mealsync.application.service.storage.ImageStorage;
+import com.lamngo.mealsync.domain.model.image.ImageJob;
+import com.lamngo.mealsync.domain.model.image.ImageJobStatus;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.repository.image.IImageJobRepo;
 import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import com.lamngo.mealsync.presentation.error.ImageGeneratorServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Service responsible for generating and managing recipe images.
- * Orchestrates the complete workflow: API call → S3 upload → DB update → Event publishing.
+ * Orchestrates the complete workflow: job queue → API call → transcode variants → S3 upload → DB update → Event publishing.
  * Extracted from AIRecipeService to follow Single Responsibility Principle.
  */
 @Service
@@ -28,100 +39,226 @@ public class RecipeImageService {
     
     private final IRecipeRepo recipeRepo;
     private final GeminiImageApiClient geminiImageApiClient;
-    private final S3Service s3Service;
+    private final ImageStorage imageStorage;
+    private final ImageTranscoder imageTranscoder;
+    private final RecipeImageReuseService imageReuseService;
+    private final IImageJobRepo imageJobRepo;
     private final ApplicationEventPublisher eventPublisher;
     private final PromptLoader promptLoader;
+    private final RecipeImageUrlWriter imageUrlWriter;
     private final TransactionTemplate transactionTemplate;
+    private final Executor backgroundExecutor;
+    private final long inFlightTtlMs;
+    private final long deadRetryAfterMs;
+    
+    // Recipes queued by this node whose image event has not been seen yet. Lets repeated on-demand
+    // requests (detail fetches, several viewers of the same recipe) skip the database entirely.
+    private final Map<UUID, Long> inFlightRecipes = new ConcurrentHashMap<>();
     
     public RecipeImageService(
             IRecipeRepo recipeRepo,
             GeminiImageApiClient geminiImageApiClient,
-            S3Service s3Service,
+            ImageStorage imageStorage,
+            ImageTranscoder imageTranscoder,
+            RecipeImageReuseService imageReuseService,
+            IImageJobRepo imageJobRepo,
             ApplicationEventPublisher eventPublisher,
             PromptLoader promptLoader,
-            PlatformTransactionManager transactionManager) {
+            PlatformTransactionManager transactionManager,
+            RecipeImageUrlWriter imageUrlWriter,
+            @Qualifier("imageBackgroundExecutor") Executor backgroundExecutor,
+            @Value("${app.images.in-flight-ttl-ms:600000}") long inFlightTtlMs,
+            @Value("${app.images.jobs.dead-retry-after-ms:86400000}") long deadRetryAfterMs) {
         this.recipeRepo = recipeRepo;
         this.geminiImageApiClient = geminiImageApiClient;
-        this.s3Service = s3Service;
+        this.imageStorage = imageStorage;
+        this.imageTranscoder = imageTranscoder;
+        this.imageReuseService = imageReuseService;
+        this.imageJobRepo = imageJobRepo;
         this.eventPublisher = eventPublisher;
         this.promptLoader = promptLoader;
         // Create TransactionTemplate for programmatic transaction management
         // This allows us to scope transactions to only DB operations, not S3 uploads
         this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.imageUrlWriter = imageUrlWriter;
+        this.backgroundExecutor = backgroundExecutor;
+        this.inFlightTtlMs = inFlightTtlMs;
+        this.deadRetryAfterMs = deadRetryAfterMs;
     }
     
     /**
-     * Generates images for multiple recipes asynchronously.
-     * Processes images as they complete (not waiting for all) for better streaming UX.
-     * Publishes ImageGeneratedEvent immediately when each image is ready.
+     * Queues image generation for recipes that do not have an image yet.
+     * Recipes equivalent to an already illustrated one get that image through the batching writer, without waiting for it;
+     * the rest are written to the durable image job table and picked up by {@link ImageJobWorker}.
+     * An ImageGeneratedEvent is published for every recipe once its image is stored
+     * (or its job is dead-lettered).
      * 
      * @param recipeDtos List of recipes to generate images for
-     * @return CompletableFuture that completes when all images are generated
      */
-    @Async("taskExecutor")
-    public CompletableFuture<Void> generateImagesForRecipes(List<RecipeReadDto> recipeDtos) {
-        try {
-            if (recipeDtos == null || recipeDtos.isEmpty()) {
-                logger.debug("No recipes to generate images for");
-                return CompletableFuture.completedFuture(null);
-            }
+    public void enqueueImagesForRecipes(List<RecipeReadDto> recipeDtos) {
+        if (recipeDtos == null || recipeDtos.isEmpty()) {
+            logger.debug("No recipes to generate images for");
+            return;
+        }
+
+        // Filter recipes that need images and are not already being generated
+        List<RecipeReadDto> recipesNeedingImages = recipeDtos.stream()
+                .filter(dto -> dto != null && dto.getId() != null 
+                        && (dto.getImageUrl() == null || dto.getImageUrl().isEmpty()))
+                .filter(dto -> !isInFlight(dto.getId()))
+                .toList();
+
+        if (recipesNeedingImages.isEmpty()) {
+            logger.debug("All recipes already have images");
+            return;
+        }
 
-            // Filter recipes that need images
-            List<RecipeReadDto> recipesNeedingImages = recipeDtos.stream()
-                    .filter(dto -> dto != null && dto.getId() != null 
-                            && (dto.getImageUrl() == null || dto.getImageUrl().isEmpty()))
-                    .toList();
+        // DTOs may be stale: the image can have been stored since they were read
+        Map<UUID, Recipe> currentRecipes = new HashMap<>();
+        for (Recipe recipe : recipeRepo.getRecipesByIds(recipesNeedingImages.stream().map(RecipeReadDto::getId).toList())) {
+            currentRecipes.put(recipe.getId(), recipe);
+        }
 
-            if (recipesNeedingImages.isEmpty()) {
-                logger.debug("All recipes already have images");
-                return CompletableFuture.completedFuture(null);
+        int queued = 0;
+        for (RecipeReadDto dto : recipesNeedingImages) {
+            Recipe current = currentRecipes.get(dto.getId());
+            if (current == null) {
+                logger.warn("Recipe not found, skipping image generation: {} (ID: {})", dto.getName(), dto.getId());
+                continue;
+            }
+            if (current.getImageUrl() != null && !current.getImageUrl().isEmpty()) {
+                eventPublisher.publishEvent(new ImageGeneratedEvent(
+                        this, dto.getId(), dto.getName(), current.getImageUrl(),
+                        current.getCardImageUrl(), current.getThumbnailImageUrl(), current.getImageBlurHash(),
+                        true, null));
+                continue;
             }
 
-            logger.info("Generating {} images asynchronously in parallel using Gemini 2.5 Flash Image", 
-                    recipesNeedingImages.size());
-
-            // Create individual futures for each recipe - process as they complete
-            List<CompletableFuture<Void>> imageFutures = new ArrayList<>();
-            
-            for (RecipeReadDto dto : recipesNeedingImages) {
-                CompletableFuture<Void> imageFuture = generateImageForRecipe(dto)
-                        .thenAccept(result -> {
-                            // Image processed and event published
-                            logger.debug("Image processing completed for recipe: {}", dto.getName());
-                        })
-                        .exceptionally(throwable -> {
-                            logger.error("Failed to process image for recipe {}: {}", 
-                                    dto.getName(), throwable.getMessage(), throwable);
-                            return null;
-                        });
-                
-                imageFutures.add(imageFuture);
+            // Equivalent recipe already illustrated - attach its image instead of calling Gemini
+            Optional<RecipeImageUrls> reusableImage = imageReuseService.findReusableImage(dto);
+            if (reusableImage.isPresent()) {
+                // In flight until the writer's event arrives; the caller does not wait for the write
+                inFlightRecipes.put(dto.getId(), System.currentTimeMillis());
+                saveImageUrlAndPublish(dto, reusableImage.get()).whenComplete((ignored, throwable) -> {
+                    if (throwable != null) {
+                        enqueueAfterFailedReuse(dto, throwable);
+                    }
+                });
+                continue;
             }
 
-            // Wait for all to complete (but they're processed individually as they finish)
-            return CompletableFuture.allOf(imageFutures.toArray(new CompletableFuture[0]))
-                    .thenRun(() -> {
-                        long successCount = imageFutures.stream()
-                                .filter(f -> !f.isCompletedExceptionally())
-                                .count();
-                        logger.info("All image generation completed: {} successful out of {} total recipes", 
-                                successCount, recipesNeedingImages.size());
-                    });
-        } catch (Exception e) {
-            logger.error("Failed to generate images for recipes: {}", e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
+            enqueueJob(dto.getId());
+            inFlightRecipes.put(dto.getId(), System.currentTimeMillis());
+            queued++;
+        }
+
+        logger.info("Queued {} image generation jobs ({} recipes requested)", queued, recipesNeedingImages.size());
+    }
+
+    /**
+     * Whether image generation for the recipe has given up for now: its job is dead-lettered and is not
+     * revived before app.images.jobs.dead-retry-after-ms, so queueing the recipe again does nothing.
+     */
+    public boolean hasGivenUp(UUID recipeId) {
+        return imageJobRepo.findByRecipeId(recipeId)
+                .filter(job -> job.getStatus() == ImageJobStatus.DEAD && !isDueForRetry(job))
+                .isPresent();
+    }
+
+    private boolean isDueForRetry(ImageJob deadJob) {
+        // Dead-lettered before dead_at was recorded
+        if (deadJob.getDeadAt() == null) {
+            return true;
+        }
+        return deadJob.getDeadAt().plusMillis(deadRetryAfterMs).isBefore(Instant.now());
+    }
+
+    private boolean isInFlight(UUID recipeId) {
+        Long queuedAt = inFlightRecipes.get(recipeId);
+        if (queuedAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - queuedAt > inFlightTtlMs) {
+            // Event lost (e.g. job finished on another node) - check the database again
+            inFlightRecipes.remove(recipeId, queuedAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Clears the in-flight marker once the recipe's image is stored or its job gave up.
+     */
+    @EventListener
+    public void onImageGenerated(ImageGeneratedEvent event) {
+        if (event.getRecipeId() != null) {
+            inFlightRecipes.remove(event.getRecipeId());
+        }
+    }
+
+    /**
+     * Queues generation for a recipe whose reused image could not be stored. Called on the thread that
+     * completed the write, so the job insert goes to the background pool; if that is full the in-flight
+     * marker is dropped and the next request for the recipe tries again.
+     */
+    private void enqueueAfterFailedReuse(RecipeReadDto dto, Throwable failure) {
+        logger.warn("Could not attach reused image to recipe {} (ID: {}), generating a new one: {}",
+                dto.getName(), dto.getId(), failure.getMessage());
+        try {
+            backgroundExecutor.execute(() -> {
+                try {
+                    enqueueJob(dto.getId());
+                } catch (Exception e) {
+                    logger.error("Failed to queue image job for recipe {}: {}", dto.getId(), e.getMessage(), e);
+                    inFlightRecipes.remove(dto.getId());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image background pool is full, not queueing image job for recipe {}", dto.getId());
+            inFlightRecipes.remove(dto.getId());
+        }
+    }
+
+    /**
+     * Inserts a job for the recipe unless one is already queued or running.
+     * A dead-lettered job is only revived once app.images.jobs.dead-retry-after-ms has passed since it
+     * was dead-lettered, and then for a single attempt: its attempt count and last error are kept, so
+     * reads of a recipe whose image keeps failing cost at most one Gemini call per period.
+     */
+    private void enqueueJob(UUID recipeId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Optional<ImageJob> existing = imageJobRepo.findByRecipeId(recipeId);
+                if (existing.isPresent()) {
+                    ImageJob job = existing.get();
+                    if (job.getStatus() == ImageJobStatus.DEAD && isDueForRetry(job)) {
+                        job.setStatus(ImageJobStatus.PENDING);
+                        job.setDeadAt(null);
+                        job.setNextAttemptAt(Instant.now());
+                        imageJobRepo.save(job);
+                    }
+                    return;
+                }
+                ImageJob job = new ImageJob();
+                job.setRecipeId(recipeId);
+                imageJobRepo.save(job);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Unique recipe_id: another request or node queued it concurrently
+            logger.debug("Image job for recipe {} was queued concurrently", recipeId);
         }
     }
 
     /**
-     * Generates and processes a single recipe image.
-     * Processes immediately when ready: uploads to S3, updates DB, publishes event.
+     * Generates, stores and publishes the image for a single recipe.
+     * Called by {@link ImageJobWorker} for each claimed job.
      * 
      * @param dto Recipe to generate image for
-     * @return CompletableFuture that completes when image is processed
+     * @return CompletableFuture that completes when the image is stored, or exceptionally when
+     *         generation or storage failed (the worker decides whether to retry)
      */
-    private CompletableFuture<Void> generateImageForRecipe(RecipeReadDto dto) {
+    public CompletableFuture<Void> generateImage(RecipeReadDto dto) {
         // Prepare image generation request
         List<String> ingredientNames = dto.getIngredients() != null ?
                 dto.getIngredients().stream().map(i -> i.getName()).toList() :
@@ -130,87 +267,158 @@ public class RecipeImageService {
         
         String prompt = buildImagePrompt(dto.getName(), ingredientNames, description);
         
-        // Generate image asynchronously (this is the parallel part)
         return geminiImageApiClient.callGeminiAPISingleAsync(prompt)
                 .thenCompose(base64 -> {
                     if (base64 == null || base64.isEmpty()) {
                         logger.warn("No image generated for recipe: {} (recipe ID: {})", dto.getName(), dto.getId());
-                        eventPublisher.publishEvent(new ImageGeneratedEvent(
-                                this, dto.getId(), dto.getName(), null, false, "No image generated"));
-                        return CompletableFuture.completedFuture(null);
+                        return CompletableFuture.failedFuture(new ImageGeneratorServiceException("No image generated"));
                     }
                     
                     // Process image: decode, upload to S3, update DB, publish event
                     return processImageForRecipe(dto, base64);
-                })
-                .exceptionally(throwable -> {
-                    logger.error("Failed to generate image for recipe {} (ID: {}): {}", 
-                            dto.getName(), dto.getId(), throwable.getMessage(), throwable);
-                    eventPublisher.publishEvent(new ImageGeneratedEvent(
-                            this, dto.getId(), dto.getName(), null, false, 
-                            "Image generation failed: " + throwable.getMessage()));
-                    return null;
                 });
     }
 
     /**
-     * Processes a generated image: uploads to S3, updates database, publishes event.
-     * Uses TransactionTemplate to scope transactions to only DB operations, not S3 uploads.
-     * This prevents connection pool exhaustion when processing multiple images in parallel.
+     * Number of image generations that can currently run in parallel (adaptive Gemini limit).
+     */
+    public int getGenerationConcurrencyLimit() {
+        return geminiImageApiClient.getConcurrencyLimit();
+    }
+
+    /**
+     * Publishes the failure event for a recipe whose image could not be generated.
+     */
+    public void publishImageFailure(RecipeReadDto dto, String errorMessage) {
+        eventPublisher.publishEvent(new ImageGeneratedEvent(
+                this, dto.getId(), dto.getName(), null, false, errorMessage));
+    }
+
+    /**
+     * Processes a generated image: transcodes variants, uploads to S3, updates database, publishes event.
+     * Transcoding runs on the bounded transcode pool and the S3 uploads are non-blocking, so the
+     * OkHttp callback thread that delivered the image is released immediately.
+     * The URLs are stored by {@link RecipeImageUrlWriter}, which batches concurrent images into one
+     * UPDATE, so an image burst does not check out a connection per image.
      */
     private CompletableFuture<Void> processImageForRecipe(RecipeReadDto dto, String base64) {
+        byte[] imageBytes;
         try {
-            // Step 1: Decode and upload to S3 (OUTSIDE transaction - no DB connection needed)
-            byte[] imageBytes = Base64.getDecoder().decode(base64);
-            String imageUrl = s3Service.uploadImage(imageBytes, dto.getName());
+            imageBytes = Base64.getDecoder().decode(base64);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid base64 data for recipe {} (ID: {}): {}", 
+                    dto.getName(), dto.getId(), e.getMessage());
+            return CompletableFuture.failedFuture(new ImageGeneratorServiceException("Invalid image data", e));
+        }
 
-            if (imageUrl == null || imageUrl.isEmpty()) {
-                logger.error("S3 service returned empty imageUrl for recipe: {} (ID: {})", 
-                        dto.getName(), dto.getId());
-                eventPublisher.publishEvent(new ImageGeneratedEvent(
-                        this, dto.getId(), dto.getName(), null, false, "S3 upload failed"));
-                return CompletableFuture.completedFuture(null);
-            }
+        // Step 1: Transcode and upload to S3 asynchronously (OUTSIDE transaction - no DB connection needed)
+        // Step 2: Batched UPDATE, then success event once the batch has committed
+        return storeImage(dto, imageBytes)
+                .thenCompose(imageUrls -> saveImageUrlAndPublish(dto, imageUrls));
+    }
 
-            // Step 2: Update database (INSIDE transaction - connection held only for DB ops)
-            // Use TransactionTemplate to scope transaction to only DB operations
-            transactionTemplate.executeWithoutResult(status -> {
-                Optional<Recipe> recipeOpt = recipeRepo.getRecipeById(dto.getId());
-                if (recipeOpt.isEmpty()) {
-                    logger.error("Recipe not found in database for ID: {} (name: {})", 
-                            dto.getId(), dto.getName());
-                    eventPublisher.publishEvent(new ImageGeneratedEvent(
-                            this, dto.getId(), dto.getName(), null, false, "Recipe not found"));
-                    return;
-                }
+    /**
+     * Uploads the thumb/card/full JPEG variants of the image, unless identical bytes were stored before.
+     * Falls back to uploading the original PNG when transcoding is unavailable
+     * (transcode pool saturated or undecodable image).
+     */
+    private CompletableFuture<RecipeImageUrls> storeImage(RecipeReadDto dto, byte[] imageBytes) {
+        String contentHash = imageReuseService.contentHash(imageBytes);
+        Optional<RecipeImageUrls> storedImage = imageReuseService.findByContent(contentHash);
+        if (storedImage.isPresent()) {
+            logger.info("Identical image already stored, skipping upload for recipe {} (ID: {})",
+                    dto.getName(), dto.getId());
+            return CompletableFuture.completedFuture(storedImage.get());
+        }
 
-                Recipe recipe = recipeOpt.get();
-                recipe.setImageUrl(imageUrl);
-                recipeRepo.saveRecipe(recipe);
-                
-                logger.info("Successfully updated recipe {} (ID: {}) with image URL: {}", 
-                        dto.getName(), dto.getId(), imageUrl);
+        return uploadImage(dto, imageBytes)
+                .thenApply(imageUrls -> {
+                    imageReuseService.recordContent(contentHash, imageUrls);
+                    return imageUrls;
+                });
+    }
+
+    private CompletableFuture<RecipeImageUrls> uploadImage(RecipeReadDto dto, byte[] imageBytes) {
+        return imageTranscoder.transcodeAsync(imageBytes)
+                .thenCompose(this::uploadVariants)
+                .handle((imageUrls, throwable) -> {
+                    if (throwable == null) {
+                        return CompletableFuture.completedFuture(imageUrls);
+                    }
+                    logger.warn("Could not create image variants for recipe {} (ID: {}), storing original: {}",
+                            dto.getName(), dto.getId(), throwable.getMessage());
+                    return imageStorage.uploadImageAsync(imageBytes, dto.getName())
+                            .thenApply(RecipeImageUrls::originalOnly);
+                })
+                .thenCompose(future -> future);
+    }
+
+    private CompletableFuture<RecipeImageUrls> uploadVariants(TranscodedImage transcoded) {
+        Map<ImageVariant, byte[]> variants = transcoded.getVariants();
+        String keyPrefix = "recipes/" + UUID.randomUUID() + "-";
+        Map<String, CompletableFuture<String>> uploadsByKey = new LinkedHashMap<>();
+        Map<ImageVariant, CompletableFuture<String>> uploads = new EnumMap<>(ImageVariant.class);
+        for (Map.Entry<ImageVariant, byte[]> variant : variants.entrySet()) {
+            String key = keyPrefix + variant.getKey().getSuffix() + ".jpg";
+            CompletableFuture<String> upload = imageStorage.uploadObjectAsync(key, variant.getValue(), "image/jpeg");
+            uploads.put(variant.getKey(), upload);
+            uploadsByKey.put(key, upload);
+        }
+        // allOf completes once every upload has, so a failure is only seen after the others finished
+        return CompletableFuture.allOf(uploads.values().toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable != null) {
+                        deleteUploadedVariants(uploadsByKey);
+                    }
+                })
+                .thenApply(ignored -> new RecipeImageUrls(
+                        uploads.get(ImageVariant.FULL).join(),
+                        uploads.get(ImageVariant.CARD).join(),
+                        uploads.get(ImageVariant.THUMB).join(),
+                        transcoded.getBlurHash()));
+    }
+
+    /**
+     * Deletes the variants that were uploaded when another one failed: the recipe falls back to the
+     * original image, so nothing would ever reference them. Best effort, off the upload callback thread.
+     */
+    private void deleteUploadedVariants(Map<String, CompletableFuture<String>> uploadsByKey) {
+        List<String> uploadedKeys = uploadsByKey.entrySet().stream()
+                .filter(upload -> !upload.getValue().isCompletedExceptionally())
+                .map(Map.Entry::getKey)
+                .toList();
+        if (uploadedKeys.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.runAsync(() -> {
+                Map<String, String> failed = imageStorage.deleteObjects(uploadedKeys);
+                if (!failed.isEmpty()) {
+                    logger.warn("Could not delete {} orphaned image variants: {}", failed.size(), failed);
+                }
+            }, backgroundExecutor).exceptionally(throwable -> {
+                logger.warn("Could not delete orphaned image variants {}: {}", uploadedKeys, throwable.getMessage());
+                return null;
             });
-            
-            // Step 3: Publish success event (OUTSIDE transaction)
-            // This triggers SSE streaming to connected clients
-            eventPublisher.publishEvent(new ImageGeneratedEvent(
-                    this, dto.getId(), dto.getName(), imageUrl, true, null));
-            
-            return CompletableFuture.completedFuture(null);
-        } catch (IllegalArgumentException e) {
-            logger.error("Invalid base64 data for recipe {} (ID: {}): {}", 
-                    dto.getName(), dto.getId(), e.getMessage());
-            eventPublisher.publishEvent(new ImageGeneratedEvent(
-                    this, dto.getId(), dto.getName(), null, false, "Invalid image data"));
-            return CompletableFuture.completedFuture(null);
-        } catch (Exception e) {
-            logger.error("Failed to process image for recipe {} (ID: {}): {}", 
-                    dto.getName(), dto.getId(), e.getMessage(), e);
-            eventPublisher.publishEvent(new ImageGeneratedEvent(
-                    this, dto.getId(), dto.getName(), null, false, e.getMessage()));
-            return CompletableFuture.completedFuture(null);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image background pool is full, leaving orphaned image variants {}", uploadedKeys);
+        }
+    }
+
+    /**
+     * Hands the stored image to the batching writer, which updates the recipe and publishes the
+     * success event once its batch has committed.
+     */
+    private CompletableFuture<Void> saveImageUrlAndPublish(RecipeReadDto dto, RecipeImageUrls imageUrls) {
+        String imageUrl = imageUrls != null ? imageUrls.getImageUrl() : null;
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            logger.error("S3 service returned empty imageUrl for recipe: {} (ID: {})", 
+                    dto.getName(), dto.getId());
+            return CompletableFuture.failedFuture(new ImageGeneratorServiceException("S3 upload failed"));
         }
+        return imageUrlWriter.submit(dto.getId(), dto.getName(), imageUrls)
+                .thenRun(() -> logger.info("Successfully updated recipe {} (ID: {}) with image URL: {}", 
+                        dto.getName(), dto.getId(), imageUrl));
     }
 
     /**
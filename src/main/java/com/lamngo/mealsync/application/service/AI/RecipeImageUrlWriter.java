@@ -0,0 +1,186 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import com.lamngo.mealsync.application.event.ImageGeneratedEvent;
+import com.lamngo.mealsync.domain.model.recipe.RecipeImageUpdate;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import com.lamngo.mealsync.presentation.error.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micro-batching writer for finished recipe images.
+ *
+ * Writes are collected for up to flush-interval-ms (or until max-batch-size is reached) and stored with
+ * one batched UPDATE in one short transaction, instead of a connection checkout, entity load and
+ * dirty check per image. ImageGeneratedEvents are published only after the batch has committed, so SSE
+ * clients never see a URL that is not in the database yet.
+ */
+@Component
+public class RecipeImageUrlWriter {
+    private static final Logger logger = LoggerFactory.getLogger(RecipeImageUrlWriter.class);
+
+    private final IRecipeRepo recipeRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long flushIntervalMs;
+
+    private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private final DistributionSummary batchSizeSummary;
+
+    public RecipeImageUrlWriter(
+            IRecipeRepo recipeRepo,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.images.url-writer.max-batch-size:100}") int maxBatchSize,
+            @Value("${app.images.url-writer.flush-interval-ms:5}") long flushIntervalMs) {
+        this.recipeRepo = recipeRepo;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.flushIntervalMs = Math.max(0, flushIntervalMs);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-url-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSizeSummary = DistributionSummary.builder("mealsync.image_url_writer.batch_size")
+                .description("Recipe image URLs stored per UPDATE")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the image URLs of a recipe for the next batch.
+     *
+     * @return CompletableFuture that completes after the batch has committed and the success event
+     *         was published, or exceptionally when the update failed or the recipe no longer exists
+     */
+    public CompletableFuture<Void> submit(UUID recipeId, String recipeName, RecipeImageUrls imageUrls) {
+        PendingWrite write = new PendingWrite(recipeId, recipeName, imageUrls);
+        pendingWrites.add(write);
+        try {
+            if (pendingCount.incrementAndGet() >= maxBatchSize) {
+                flusher.execute(this::flush);
+            } else if (flushScheduled.compareAndSet(false, true)) {
+                flusher.schedule(this::flush, flushIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // Shutting down - write on the caller's thread
+            flush();
+        }
+        return write.future;
+    }
+
+    /**
+     * Writes everything queued so far, one batch at a time. Runs on the single flusher thread.
+     */
+    void flush() {
+        // Cleared first: a write queued while this flush runs schedules the next one
+        flushScheduled.set(false);
+        while (true) {
+            List<PendingWrite> batch = new ArrayList<>();
+            PendingWrite write;
+            while (batch.size() < maxBatchSize && (write = pendingWrites.poll()) != null) {
+                batch.add(write);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pendingCount.addAndGet(-batch.size());
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        // The same recipe can appear twice (e.g. reuse racing a generation); the last write wins
+        Map<UUID, RecipeImageUpdate> updates = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            RecipeImageUrls urls = write.imageUrls;
+            updates.put(write.recipeId, new RecipeImageUpdate(write.recipeId, urls.getImageUrl(),
+                    urls.getCardImageUrl(), urls.getThumbnailImageUrl(), urls.getBlurHash()));
+        }
+
+        Set<UUID> updatedIds;
+        try {
+            updatedIds = transactionTemplate.execute(status -> recipeRepo.updateImageUrls(new ArrayList<>(updates.values())));
+        } catch (Exception e) {
+            logger.error("Failed to store image URLs for {} recipes: {}", updates.size(), e.getMessage(), e);
+            batch.forEach(write -> write.future.completeExceptionally(e));
+            return;
+        }
+        batchSizeSummary.record(updates.size());
+        logger.debug("Stored image URLs for {} recipes in one update", updates.size());
+
+        // Committed - now let SSE clients know
+        for (PendingWrite write : batch) {
+            if (updatedIds == null || !updatedIds.contains(write.recipeId)) {
+                logger.error("Recipe not found in database for ID: {} (name: {})", write.recipeId, write.recipeName);
+                write.future.completeExceptionally(new ResourceNotFoundException("Recipe not found"));
+                continue;
+            }
+            try {
+                RecipeImageUrls urls = write.imageUrls;
+                eventPublisher.publishEvent(new ImageGeneratedEvent(
+                        this, write.recipeId, write.recipeName, urls.getImageUrl(),
+                        urls.getCardImageUrl(), urls.getThumbnailImageUrl(), urls.getBlurHash(), true, null));
+            } catch (Exception e) {
+                // The image is stored; a failing listener must not turn this into a retry
+                logger.warn("Image event listener failed for recipe {}: {}", write.recipeId, e.getMessage());
+            }
+            write.future.complete(null);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything queued after the last scheduled flush
+        flush();
+    }
+
+    private static final class PendingWrite {
+        private final UUID recipeId;
+        private final String recipeName;
+        private final RecipeImageUrls imageUrls;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWrite(UUID recipeId, String recipeName, RecipeImageUrls imageUrls) {
+            this.recipeId = recipeId;
+            this.recipeName = recipeName;
+            this.imageUrls = imageUrls;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Public URLs of a stored recipe image, plus its BlurHash placeholder.
+ * imageUrl is the full-size rendition; the card and thumbnail URLs and the placeholder are null
+ * when variants could not be produced and only the original image was stored.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeImageUrls {
+    private final String imageUrl;
+    private final String cardImageUrl;
+    private final String thumbnailImageUrl;
+    private final String blurHash;
+
+    public static RecipeImageUrls originalOnly(String imageUrl) {
+        return new RecipeImageUrls(imageUrl, null, null, null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Output of {@link ImageTranscoder}: the encoded JPEG variants plus the BlurHash placeholder
+ * computed from the same decoded bitmap.
+ */
+@Getter
+@AllArgsConstructor
+public class TranscodedImage {
+    private final Map<ImageVariant, byte[]> variants;
+    private final String blurHash;
+}
@@ -1,18 +1,49 @@
 package com.lamngo.mealsync.application.service.AWS;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.lamngo.mealsync.application.service.storage.ImageDeletionWorker;
+import com.lamngo.mealsync.application.service.storage.ImageStorage;
+import com.lamngo.mealsync.application.service.storage.StoredObject;
+import com.lamngo.mealsync.application.service.storage.StoredObjectPage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
 
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,12 +51,35 @@ import org.slf4j.LoggerFactory;
  * Service class for interacting with AWS S3 (permanent public URLs).
  * Note: No @Transactional annotation as S3 operations are external API calls
  * and should not participate in database transactions.
+ *
+ * Uploads from the image pipeline go through {@link #uploadImageAsync(byte[], String)}, which uses
+ * the non-blocking S3AsyncClient (multipart for large objects) so that OkHttp callback threads
+ * are never held by an S3 round trip. Concurrent async uploads are capped; excess uploads wait in
+ * an in-memory queue without occupying a thread, and are started by a dispatcher thread of their own
+ * as slots are freed.
+ *
+ * Recipe image deletes are not issued from request transactions; they go through the image_deletions
+ * outbox and {@link ImageDeletionWorker}, which uses {@link #deleteObjects(List)} in batches.
+ *
+ * Default {@link ImageStorage} backend (app.storage.type=s3).
  */
 @Service
-public class S3Service {
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3Service implements ImageStorage {
 
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private static final Logger log = LoggerFactory.getLogger(S3Service.class);
+    // DeleteObjects accepts at most 1000 keys per request
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
+    private final Semaphore uploadPermits;
+    private final Queue<Runnable> pendingUploads = new ConcurrentLinkedQueue<>();
+    private final ExecutorService uploadDispatcher;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final int maxConcurrentUploads;
+    private final Timer uploadSuccessTimer;
+    private final Timer uploadFailureTimer;
 
     @Value("${AWS_S3_BUCKET_NAME}")
     private String bucketName;
@@ -36,15 +90,57 @@ public class S3Service {
     public S3Service(
             @Value("${AWS_REGION}") String region,
             @Value("${AWS_ACCESS_KEY_ID}") String accessKeyId,
-            @Value("${AWS_SECRET_ACCESS_KEY}") String secretAccessKey
+            @Value("${AWS_SECRET_ACCESS_KEY}") String secretAccessKey,
+            @Value("${app.storage.s3.max-concurrent-uploads:16}") int maxConcurrentUploads,
+            @Value("${app.storage.s3.multipart-threshold-bytes:8388608}") long multipartThresholdBytes,
+            @Value("${app.storage.s3.multipart-part-size-bytes:8388608}") long multipartPartSizeBytes,
+            MeterRegistry meterRegistry
     ) {
+        StaticCredentialsProvider credentialsProvider = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(accessKeyId, secretAccessKey));
+
         this.s3Client = S3Client.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
+                .credentialsProvider(credentialsProvider)
+                .build();
+
+        // Objects above the threshold are split into parts and uploaded concurrently by the SDK
+        this.s3AsyncClient = S3AsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider)
+                .multipartEnabled(true)
+                .multipartConfiguration(config -> config
+                        .thresholdInBytes(multipartThresholdBytes)
+                        .minimumPartSizeInBytes(multipartPartSizeBytes))
                 .build();
+
+        this.maxConcurrentUploads = Math.max(1, maxConcurrentUploads);
+        this.uploadPermits = new Semaphore(this.maxConcurrentUploads);
+        this.uploadDispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "s3-upload-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.uploadSuccessTimer = Timer.builder("mealsync.s3.upload")
+                .description("Latency of async S3 uploads, including time queued for an upload slot")
+                .tag("outcome", "success")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.uploadFailureTimer = Timer.builder("mealsync.s3.upload")
+                .description("Latency of async S3 uploads, including time queued for an upload slot")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.s3.upload.in_flight", this,
+                        service -> service.maxConcurrentUploads - service.uploadPermits.availablePermits())
+                .description("Async S3 uploads currently in progress")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.s3.upload.queued", pendingUploads, Queue::size)
+                .description("Async S3 uploads waiting for an upload slot")
+                .register(meterRegistry);
     }
 
+    @Override
     public String uploadImage(byte[] imageBytes, String originalImageName) {
         try {
             String key = "recipes/" + UUID.randomUUID().toString() + ".png";
@@ -58,7 +154,7 @@ public class S3Service {
             s3Client.putObject(putObjectRequest, RequestBody.fromBytes(imageBytes));
 
             // Return the S3 URL (access depends on bucket policy)
-            String imageUrl = "https://" + bucketName + ".s3." + region + ".amazonaws.com/" + key;
+            String imageUrl = buildObjectUrl(key);
 
             log.info("Image uploaded successfully: {}", imageUrl);
             return imageUrl;
@@ -72,6 +168,126 @@ public class S3Service {
         }
     }
 
+    /**
+     * Uploads a recipe image without blocking the calling thread.
+     *
+     * @param imageBytes PNG image bytes
+     * @param originalImageName Name used for logging only
+     * @return CompletableFuture that completes with the public image URL
+     */
+    @Override
+    public CompletableFuture<String> uploadImageAsync(byte[] imageBytes, String originalImageName) {
+        String key = "recipes/" + UUID.randomUUID() + ".png";
+        return uploadObjectAsync(key, imageBytes, "image/png")
+                .whenComplete((imageUrl, throwable) -> {
+                    if (throwable == null) {
+                        log.info("Image for '{}' uploaded successfully: {}", originalImageName, imageUrl);
+                    }
+                });
+    }
+
+    /**
+     * Uploads an object under the given key using the async client.
+     * Waits (without holding a thread) for one of the configured upload slots.
+     *
+     * @return CompletableFuture that completes with the public object URL, or exceptionally
+     *         with a RuntimeException("Failed to upload image") when the upload fails
+     */
+    @Override
+    public CompletableFuture<String> uploadObjectAsync(String key, byte[] bytes, String contentType) {
+        long queuedAtNs = System.nanoTime();
+        return withUploadPermit(() -> {
+            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength((long) bytes.length)
+                    .build();
+            return s3AsyncClient.putObject(putObjectRequest, AsyncRequestBody.fromBytes(bytes))
+                    .thenApply(response -> buildObjectUrl(key));
+        }).handle((imageUrl, throwable) -> {
+            long elapsedNs = System.nanoTime() - queuedAtNs;
+            if (throwable != null) {
+                uploadFailureTimer.record(elapsedNs, TimeUnit.NANOSECONDS);
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                log.error("Error uploading object {} to S3: {}", key, cause.getMessage(), cause);
+                throw new RuntimeException("Failed to upload image", cause);
+            }
+            uploadSuccessTimer.record(elapsedNs, TimeUnit.NANOSECONDS);
+            return imageUrl;
+        });
+    }
+
+    /**
+     * Runs the upload when a slot is free, otherwise parks it in the pending queue.
+     * Slots are handed over on completion, so no thread ever blocks waiting for one. Queued uploads
+     * are started by the dispatcher rather than by the SDK thread completing the previous one, which
+     * would otherwise chain release, start and (for an upload failing at once) completion on its stack.
+     */
+    private <T> CompletableFuture<T> withUploadPermit(Supplier<CompletableFuture<T>> upload) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> uploadFuture;
+            try {
+                uploadFuture = upload.get();
+            } catch (Exception e) {
+                uploadFuture = CompletableFuture.failedFuture(e);
+            }
+            uploadFuture.whenComplete((value, throwable) -> {
+                releaseUploadPermit();
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+
+        if (uploadPermits.tryAcquire()) {
+            start.run();
+        } else {
+            pendingUploads.add(start);
+            // A permit may have been released between tryAcquire and add
+            scheduleDrain();
+        }
+        return result;
+    }
+
+    private void releaseUploadPermit() {
+        uploadPermits.release();
+        if (!pendingUploads.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                uploadDispatcher.execute(this::drainPendingUploads);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Starts queued uploads while slots are free. Runs on the dispatcher.
+     */
+    private void drainPendingUploads() {
+        // Cleared first: a slot freed while this runs schedules the next drain
+        drainScheduled.set(false);
+        while (!pendingUploads.isEmpty() && uploadPermits.tryAcquire()) {
+            Runnable next = pendingUploads.poll();
+            if (next == null) {
+                uploadPermits.release();
+                return;
+            }
+            next.run();
+        }
+    }
+
+    @Override
     public void deleteImage(String imageUrl) {
         try {
             // Extract the S3 key from the full URL
@@ -100,7 +316,76 @@ public class S3Service {
         }
     }
 
-    private String extractKeyFromUrl(String imageUrl) {
+    /**
+     * Deletes objects with DeleteObjects requests of at most 1000 keys each.
+     *
+     * @return keys that could not be deleted, with the error reported by S3 (empty when all succeeded)
+     * @throws RuntimeException when a request fails as a whole
+     */
+    @Override
+    public Map<String, String> deleteObjects(List<String> keys) {
+        Map<String, String> failedKeys = new HashMap<>();
+        for (int start = 0; start < keys.size(); start += MAX_KEYS_PER_DELETE) {
+            List<String> chunk = keys.subList(start, Math.min(keys.size(), start + MAX_KEYS_PER_DELETE));
+            try {
+                DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder()
+                                .objects(chunk.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                                // Quiet mode: the response only lists failures
+                                .quiet(true)
+                                .build())
+                        .build();
+                DeleteObjectsResponse response = s3Client.deleteObjects(request);
+                for (S3Error error : response.errors()) {
+                    failedKeys.put(error.key(), error.code() + ": " + error.message());
+                }
+                log.info("Deleted {} objects from S3 ({} failed)", chunk.size(), response.errors().size());
+            } catch (Exception e) {
+                log.error("Error deleting {} objects from S3: {}", chunk.size(), e.getMessage(), e);
+                throw new RuntimeException("Failed to delete images", e);
+            }
+        }
+        return failedKeys;
+    }
+
+    /**
+     * Lists one page of objects under the prefix.
+     *
+     * @param continuationToken Token from the previous page, or null to start from the beginning
+     */
+    @Override
+    public StoredObjectPage listObjects(String prefix, String continuationToken, int maxKeys) {
+        try {
+            ListObjectsV2Response response = s3Client.listObjectsV2(ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .continuationToken(continuationToken)
+                    .maxKeys(maxKeys)
+                    .build());
+            List<StoredObject> objects = response.contents().stream()
+                    .map(object -> new StoredObject(object.key(), object.lastModified()))
+                    .toList();
+            return new StoredObjectPage(objects, response.isTruncated() ? response.nextContinuationToken() : null);
+        } catch (Exception e) {
+            log.error("Error listing S3 objects under {}: {}", prefix, e.getMessage(), e);
+            throw new RuntimeException("Failed to list images", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadDispatcher.shutdownNow();
+        s3AsyncClient.close();
+    }
+
+    @Override
+    public String buildObjectUrl(String key) {
+        return "https://" + bucketName + ".s3." + region + ".amazonaws.com/" + key;
+    }
+
+    @Override
+    public String extractKeyFromUrl(String imageUrl) {
         if (imageUrl == null || imageUrl.isEmpty()) {
             return null;
         }
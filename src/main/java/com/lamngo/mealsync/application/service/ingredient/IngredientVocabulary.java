@@ -0,0 +1,390 @@
+package com.lamngo.mealsync.application.service.ingredient;
+
+import com.lamngo.mealsync.application.event.RecipeIngredientsChangedEvent;
+import com.lamngo.mealsync.domain.model.ingredient.CanonicalIngredient;
+import com.lamngo.mealsync.domain.model.ingredient.IngredientAlias;
+import com.lamngo.mealsync.domain.repository.ingredient.ICanonicalIngredientRepo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canonical ingredient vocabulary: maps free-text ingredient names to compact int ids, so
+ * ingredients can be compared as ints (and collected in BitSets) instead of scanning strings.
+ *
+ * Names are reduced to a key first (see {@link #key}): case, accents, punctuation, preparation
+ * words and plurals do not matter, so "Fresh Tomatoes" and "tomato" are the same ingredient.
+ * Synonyms ("scallion" for "green onion") are stored as aliases of an ingredient.
+ *
+ * The vocabulary is seeded from data/basic_ingredients.csv and data/ingredient_synonyms.csv when the
+ * application is ready, and recipe ingredients saved before it existed get their ids (published as a
+ * RecipeIngredientsChangedEvent, so the ingredient index re-reads those recipes). After that,
+ * every recipe ingredient gets its id when saved ({@link #resolve}), creating the ingredient if the
+ * name is new, in the transaction saving the recipe. Lookups are served from memory; ingredients
+ * created on other nodes are loaded every app.ingredients.vocabulary.refresh-interval-ms, or as soon
+ * as an unknown id is looked up.
+ */
+@Component
+public class IngredientVocabulary {
+    private static final Logger logger = LoggerFactory.getLogger(IngredientVocabulary.class);
+    private static final String SEED_FILE = "data/basic_ingredients.csv";
+    private static final String SYNONYMS_FILE = "data/ingredient_synonyms.csv";
+    // Distinct names given ids per round of the backfill
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    // Same length limit as RecipeIngredient.name
+    private static final int MAX_KEY_LENGTH = 100;
+
+    /**
+     * Returned for names that are not (and, from {@link #resolve}, cannot be) in the vocabulary.
+     * Ingredient ids start at 1.
+     */
+    public static final int UNKNOWN = 0;
+
+    // How an ingredient is cut or sized does not make it another ingredient
+    private static final Set<String> DESCRIPTORS = Set.of(
+            "fresh", "freshly", "chopped", "finely", "roughly", "diced", "minced", "sliced", "thinly",
+            "grated", "shredded", "crushed", "peeled", "boneless", "skinless", "large", "small", "medium",
+            "ripe", "raw", "whole", "organic");
+    private static final Map<String, String> IRREGULAR_PLURALS = Map.of(
+            "leaves", "leaf", "halves", "half", "loaves", "loaf");
+    private static final Set<String> NOT_PLURAL = Set.of(
+            "molasses", "couscous", "hummus", "asparagus", "citrus", "swiss", "series");
+
+    private final ICanonicalIngredientRepo ingredientRepo;
+    // Joins the caller's transaction, so creating an ingredient while a recipe is saved does not
+    // take a second connection from the pool; seeding and backfill run in transactions of their own
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Keys of ingredient names and aliases
+    private final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+    private final AtomicInteger maxId = new AtomicInteger();
+
+    public IngredientVocabulary(ICanonicalIngredientRepo ingredientRepo,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry) {
+        this.ingredientRepo = ingredientRepo;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("mealsync.ingredient_vocabulary.ingredients", this, IngredientVocabulary::size)
+                .description("Canonical ingredients known to this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs before the listeners that read recipe ingredients (the ingredient index), so they see
+     * the backfilled ids.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady() {
+        try {
+            refresh();
+            seed();
+            backfill();
+            logger.info("Ingredient vocabulary loaded: {} ingredients, {} names", namesById.size(), idsByKey.size());
+        } catch (Exception e) {
+            logger.error("Could not initialize the ingredient vocabulary: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingredients.vocabulary.refresh-interval-ms:300000}",
+            initialDelayString = "${app.ingredients.vocabulary.refresh-interval-ms:300000}")
+    public void refreshAndBackfill() {
+        try {
+            refresh();
+            backfill();
+        } catch (Exception e) {
+            logger.warn("Could not refresh the ingredient vocabulary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Id of the ingredient a name maps to, from memory only.
+     *
+     * @return The id, or {@link #UNKNOWN} when the name is not in the vocabulary
+     */
+    public int idOf(String name) {
+        String key = key(name);
+        if (key == null) {
+            return UNKNOWN;
+        }
+        return idsByKey.getOrDefault(key, UNKNOWN);
+    }
+
+    /**
+     * Id of the ingredient a name maps to, adding the ingredient to the vocabulary if it is new.
+     * A new ingredient is stored in the caller's transaction and only known to the vocabulary once
+     * that commits.
+     *
+     * @return The id, or {@link #UNKNOWN} for a name without letters or digits
+     */
+    public int resolve(String name) {
+        String key = key(name);
+        if (key == null) {
+            return UNKNOWN;
+        }
+        Integer id = idsByKey.get(key);
+        if (id != null) {
+            return id;
+        }
+        return create(key, 0);
+    }
+
+    /**
+     * Canonical name of an ingredient, or null if there is no ingredient with this id.
+     */
+    public String nameOf(int id) {
+        String name = namesById.get(id);
+        if (name == null && id > maxId.get()) {
+            // Created on another node since the last refresh
+            try {
+                refresh();
+            } catch (Exception e) {
+                logger.warn("Could not refresh the ingredient vocabulary: {}", e.getMessage());
+            }
+            name = namesById.get(id);
+        }
+        return name;
+    }
+
+    public int size() {
+        return namesById.size();
+    }
+
+    /**
+     * The key a name is stored and looked up by, or null when nothing is left: lower-cased words
+     * without accents or punctuation, preparation words ("fresh", "chopped", ...) dropped unless
+     * nothing else is left, and the last word singular. "Fresh Cherry-Tomatoes" becomes "cherry tomato".
+     */
+    public static String key(String name) {
+        if (name == null) {
+            return null;
+        }
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        List<String> kept = new ArrayList<>();
+        for (String word : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+                if (!DESCRIPTORS.contains(word)) {
+                    kept.add(word);
+                }
+            }
+        }
+        if (kept.isEmpty()) {
+            kept = words;
+        }
+        if (kept.isEmpty()) {
+            return null;
+        }
+        int last = kept.size() - 1;
+        kept.set(last, singular(kept.get(last)));
+        String key = String.join(" ", kept);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH).trim() : key;
+    }
+
+    private static String singular(String word) {
+        String irregular = IRREGULAR_PLURALS.get(word);
+        if (irregular != null) {
+            return irregular;
+        }
+        if (word.length() <= 3 || NOT_PLURAL.contains(word)) {
+            return word;
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes")
+                || word.endsWith("xes") || word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    /**
+     * Loads the ingredients created since the last refresh, and all aliases.
+     */
+    void refresh() {
+        for (CanonicalIngredient ingredient : ingredientRepo.findAllAfter(maxId.get())) {
+            remember(ingredient);
+        }
+        for (IngredientAlias alias : ingredientRepo.findAllAliases()) {
+            idsByKey.putIfAbsent(alias.getAlias(), alias.getIngredientId());
+        }
+    }
+
+    /**
+     * Adds the ingredients and synonyms of the seed files that are not in the vocabulary yet.
+     * An alias never replaces an ingredient of the same name.
+     */
+    void seed() throws IOException {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String[] row : readCsv(SEED_FILE)) {
+            String key = key(row[0]);
+            if (key != null && !idsByKey.containsKey(key)) {
+                // Listed twice: the first (most frequent) row wins
+                frequencies.putIfAbsent(key, parseFrequency(row[1]));
+            }
+        }
+        if (!frequencies.isEmpty()) {
+            List<CanonicalIngredient> seeded = new ArrayList<>();
+            frequencies.forEach((key, frequency) -> seeded.add(new CanonicalIngredient(key, frequency)));
+            try {
+                List<CanonicalIngredient> saved = transaction.execute(status -> ingredientRepo.saveAll(seeded));
+                saved.forEach(this::remember);
+            } catch (DataIntegrityViolationException e) {
+                // Another node is seeding at the same time: one by one, taking what it created
+                frequencies.forEach(this::create);
+            }
+        }
+
+        for (String[] row : readCsv(SYNONYMS_FILE)) {
+            String alias = key(row[0]);
+            if (alias == null || idsByKey.containsKey(alias)) {
+                continue;
+            }
+            int id = resolve(row[1]);
+            if (id == UNKNOWN) {
+                continue;
+            }
+            try {
+                transaction.executeWithoutResult(status -> ingredientRepo.saveAlias(new IngredientAlias(alias, id)));
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Ingredient alias '{}' was added concurrently", alias);
+            }
+            idsByKey.putIfAbsent(alias, id);
+        }
+    }
+
+    /**
+     * Gives recipe ingredients without a canonical id theirs (saved before the vocabulary existed,
+     * or while it could not be reached), one batch of distinct names at a time, in name order so
+     * names that cannot be resolved are passed over rather than read again.
+     */
+    void backfill() {
+        String after = "";
+        int updated = 0;
+        while (true) {
+            Map<String, Long> batch = ingredientRepo.findUnresolvedIngredientNames(after, BACKFILL_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Integer, List<String>> namesByIngredient = new HashMap<>();
+            for (Map.Entry<String, Long> entry : batch.entrySet()) {
+                String name = entry.getKey();
+                after = name;
+                String key = key(name);
+                if (key == null) {
+                    continue;
+                }
+                int id = idsByKey.getOrDefault(key, UNKNOWN);
+                if (id == UNKNOWN) {
+                    id = create(key, (int) Math.min(entry.getValue(), Integer.MAX_VALUE));
+                }
+                namesByIngredient.computeIfAbsent(id, ingredientId -> new ArrayList<>()).add(name);
+            }
+            if (namesByIngredient.isEmpty()) {
+                continue;
+            }
+            // Read first: once assigned, the names no longer tell which recipes changed
+            Set<UUID> recipeIds = ingredientRepo.findRecipeIdsWithUnresolvedIngredientNames(
+                    namesByIngredient.values().stream().flatMap(List::stream).toList());
+            int assigned = 0;
+            for (Map.Entry<Integer, List<String>> entry : namesByIngredient.entrySet()) {
+                assigned += ingredientRepo.assignToIngredientNames(entry.getKey(), entry.getValue());
+            }
+            if (assigned > 0 && !recipeIds.isEmpty()) {
+                eventPublisher.publishEvent(new RecipeIngredientsChangedEvent(this, recipeIds));
+            }
+            updated += assigned;
+        }
+        if (updated > 0) {
+            logger.info("Assigned canonical ingredients to {} recipe ingredients", updated);
+        }
+    }
+
+    private int create(String key, int frequency) {
+        CanonicalIngredient ingredient = transaction.execute(status -> ingredientRepo.insertIfAbsent(key, frequency));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Created in the caller's transaction: the id does not exist if that rolls back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(ingredient);
+                }
+            });
+        } else {
+            remember(ingredient);
+        }
+        return ingredient.getId();
+    }
+
+    private void remember(CanonicalIngredient ingredient) {
+        namesById.put(ingredient.getId(), ingredient.getName());
+        idsByKey.putIfAbsent(ingredient.getName(), ingredient.getId());
+        maxId.accumulateAndGet(ingredient.getId(), Math::max);
+    }
+
+    private static int parseFrequency(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static List<String[]> readCsv(String file) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        ClassPathResource resource = new ClassPathResource(file);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            reader.readLine(); // header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",", -1);
+                if (columns.length >= 2 && !columns[0].isBlank()) {
+                    rows.add(columns);
+                }
+            }
+        }
+        return rows;
+    }
+}
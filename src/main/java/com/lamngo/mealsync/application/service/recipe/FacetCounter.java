@@ -0,0 +1,86 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Count per string key in two parallel arrays with open addressing (linear probing): no boxed
+ * Integer, Map.Entry or node per key, and an update is a hash and a few array reads.
+ *
+ * Keys are never removed. A key whose count drops to zero is skipped by {@link #forEach}; the
+ * counters are replaced as a whole when they are rebuilt, which clears such keys. Not thread-safe.
+ */
+final class FacetCounter {
+    private String[] keys;
+    private int[] counts;
+    private int size;
+
+    FacetCounter(int expectedKeys) {
+        // Power of two at least twice the expected size: the table stays at most half full
+        int capacity = Integer.highestOneBit(Math.max(8, expectedKeys * 2 - 1)) << 1;
+        keys = new String[capacity];
+        counts = new int[capacity];
+    }
+
+    /**
+     * Adds delta to the count of the key. A negative delta never takes a count below zero, and
+     * does nothing for an unknown key (a removal the counters never saw being added).
+     */
+    void add(String key, int delta) {
+        int slot = slot(keys, key);
+        if (keys[slot] != null) {
+            counts[slot] = Math.max(0, counts[slot] + delta);
+            return;
+        }
+        if (delta <= 0) {
+            return;
+        }
+        keys[slot] = key;
+        counts[slot] = delta;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    int get(String key) {
+        int slot = slot(keys, key);
+        return keys[slot] == null ? 0 : counts[slot];
+    }
+
+    /**
+     * Calls the action for every key with a positive count, in no particular order.
+     */
+    void forEach(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && counts[i] > 0) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new String[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Slot holding the key, or the empty slot where it would go.
+     */
+    private static int slot(String[] table, String key) {
+        int mask = table.length - 1;
+        int hash = key.hashCode() * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (table[slot] != null && !table[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
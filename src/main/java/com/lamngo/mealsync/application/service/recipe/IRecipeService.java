@@ -1,8 +1,12 @@
 package com.lamngo.mealsync.application.service.recipe;
 
+import com.lamngo.mealsync.application.dto.recipe.DetectedIngredientDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeCreateDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeMatchResultDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeSearchResultDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeUpdateDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeVersionDto;
 import com.lamngo.mealsync.application.dto.userRecipe.UserRecipeReadDto;
 import com.lamngo.mealsync.application.shared.OffsetPage;
 import com.lamngo.mealsync.application.shared.PaginationResponse;
@@ -13,18 +17,34 @@ import java.util.UUID;
 public interface IRecipeService {
     RecipeReadDto createRecipe(RecipeCreateDto recipeCreateDto);
     RecipeReadDto getRecipeById(UUID id);
+
+    /**
+     * Version of a recipe for conditional requests, without reading its content.
+     */
+    RecipeVersionDto getRecipeVersion(UUID id);
     List<RecipeReadDto> getRecipesByIds(List<UUID> ids);
+
+    /**
+     * Catalog recipes ranked by how well the given ingredients cover them, fewest missing first.
+     */
+    List<RecipeMatchResultDto> matchRecipes(List<DetectedIngredientDto> ingredients, int limit);
     PaginationResponse<RecipeReadDto> getAllRecipes(int limit, int offset);
     PaginationResponse<RecipeReadDto> getAllRecipes(int limit, int offset, String name, List<String> cuisines, List<String> tags,
                                                      List<String> ingredients, String difficulty,
                                                      Integer maxTotalTime, Integer minServings);
+    PaginationResponse<RecipeReadDto> getRecipesAfter(String cursor, int limit, boolean includeTotal, String name,
+                                                      List<String> cuisines, List<String> tags, List<String> ingredients,
+                                                      String difficulty, Integer maxTotalTime, Integer minServings);
+    PaginationResponse<RecipeSearchResultDto> searchRecipes(String query, int limit, int offset);
     RecipeReadDto updateRecipe(UUID id, RecipeUpdateDto recipeUpdateDto);
     void deleteRecipe(UUID id);
     UserRecipeReadDto addRecipeToUser(UUID userId, UUID recipeId);
     void removeRecipeFromUser(UUID userId, UUID recipeId);
     List<RecipeReadDto> getRecommendedRecipes(UUID userId, int limit);
     PaginationResponse<UserRecipeReadDto> getSavedRecipesByUserId(UUID userId, int limit, int offset);
+    PaginationResponse<UserRecipeReadDto> getSavedRecipesAfter(UUID userId, String cursor, int limit, boolean includeTotal);
     List<RecipeReadDto> getTodayPicks(UUID userId);
     void addGeneratedRecipesToUser(UUID userId, List<UUID> recipeIds);
     PaginationResponse<RecipeReadDto> getRecentGeneratedRecipes(UUID userId, int limit, int offset);
+    PaginationResponse<RecipeReadDto> getRecentGeneratedRecipesAfter(UUID userId, String cursor, int limit, boolean includeTotal);
 }
@@ -0,0 +1,80 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import com.lamngo.mealsync.application.event.ImageGeneratedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Latest ImageGeneratedEvent per recipe, so image streams opened after the event (reconnects, a second
+ * device) can re-send it instead of waiting for an image that is never generated again.
+ *
+ * Bounded to max-entries recipes (oldest event evicted first); events older than ttl-ms are ignored.
+ */
+@Component
+public class ImageEventReplayBuffer {
+    private final int maxEntries;
+    private final long ttlMs;
+
+    // Insertion order = event order; re-inserted on every event so the eldest entry is the oldest event
+    private final Map<UUID, ImageGeneratedEvent> events;
+
+    public ImageEventReplayBuffer(
+            MeterRegistry meterRegistry,
+            @Value("${app.sse.replay.max-entries:10000}") int maxEntries,
+            @Value("${app.sse.replay.ttl-ms:600000}") long ttlMs) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMs = ttlMs;
+        this.events = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, ImageGeneratedEvent> eldest) {
+                return size() > ImageEventReplayBuffer.this.maxEntries;
+            }
+        };
+        Gauge.builder("mealsync.sse.replay.size", this, ImageEventReplayBuffer::size)
+                .description("Recipes with an image event kept for replay")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs before the streaming listener: a stream that registers and then reads the buffer either
+     * finds the event here or receives it live.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onImageGenerated(ImageGeneratedEvent event) {
+        if (event.getRecipeId() == null) {
+            return;
+        }
+        synchronized (events) {
+            events.remove(event.getRecipeId());
+            events.put(event.getRecipeId(), event);
+        }
+    }
+
+    public Optional<ImageGeneratedEvent> get(UUID recipeId) {
+        synchronized (events) {
+            ImageGeneratedEvent event = events.get(recipeId);
+            if (event != null && System.currentTimeMillis() - event.getTimestamp() > ttlMs) {
+                events.remove(recipeId);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(event);
+        }
+    }
+
+    private int size() {
+        synchronized (events) {
+            return events.size();
+        }
+    }
+}
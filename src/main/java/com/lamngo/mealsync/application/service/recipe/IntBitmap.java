@@ -0,0 +1,148 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints, laid out like a Roaring bitmap: values are grouped by their
+ * high 16 bits, and each group is stored as a sorted char[] while it has at most 4096 values
+ * (2 bytes per value), then as a 65536-bit long[] (8 KB, whatever the count).
+ *
+ * A posting list of a rare ingredient costs a few bytes per recipe, one of salt or onion at most
+ * one bit per recipe. Appending increasing values, as the ingredient index does, never shifts an
+ * array. Not thread-safe.
+ */
+final class IntBitmap {
+    private static final int MAX_ARRAY_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    // Containers sorted by key; a container is arrays[i] (sorted, sizes[i] used) unless bitmaps[i] is set
+    private char[] keys = new char[1];
+    private char[][] arrays = new char[1][];
+    private long[][] bitmaps = new long[1][];
+    private int[] sizes = new int[1];
+    private int containers;
+    private int cardinality;
+
+    void add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = containerIndex(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key);
+        }
+        if (bitmaps[index] != null) {
+            long[] words = bitmaps[index];
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                sizes[index]++;
+                cardinality++;
+            }
+            return;
+        }
+        char[] values = arrays[index];
+        int size = sizes[index];
+        int position = size > 0 && values[size - 1] < low ? -size - 1 : Arrays.binarySearch(values, 0, size, low);
+        if (position >= 0) {
+            return;
+        }
+        if (size == MAX_ARRAY_SIZE) {
+            toBitmap(index);
+            add(value);
+            return;
+        }
+        position = -position - 1;
+        if (size == values.length) {
+            values = arrays[index] = Arrays.copyOf(values, Math.min(MAX_ARRAY_SIZE, Math.max(4, size * 2)));
+        }
+        System.arraycopy(values, position, values, position + 1, size - position);
+        values[position] = low;
+        sizes[index]++;
+        cardinality++;
+    }
+
+    boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = containerIndex((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        if (bitmaps[index] != null) {
+            return (bitmaps[index][low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch(arrays[index], 0, sizes[index], low) >= 0;
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Calls the action for every value, in increasing order.
+     */
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < containers; i++) {
+            int high = keys[i] << 16;
+            if (bitmaps[i] != null) {
+                long[] words = bitmaps[i];
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = arrays[i];
+                for (int v = 0; v < sizes[i]; v++) {
+                    action.accept(high | values[v]);
+                }
+            }
+        }
+    }
+
+    private int containerIndex(char key) {
+        // Values are mostly appended: check the last container before searching
+        if (containers > 0 && keys[containers - 1] == key) {
+            return containers - 1;
+        }
+        return Arrays.binarySearch(keys, 0, containers, key);
+    }
+
+    private void insertContainer(int index, char key) {
+        if (containers == keys.length) {
+            int capacity = containers * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            arrays = Arrays.copyOf(arrays, capacity);
+            bitmaps = Arrays.copyOf(bitmaps, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, containers - index);
+        System.arraycopy(arrays, index, arrays, index + 1, containers - index);
+        System.arraycopy(bitmaps, index, bitmaps, index + 1, containers - index);
+        System.arraycopy(sizes, index, sizes, index + 1, containers - index);
+        keys[index] = key;
+        arrays[index] = new char[4];
+        bitmaps[index] = null;
+        sizes[index] = 0;
+        containers++;
+    }
+
+    private void toBitmap(int index) {
+        long[] words = new long[BITMAP_WORDS];
+        char[] values = arrays[index];
+        for (int v = 0; v < sizes[index]; v++) {
+            words[values[v] >>> 6] |= 1L << values[v];
+        }
+        bitmaps[index] = words;
+        arrays[index] = null;
+    }
+}
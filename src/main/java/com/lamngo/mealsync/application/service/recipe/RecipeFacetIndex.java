@@ -0,0 +1,180 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeFacetsDto;
+import com.lamngo.mealsync.application.event.RecipeFacetsChangedEvent;
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recipe counts per cuisine, difficulty, tag and total-time bucket for recipe browsing
+ * (GET /api/v1/recipes/facets), kept in memory so the endpoint never counts in the database.
+ *
+ * The counters are built with one GROUP BY per facet when the application is ready, then moved by
+ * the {@link RecipeFacetsChangedEvent}s of committed saves and deletes, from this node and, through
+ * the ClusterEventRelay, from the others. A change committed while a rebuild is reading can be
+ * counted twice or missed; the periodic rebuild bounds how long such drift lasts.
+ */
+@Component
+public class RecipeFacetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RecipeFacetIndex.class);
+
+    // Upper bounds (minutes) of the total-time buckets; longer recipes only count in the total
+    static final int[] TIME_BUCKETS = {15, 30, 60, 120};
+
+    private final IRecipeRepo recipeRepo;
+
+    // Guarded by this
+    private FacetCounter cuisines = new FacetCounter(0);
+    private FacetCounter difficulties = new FacetCounter(0);
+    private FacetCounter tags = new FacetCounter(0);
+    // Recipes per bucket, not cumulative; the last slot is for recipes over the last bound
+    private int[] totalTimes = new int[TIME_BUCKETS.length + 1];
+    private long totalRecipes;
+    private boolean built;
+
+    public RecipeFacetIndex(IRecipeRepo recipeRepo) {
+        this.recipeRepo = recipeRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recounts everything from the database and swaps the counters in one step.
+     */
+    @Scheduled(fixedDelayString = "${app.recipes.facets.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.recipes.facets.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        try {
+            FacetCounter newCuisines = counter(recipeRepo.countByCuisine());
+            FacetCounter newDifficulties = counter(recipeRepo.countByDifficulty());
+            FacetCounter newTags = counter(recipeRepo.countByTag());
+            int[] newTotalTimes = new int[TIME_BUCKETS.length + 1];
+            for (Map.Entry<Integer, Long> entry : recipeRepo.countByTotalTime().entrySet()) {
+                if (entry.getKey() != null) {
+                    newTotalTimes[bucket(entry.getKey())] += entry.getValue().intValue();
+                }
+            }
+            long newTotal = recipeRepo.countAllRecipes();
+            synchronized (this) {
+                cuisines = newCuisines;
+                difficulties = newDifficulties;
+                tags = newTags;
+                totalTimes = newTotalTimes;
+                totalRecipes = newTotal;
+                built = true;
+            }
+            logger.debug("Recipe facet counts rebuilt for {} recipes", newTotal);
+        } catch (Exception e) {
+            logger.error("Could not rebuild recipe facet counts: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies a committed change. Runs after commit, so rolled-back saves never count.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFacetsChanged(RecipeFacetsChangedEvent event) {
+        synchronized (this) {
+            for (RecipeFacets facets : event.getRemoved()) {
+                apply(facets, -1);
+            }
+            for (RecipeFacets facets : event.getAdded()) {
+                apply(facets, 1);
+            }
+        }
+    }
+
+    /**
+     * Current counts, each facet limited to its most frequent values.
+     * @param limit Maximum number of values per facet
+     */
+    public RecipeFacetsDto getFacets(int limit) {
+        if (!isBuilt()) {
+            rebuild();
+        }
+        synchronized (this) {
+            List<RecipeFacetsDto.TimeBucketCount> times = new ArrayList<>(TIME_BUCKETS.length);
+            long cumulative = 0;
+            for (int i = 0; i < TIME_BUCKETS.length; i++) {
+                cumulative += totalTimes[i];
+                times.add(new RecipeFacetsDto.TimeBucketCount(TIME_BUCKETS[i], cumulative));
+            }
+            return RecipeFacetsDto.builder()
+                    .totalRecipes(totalRecipes)
+                    .cuisines(top(cuisines, limit))
+                    .difficulties(top(difficulties, limit))
+                    .tags(top(tags, limit))
+                    .totalTime(times)
+                    .build();
+        }
+    }
+
+    private synchronized boolean isBuilt() {
+        return built;
+    }
+
+    private void apply(RecipeFacets facets, int delta) {
+        totalRecipes = Math.max(0, totalRecipes + delta);
+        if (facets.getCuisine() != null) {
+            cuisines.add(facets.getCuisine().toLowerCase(Locale.ROOT), delta);
+        }
+        if (facets.getDifficulty() != null) {
+            difficulties.add(facets.getDifficulty().toLowerCase(Locale.ROOT), delta);
+        }
+        if (facets.getTags() != null) {
+            // A tag counts once per recipe, like COUNT(DISTINCT recipe_id) in the rebuild
+            Set<String> distinctTags = new LinkedHashSet<>();
+            for (String tag : facets.getTags()) {
+                if (tag != null) {
+                    distinctTags.add(tag.toLowerCase(Locale.ROOT));
+                }
+            }
+            distinctTags.forEach(tag -> tags.add(tag, delta));
+        }
+        if (facets.getTotalTime() != null) {
+            int bucket = bucket(facets.getTotalTime());
+            totalTimes[bucket] = Math.max(0, totalTimes[bucket] + delta);
+        }
+    }
+
+    static int bucket(int totalTime) {
+        for (int i = 0; i < TIME_BUCKETS.length; i++) {
+            if (totalTime <= TIME_BUCKETS[i]) {
+                return i;
+            }
+        }
+        return TIME_BUCKETS.length;
+    }
+
+    private static FacetCounter counter(Map<String, Long> counts) {
+        FacetCounter counter = new FacetCounter(counts.size());
+        counts.forEach((value, count) -> counter.add(value.toLowerCase(Locale.ROOT), count.intValue()));
+        return counter;
+    }
+
+    private static List<RecipeFacetsDto.ValueCount> top(FacetCounter counter, int limit) {
+        List<RecipeFacetsDto.ValueCount> values = new ArrayList<>();
+        counter.forEach((value, count) -> values.add(new RecipeFacetsDto.ValueCount(value, count)));
+        values.sort(Comparator.comparingLong(RecipeFacetsDto.ValueCount::getCount).reversed()
+                .thenComparing(RecipeFacetsDto.ValueCount::getValue));
+        return values.size() > limit ? new ArrayList<>(values.subList(0, limit)) : values;
+    }
+}
@@ -2,22 +2,30 @@ package com.lamngo.mealsync.application.service.recipe;
 
 import com.lamngo.mealsync.application.dto.recipe.DetectedIngredientDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.event.UserEvent;
 import com.lamngo.mealsync.application.service.AI.AIRecipeService;
 import com.lamngo.mealsync.application.service.AI.RecipeImageService;
 import com.lamngo.mealsync.domain.model.user.UserPreference;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Orchestrator service that coordinates the recipe generation workflow:
  * 1. Recipe generation from ingredients
- * 2. Image generation (async)
+ * 2. Image generation (queued; eager for the first recipes, on demand for the rest)
  * 3. User history saving (async)
  * 
  * This service follows the Orchestrator pattern to coordinate multiple services.
@@ -29,19 +37,29 @@ public class RecipeGenerationOrchestrator {
     private final AIRecipeService aiRecipeService;
     private final RecipeImageService recipeImageService;
     private final RecipeService recipeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor imageBackgroundExecutor;
+    private final int eagerImageCount;
     
     public RecipeGenerationOrchestrator(
             AIRecipeService aiRecipeService,
             RecipeImageService recipeImageService,
-            RecipeService recipeService) {
+            RecipeService recipeService,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("imageBackgroundExecutor") Executor imageBackgroundExecutor,
+            @Value("${app.images.eager-count:1}") int eagerImageCount) {
         this.aiRecipeService = aiRecipeService;
         this.recipeImageService = recipeImageService;
         this.recipeService = recipeService;
+        this.eventPublisher = eventPublisher;
+        this.imageBackgroundExecutor = imageBackgroundExecutor;
+        this.eagerImageCount = eagerImageCount;
     }
     
     /**
      * Generates recipes from provided ingredients.
-     * Images are generated asynchronously in the background.
+     * Images are queued as durable jobs only for the first app.images.eager-count recipes;
+     * the rest are generated when a client first asks for them (image stream or detail fetch).
      * 
      * @param ingredients List of detected ingredients
      * @param userPreference User preferences for recipe generation
@@ -63,16 +81,50 @@ public class RecipeGenerationOrchestrator {
         long generationMs = Duration.ofNanos(System.nanoTime() - generationWaitStart).toMillis();
         logger.info("Recipe generation future completed in {} ms ({} recipes)", generationMs, recipes.size());
         
-        // Generate images asynchronously
-        recipeImageService.generateImagesForRecipes(recipes);
+        // Queue image generation (durable jobs processed in the background) for the eager subset only
+        List<RecipeReadDto> eagerRecipes = eagerImageCount < 0 || eagerImageCount >= recipes.size()
+                ? recipes
+                : recipes.subList(0, eagerImageCount);
+        try {
+            recipeImageService.enqueueImagesForRecipes(eagerRecipes);
+        } catch (Exception e) {
+            // Recipes are still usable; images can be requested again via the image stream
+            logger.error("Failed to queue image generation: {}", e.getMessage(), e);
+        }
         
         long workflowMs = Duration.ofNanos(System.nanoTime() - workflowStart).toMillis();
         logger.info("Recipe generation request completed in {} ms. Generated {} recipes", workflowMs, recipes.size());
         return recipes;
     }
     
+    /**
+     * Queues image generation for a recipe a client is looking at, if it has no image yet.
+     * Safe to call on every read: the job is queued off the request thread, concurrent requests for
+     * the same recipe are deduplicated and dead-lettered jobs are not revived on every read.
+     * 
+     * @param recipe Recipe being viewed
+     */
+    public void requestImageOnDemand(RecipeReadDto recipe) {
+        if (recipe == null || (recipe.getImageUrl() != null && !recipe.getImageUrl().isEmpty())) {
+            return;
+        }
+        try {
+            imageBackgroundExecutor.execute(() -> {
+                try {
+                    recipeImageService.enqueueImagesForRecipes(List.of(recipe));
+                } catch (Exception e) {
+                    logger.error("Failed to queue on-demand image for recipe {}: {}", recipe.getId(), e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The next stream or detail fetch of this recipe asks again
+            logger.warn("Image background pool is full, not queueing on-demand image for recipe {}", recipe.getId());
+        }
+    }
+    
     /**
      * Saves generated recipes to user's history asynchronously.
+     * Once saved, a "recipes-saved" event tells the user's other devices to refresh their recent list.
      * 
      * @param userId User ID
      * @param recipeIds List of recipe IDs to save
@@ -81,6 +133,9 @@ public class RecipeGenerationOrchestrator {
         CompletableFuture.runAsync(() -> {
             try {
                 recipeService.addGeneratedRecipesToUser(userId, recipeIds);
+                eventPublisher.publishEvent(new UserEvent(this, userId, UserEvent.TOPIC_RECIPES, "recipes-saved",
+                        new JSONObject().put("recipeIds", new JSONArray(recipeIds.stream().map(UUID::toString).toList()))
+                                .toString()));
                 logger.debug("Successfully saved {} generated recipes to user {} history", 
                         recipeIds.size(), userId);
             } catch (Exception e) {
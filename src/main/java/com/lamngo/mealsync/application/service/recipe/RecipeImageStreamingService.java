@@ -2,23 +2,37 @@ package com.lamngo.mealsync.application.service.recipe;
 
 import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
 import com.lamngo.mealsync.application.event.ImageGeneratedEvent;
+import com.lamngo.mealsync.application.event.UserChannelsClosedEvent;
+import com.lamngo.mealsync.application.event.UserEvent;
 import com.lamngo.mealsync.application.service.AI.RecipeImageService;
+import com.lamngo.mealsync.application.service.sse.SseHub;
+import com.lamngo.mealsync.application.service.sse.SseMessage;
+import com.lamngo.mealsync.application.service.sse.SseSubscriber;
 import com.lamngo.mealsync.presentation.error.BadRequestException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service responsible for managing Server-Sent Events (SSE) streams for image generation.
- * Handles SSE emitter lifecycle and event subscription.
+ * Handles stream registration per recipe and turns ImageGeneratedEvents into image-update events.
+ * Writing to the connections is left to {@link SseHub}, so the image worker thread that publishes
+ * the event only enqueues and never waits on a client.
+ *
+ * Besides the per-batch image streams, users can watch recipes on their event channel
+ * (see UserChannelService): image updates for watched recipes are published as "images" UserEvents.
+ * The user's channel may be open on another node than the one watching; the UserEvent is relayed to it.
+ * Watches end when the image arrives, when the user's last channel on any node closes, or after
+ * app.sse.user-channel.watch-ttl-ms.
  */
 @Service
 public class RecipeImageStreamingService {
@@ -26,15 +40,33 @@ public class RecipeImageStreamingService {
     
     private final RecipeService recipeService;
     private final RecipeImageService recipeImageService;
+    private final SseHub sseHub;
+    private final ImageEventReplayBuffer replayBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long watchTtlMs;
     
-    // Map to track active SSE emitters by recipe IDs
-    private final Map<UUID, Set<SseEmitter>> activeEmitters = new ConcurrentHashMap<>();
+    // Map to track active SSE streams by recipe IDs
+    private final Map<UUID, Set<SseSubscriber>> activeSubscribers = new ConcurrentHashMap<>();
+    
+    // Recipe IDs each stream is still waiting on; the stream completes when its set is empty
+    private final Map<SseSubscriber, Set<UUID>> pendingRecipes = new ConcurrentHashMap<>();
+
+    // Users watching a recipe's image on their event channel: recipe ID -> (user ID -> watched since)
+    private final Map<UUID, Map<UUID, Long>> channelWatchers = new ConcurrentHashMap<>();
     
     public RecipeImageStreamingService(
             RecipeService recipeService,
-            RecipeImageService recipeImageService) {
+            RecipeImageService recipeImageService,
+            SseHub sseHub,
+            ImageEventReplayBuffer replayBuffer,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.sse.user-channel.watch-ttl-ms:1800000}") long watchTtlMs) {
         this.recipeService = recipeService;
         this.recipeImageService = recipeImageService;
+        this.sseHub = sseHub;
+        this.replayBuffer = replayBuffer;
+        this.eventPublisher = eventPublisher;
+        this.watchTtlMs = watchTtlMs;
     }
     
     /**
@@ -44,14 +76,30 @@ public class RecipeImageStreamingService {
      * @return SseEmitter for streaming image updates
      */
     public SseEmitter createImageStream(List<UUID> recipeIds) {
+        return createImageStream(recipeIds, null);
+    }
+
+    /**
+     * Creates an SSE stream for image generation updates, or resumes one after a reconnect.
+     * Images finished before the stream was opened are re-sent from the replay buffer (or the database)
+     * instead of being generated again; recipes whose generation is already running only get a
+     * subscription, since the job queue does not start a second job for the same recipe.
+     * 
+     * @param recipeIds List of recipe IDs to stream images for
+     * @param lastEventId Last-Event-ID sent by a reconnecting EventSource, only logged: the new stream
+     *                    has sent nothing yet, so every finished image is replayed. Null for a new stream.
+     * @return SseEmitter for streaming image updates
+     */
+    public SseEmitter createImageStream(List<UUID> recipeIds, String lastEventId) {
         if (recipeIds == null || recipeIds.isEmpty()) {
             throw new BadRequestException("recipeIds parameter is required");
         }
 
-        logger.info("Starting SSE stream for {} recipe images", recipeIds.size());
+        logger.info("Starting SSE stream for {} recipe images (Last-Event-ID: {})", recipeIds.size(), lastEventId);
 
         // Create SSE emitter with 5 minute timeout
         SseEmitter emitter = new SseEmitter(300000L);
+        SseSubscriber subscriber = sseHub.subscribe(emitter);
 
         // Fetch recipes by IDs in a single transaction to minimize connection usage
         // IMPORTANT: Complete the transaction BEFORE setting up async operations to prevent connection leaks
@@ -61,174 +109,284 @@ public class RecipeImageStreamingService {
             // Transaction completes here, connection is released
         } catch (Exception e) {
             logger.error("Failed to fetch recipes for streaming: {}", e.getMessage(), e);
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("error")
-                        .data("{\"error\":\"Failed to fetch recipes: " + e.getMessage() + "\"}"));
-                emitter.completeWithError(e);
-            } catch (IOException ioException) {
-                logger.error("Failed to send error event", ioException);
+            subscriber.send("error", errorJson("Failed to fetch recipes: " + e.getMessage()));
+            subscriber.complete();
+            return emitter;
+        }
+
+        // Wait for an image-update event for every recipe that does not have an image yet
+        Set<UUID> pending = ConcurrentHashMap.newKeySet();
+        for (RecipeReadDto recipe : recipes) {
+            if (recipe.getId() != null && !hasImage(recipe)) {
+                pending.add(recipe.getId());
             }
+        }
+        boolean waiting = !pending.isEmpty();
+        if (waiting) {
+            pendingRecipes.put(subscriber, pending);
+
+            // Register the stream for each recipe ID BEFORE replaying and queueing: an event is then
+            // either delivered live or already in the replay buffer (which is updated first)
+            for (UUID recipeId : recipeIds) {
+                activeSubscribers.computeIfAbsent(recipeId, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+            // Client disconnect, timeout, write failure or slow-consumer close
+            subscriber.onClose(() -> {
+                logger.info("SSE stream closed for recipe IDs: {}", recipeIds);
+                unregister(subscriber, recipeIds);
+            });
+        }
+
+        replayFinishedImages(subscriber, recipes);
+
+        if (!waiting) {
+            logger.info("All recipes already have images, closing SSE stream");
+            subscriber.send("complete", "{\"message\":\"All images generated\"}");
+            subscriber.complete();
             return emitter;
         }
 
-        // Register emitter for each recipe ID
-        for (UUID recipeId : recipeIds) {
-            activeEmitters.computeIfAbsent(recipeId, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+        // Only recipes the replay did not resolve need a job
+        List<RecipeReadDto> stillPending = recipes.stream()
+                .filter(recipe -> recipe.getId() != null && pending.contains(recipe.getId()))
+                .toList();
+        if (stillPending.isEmpty()) {
+            return emitter;
         }
 
-        // Start image generation asynchronously (will publish events)
+        // Queue image generation (durable jobs, will publish events)
         // This happens AFTER the transaction completes, so no connection is held
-        CompletableFuture<Void> generationFuture = recipeImageService.generateImagesForRecipes(recipes);
-        
-        generationFuture.whenComplete((result, throwable) -> {
-            // Check if emitter is still valid before sending completion event
-            // Client may have already disconnected
-            try {
-                if (throwable != null) {
-                    logger.error("Image generation failed: {}", throwable.getMessage(), throwable);
-                    sendEventToEmitter(emitter, "error", 
-                            "{\"error\":\"Image generation failed: " + throwable.getMessage() + "\"}");
-                } else {
-                    logger.info("Image generation completed, closing SSE stream");
-                    sendEventToEmitter(emitter, "complete", "{\"message\":\"All images generated\"}");
+        try {
+            recipeImageService.enqueueImagesForRecipes(stillPending);
+        } catch (Exception e) {
+            logger.error("Failed to queue image generation: {}", e.getMessage(), e);
+            subscriber.send("error", errorJson("Image generation failed: " + e.getMessage()));
+            unregister(subscriber, recipeIds);
+            subscriber.complete();
+            return emitter;
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Sends the image updates of the given recipes to the user's event channel. Images that are already
+     * finished are published right away; the rest are delivered when their ImageGeneratedEvent arrives.
+     * Does not queue any generation, so a new batch can be watched without overriding the eager-count
+     * policy; use {@link #requestImages} to also generate the missing images.
+     */
+    public void watchImages(UUID userId, List<RecipeReadDto> recipes) {
+        long now = System.currentTimeMillis();
+        for (RecipeReadDto recipe : recipes) {
+            UUID recipeId = recipe.getId();
+            if (recipeId == null) {
+                continue;
+            }
+            // Register before reading the replay buffer, same as image streams
+            channelWatchers.computeIfAbsent(recipeId, k -> new ConcurrentHashMap<>()).put(userId, now);
+            Optional<ImageGeneratedEvent> buffered = replayBuffer.get(recipeId);
+            if (buffered.isPresent()) {
+                // After a failed attempt keep watching for the retry
+                if (buffered.get().isSuccess()) {
+                    unwatch(recipeId, userId);
                 }
-            } catch (Exception e) {
-                logger.debug("Failed to send completion event (client likely disconnected): {}", e.getMessage());
-            } finally {
-                completeEmitter(emitter, recipeIds, throwable);
+                publishImageUpdate(userId, buffered.get());
+            } else if (hasImage(recipe)) {
+                unwatch(recipeId, userId);
+                publishImageUpdate(userId, new ImageGeneratedEvent(
+                        this, recipeId, recipe.getName(), recipe.getImageUrl(), recipe.getCardImageUrl(),
+                        recipe.getThumbnailImageUrl(), recipe.getImageBlurHash(), true, null));
             }
-        });
+        }
+    }
 
-        // Handle client disconnect
-        emitter.onCompletion(() -> {
-            logger.info("SSE stream completed for recipe IDs: {}", recipeIds);
-            unregisterEmitter(emitter, recipeIds);
-        });
-        
-        emitter.onTimeout(() -> {
-            logger.warn("SSE stream timed out for recipe IDs: {}", recipeIds);
-            unregisterEmitter(emitter, recipeIds);
-            emitter.complete();
-        });
-        
-        emitter.onError((ex) -> {
-            logger.error("SSE stream error for recipe IDs: {}", recipeIds, ex);
-            unregisterEmitter(emitter, recipeIds);
-            emitter.completeWithError(ex);
-        });
+    /**
+     * Watches the recipes on the user's event channel and queues generation for those without an image.
+     * The channel counterpart of {@link #createImageStream(List, String)}.
+     */
+    public void requestImages(UUID userId, List<UUID> recipeIds) {
+        if (recipeIds == null || recipeIds.isEmpty()) {
+            throw new BadRequestException("recipeIds is required");
+        }
+        List<RecipeReadDto> recipes = recipeService.getRecipesByIds(recipeIds);
+        watchImages(userId, recipes);
 
-        return emitter;
+        List<RecipeReadDto> missing = recipes.stream()
+                .filter(recipe -> recipe.getId() != null && !hasImage(recipe)
+                        && replayBuffer.get(recipe.getId()).filter(ImageGeneratedEvent::isSuccess).isEmpty())
+                .toList();
+        if (!missing.isEmpty()) {
+            recipeImageService.enqueueImagesForRecipes(missing);
+        }
     }
-    
+
+    /**
+     * Published by the node where the user's last channel there closed, and relayed to the others.
+     * The user may still have a channel on a third node; its client asks again with
+     * {@link #requestImages} when it misses an update, and reconnecting clients always do.
+     */
+    @EventListener
+    public void onUserChannelsClosed(UserChannelsClosedEvent event) {
+        dropWatches(event.getUserId());
+    }
+
+    private void dropWatches(UUID userId) {
+        for (UUID recipeId : channelWatchers.keySet()) {
+            unwatch(recipeId, userId);
+        }
+    }
+
+    /**
+     * Drops channel watches whose image never arrived, e.g. recipes outside the eager count that the
+     * client never asked to generate.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.user-channel.watch-ttl-ms:1800000}")
+    public void purgeExpiredWatches() {
+        long cutoff = System.currentTimeMillis() - watchTtlMs;
+        for (UUID recipeId : channelWatchers.keySet()) {
+            channelWatchers.computeIfPresent(recipeId, (id, watchers) -> {
+                watchers.values().removeIf(since -> since < cutoff);
+                return watchers.isEmpty() ? null : watchers;
+            });
+        }
+    }
+
+    /**
+     * Sends image updates the client may have missed: the buffered event of every recipe, and images
+     * already stored in the database. Events relayed from other nodes do not arrive in id order, so an
+     * id below Last-Event-ID does not mean the client got the event; everything is sent again instead.
+     * Duplicates are harmless; the client just sets the same URL.
+     * A successful buffered event resolves a recipe, and so does a failure whose job gave up for now;
+     * after any other failure the recipe is queued again.
+     */
+    private void replayFinishedImages(SseSubscriber subscriber, List<RecipeReadDto> recipes) {
+        for (RecipeReadDto recipe : recipes) {
+            if (recipe.getId() == null) {
+                continue;
+            }
+            Optional<ImageGeneratedEvent> buffered = replayBuffer.get(recipe.getId());
+            if (buffered.isPresent()) {
+                ImageGeneratedEvent event = buffered.get();
+                subscriber.send(toImageUpdateMessage(event));
+                // Queueing a dead-lettered job again would leave the stream waiting until it times out
+                if (event.isSuccess() || recipeImageService.hasGivenUp(recipe.getId())) {
+                    markRecipeDone(subscriber, recipe.getId());
+                }
+            } else if (hasImage(recipe)) {
+                subscriber.send("image-update", toImageUpdateJson(new ImageGeneratedEvent(
+                        this, recipe.getId(), recipe.getName(), recipe.getImageUrl(), recipe.getCardImageUrl(),
+                        recipe.getThumbnailImageUrl(), recipe.getImageBlurHash(), true, null)));
+            }
+        }
+    }
+
     /**
      * Event listener for ImageGeneratedEvent.
-     * Sends SSE updates to all registered emitters for the recipe.
-     * Note: Not marked as @Async because RecipeImageService.generateImagesForRecipes is already async,
-     * and we want to avoid SecurityContext propagation issues.
+     * Queues an image-update event on every stream registered for the recipe. Runs on the thread
+     * that published the event (image worker callbacks), so it must not do any network I/O itself.
      */
     @EventListener
     public void handleImageGenerated(ImageGeneratedEvent event) {
         UUID recipeId = event.getRecipeId();
-        Set<SseEmitter> emitters = activeEmitters.get(recipeId);
+        Map<UUID, Long> watchers = channelWatchers.remove(recipeId);
+        if (watchers != null) {
+            watchers.keySet().forEach(userId -> publishImageUpdate(userId, event));
+        }
+
+        Set<SseSubscriber> subscribers = activeSubscribers.get(recipeId);
         
-        if (emitters == null || emitters.isEmpty()) {
-            logger.debug("No active emitters for recipe ID: {}", recipeId);
+        if (subscribers == null || subscribers.isEmpty()) {
+            logger.debug("No active streams for recipe ID: {}", recipeId);
             return;
         }
 
         try {
-            JSONObject eventData = new JSONObject();
-            eventData.put("recipeId", event.getRecipeId().toString());
-            eventData.put("recipeName", event.getRecipeName());
-            eventData.put("success", event.isSuccess());
-            
-            if (event.isSuccess() && event.getImageUrl() != null) {
-                eventData.put("imageUrl", event.getImageUrl());
-            } else if (event.getErrorMessage() != null) {
-                eventData.put("error", event.getErrorMessage());
+            SseMessage message = toImageUpdateMessage(event);
+            for (SseSubscriber subscriber : subscribers) {
+                subscriber.send(message);
+                markRecipeDone(subscriber, recipeId);
             }
-
-            String eventDataStr = eventData.toString();
-            
-            // Send to all registered emitters for this recipe
-            // Use iterator to safely remove while iterating
-            Iterator<SseEmitter> iterator = emitters.iterator();
-            while (iterator.hasNext()) {
-                SseEmitter emitter = iterator.next();
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name("image-update")
-                            .data(eventDataStr));
-                    logger.debug("Sent image update via SSE for recipe: {}", recipeId);
-                } catch (Exception e) {
-                    // Client disconnected or emitter is no longer usable
-                    // Remove immediately and log at debug level (this is normal)
-                    logger.debug("Failed to send SSE event to emitter for recipe {} (client likely disconnected): {}", 
-                            recipeId, e.getMessage());
-                    iterator.remove();
-                    try {
-                        emitter.completeWithError(new IOException("Emitter connection lost"));
-                    } catch (Exception ex) {
-                        // Ignore - emitter is already closed
-                    }
-                }
-            }
-            
         } catch (Exception e) {
             logger.error("Failed to process image generated event for recipe {}: {}", 
                     recipeId, e.getMessage(), e);
         }
     }
-    
-    private void sendEventToEmitter(SseEmitter emitter, String eventName, String data) {
-        if (emitter == null) {
-            return;
-        }
-        try {
-            emitter.send(SseEmitter.event()
-                    .name(eventName)
-                    .data(data));
-        } catch (Exception e) {
-            // Client disconnected or emitter is no longer usable
-            // This is normal when clients close connections, so log at debug level
-            logger.debug("Failed to send {} event to emitter (client likely disconnected): {}", 
-                    eventName, e.getMessage());
+
+    /**
+     * The event timestamp is the SSE id, so a reconnecting client's Last-Event-ID tells which
+     * buffered events it has already seen. It is the same on every node (see ClusterEventRelay).
+     */
+    private SseMessage toImageUpdateMessage(ImageGeneratedEvent event) {
+        return SseMessage.event(String.valueOf(event.getTimestamp()), "image-update", toImageUpdateJson(event));
+    }
+
+    private void publishImageUpdate(UUID userId, ImageGeneratedEvent event) {
+        eventPublisher.publishEvent(new UserEvent(this, userId, UserEvent.TOPIC_IMAGES, "image-update",
+                toImageUpdateJson(event), event.getTimestamp()));
+    }
+
+    private void unwatch(UUID recipeId, UUID userId) {
+        channelWatchers.computeIfPresent(recipeId, (id, watchers) -> {
+            watchers.remove(userId);
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    private String toImageUpdateJson(ImageGeneratedEvent event) {
+        JSONObject eventData = new JSONObject();
+        eventData.put("recipeId", event.getRecipeId().toString());
+        eventData.put("recipeName", event.getRecipeName());
+        eventData.put("success", event.isSuccess());
+        
+        if (event.isSuccess() && event.getImageUrl() != null) {
+            eventData.put("imageUrl", event.getImageUrl());
+            if (event.getCardImageUrl() != null) {
+                eventData.put("cardImageUrl", event.getCardImageUrl());
+            }
+            if (event.getThumbnailImageUrl() != null) {
+                eventData.put("thumbnailImageUrl", event.getThumbnailImageUrl());
+            }
+            if (event.getBlurHash() != null) {
+                eventData.put("blurHash", event.getBlurHash());
+            }
+        } else if (event.getErrorMessage() != null) {
+            eventData.put("error", event.getErrorMessage());
         }
+        return eventData.toString();
     }
     
-    private void completeEmitter(SseEmitter emitter, List<UUID> recipeIds, Throwable error) {
-        if (emitter == null) {
-            unregisterEmitter(emitter, recipeIds);
+    /**
+     * Completes the stream once every recipe it waits on has received its image update.
+     * The complete event is queued behind the image updates, so the client receives them first.
+     */
+    private void markRecipeDone(SseSubscriber subscriber, UUID recipeId) {
+        Set<UUID> pending = pendingRecipes.get(subscriber);
+        if (pending == null) {
             return;
         }
-        try {
-            // Check if emitter is still valid before trying to complete it
-            // If client already disconnected, the emitter will throw an exception
-            if (error != null) {
-                emitter.completeWithError(error);
-            } else {
-                emitter.complete();
-            }
-        } catch (Exception e) {
-            // Client already disconnected or emitter is no longer usable
-            // This is normal, so log at debug level
-            logger.debug("Failed to complete emitter (client likely disconnected): {}", e.getMessage());
-        } finally {
-            unregisterEmitter(emitter, recipeIds);
+        pending.remove(recipeId);
+        if (pending.isEmpty() && pendingRecipes.remove(subscriber) != null) {
+            logger.info("Image generation completed, closing SSE stream");
+            subscriber.send("complete", "{\"message\":\"All images generated\"}");
+            subscriber.complete();
         }
     }
+
+    private boolean hasImage(RecipeReadDto recipe) {
+        return recipe.getImageUrl() != null && !recipe.getImageUrl().isEmpty();
+    }
+
+    private String errorJson(String message) {
+        return new JSONObject().put("error", message).toString();
+    }
     
-    private void unregisterEmitter(SseEmitter emitter, List<UUID> recipeIds) {
+    private void unregister(SseSubscriber subscriber, List<UUID> recipeIds) {
+        pendingRecipes.remove(subscriber);
         for (UUID recipeId : recipeIds) {
-            Set<SseEmitter> emitters = activeEmitters.get(recipeId);
-            if (emitters != null) {
-                emitters.remove(emitter);
-                if (emitters.isEmpty()) {
-                    activeEmitters.remove(recipeId);
-                }
-            }
+            activeSubscribers.computeIfPresent(recipeId, (id, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
         }
     }
 }
-
@@ -0,0 +1,397 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import com.lamngo.mealsync.application.event.RecipeIngredientsChangedEvent;
+import com.lamngo.mealsync.application.service.ingredient.IngredientVocabulary;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredientMatch;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from ingredient to the recipes using it, answering "what can I cook with
+ * what I have" (POST /api/v1/recipes/match) without a query or an AI call.
+ *
+ * Every indexed recipe gets a dense int number; each ingredient keeps the numbers of its recipes in
+ * an {@link IntBitmap}. A match walks the posting lists of the given ingredients once, counting per
+ * recipe, and ranks the recipes it touched by missing ingredients, then by matched ones.
+ * Ingredients are compared by their canonical id (see {@link IngredientVocabulary}), stored with each
+ * recipe ingredient, so posting lists are looked up by array index and sets of ingredients are BitSets.
+ * Ingredients not resolved yet ({@link IngredientVocabulary#UNKNOWN}) never match, so they always
+ * count as missing, without a name, until the vocabulary backfill resolves them.
+ *
+ * The index is built from the database when the application is ready and every
+ * app.recipes.ingredient-match.rebuild-interval-ms. In between, committed saves and deletes, from
+ * this node and relayed from the others, re-read the ingredients of just the changed recipes. That
+ * read runs on a thread of its own, so the saving thread, which still holds its connection after
+ * commit, never needs a second one.
+ */
+@Component
+public class RecipeIngredientIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RecipeIngredientIndex.class);
+    // Recipes whose ingredients are read with one query while building
+    private static final int BUILD_BATCH_SIZE = 1000;
+    // Limits of the fields packed into a ranking key (see rankKey)
+    private static final int MAX_RANKED_MISSING = (1 << 20) - 1;
+    private static final int MAX_RANKED_MATCHED = (1 << 11) - 1;
+
+    private final IRecipeRepo recipeRepo;
+    private final IngredientVocabulary vocabulary;
+    private final List<String> pantryStaples;
+    private final Timer matchTimer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService reindexer;
+    private final AtomicBoolean reindexScheduled = new AtomicBoolean();
+    // Held while re-reading changed recipes
+    private final Object reindexing = new Object();
+
+    // Replaced as a whole by a build; changed in place under the write lock
+    private Postings postings = new Postings();
+    // Recipes changed while a build was reading, re-read once it is swapped in; null when not building
+    private Set<UUID> changedDuringBuild;
+    // Recipes changed since the reindexer last ran
+    private Set<UUID> pendingChanges = new HashSet<>();
+
+    public RecipeIngredientIndex(
+            IRecipeRepo recipeRepo,
+            IngredientVocabulary vocabulary,
+            MeterRegistry meterRegistry,
+            @Value("${app.recipes.ingredient-match.pantry-staples:salt,pepper,black pepper,water}") List<String> pantryStaples) {
+        this.recipeRepo = recipeRepo;
+        this.vocabulary = vocabulary;
+        // Resolved on every match: the vocabulary is loaded after this index is created
+        this.pantryStaples = List.copyOf(pantryStaples);
+        this.matchTimer = Timer.builder("mealsync.recipe_match.duration")
+                .description("Time to rank the catalog against a list of ingredients")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.reindexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingredient-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("mealsync.recipe_match.recipes", this, RecipeIngredientIndex::size)
+                .description("Recipes in the ingredient index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reads the ingredients of every recipe, in batches, into a new index and swaps it in.
+     * Queries keep being answered from the previous index meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${app.recipes.ingredient-match.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.recipes.ingredient-match.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (this) {
+            changedDuringBuild = new HashSet<>();
+        }
+        Set<UUID> changed = Set.of();
+        try {
+            Postings built = new Postings();
+            List<UUID> recipeIds = recipeRepo.findAllRecipeIds();
+            for (int from = 0; from < recipeIds.size(); from += BUILD_BATCH_SIZE) {
+                List<UUID> batch = recipeIds.subList(from, Math.min(recipeIds.size(), from + BUILD_BATCH_SIZE));
+                Map<UUID, int[]> ingredientIds = recipeRepo.findCanonicalIngredientIds(batch);
+                for (UUID recipeId : batch) {
+                    built.put(recipeId, ingredientIds.getOrDefault(recipeId, new int[0]));
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                postings = built;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.debug("Ingredient index built: {} recipes", built.liveCount);
+        } catch (Exception e) {
+            logger.error("Could not build the ingredient index: {}", e.getMessage(), e);
+        } finally {
+            synchronized (this) {
+                changed = changedDuringBuild;
+                changedDuringBuild = null;
+            }
+        }
+        // Changes applied to the previous index during the build may be missing from the new one
+        reindex(changed);
+    }
+
+    /**
+     * Queues the recipes that were saved or deleted for the reindexer, once the change has committed.
+     * Changes arriving while it runs are read together on its next run.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngredientsChanged(RecipeIngredientsChangedEvent event) {
+        synchronized (this) {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.addAll(event.getRecipeIds());
+            }
+            pendingChanges.addAll(event.getRecipeIds());
+        }
+        if (reindexScheduled.compareAndSet(false, true)) {
+            try {
+                reindexer.execute(this::reindexPending);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                reindexScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Re-reads the ingredients of the recipes changed since the last run. Runs on the reindexer.
+     */
+    void reindexPending() {
+        synchronized (reindexing) {
+            // Cleared first: a change queued while this runs schedules the next run
+            reindexScheduled.set(false);
+            Set<UUID> changed;
+            synchronized (this) {
+                changed = pendingChanges;
+                pendingChanges = new HashSet<>();
+            }
+            reindex(changed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reindexer.shutdownNow();
+    }
+
+    /**
+     * Recipes ranked by how well the ingredients cover them: fewest missing ingredients first, then
+     * most matched ones, then newest. Only recipes using at least one of the ingredients are ranked;
+     * pantry staples (app.recipes.ingredient-match.pantry-staples) count as present but do not make a
+     * recipe match on their own.
+     *
+     * @param ingredientNames Ingredients at hand, in any spelling or synonym the vocabulary knows
+     * @param limit Maximum number of recipes
+     */
+    public List<RecipeIngredientMatch> match(Collection<String> ingredientNames, int limit) {
+        BitSet have = new BitSet();
+        for (String name : ingredientNames) {
+            int ingredientId = vocabulary.idOf(name);
+            if (ingredientId != IngredientVocabulary.UNKNOWN) {
+                have.set(ingredientId);
+            }
+        }
+        if (have.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Postings index = postings;
+            int[] matched = new int[index.recipeIds.size()];
+            BitSet touched = new BitSet(matched.length);
+            BitSet present = (BitSet) have.clone();
+            for (String staple : pantryStaples) {
+                int ingredientId = vocabulary.idOf(staple);
+                IntBitmap recipes = index.recipes(ingredientId);
+                if (recipes != null && !present.get(ingredientId)) {
+                    present.set(ingredientId);
+                    recipes.forEach(doc -> matched[doc]++);
+                }
+            }
+            for (int ingredientId = have.nextSetBit(0); ingredientId >= 0; ingredientId = have.nextSetBit(ingredientId + 1)) {
+                IntBitmap recipes = index.recipes(ingredientId);
+                if (recipes != null) {
+                    recipes.forEach(doc -> {
+                        matched[doc]++;
+                        touched.set(doc);
+                    });
+                }
+            }
+            // Removed recipes stay in the posting lists until the next compaction
+            touched.and(index.live);
+
+            long[] keys = new long[touched.cardinality()];
+            int count = 0;
+            for (int doc = touched.nextSetBit(0); doc >= 0; doc = touched.nextSetBit(doc + 1)) {
+                keys[count++] = rankKey(index.ingredientsByDoc.get(doc).length - matched[doc], matched[doc], doc);
+            }
+            Arrays.sort(keys);
+
+            List<RecipeIngredientMatch> matches = new ArrayList<>(Math.min(limit, keys.length));
+            for (int i = 0; i < keys.length && i < limit; i++) {
+                int doc = Integer.MAX_VALUE - (int) (keys[i] & Integer.MAX_VALUE);
+                int[] ingredientIds = index.ingredientsByDoc.get(doc);
+                List<String> missing = new ArrayList<>();
+                for (int ingredientId : ingredientIds) {
+                    if (ingredientId == IngredientVocabulary.UNKNOWN) {
+                        continue;
+                    }
+                    String name = present.get(ingredientId) ? null : vocabulary.nameOf(ingredientId);
+                    if (name != null) {
+                        missing.add(name);
+                    }
+                }
+                matches.add(new RecipeIngredientMatch(index.recipeIds.get(doc), matched[doc], ingredientIds.length, missing));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+            matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return postings.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Missing count, inverted matched count and inverted recipe number packed into one long, so
+     * that ascending order is the ranking and the recipe number can be read back from the low 31 bits.
+     */
+    private static long rankKey(int missing, int matched, int doc) {
+        long missingPart = Math.min(missing, MAX_RANKED_MISSING);
+        long matchedPart = MAX_RANKED_MATCHED - Math.min(matched, MAX_RANKED_MATCHED);
+        // Higher numbers were indexed later: newer recipes first among equals
+        long docPart = Integer.MAX_VALUE - doc;
+        return (missingPart << 42) | (matchedPart << 31) | docPart;
+    }
+
+    private void reindex(Set<UUID> recipeIds) {
+        if (recipeIds == null || recipeIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, int[]> ingredientIds;
+        try {
+            ingredientIds = recipeRepo.findCanonicalIngredientIds(recipeIds);
+        } catch (Exception e) {
+            logger.warn("Could not update the ingredient index for {} recipes: {}", recipeIds.size(), e.getMessage());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (UUID recipeId : recipeIds) {
+                int[] recipeIngredients = ingredientIds.get(recipeId);
+                if (recipeIngredients == null) {
+                    postings.remove(recipeId);
+                } else {
+                    postings.put(recipeId, recipeIngredients);
+                }
+            }
+            if (postings.needsCompaction()) {
+                postings = postings.compacted();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The index data. Not thread-safe; guarded by the lock of the enclosing index.
+     */
+    private static final class Postings {
+        // By canonical ingredient id; null for ingredients no indexed recipe uses
+        IntBitmap[] recipesByIngredient = new IntBitmap[64];
+        // By recipe number; null once the recipe was removed or re-indexed under a new number
+        final List<UUID> recipeIds = new ArrayList<>();
+        final List<int[]> ingredientsByDoc = new ArrayList<>();
+        final Map<UUID, Integer> docs = new HashMap<>();
+        final BitSet live = new BitSet();
+        int liveCount;
+
+        IntBitmap recipes(int ingredientId) {
+            return ingredientId > 0 && ingredientId < recipesByIngredient.length
+                    ? recipesByIngredient[ingredientId]
+                    : null;
+        }
+
+        /**
+         * Indexes the recipe under a new number (replacing its previous one), so posting lists only
+         * ever grow at their end. Recipes without (resolved) ingredients are not indexed.
+         *
+         * @param ingredientIds Distinct canonical ingredient ids of the recipe, plus an UNKNOWN entry
+         *                      per unresolved ingredient; those are counted but have no posting list
+         */
+        void put(UUID recipeId, int[] ingredientIds) {
+            remove(recipeId);
+            if (ingredientIds.length == 0) {
+                return;
+            }
+            int doc = recipeIds.size();
+            recipeIds.add(recipeId);
+            ingredientsByDoc.add(ingredientIds);
+            docs.put(recipeId, doc);
+            live.set(doc);
+            liveCount++;
+            for (int ingredientId : ingredientIds) {
+                if (ingredientId == IngredientVocabulary.UNKNOWN) {
+                    continue;
+                }
+                if (ingredientId >= recipesByIngredient.length) {
+                    recipesByIngredient = Arrays.copyOf(recipesByIngredient,
+                            Math.max(ingredientId + 1, recipesByIngredient.length * 2));
+                }
+                if (recipesByIngredient[ingredientId] == null) {
+                    recipesByIngredient[ingredientId] = new IntBitmap();
+                }
+                recipesByIngredient[ingredientId].add(doc);
+            }
+        }
+
+        void remove(UUID recipeId) {
+            Integer doc = docs.remove(recipeId);
+            if (doc != null) {
+                live.clear(doc);
+                recipeIds.set(doc, null);
+                ingredientsByDoc.set(doc, null);
+                liveCount--;
+            }
+        }
+
+        boolean needsCompaction() {
+            int dead = recipeIds.size() - liveCount;
+            return dead > 1024 && dead > liveCount;
+        }
+
+        /**
+         * The live recipes renumbered from zero, without touching the database.
+         */
+        Postings compacted() {
+            Postings compacted = new Postings();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                compacted.put(recipeIds.get(doc), ingredientsByDoc.get(doc));
+            }
+            return compacted;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.mapper.recipe.RecipeMapper;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes and reads recipes.read_document: the RecipeReadDto of a recipe as JSON, rendered once when
+ * the recipe is saved instead of on every read.
+ *
+ * Id, createdAt, updatedAt and the image columns are left out of the document. They are set by the
+ * database or by set-based UPDATEs that never load the entity (image generation), so they are read
+ * from their own columns of the same row and overlaid in {@link #toDto}.
+ */
+@Component
+public class RecipeReadDocumentCodec {
+    private final RecipeMapper recipeMapper;
+    private final ObjectMapper writer;
+    private final ObjectReader reader;
+
+    public RecipeReadDocumentCodec(RecipeMapper recipeMapper, ObjectMapper objectMapper) {
+        this.recipeMapper = recipeMapper;
+        this.writer = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        // Documents written by an older version may carry fields the DTO no longer has
+        this.reader = objectMapper.readerFor(RecipeReadDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Renders the read document of a recipe about to be saved.
+     */
+    public String render(Recipe recipe) {
+        RecipeReadDto dto = recipeMapper.toRecipeReadDto(recipe);
+        dto.setId(null);
+        dto.setCreatedAt(null);
+        dto.setUpdatedAt(null);
+        dto.setImageUrl(null);
+        dto.setCardImageUrl(null);
+        dto.setThumbnailImageUrl(null);
+        dto.setImageBlurHash(null);
+        try {
+            return writer.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render read document of recipe " + recipe.getName(), e);
+        }
+    }
+
+    /**
+     * The response body of a recipe, from its read document and the columns kept outside of it.
+     */
+    public RecipeReadDto toDto(RecipeReadDocument document) {
+        RecipeReadDto dto;
+        try {
+            dto = reader.readValue(document.getDocument());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid read document of recipe " + document.getId(), e);
+        }
+        dto.setId(document.getId());
+        dto.setCreatedAt(document.getCreatedAt());
+        dto.setUpdatedAt(document.getUpdatedAt());
+        dto.setImageUrl(document.getImageUrl());
+        dto.setCardImageUrl(document.getCardImageUrl());
+        dto.setThumbnailImageUrl(document.getThumbnailImageUrl());
+        dto.setImageBlurHash(document.getImageBlurHash());
+        return dto;
+    }
+
+    /**
+     * The counted values of a recipe as they were when its read document was rendered. Lets a save
+     * tell what it changes without loading the previous state of the recipe.
+     */
+    public RecipeFacets facetsOf(String document) {
+        RecipeReadDto dto;
+        try {
+            dto = reader.readValue(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid read document", e);
+        }
+        return new RecipeFacets(dto.getCuisine(), dto.getDifficulty(),
+                dto.getTags() == null ? List.of() : dto.getTags(), dto.getTotalTime());
+    }
+}
@@ -1,5 +1,6 @@
 package com.lamngo.mealsync.application.service.recipe;
 
+import com.lamngo.mealsync.application.service.ingredient.IngredientVocabulary;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
 import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
 import com.lamngo.mealsync.domain.model.user.User;
@@ -15,9 +16,11 @@ import java.util.stream.Collectors;
 public class RecipeRecommendationService {
 
     private final IRecipeRepo recipeRepo;
+    private final IngredientVocabulary ingredientVocabulary;
 
-    public RecipeRecommendationService(IRecipeRepo recipeRepo) {
+    public RecipeRecommendationService(IRecipeRepo recipeRepo, IngredientVocabulary ingredientVocabulary) {
         this.recipeRepo = recipeRepo;
+        this.ingredientVocabulary = ingredientVocabulary;
     }
 
     public List<Recipe> getRecommendedRecipes(User user, int limit) {
@@ -170,12 +173,26 @@ public class RecipeRecommendationService {
         List<String> lowerDisliked = preference.getDislikedIngredients().stream()
                 .map(String::toLowerCase)
                 .toList();
+        // Canonical ids also catch plurals and synonyms ("coriander" for "cilantro")
+        BitSet dislikedIds = new BitSet();
+        for (String disliked : lowerDisliked) {
+            int id = ingredientVocabulary.idOf(disliked);
+            if (id != IngredientVocabulary.UNKNOWN) {
+                dislikedIds.set(id);
+            }
+        }
 
         int violationCount = 0;
         for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            Integer canonicalId = ingredient.getCanonicalIngredientId();
+            if (canonicalId != null && dislikedIds.get(canonicalId)) {
+                violationCount++;
+                continue;
+            }
+            // Names containing a disliked one ("peanut butter" for "peanut") have an id of their own
             String lowerIngredient = ingredient.getName().toLowerCase();
             for (String disliked : lowerDisliked) {
-                if (lowerIngredient.contains(disliked.toLowerCase())) {
+                if (lowerIngredient.contains(disliked)) {
                     violationCount++;
                 }
             }
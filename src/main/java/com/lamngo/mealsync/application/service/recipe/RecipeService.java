@@ -1,34 +1,47 @@
 package com.lamngo.mealsync.application.service.recipe;
 
+import com.lamngo.mealsync.application.dto.recipe.DetectedIngredientDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeCreateDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeIngredientReadDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeMatchResultDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeSearchResultDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeUpdateDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeVersionDto;
 import com.lamngo.mealsync.application.dto.userRecipe.UserRecipeReadDto;
 import com.lamngo.mealsync.application.mapper.UserRecipeMapper;
 import com.lamngo.mealsync.application.mapper.recipe.RecipeIngredientMapper;
 import com.lamngo.mealsync.application.mapper.recipe.RecipeMapper;
-import com.lamngo.mealsync.application.service.AWS.S3Service;
+import com.lamngo.mealsync.application.service.storage.ImageStorage;
 import com.lamngo.mealsync.application.shared.OffsetPage;
+import com.lamngo.mealsync.application.shared.PageCursor;
 import com.lamngo.mealsync.application.shared.PaginationResponse;
 import com.lamngo.mealsync.domain.model.UserRecipe;
 import com.lamngo.mealsync.domain.model.UserRecipeType;
+import com.lamngo.mealsync.domain.model.image.ImageDeletion;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
 import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredientMatch;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
+import com.lamngo.mealsync.domain.model.recipe.RecipeSearchHit;
 import com.lamngo.mealsync.domain.model.user.User;
 import com.lamngo.mealsync.domain.repository.IUserRecipeRepo;
+import com.lamngo.mealsync.domain.repository.image.IImageDeletionRepo;
 import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
 import com.lamngo.mealsync.domain.repository.user.IUserRepo;
+import com.lamngo.mealsync.presentation.error.BadRequestException;
 import com.lamngo.mealsync.presentation.error.ResourceNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -42,12 +55,16 @@ public class RecipeService implements IRecipeService {
     private final IUserRepo userRepo;
     private final RecipeIngredientMapper recipeIngredientMapper;
     private final RecipeRecommendationService recommendationService;
-    private final S3Service s3Service;
+    private final ImageStorage imageStorage;
+    private final IImageDeletionRepo imageDeletionRepo;
+    private final RecipeReadDocumentCodec readDocumentCodec;
+    private final RecipeIngredientIndex ingredientIndex;
 
     public RecipeService(IRecipeRepo recipeRepo, RecipeMapper recipeMapper,
                          IUserRecipeRepo userRecipeRepo, UserRecipeMapper userRecipeMapper, IUserRepo userRepo,
                          RecipeIngredientMapper recipeIngredientMapper, RecipeRecommendationService recommendationService,
-                         S3Service s3Service) {
+                         ImageStorage imageStorage, IImageDeletionRepo imageDeletionRepo,
+                         RecipeReadDocumentCodec readDocumentCodec, RecipeIngredientIndex ingredientIndex) {
         this.recipeRepo = recipeRepo;
         this.recipeMapper = recipeMapper;
         this.userRecipeRepo = userRecipeRepo;
@@ -55,7 +72,10 @@ public class RecipeService implements IRecipeService {
         this.userRepo = userRepo;
         this.recipeIngredientMapper = recipeIngredientMapper;
         this.recommendationService = recommendationService;
-        this.s3Service = s3Service;
+        this.imageStorage = imageStorage;
+        this.imageDeletionRepo = imageDeletionRepo;
+        this.readDocumentCodec = readDocumentCodec;
+        this.ingredientIndex = ingredientIndex;
     }
 
     @Override
@@ -80,10 +100,23 @@ public class RecipeService implements IRecipeService {
     @Override
     @Transactional(readOnly = true)
     public RecipeReadDto getRecipeById(UUID id) {
-        
-        Optional<Recipe> recipeOpt = recipeRepo.getRecipeById(id);
-        return recipeOpt.map(recipeMapper::toRecipeReadDto)
+        // Served from the read document: one row, no child tables, no entity mapping
+        return recipeRepo.findReadDocument(id)
+                .map(readDocumentCodec::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RecipeVersionDto getRecipeVersion(UUID id) {
+        // Columns next to the read document, usually from the cache; the document itself is not parsed
+        RecipeReadDocument document = recipeRepo.findReadDocument(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + id));
+        return RecipeVersionDto.builder()
+                .id(id)
+                .lastModified(document.getUpdatedAt() != null ? document.getUpdatedAt() : document.getCreatedAt())
+                .imageReady(document.getImageUrl() != null && !document.getImageUrl().isEmpty())
+                .build();
     }
 
     @Override
@@ -93,10 +126,32 @@ public class RecipeService implements IRecipeService {
             return List.of();
         }
         
-        // Fetch all recipes in a SINGLE batch query (not N individual queries)
-        // This significantly improves performance when fetching multiple recipes
-        return recipeRepo.getRecipesByIds(ids).stream()
-                .map(recipeMapper::toRecipeReadDto)
+        // Read documents of all recipes in a SINGLE single-table query (not N individual queries)
+        return recipeRepo.findReadDocuments(ids).stream()
+                .map(readDocumentCodec::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecipeMatchResultDto> matchRecipes(List<DetectedIngredientDto> ingredients, int limit) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            throw new BadRequestException("Ingredients list is empty or null");
+        }
+        // Ranked in memory; only the recipes shown are read, from their read documents
+        List<RecipeIngredientMatch> matches = ingredientIndex.match(
+                ingredients.stream().map(DetectedIngredientDto::getName).toList(), limit);
+        Map<UUID, RecipeReadDto> recipes = getRecipesByIds(matches.stream().map(RecipeIngredientMatch::getRecipeId).toList())
+                .stream()
+                .collect(Collectors.toMap(RecipeReadDto::getId, recipe -> recipe));
+        return matches.stream()
+                .filter(match -> recipes.containsKey(match.getRecipeId()))
+                .map(match -> RecipeMatchResultDto.builder()
+                        .recipe(recipes.get(match.getRecipeId()))
+                        .matchedIngredients(match.getMatchedIngredients())
+                        .totalIngredients(match.getTotalIngredients())
+                        .missingIngredients(match.getMissingIngredients())
+                        .build())
                 .toList();
     }
 
@@ -121,9 +176,9 @@ public class RecipeService implements IRecipeService {
                                                             List<String> ingredients, String difficulty,
                                                             Integer maxTotalTime, Integer minServings) {
         OffsetPage page = new OffsetPage(limit, offset);
-        Page<Recipe> recipePage = recipeRepo.getAllRecipesFiltered(page, name, cuisines, tags, ingredients, difficulty, maxTotalTime, minServings);
+        Page<RecipeReadDocument> recipePage = recipeRepo.getAllRecipesFiltered(page, name, cuisines, tags, ingredients, difficulty, maxTotalTime, minServings);
         List<RecipeReadDto> recipeReadDtos = recipePage.getContent().stream()
-                .map(recipeMapper::toRecipeReadDto)
+                .map(readDocumentCodec::toDto)
                 .collect(Collectors.toList());
         return PaginationResponse.<RecipeReadDto>builder()
                 .data(recipeReadDtos)
@@ -134,6 +189,51 @@ public class RecipeService implements IRecipeService {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginationResponse<RecipeReadDto> getRecipesAfter(String cursor, int limit, boolean includeTotal, String name,
+                                                             List<String> cuisines, List<String> tags, List<String> ingredients,
+                                                             String difficulty, Integer maxTotalTime, Integer minServings) {
+        Slice<RecipeReadDocument> slice = recipeRepo.getRecipesAfter(PageCursor.decode(cursor), limit, name, cuisines, tags,
+                ingredients, difficulty, maxTotalTime, minServings);
+        List<RecipeReadDocument> recipes = slice.getContent();
+        String nextCursor = slice.hasNext() && !recipes.isEmpty()
+                ? recipeCursor(recipes.get(recipes.size() - 1)).encode()
+                : null;
+        return PaginationResponse.<RecipeReadDto>builder()
+                .data(recipes.stream().map(readDocumentCodec::toDto).collect(Collectors.toList()))
+                .limit(limit)
+                .totalElements(includeTotal
+                        ? recipeRepo.countRecipesFiltered(name, cuisines, tags, ingredients, difficulty, maxTotalTime, minServings)
+                        : null)
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public PaginationResponse<RecipeSearchResultDto> searchRecipes(String query, int limit, int offset) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query cannot be empty");
+        }
+        OffsetPage page = new OffsetPage(limit, offset);
+        Page<RecipeSearchHit> hitPage = recipeRepo.searchRecipes(query, page);
+        List<RecipeSearchResultDto> results = hitPage.getContent().stream()
+                .map(hit -> RecipeSearchResultDto.builder()
+                        .recipe(recipeMapper.toRecipeReadDto(hit.getRecipe()))
+                        .rank(hit.getRank())
+                        .snippet(hit.getSnippet())
+                        .build())
+                .collect(Collectors.toList());
+        return PaginationResponse.<RecipeSearchResultDto>builder()
+                .data(results)
+                .offset(offset)
+                .limit(limit)
+                .totalElements(hitPage.getTotalElements())
+                .hasNext(hitPage.hasNext())
+                .build();
+    }
+
     @Override
     @Transactional
     public RecipeReadDto updateRecipe(UUID id, RecipeUpdateDto recipeUpdateDto) {
@@ -160,14 +260,24 @@ public class RecipeService implements IRecipeService {
         Recipe recipe = recipeRepo.getRecipeById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + id));
 
-        // Delete the image from S3 if it exists
-        if (recipe.getImageUrl() != null && !recipe.getImageUrl().isEmpty()) {
-            try {
-                s3Service.deleteImage(recipe.getImageUrl());
-                logger.info("Image deleted from S3 for recipe ID: {}", id);
-            } catch (Exception e) {
-                logger.error("Failed to delete image from S3 for recipe ID: {}, continuing with recipe deletion", id, e);
-                // Continue with recipe deletion even if S3 deletion fails
+        // Queue the image and its resized variants for deletion from S3 (outbox, same transaction).
+        // The S3 calls happen later in ImageDeletionWorker, so no connection is held during them.
+        // Images can be shared with equivalent recipes; keep them while another recipe still uses them.
+        boolean imageShared = recipe.getImageUrl() != null
+                && recipeRepo.countRecipesByImageUrl(recipe.getImageUrl()) > 1;
+        if (imageShared) {
+            logger.info("Image of recipe ID: {} is shared with other recipes, keeping it in S3", id);
+        } else {
+            List<ImageDeletion> deletions = new ArrayList<>();
+            for (String imageUrl : Arrays.asList(recipe.getImageUrl(), recipe.getCardImageUrl(), recipe.getThumbnailImageUrl())) {
+                String objectKey = imageUrl != null && !imageUrl.isEmpty() ? imageStorage.extractKeyFromUrl(imageUrl) : null;
+                if (objectKey != null && !objectKey.isEmpty()) {
+                    deletions.add(new ImageDeletion(objectKey));
+                }
+            }
+            if (!deletions.isEmpty()) {
+                imageDeletionRepo.saveAll(deletions);
+                logger.info("Queued {} images of recipe ID: {} for deletion", deletions.size(), id);
             }
         }
 
@@ -234,75 +344,37 @@ public class RecipeService implements IRecipeService {
     @Override
     @Transactional(readOnly = true)
     public PaginationResponse<UserRecipeReadDto> getSavedRecipesByUserId(UUID userId, int limit, int offset) {
-        // Fetch all saved recipes for the user
-        List<UserRecipe> allUserRecipes = userRecipeRepo.getUserRecipesByUserIdAndType(userId, UserRecipeType.SAVED);
-        
-        logger.debug("Fetched {} saved recipes for user {}", allUserRecipes.size(), userId);
-        
-        // Filter out any entries with null recipe (safety check)
-        List<UserRecipe> validUserRecipes = allUserRecipes.stream()
-                .filter(ur -> ur != null && ur.getRecipe() != null && ur.getRecipe().getId() != null)
+        // Every saved entry, newest first, paged and counted in the database; recipes come fetched
+        // with the entries, so async image URL updates are visible
+        Page<UserRecipe> page = userRecipeRepo.getUserRecipes(
+                userId, UserRecipeType.SAVED, new OffsetPage(limit, offset));
+        List<UserRecipeReadDto> savedRecipes = page.getContent().stream()
+                .map(userRecipeMapper::toUserRecipeReadDto)
                 .collect(Collectors.toList());
-        
-        if (validUserRecipes.size() != allUserRecipes.size()) {
-            logger.warn("Filtered out {} invalid UserRecipe entries (null recipe or recipe ID) for user {}", 
-                       allUserRecipes.size() - validUserRecipes.size(), userId);
-        }
-        
-        // Sort by savedAt DESC to ensure most recent entries come first
-        validUserRecipes.sort((a, b) -> {
-            if (a.getSavedAt() == null && b.getSavedAt() == null) return 0;
-            if (a.getSavedAt() == null) return 1;
-            if (b.getSavedAt() == null) return -1;
-            return b.getSavedAt().compareTo(a.getSavedAt()); // DESC order
-        });
-        
-        // Extract recipe IDs and fetch recipes directly from database to get latest imageUrl
-        // This ensures we get the most up-to-date Recipe entities, including async-updated image URLs
-        // The lazy-loaded Recipe from UserRecipe might be stale from Hibernate session cache
-        List<UUID> recipeIds = validUserRecipes.stream()
-                .map(ur -> ur.getRecipe().getId())
-                .distinct()
-                .collect(Collectors.toList());
-        
-        // Fetch recipes directly by IDs to get latest data (including updated imageUrl)
-        Map<UUID, RecipeReadDto> recipeMap = getRecipesByIds(recipeIds).stream()
-                .collect(Collectors.toMap(RecipeReadDto::getId, dto -> dto));
-        
-        // Map to DTOs using fresh recipes
-        List<UserRecipeReadDto> allDtos = validUserRecipes.stream()
-                .map(ur -> {
-                    // Map UserRecipe to DTO first
-                    UserRecipeReadDto dto = userRecipeMapper.toUserRecipeReadDto(ur);
-                    // Replace with fresh RecipeReadDto that has latest imageUrl
-                    if (dto != null && dto.getRecipe() != null) {
-                        RecipeReadDto freshRecipe = recipeMap.get(dto.getRecipe().getId());
-                        if (freshRecipe != null) {
-                            dto.setRecipe(freshRecipe);
-                        }
-                    }
-                    return dto;
-                })
-                .filter(dto -> dto != null && dto.getRecipe() != null && dto.getRecipe().getId() != null)
-                .collect(Collectors.toList());
-        
-        // Apply pagination
-        int totalElements = allDtos.size();
-        int start = Math.min(offset, totalElements);
-        int end = Math.min(offset + limit, totalElements);
-        List<UserRecipeReadDto> paginatedRecipes = start < end 
-                ? allDtos.subList(start, end)
-                : List.of();
-        
-        logger.debug("Returning {} saved recipes (page: offset={}, limit={}, total={}) for user {}", 
-                    paginatedRecipes.size(), offset, limit, totalElements, userId);
-        
+
+        logger.debug("Returning {} saved recipes (page: offset={}, limit={}, total={}) for user {}",
+                    savedRecipes.size(), offset, limit, page.getTotalElements(), userId);
+
         return PaginationResponse.<UserRecipeReadDto>builder()
-                .data(paginatedRecipes)
+                .data(savedRecipes)
                 .offset(offset)
                 .limit(limit)
-                .totalElements((long) totalElements)
-                .hasNext(end < totalElements)
+                .totalElements(page.getTotalElements())
+                .hasNext(page.hasNext())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginationResponse<UserRecipeReadDto> getSavedRecipesAfter(UUID userId, String cursor, int limit, boolean includeTotal) {
+        Slice<UserRecipe> slice = userRecipeRepo.getUserRecipesAfter(
+                userId, UserRecipeType.SAVED, PageCursor.decode(cursor), limit);
+        return PaginationResponse.<UserRecipeReadDto>builder()
+                .data(slice.getContent().stream().map(userRecipeMapper::toUserRecipeReadDto).collect(Collectors.toList()))
+                .limit(limit)
+                .totalElements(includeTotal ? userRecipeRepo.countUserRecipes(userId, UserRecipeType.SAVED) : null)
+                .hasNext(slice.hasNext())
+                .nextCursor(historyNextCursor(slice))
                 .build();
     }
 
@@ -397,81 +469,55 @@ public class RecipeService implements IRecipeService {
     @Transactional(readOnly = true)
     public PaginationResponse<RecipeReadDto> getRecentGeneratedRecipes(UUID userId, int limit, int offset) {
         logger.info("Getting recent generated recipes for user with ID: {}", userId);
-        
-        // Fetch all generated recipes for the user
-        List<UserRecipe> allUserRecipes = userRecipeRepo.getUserRecipesByUserIdAndType(userId, UserRecipeType.GENERATED);
-        
-        logger.debug("Fetched {} generated recipes for user {}", allUserRecipes.size(), userId);
-        
-        // Filter out any entries with null recipe (safety check)
-        List<UserRecipe> validUserRecipes = allUserRecipes.stream()
-                .filter(ur -> ur != null && ur.getRecipe() != null && ur.getRecipe().getId() != null)
-                .collect(Collectors.toList());
-        
-        if (validUserRecipes.size() != allUserRecipes.size()) {
-            logger.warn("Filtered out {} invalid UserRecipe entries (null recipe or recipe ID) for user {}", 
-                       allUserRecipes.size() - validUserRecipes.size(), userId);
-        }
-        
-        // Sort by savedAt DESC to ensure most recent entries come first
-        validUserRecipes.sort((a, b) -> {
-            if (a.getSavedAt() == null && b.getSavedAt() == null) return 0;
-            if (a.getSavedAt() == null) return 1;
-            if (b.getSavedAt() == null) return -1;
-            return b.getSavedAt().compareTo(a.getSavedAt()); // DESC order
-        });
-        
-        // Extract recipe IDs and fetch recipes directly from database to get latest imageUrl
-        // This ensures we get the most up-to-date Recipe entities, including async-updated image URLs
-        // The lazy-loaded Recipe from UserRecipe might be stale from Hibernate session cache
-        List<UUID> recipeIds = validUserRecipes.stream()
-                .map(ur -> ur.getRecipe().getId())
-                .distinct()
-                .collect(Collectors.toList());
-        
-        // Fetch recipes directly by IDs to get latest data (including updated imageUrl)
-        Map<UUID, RecipeReadDto> recipeMap = getRecipesByIds(recipeIds).stream()
-                .collect(Collectors.toMap(RecipeReadDto::getId, dto -> dto));
-        
-        // Map to RecipeReadDto using the freshly fetched recipes, preserving order
-        List<RecipeReadDto> allRecipeDtos = validUserRecipes.stream()
-                .map(ur -> recipeMap.get(ur.getRecipe().getId()))
-                .filter(dto -> dto != null && dto.getId() != null)
+
+        // A recipe generated several times shows up once, at its most recent generation
+        Page<UserRecipe> page = userRecipeRepo.getLatestUserRecipes(
+                userId, UserRecipeType.GENERATED, new OffsetPage(limit, offset));
+        List<RecipeReadDto> recentRecipes = page.getContent().stream()
+                .map(userRecipe -> recipeMapper.toRecipeReadDto(userRecipe.getRecipe()))
                 .collect(Collectors.toList());
-        
-        // Deduplicate by recipe ID, keeping the most recent entry (first in sorted list)
-        // Use LinkedHashMap to preserve insertion order (most recent first)
-        Map<UUID, RecipeReadDto> uniqueRecipesMap = new LinkedHashMap<>();
-        for (RecipeReadDto dto : allRecipeDtos) {
-            UUID recipeId = dto.getId();
-            // Only add if we haven't seen this recipe ID before (keep first/most recent)
-            uniqueRecipesMap.putIfAbsent(recipeId, dto);
-        }
-        
-        List<RecipeReadDto> deduplicatedRecipes = new ArrayList<>(uniqueRecipesMap.values());
-        
-        int duplicatesRemoved = allRecipeDtos.size() - deduplicatedRecipes.size();
-        if (duplicatesRemoved > 0) {
-            logger.info("Removed {} duplicate generated recipe entries for user {} (kept most recent)", duplicatesRemoved, userId);
-        }
-        
-        // Apply pagination to deduplicated list
-        int totalElements = deduplicatedRecipes.size();
-        int start = Math.min(offset, totalElements);
-        int end = Math.min(offset + limit, totalElements);
-        List<RecipeReadDto> paginatedRecipes = start < end 
-                ? deduplicatedRecipes.subList(start, end)
-                : List.of();
-        
-        logger.debug("Returning {} generated recipes (page: offset={}, limit={}, total={}) for user {}", 
-                    paginatedRecipes.size(), offset, limit, totalElements, userId);
-        
+
+        logger.debug("Returning {} generated recipes (page: offset={}, limit={}, total={}) for user {}",
+                    recentRecipes.size(), offset, limit, page.getTotalElements(), userId);
+
         return PaginationResponse.<RecipeReadDto>builder()
-                .data(paginatedRecipes)
+                .data(recentRecipes)
                 .offset(offset)
                 .limit(limit)
-                .totalElements((long) totalElements)
-                .hasNext(end < totalElements)
+                .totalElements(page.getTotalElements())
+                .hasNext(page.hasNext())
                 .build();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginationResponse<RecipeReadDto> getRecentGeneratedRecipesAfter(UUID userId, String cursor, int limit, boolean includeTotal) {
+        Slice<UserRecipe> slice = userRecipeRepo.getLatestUserRecipesAfter(
+                userId, UserRecipeType.GENERATED, PageCursor.decode(cursor), limit);
+        return PaginationResponse.<RecipeReadDto>builder()
+                .data(slice.getContent().stream()
+                        .map(ur -> recipeMapper.toRecipeReadDto(ur.getRecipe()))
+                        .collect(Collectors.toList()))
+                .limit(limit)
+                .totalElements(includeTotal ? userRecipeRepo.countDistinctRecipes(userId, UserRecipeType.GENERATED) : null)
+                .hasNext(slice.hasNext())
+                .nextCursor(historyNextCursor(slice))
+                .build();
+    }
+
+    private static PageCursor recipeCursor(RecipeReadDocument recipe) {
+        return new PageCursor(recipe.getCreatedAt(), recipe.getId());
+    }
+
+    /**
+     * Cursor after the last entry of a history page; savedAt has no zone, so it is pinned to UTC both ways.
+     */
+    private static String historyNextCursor(Slice<UserRecipe> slice) {
+        List<UserRecipe> entries = slice.getContent();
+        if (!slice.hasNext() || entries.isEmpty()) {
+            return null;
+        }
+        UserRecipe last = entries.get(entries.size() - 1);
+        return new PageCursor(last.getSavedAt().toInstant(ZoneOffset.UTC), last.getId()).encode();
+    }
 }
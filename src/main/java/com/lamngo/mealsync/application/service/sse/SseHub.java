@@ -0,0 +1,263 @@
+package com.lamngo.mealsync.application.service.sse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out hub for SSE connections.
+ *
+ * Publishers (event listeners running on image worker threads) only append to a bounded per-subscriber
+ * queue. Each queue is drained by a writer on its own virtual thread, so a client on a slow mobile link
+ * blocks nothing but its own writer. When a queue is full the overflow policy applies:
+ * - close (default): the subscriber is closed; EventSource clients reconnect and re-read current state
+ * - drop-oldest: the oldest queued event is discarded
+ * - drop-newest: the new event is discarded
+ * Idle streams get a heartbeat comment so proxies (nginx proxy_read_timeout) keep them open.
+ */
+@Component
+public class SseHub {
+    private static final Logger logger = LoggerFactory.getLogger(SseHub.class);
+
+    public enum OverflowPolicy { CLOSE, DROP_OLDEST, DROP_NEWEST }
+
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writer = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-writer-", 0).factory());
+
+    private final Counter sentCounter;
+    private final Counter droppedCounter;
+    private final Counter slowConsumerCounter;
+
+    public SseHub(
+            MeterRegistry meterRegistry,
+            @Value("${app.sse.queue-capacity:64}") int queueCapacity,
+            @Value("${app.sse.overflow-policy:close}") String overflowPolicy) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+
+        this.sentCounter = Counter.builder("mealsync.sse.events")
+                .description("SSE events written to clients or dropped by the overflow policy")
+                .tag("outcome", "sent")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("mealsync.sse.events")
+                .description("SSE events written to clients or dropped by the overflow policy")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        this.slowConsumerCounter = Counter.builder("mealsync.sse.slow_consumers")
+                .description("SSE streams closed because their queue was full")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.sse.streams.active", subscribers, Set::size)
+                .description("Open SSE streams")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.sse.queue.depth", this, SseHub::totalQueueDepth)
+                .description("SSE events queued for all streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers an emitter. The hub owns the emitter's completion, timeout and error callbacks;
+     * use {@link SseSubscriber#onClose(Runnable)} to clean up when the stream ends.
+     */
+    public SseSubscriber subscribe(SseEmitter emitter) {
+        SseSubscriber subscriber = new SseSubscriber(emitter, this);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> {
+            close(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(ex -> close(subscriber));
+        return subscriber;
+    }
+
+    public int getActiveStreams() {
+        return subscribers.size();
+    }
+
+    boolean offer(SseSubscriber subscriber, SseMessage message) {
+        if (subscriber.closed.get() || subscriber.completing.get()) {
+            return false;
+        }
+        if (subscriber.depth.incrementAndGet() > queueCapacity) {
+            switch (overflowPolicy) {
+                case DROP_NEWEST -> {
+                    subscriber.depth.decrementAndGet();
+                    droppedCounter.increment();
+                    return false;
+                }
+                case DROP_OLDEST -> {
+                    if (subscriber.queue.poll() != null) {
+                        subscriber.depth.decrementAndGet();
+                        droppedCounter.increment();
+                    }
+                }
+                case CLOSE -> {
+                    subscriber.depth.decrementAndGet();
+                    closeSlowConsumer(subscriber);
+                    return false;
+                }
+            }
+        }
+        subscriber.queue.add(message);
+        scheduleDrain(subscriber);
+        return true;
+    }
+
+    void completeAfterDrain(SseSubscriber subscriber) {
+        if (!subscriber.closed.get() && subscriber.completing.compareAndSet(false, true)) {
+            subscriber.queue.add(SseMessage.complete());
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /**
+     * Sends a heartbeat comment to streams with nothing queued.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (SseSubscriber subscriber : subscribers) {
+            if (subscriber.depth.get() == 0) {
+                offer(subscriber, SseMessage.heartbeat());
+            }
+        }
+    }
+
+    private void scheduleDrain(SseSubscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writer.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.draining.set(false);
+                close(subscriber);
+            }
+        }
+    }
+
+    private void drain(SseSubscriber subscriber) {
+        do {
+            SseMessage message;
+            while ((message = subscriber.queue.poll()) != null) {
+                if (message.getKind() != SseMessage.Kind.COMPLETE) {
+                    subscriber.depth.decrementAndGet();
+                }
+                if (!write(subscriber, message)) {
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An offer may have queued a message after the last poll but before the flag was cleared
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    /**
+     * @return false when the stream has ended and draining should stop
+     */
+    private boolean write(SseSubscriber subscriber, SseMessage message) {
+        SseEmitter emitter = subscriber.getEmitter();
+        try {
+            switch (message.getKind()) {
+                case EVENT -> {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event();
+                    if (message.getId() != null) {
+                        event.id(message.getId());
+                    }
+                    if (message.getName() != null) {
+                        event.name(message.getName());
+                    }
+                    emitter.send(event.data(message.getData()));
+                    sentCounter.increment();
+                }
+                case HEARTBEAT -> emitter.send(SseEmitter.event().comment("heartbeat"));
+                case COMPLETE -> {
+                    close(subscriber);
+                    emitter.complete();
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            // Client disconnected or emitter is no longer usable; this is normal for mobile clients
+            logger.debug("Failed to write SSE event (client likely disconnected): {}", e.getMessage());
+            close(subscriber);
+            try {
+                emitter.completeWithError(e);
+            } catch (Exception ignored) {
+                // Already completed
+            }
+            return false;
+        }
+    }
+
+    private void closeSlowConsumer(SseSubscriber subscriber) {
+        if (close(subscriber)) {
+            slowConsumerCounter.increment();
+            logger.warn("Closing SSE stream {}: {} events queued (slow consumer)", subscriber.getId(), queueCapacity);
+            // The writer completes the emitter, so this thread never waits on the connection
+            subscriber.queue.add(SseMessage.complete());
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /**
+     * Unregisters the subscriber, discards its queue and runs its close listeners once.
+     *
+     * @return true if this call closed the subscriber
+     */
+    private boolean close(SseSubscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscribers.remove(subscriber);
+        SseMessage discarded;
+        while ((discarded = subscriber.queue.poll()) != null) {
+            if (discarded.getKind() != SseMessage.Kind.COMPLETE) {
+                subscriber.depth.decrementAndGet();
+            }
+        }
+        try {
+            subscriber.fireClosed();
+        } catch (Exception e) {
+            logger.warn("SSE close listener failed: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    private double totalQueueDepth() {
+        int total = 0;
+        for (SseSubscriber subscriber : subscribers) {
+            total += Math.max(0, subscriber.depth.get());
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Let clients see a clean end of stream; they reconnect to another instance
+        subscribers.forEach(SseSubscriber::complete);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
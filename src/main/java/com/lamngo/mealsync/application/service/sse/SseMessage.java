@@ -0,0 +1,35 @@
+package com.lamngo.mealsync.application.service.sse;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One entry of a subscriber queue: a named SSE event, a heartbeat comment or the end-of-stream marker.
+ */
+@Getter
+@AllArgsConstructor
+public class SseMessage {
+    enum Kind { EVENT, HEARTBEAT, COMPLETE }
+
+    private final Kind kind;
+    /** SSE id field; null when the event carries no id */
+    private final String id;
+    private final String name;
+    private final String data;
+
+    public static SseMessage event(String name, String data) {
+        return new SseMessage(Kind.EVENT, null, name, data);
+    }
+
+    public static SseMessage event(String id, String name, String data) {
+        return new SseMessage(Kind.EVENT, id, name, data);
+    }
+
+    static SseMessage heartbeat() {
+        return new SseMessage(Kind.HEARTBEAT, null, null, null);
+    }
+
+    static SseMessage complete() {
+        return new SseMessage(Kind.COMPLETE, null, null, null);
+    }
+}
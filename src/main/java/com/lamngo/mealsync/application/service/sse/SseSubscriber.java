@@ -0,0 +1,88 @@
+package com.lamngo.mealsync.application.service.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An SSE connection registered with {@link SseHub}.
+ *
+ * Callers only ever enqueue; the hub's writer drains the queue onto the emitter, so a slow client
+ * never blocks the thread that publishes an event. All methods are thread-safe and never block.
+ */
+public class SseSubscriber {
+    private final UUID id = UUID.randomUUID();
+    private final SseEmitter emitter;
+    private final SseHub hub;
+
+    final Queue<SseMessage> queue = new ConcurrentLinkedQueue<>();
+    // Events in the queue; the end-of-stream marker is not counted against the capacity
+    final AtomicInteger depth = new AtomicInteger();
+    final AtomicBoolean draining = new AtomicBoolean();
+    // Set by complete(): nothing more is accepted, the end-of-stream marker is queued
+    final AtomicBoolean completing = new AtomicBoolean();
+    final AtomicBoolean closed = new AtomicBoolean();
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    SseSubscriber(SseEmitter emitter, SseHub hub) {
+        this.emitter = emitter;
+        this.hub = hub;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Queues a named event.
+     *
+     * @return false when the subscriber is closed or the event was dropped by the overflow policy
+     */
+    public boolean send(String name, String data) {
+        return hub.offer(this, SseMessage.event(name, data));
+    }
+
+    public boolean send(SseMessage message) {
+        return hub.offer(this, message);
+    }
+
+    /**
+     * Completes the stream after everything queued so far has been written.
+     */
+    public void complete() {
+        hub.completeAfterDrain(this);
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Runs the listener once when the stream ends for any reason (completed, timed out, client gone,
+     * closed as a slow consumer). Runs immediately if the stream has already ended.
+     */
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+        if (closed.get() && closeListeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    void fireClosed() {
+        for (Runnable listener : closeListeners) {
+            if (closeListeners.remove(listener)) {
+                listener.run();
+            }
+        }
+    }
+}
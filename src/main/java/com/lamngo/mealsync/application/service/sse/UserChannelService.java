@@ -0,0 +1,139 @@
+package com.lamngo.mealsync.application.service.sse;
+
+import com.lamngo.mealsync.application.event.UserChannelsClosedEvent;
+import com.lamngo.mealsync.application.event.UserEvent;
+import com.lamngo.mealsync.presentation.error.BadRequestException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One long-lived SSE connection per user (per device) carrying every server-pushed update: image
+ * updates, recipe history changes and subscription state changes.
+ *
+ * Producers publish a {@link UserEvent}; it is delivered to the user's channels on this node that
+ * subscribed to its topic (other nodes get it through the cluster relay). The SSE event name is the
+ * topic, so clients route with one listener per topic; the data is {"type": name, "data": document}.
+ */
+@Service
+public class UserChannelService {
+    private static final Logger logger = LoggerFactory.getLogger(UserChannelService.class);
+    public static final Set<String> TOPICS =
+            Set.of(UserEvent.TOPIC_IMAGES, UserEvent.TOPIC_RECIPES, UserEvent.TOPIC_SUBSCRIPTION);
+
+    private final SseHub sseHub;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long timeoutMs;
+
+    // Open channels per user; a user with several devices has several
+    private final Map<UUID, Set<Channel>> channels = new ConcurrentHashMap<>();
+
+    public UserChannelService(
+            SseHub sseHub,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.sse.user-channel.timeout-ms:1800000}") long timeoutMs) {
+        this.sseHub = sseHub;
+        this.eventPublisher = eventPublisher;
+        this.timeoutMs = timeoutMs;
+        Gauge.builder("mealsync.sse.user_channels.active", channels,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Open per-user event channels on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens an event channel for the user. The channel times out after app.sse.user-channel.timeout-ms;
+     * EventSource reconnects on its own.
+     *
+     * @param topics topics to receive; null or empty for all of them
+     */
+    public SseEmitter openChannel(UUID userId, Collection<String> topics) {
+        Set<String> filter = resolveTopics(topics);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        SseSubscriber subscriber = sseHub.subscribe(emitter);
+        Channel channel = new Channel(subscriber, filter);
+
+        channels.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(channel);
+        subscriber.onClose(() -> closeChannel(userId, channel));
+
+        subscriber.send("ready", new JSONObject()
+                .put("channelId", subscriber.getId().toString())
+                .put("topics", new JSONArray(filter))
+                .toString());
+        logger.debug("Opened event channel {} for user {} (topics: {})", subscriber.getId(), userId, filter);
+        return emitter;
+    }
+
+    /**
+     * Whether the user has an open channel on this node.
+     */
+    public boolean hasChannel(UUID userId) {
+        return channels.containsKey(userId);
+    }
+
+    private void closeChannel(UUID userId, Channel channel) {
+        boolean[] lastClosed = new boolean[1];
+        channels.computeIfPresent(userId, (id, userChannels) -> {
+            userChannels.remove(channel);
+            lastClosed[0] = userChannels.isEmpty();
+            return lastClosed[0] ? null : userChannels;
+        });
+        if (lastClosed[0]) {
+            eventPublisher.publishEvent(new UserChannelsClosedEvent(this, userId));
+        }
+    }
+
+    /**
+     * Queues the event on the user's channels. Waits for the publishing transaction to commit, so a
+     * client never sees a state change that was rolled back. Never blocks on a client (see SseHub).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        Set<Channel> userChannels = channels.get(event.getUserId());
+        if (userChannels == null) {
+            return;
+        }
+        SseMessage message = SseMessage.event(String.valueOf(event.getTimestamp()), event.getTopic(),
+                "{\"type\":" + JSONObject.quote(event.getName()) + ",\"data\":" + event.getData() + "}");
+        for (Channel channel : userChannels) {
+            if (channel.topics().contains(event.getTopic())) {
+                channel.subscriber().send(message);
+            }
+        }
+    }
+
+    private Set<String> resolveTopics(Collection<String> topics) {
+        if (topics == null || topics.isEmpty()) {
+            return TOPICS;
+        }
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String topic : topics) {
+            String normalized = topic.trim().toLowerCase();
+            if (!TOPICS.contains(normalized)) {
+                throw new BadRequestException("Unknown topic: " + topic + ". Supported topics: " + List.copyOf(TOPICS));
+            }
+            resolved.add(normalized);
+        }
+        return resolved;
+    }
+
+    private record Channel(SseSubscriber subscriber, Set<String> topics) {
+    }
+}
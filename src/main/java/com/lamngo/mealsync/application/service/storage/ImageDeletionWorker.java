@@ -0,0 +1,246 @@
+package com.lamngo.mealsync.application.service.storage;
+
+import com.lamngo.mealsync.domain.model.image.ImageDeletion;
+import com.lamngo.mealsync.domain.repository.image.IImageDeletionRepo;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes recipe images from storage outside of request transactions.
+ *
+ * - Drain: deletions queued in the image_deletions outbox are claimed with SKIP LOCKED and sent as
+ *   DeleteObjects batches (up to 1000 keys). Failed keys are retried with exponential backoff.
+ * - Reconciliation: a slow sweep lists the recipes/ prefix page by page and queues objects that no
+ *   recipe references anymore (e.g. uploads whose recipe update never happened). Only objects older
+ *   than the grace period are considered, and each run is capped in pages and queued deletions.
+ */
+@Component
+public class ImageDeletionWorker {
+    private static final Logger logger = LoggerFactory.getLogger(ImageDeletionWorker.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String IMAGE_PREFIX = "recipes/";
+
+    private final IImageDeletionRepo imageDeletionRepo;
+    private final IRecipeRepo recipeRepo;
+    private final ImageStorage imageStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long leaseMs;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final boolean reconciliationEnabled;
+    private final int reconciliationPagesPerRun;
+    private final int reconciliationMaxOrphansPerRun;
+    private final long reconciliationGraceMs;
+
+    // Listing position of the reconciliation sweep; null starts a new pass
+    private String reconciliationCursor;
+    private final AtomicLong pendingDeletions = new AtomicLong();
+
+    private final Counter deletedCounter;
+    private final Counter retryCounter;
+    private final Counter orphanCounter;
+
+    public ImageDeletionWorker(
+            IImageDeletionRepo imageDeletionRepo,
+            IRecipeRepo recipeRepo,
+            ImageStorage imageStorage,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.storage.deletions.enabled:true}") boolean enabled,
+            @Value("${app.storage.deletions.batch-size:1000}") int batchSize,
+            @Value("${app.storage.deletions.max-batches-per-run:10}") int maxBatchesPerRun,
+            @Value("${app.storage.deletions.lease-ms:300000}") long leaseMs,
+            @Value("${app.storage.deletions.initial-backoff-ms:60000}") long initialBackoffMs,
+            @Value("${app.storage.deletions.max-backoff-ms:21600000}") long maxBackoffMs,
+            @Value("${app.storage.reconciliation.enabled:true}") boolean reconciliationEnabled,
+            @Value("${app.storage.reconciliation.pages-per-run:1}") int reconciliationPagesPerRun,
+            @Value("${app.storage.reconciliation.max-orphans-per-run:200}") int reconciliationMaxOrphansPerRun,
+            @Value("${app.storage.reconciliation.grace-ms:86400000}") long reconciliationGraceMs) {
+        this.imageDeletionRepo = imageDeletionRepo;
+        this.recipeRepo = recipeRepo;
+        this.imageStorage = imageStorage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, Math.min(1000, batchSize));
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.leaseMs = leaseMs;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.reconciliationEnabled = reconciliationEnabled;
+        this.reconciliationPagesPerRun = Math.max(1, reconciliationPagesPerRun);
+        this.reconciliationMaxOrphansPerRun = Math.max(0, reconciliationMaxOrphansPerRun);
+        this.reconciliationGraceMs = reconciliationGraceMs;
+
+        this.deletedCounter = Counter.builder("mealsync.storage.deletions")
+                .description("Storage objects processed from the deletion outbox")
+                .tag("outcome", "deleted")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("mealsync.storage.deletions")
+                .description("Storage objects processed from the deletion outbox")
+                .tag("outcome", "retry")
+                .register(meterRegistry);
+        this.orphanCounter = Counter.builder("mealsync.storage.orphans")
+                .description("Unreferenced storage objects queued for deletion by reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.storage.deletions.pending", pendingDeletions, AtomicLong::get)
+                .description("Deletions waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains due deletions in DeleteObjects batches, at most max-batches-per-run per run.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.deletions.drain-interval-ms:10000}")
+    public void drainDeletions() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                Instant now = Instant.now();
+                List<ImageDeletion> claimed = transactionTemplate.execute(status ->
+                        imageDeletionRepo.claimDueDeletions(batchSize, now, now.plusMillis(leaseMs)));
+                if (claimed == null || claimed.isEmpty()) {
+                    break;
+                }
+                deleteBatch(claimed);
+                if (claimed.size() < batchSize) {
+                    break;
+                }
+            }
+            pendingDeletions.set(imageDeletionRepo.countPending());
+        } catch (Exception e) {
+            logger.error("Failed to drain image deletions: {}", e.getMessage(), e);
+        }
+    }
+
+    private void deleteBatch(List<ImageDeletion> claimed) {
+        // The storage call runs outside any transaction; the claim lease keeps other nodes away
+        Map<String, String> failedKeys;
+        try {
+            failedKeys = imageStorage.deleteObjects(claimed.stream().map(ImageDeletion::getObjectKey).distinct().toList());
+        } catch (Exception e) {
+            failedKeys = new HashMap<>();
+            for (ImageDeletion deletion : claimed) {
+                failedKeys.put(deletion.getObjectKey(), e.getMessage());
+            }
+        }
+
+        List<UUID> deletedIds = new ArrayList<>();
+        for (ImageDeletion deletion : claimed) {
+            String error = failedKeys.get(deletion.getObjectKey());
+            if (error == null) {
+                deletedIds.add(deletion.getId());
+                continue;
+            }
+            long backoff = backoffMillis(deletion.getAttempts());
+            logger.warn("Could not delete {} (attempt {}), retrying in {} ms: {}",
+                    deletion.getObjectKey(), deletion.getAttempts(), backoff, error);
+            imageDeletionRepo.markForRetry(deletion.getId(), truncate(error), Instant.now().plusMillis(backoff));
+            retryCounter.increment();
+        }
+        imageDeletionRepo.deleteAllByIds(deletedIds);
+        deletedCounter.increment(deletedIds.size());
+    }
+
+    /**
+     * Lists a bounded slice of the recipes/ prefix and queues objects no recipe references.
+     * The sweep resumes where the previous run stopped, so a full pass is spread over many runs.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.reconciliation.interval-ms:600000}",
+            initialDelayString = "${app.storage.reconciliation.initial-delay-ms:300000}")
+    public void reconcileOrphans() {
+        if (!enabled || !reconciliationEnabled) {
+            return;
+        }
+        try {
+            int queued = 0;
+            for (int page = 0; page < reconciliationPagesPerRun && queued < reconciliationMaxOrphansPerRun; page++) {
+                StoredObjectPage objects = imageStorage.listObjects(IMAGE_PREFIX, reconciliationCursor, 1000);
+                queued += queueOrphans(objects.getObjects(), reconciliationMaxOrphansPerRun - queued);
+                reconciliationCursor = objects.getNextContinuationToken();
+                if (reconciliationCursor == null) {
+                    logger.info("Storage reconciliation pass finished");
+                    break;
+                }
+            }
+            if (queued > 0) {
+                logger.info("Storage reconciliation queued {} orphaned objects for deletion", queued);
+            }
+        } catch (Exception e) {
+            logger.error("Storage reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int queueOrphans(List<StoredObject> objects, int limit) {
+        // Fresh uploads are not referenced until their recipe update commits
+        Instant cutoff = Instant.now().minusMillis(reconciliationGraceMs);
+        Map<String, String> keysByUrl = new HashMap<>();
+        for (StoredObject object : objects) {
+            if (object.getLastModified() != null && object.getLastModified().isBefore(cutoff)) {
+                keysByUrl.put(imageStorage.buildObjectUrl(object.getKey()), object.getKey());
+            }
+        }
+        if (keysByUrl.isEmpty() || limit <= 0) {
+            return 0;
+        }
+
+        Set<String> referenced = recipeRepo.findReferencedImageUrls(keysByUrl.keySet());
+        List<String> orphanKeys = keysByUrl.entrySet().stream()
+                .filter(entry -> !referenced.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (orphanKeys.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> alreadyQueued = imageDeletionRepo.findQueuedKeys(orphanKeys);
+        List<ImageDeletion> deletions = orphanKeys.stream()
+                .filter(key -> !alreadyQueued.contains(key))
+                .limit(limit)
+                .map(ImageDeletion::new)
+                .toList();
+        if (!deletions.isEmpty()) {
+            imageDeletionRepo.saveAll(new ArrayList<>(deletions));
+            orphanCounter.increment(deletions.size());
+        }
+        return deletions.size();
+    }
+
+    /**
+     * Exponential backoff with no dead letter: objects are retried at max-backoff until they are gone.
+     */
+    long backoffMillis(int attempt) {
+        int shift = Math.min(Math.max(0, attempt - 1), 30);
+        return Math.min(initialBackoffMs << shift, maxBackoffMs);
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,67 @@
+package com.lamngo.mealsync.application.service.storage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage backend for recipe images.
+ *
+ * Selected with app.storage.type: "s3" (default, {@link com.lamngo.mealsync.application.service.AWS.S3Service})
+ * or "local" ({@link LocalImageStorage}, served by the /api/v1/images endpoint).
+ * Objects are addressed by key (e.g. recipes/{uuid}-full.jpg); the public URL is what gets stored on recipes.
+ */
+public interface ImageStorage {
+
+    /**
+     * Stores an object without blocking the calling thread on network I/O.
+     *
+     * @return CompletableFuture that completes with the public URL, or exceptionally with
+     *         a RuntimeException("Failed to upload image") when the object could not be stored
+     */
+    CompletableFuture<String> uploadObjectAsync(String key, byte[] bytes, String contentType);
+
+    /**
+     * Stores a PNG under a generated recipes/ key.
+     *
+     * @param originalImageName Name used for logging only
+     */
+    default CompletableFuture<String> uploadImageAsync(byte[] imageBytes, String originalImageName) {
+        return uploadObjectAsync("recipes/" + UUID.randomUUID() + ".png", imageBytes, "image/png");
+    }
+
+    /**
+     * Blocking variant of {@link #uploadImageAsync(byte[], String)}.
+     */
+    default String uploadImage(byte[] imageBytes, String originalImageName) {
+        return uploadImageAsync(imageBytes, originalImageName).join();
+    }
+
+    /**
+     * Deletes a single object by its public URL.
+     */
+    void deleteImage(String imageUrl);
+
+    /**
+     * Deletes objects in bulk.
+     *
+     * @return keys that could not be deleted with the reason (empty when all succeeded)
+     * @throws RuntimeException when the backend fails as a whole
+     */
+    Map<String, String> deleteObjects(List<String> keys);
+
+    /**
+     * Lists one page of objects under the prefix, in key order.
+     *
+     * @param continuationToken Token from the previous page, or null to start from the beginning
+     */
+    StoredObjectPage listObjects(String prefix, String continuationToken, int maxKeys);
+
+    String buildObjectUrl(String key);
+
+    /**
+     * @return the object key of a URL produced by {@link #buildObjectUrl(String)}, or null if it is not one
+     */
+    String extractKeyFromUrl(String imageUrl);
+}
@@ -0,0 +1,164 @@
+package com.lamngo.mealsync.application.service.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Stores recipe images on the local filesystem (app.storage.type=local), for single-node deployments
+ * and development without AWS credentials.
+ *
+ * Objects live under root-dir with their key as relative path and are served by
+ * {@link com.lamngo.mealsync.presentation.controller.ImageController} at public-base-url.
+ * Writes go to a temp file that is atomically moved into place, so readers never see a partial image.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+    private static final Logger log = LoggerFactory.getLogger(LocalImageStorage.class);
+    private static final String TEMP_FILE_PREFIX = ".upload-";
+
+    private final Path rootDir;
+    private final String publicBaseUrl;
+
+    public LocalImageStorage(
+            @Value("${app.storage.local.root-dir:./data/images}") String rootDir,
+            @Value("${app.storage.local.public-base-url:http://localhost:8081/api/v1/images}") String publicBaseUrl) {
+        this.rootDir = Path.of(rootDir).toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl.endsWith("/")
+                ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1)
+                : publicBaseUrl;
+        try {
+            Files.createDirectories(this.rootDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create image directory " + this.rootDir, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> uploadObjectAsync(String key, byte[] bytes, String contentType) {
+        try {
+            Path target = resolve(key);
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), TEMP_FILE_PREFIX, ".tmp");
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return CompletableFuture.completedFuture(buildObjectUrl(key));
+        } catch (Exception e) {
+            log.error("Error storing object {} on disk: {}", key, e.getMessage(), e);
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to upload image", e));
+        }
+    }
+
+    @Override
+    public void deleteImage(String imageUrl) {
+        String key = extractKeyFromUrl(imageUrl);
+        if (key == null || key.isEmpty()) {
+            log.warn("Invalid image URL, cannot extract key: {}", imageUrl);
+            return;
+        }
+        try {
+            Files.deleteIfExists(resolve(key));
+            log.info("Image deleted successfully from disk: {}", key);
+        } catch (Exception e) {
+            log.error("Error deleting image from disk: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to delete image", e);
+        }
+    }
+
+    @Override
+    public Map<String, String> deleteObjects(List<String> keys) {
+        Map<String, String> failedKeys = new HashMap<>();
+        for (String key : keys) {
+            try {
+                // Like S3, deleting a missing object is a success
+                Files.deleteIfExists(resolve(key));
+            } catch (Exception e) {
+                failedKeys.put(key, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        log.info("Deleted {} objects from disk ({} failed)", keys.size(), failedKeys.size());
+        return failedKeys;
+    }
+
+    /**
+     * Lists one page of objects under the prefix in key order. The continuation token is the last key
+     * of the previous page. Each page walks the prefix directory, which is fine for the object counts
+     * a single-node install holds.
+     */
+    @Override
+    public StoredObjectPage listObjects(String prefix, String continuationToken, int maxKeys) {
+        // Only walk the directory the prefix points into ("recipes/" -> recipes, "recipes/ab" -> recipes)
+        Path prefixDir = prefix.isEmpty() ? rootDir
+                : prefix.endsWith("/") ? resolve(prefix) : resolve(prefix).getParent();
+        if (prefixDir == null || !Files.isDirectory(prefixDir)) {
+            return new StoredObjectPage(List.of(), null);
+        }
+        try (Stream<Path> files = Files.walk(prefixDir)) {
+            List<Path> page = files
+                    .filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith(TEMP_FILE_PREFIX))
+                    .filter(path -> toKey(path).startsWith(prefix))
+                    .filter(path -> continuationToken == null || toKey(path).compareTo(continuationToken) > 0)
+                    .sorted((a, b) -> toKey(a).compareTo(toKey(b)))
+                    .limit(maxKeys + 1L)
+                    .toList();
+            List<StoredObject> objects = new ArrayList<>();
+            for (Path path : page.subList(0, Math.min(maxKeys, page.size()))) {
+                objects.add(new StoredObject(toKey(path), Files.getLastModifiedTime(path).toInstant()));
+            }
+            boolean truncated = page.size() > maxKeys && !objects.isEmpty();
+            return new StoredObjectPage(objects, truncated ? objects.get(objects.size() - 1).getKey() : null);
+        } catch (Exception e) {
+            log.error("Error listing objects under {}: {}", prefix, e.getMessage(), e);
+            throw new RuntimeException("Failed to list images", e);
+        }
+    }
+
+    @Override
+    public String buildObjectUrl(String key) {
+        return publicBaseUrl + "/" + key;
+    }
+
+    @Override
+    public String extractKeyFromUrl(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(publicBaseUrl + "/")) {
+            return null;
+        }
+        return imageUrl.substring(publicBaseUrl.length() + 1);
+    }
+
+    /**
+     * Maps a key to its file under root-dir.
+     *
+     * @throws IllegalArgumentException when the key would escape root-dir (e.g. "../")
+     */
+    public Path resolve(String key) {
+        Path path = rootDir.resolve(key).normalize();
+        if (!path.startsWith(rootDir) || path.equals(rootDir)) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return path;
+    }
+
+    private String toKey(Path path) {
+        return rootDir.relativize(path).toString().replace('\\', '/');
+    }
+}
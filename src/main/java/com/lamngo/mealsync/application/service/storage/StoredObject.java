@@ -0,0 +1,16 @@
+package com.lamngo.mealsync.application.service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Key and last modification time of an object found in storage.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredObject {
+    private final String key;
+    private final Instant lastModified;
+}
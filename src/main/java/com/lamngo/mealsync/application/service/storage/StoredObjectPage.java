@@ -0,0 +1,16 @@
+package com.lamngo.mealsync.application.service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of an object listing. nextContinuationToken is null on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredObjectPage {
+    private final List<StoredObject> objects;
+    private final String nextContinuationToken;
+}
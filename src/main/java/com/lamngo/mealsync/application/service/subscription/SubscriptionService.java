@@ -1,11 +1,14 @@
 package com.lamngo.mealsync.application.service.subscription;
 
+import com.lamngo.mealsync.application.event.UserEvent;
 import com.lamngo.mealsync.domain.model.user.SubscriptionPlan;
 import com.lamngo.mealsync.domain.model.user.SubscriptionStatus;
 import com.lamngo.mealsync.domain.model.user.User;
 import com.lamngo.mealsync.domain.repository.user.IUserRepo;
+import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,9 +24,11 @@ public class SubscriptionService {
     private static final int TRIAL_DAYS = 3;
 
     private final IUserRepo userRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public SubscriptionService(IUserRepo userRepo) {
+    public SubscriptionService(IUserRepo userRepo, ApplicationEventPublisher eventPublisher) {
         this.userRepo = userRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -50,7 +55,10 @@ public class SubscriptionService {
     public boolean canScan(User user) {
         // Check and update trial expiration first
         checkTrialExpiration(user);
+        return isScanAllowed(user);
+    }
 
+    private boolean isScanAllowed(User user) {
         // Premium users with active subscription
         if (user.getSubscriptionPlan() == SubscriptionPlan.PREMIUM_MONTHLY ||
                 user.getSubscriptionPlan() == SubscriptionPlan.PREMIUM_YEARLY) {
@@ -92,6 +100,7 @@ public class SubscriptionService {
         if (user.getSubscriptionPlan() == SubscriptionPlan.TRIAL) {
             user.setScansUsed(user.getScansUsed() + 1);
             userRepo.save(user);
+            publishStatusChanged(user);
         }
         // Premium users have unlimited scans, no need to track
     }
@@ -106,6 +115,7 @@ public class SubscriptionService {
             if (user.getTrialEndDate() != null && Instant.now().isAfter(user.getTrialEndDate())) {
                 user.setSubscriptionStatus(SubscriptionStatus.EXPIRED);
                 userRepo.save(user);
+                publishStatusChanged(user);
                 logger.info("Trial expired for user: {}", user.getEmail());
             }
         }
@@ -130,6 +140,7 @@ public class SubscriptionService {
                     now.isAfter(user.getTrialEndDate())) {
                 user.setSubscriptionStatus(SubscriptionStatus.EXPIRED);
                 userRepo.save(user);
+                publishStatusChanged(user);
                 expiredCount++;
             }
         }
@@ -140,4 +151,27 @@ public class SubscriptionService {
             logger.debug("No trials expired today");
         }
     }
+
+    /**
+     * Pushes the user's current subscription state to their event channel ("subscription" topic),
+     * so open clients update without polling /subscription/status. Delivered after the surrounding
+     * transaction commits.
+     */
+    public void publishStatusChanged(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        JSONObject status = new JSONObject();
+        status.put("plan", user.getSubscriptionPlan() != null ? user.getSubscriptionPlan().name() : null);
+        status.put("status", user.getSubscriptionStatus() != null ? user.getSubscriptionStatus().name() : null);
+        status.put("trialDaysRemaining", getTrialDaysRemaining(user));
+        status.put("canScan", isScanAllowed(user));
+        status.put("subscriptionEndDate",
+                user.getSubscriptionEndDate() != null ? user.getSubscriptionEndDate().toString() : null);
+        status.put("scansUsed", user.getScansUsed());
+        status.put("scansLimit", user.getScansLimit());
+        status.put("paymentProvider", user.getPaymentProvider() != null ? user.getPaymentProvider().name() : null);
+        eventPublisher.publishEvent(new UserEvent(this, user.getId(), UserEvent.TOPIC_SUBSCRIPTION,
+                "subscription-status", status.toString()));
+    }
 }
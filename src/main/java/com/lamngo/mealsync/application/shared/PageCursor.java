@@ -0,0 +1,55 @@
+package com.lamngo.mealsync.application.shared;
+
+import com.lamngo.mealsync.presentation.error.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a listing ordered by (timestamp DESC, id DESC): the next page starts right after the
+ * row with this timestamp and id. Sent to clients as an opaque URL-safe string (nextCursor).
+ *
+ * Unlike an offset, a cursor stays valid when rows are added in front of it and every page costs
+ * the same index range scan, however deep it is.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public final class PageCursor {
+    private static final char SEPARATOR = '|';
+
+    private final Instant position;
+    private final UUID id;
+
+    public String encode() {
+        String raw = position.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor A value previously returned as nextCursor; null or blank for the first page
+     * @return The position to continue after, or null for the first page
+     * @throws BadRequestException if the cursor was not issued by us
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new PageCursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
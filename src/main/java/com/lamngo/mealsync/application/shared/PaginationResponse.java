@@ -11,6 +11,9 @@ public class PaginationResponse<T> {
     private List<T> data;
     private int offset;
     private int limit;
-    private long totalElements;
+    // Null when the count was not requested (cursor pages count only with includeTotal=true)
+    private Long totalElements;
     private boolean hasNext;
+    // Opaque position to pass as ?cursor= for the next page; null on the last page and for offset pages
+    private String nextCursor;
 }
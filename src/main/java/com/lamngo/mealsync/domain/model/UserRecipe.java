@@ -11,7 +11,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "user_recipe")
+@Table(name = "user_recipe", indexes = {
+        // Keyset pages of /saved and /recent: newest first within a user's history of one type
+        @Index(name = "idx_user_recipe_history", columnList = "user_id, type, saved_at DESC, id DESC"),
+        // Newest entry per recipe (DISTINCT ON / NOT EXISTS), the distinct count and the already-saved lookup
+        @Index(name = "idx_user_recipe_user_type_recipe", columnList = "user_id, type, recipe_id, saved_at DESC, id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,5 +38,6 @@ public class UserRecipe {
     @Column(nullable = false)
     private UserRecipeType type = UserRecipeType.SAVED;
 
+    @Column(nullable = false)
     private LocalDateTime savedAt = LocalDateTime.now();
 }
@@ -0,0 +1,56 @@
+package com.lamngo.mealsync.domain.model.image;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outbox row for a storage object that must be deleted.
+ * Written in the same transaction that drops the last reference to the object and removed
+ * once the object is gone, so failed deletes are retried instead of leaking the object.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "image_deletions", indexes = {
+        @Index(name = "idx_image_deletion_next_attempt", columnList = "next_attempt_at"),
+        @Index(name = "idx_image_deletion_object_key", columnList = "object_key")
+})
+public class ImageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "object_key", nullable = false, length = 1024)
+    private String objectKey;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public ImageDeletion(String objectKey) {
+        this.objectKey = objectKey;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.lamngo.mealsync.domain.model.image;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Persistent image generation job. One row per recipe waiting for an image;
+ * the row is deleted once the image is stored.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "image_jobs", indexes = {
+        @Index(name = "idx_image_job_recipe", columnList = "recipe_id", unique = true),
+        @Index(name = "idx_image_job_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class ImageJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "recipe_id", nullable = false, unique = true)
+    private UUID recipeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImageJobStatus status = ImageJobStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant lockedAt;
+
+    @Column(length = 100)
+    private String lockedBy;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // When the job was dead-lettered; a dead job is only revived once app.images.jobs.dead-retry-after-ms has passed
+    @Column(name = "dead_at")
+    private Instant deadAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
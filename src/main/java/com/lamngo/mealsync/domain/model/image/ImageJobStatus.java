@@ -0,0 +1,7 @@
+package com.lamngo.mealsync.domain.model.image;
+
+public enum ImageJobStatus {
+    PENDING,    // Waiting for a worker (new or scheduled for retry)
+    RUNNING,    // Claimed by a worker
+    DEAD        // Gave up after max attempts
+}
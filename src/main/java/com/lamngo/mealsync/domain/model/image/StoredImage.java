@@ -0,0 +1,49 @@
+package com.lamngo.mealsync.domain.model.image;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Content-addressed record of an image already uploaded to storage.
+ * Keyed by the SHA-256 of the generated image bytes so identical images are stored once.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "stored_images")
+public class StoredImage {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Size(max = 2048, message = "Image URL cannot exceed 2048 characters")
+    @Column(nullable = false, length = 2048)
+    private String imageUrl;
+
+    @Size(max = 2048, message = "Card image URL cannot exceed 2048 characters")
+    @Column(length = 2048)
+    private String cardImageUrl;
+
+    @Size(max = 2048, message = "Thumbnail image URL cannot exceed 2048 characters")
+    @Column(length = 2048)
+    private String thumbnailImageUrl;
+
+    @Size(max = 64, message = "BlurHash cannot exceed 64 characters")
+    @Column(length = 64)
+    private String blurHash;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,37 @@
+package com.lamngo.mealsync.domain.model.ingredient;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One entry of the ingredient vocabulary: every spelling of an ingredient ("Tomatoes", "tomato",
+ * "fresh tomatoes") maps to the same entry and its compact int id, stored on each recipe ingredient.
+ * The name is the normalized key the spellings reduce to (see IngredientVocabulary#key).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "canonical_ingredients", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_canonical_ingredients_name", columnNames = "name")
+})
+public class CanonicalIngredient {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // From data/basic_ingredients.csv, or the number of recipe ingredients using it when first seen
+    @Column(nullable = false)
+    private int frequency;
+
+    public CanonicalIngredient(String name, int frequency) {
+        this.name = name;
+        this.frequency = frequency;
+    }
+}
@@ -0,0 +1,29 @@
+package com.lamngo.mealsync.domain.model.ingredient;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A synonym of a canonical ingredient ("scallion" for "green onion"), keyed by its normalized name.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "ingredient_aliases")
+public class IngredientAlias {
+
+    @Id
+    @Column(length = 100)
+    private String alias;
+
+    @Column(name = "ingredient_id", nullable = false)
+    private Integer ingredientId;
+
+    public IngredientAlias(String alias, Integer ingredientId) {
+        this.alias = alias;
+        this.ingredientId = ingredientId;
+    }
+}
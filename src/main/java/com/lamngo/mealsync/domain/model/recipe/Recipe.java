@@ -6,6 +6,8 @@ import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -20,7 +22,16 @@ import com.lamngo.mealsync.domain.model.user.User;
 @Setter
 @NoArgsConstructor
 @Table(name = "recipes", indexes = {
-        @Index(name = "idx_recipe_name", columnList = "name")
+        @Index(name = "idx_recipe_name", columnList = "name"),
+        // Shared-image checks and storage orphan reconciliation look recipes up by image URL
+        @Index(name = "idx_recipe_image_url", columnList = "image_url"),
+        @Index(name = "idx_recipe_card_image_url", columnList = "card_image_url"),
+        @Index(name = "idx_recipe_thumbnail_image_url", columnList = "thumbnail_image_url"),
+        // Filtered listing: range filters and the newest-first order (case-insensitive filters use
+        // expression indexes, see DatabaseInitializationService)
+        @Index(name = "idx_recipe_total_time", columnList = "total_time"),
+        @Index(name = "idx_recipe_servings", columnList = "servings"),
+        @Index(name = "idx_recipe_created_at_id", columnList = "created_at DESC, id DESC")
 })
 public class Recipe {
 
@@ -54,6 +65,19 @@ public class Recipe {
     @Column(length = 2048)
     private String imageUrl;
 
+    @Size(max = 2048, message = "Card image URL cannot exceed 2048 characters")
+    @Column(length = 2048)
+    private String cardImageUrl;
+
+    @Size(max = 2048, message = "Thumbnail image URL cannot exceed 2048 characters")
+    @Column(length = 2048)
+    private String thumbnailImageUrl;
+
+    // BlurHash placeholder rendered by clients until the image has loaded
+    @Size(max = 64, message = "Image BlurHash cannot exceed 64 characters")
+    @Column(length = 64)
+    private String imageBlurHash;
+
     @NotBlank(message = "Ingredient key cannot be blank")
     @Size(max = 255, message = "Ingredient key cannot exceed 255 characters")
     @Column(nullable = false, length = 255)
@@ -110,7 +134,8 @@ public class Recipe {
     private String difficulty;
 
     @ElementCollection
-    @CollectionTable(name = "recipe_tags", joinColumns = @JoinColumn(name = "recipe_id"))
+    @CollectionTable(name = "recipe_tags", joinColumns = @JoinColumn(name = "recipe_id"),
+            indexes = @Index(name = "idx_recipe_tags_recipe_id", columnList = "recipe_id"))
     @Column(name = "tag", length = 50, nullable = false)
     @Size(min = 1, message = "At least one tag is required")
     private List<@NotBlank String> tags = new ArrayList<>();
@@ -127,6 +152,12 @@ public class Recipe {
     @Column
     private Instant updatedAt;
 
+    // The recipe as served by the API (jsonb on PostgreSQL), rendered on every save so reads need
+    // neither the child tables nor the mapper. Id, timestamps and images live in their own columns.
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "read_document")
+    private String readDocument;
+
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<UserRecipe> userRecipes = new ArrayList<>();
 
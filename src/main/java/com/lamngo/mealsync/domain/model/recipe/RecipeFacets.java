@@ -0,0 +1,25 @@
+package com.lamngo.mealsync.domain.model.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The values of a recipe that recipe browsing counts (cuisine, difficulty, tags, total time).
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class RecipeFacets {
+    private final String cuisine;
+    private final String difficulty;
+    private final List<String> tags;
+    private final Integer totalTime;
+
+    public static RecipeFacets of(Recipe recipe) {
+        return new RecipeFacets(recipe.getCuisine(), recipe.getDifficulty(),
+                recipe.getTags() == null ? List.of() : List.copyOf(recipe.getTags()), recipe.getTotalTime());
+    }
+}
@@ -0,0 +1,19 @@
+package com.lamngo.mealsync.domain.model.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Image columns to set on one recipe in a batched image URL update.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeImageUpdate {
+    private final UUID recipeId;
+    private final String imageUrl;
+    private final String cardImageUrl;
+    private final String thumbnailImageUrl;
+    private final String imageBlurHash;
+}
@@ -11,7 +11,10 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "recipe_ingredients")
+@Table(name = "recipe_ingredients", indexes = {
+        @Index(name = "idx_recipe_ingredients_recipe_id", columnList = "recipe_id"),
+        @Index(name = "idx_recipe_ingredients_canonical_id", columnList = "canonical_ingredient_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,6 +42,10 @@ public class RecipeIngredient {
     @Column(length = 50)
     private String unit;
 
+    // Id of the canonical ingredient the name maps to; null until the vocabulary resolved it
+    @Column(name = "canonical_ingredient_id")
+    private Integer canonicalIngredientId;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
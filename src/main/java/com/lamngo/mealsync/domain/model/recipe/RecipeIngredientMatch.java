@@ -0,0 +1,20 @@
+package com.lamngo.mealsync.domain.model.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * How well the ingredients someone has cover a recipe: how many of its ingredients they have and
+ * which ones they are missing.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeIngredientMatch {
+    private final UUID recipeId;
+    private final int matchedIngredients;
+    private final int totalIngredients;
+    private final List<String> missingIngredients;
+}
@@ -0,0 +1,25 @@
+package com.lamngo.mealsync.domain.model.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One row of the recipes table as read by the API: the denormalized read document plus the
+ * columns that change or are only known after the insert (id, timestamps, images), which are
+ * kept out of the document and overlaid when it is served.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeReadDocument {
+    private final UUID id;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+    private final String document;
+    private final String imageUrl;
+    private final String cardImageUrl;
+    private final String thumbnailImageUrl;
+    private final String imageBlurHash;
+}
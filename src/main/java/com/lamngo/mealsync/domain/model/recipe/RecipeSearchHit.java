@@ -0,0 +1,16 @@
+package com.lamngo.mealsync.domain.model.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One full-text search result: the recipe, its relevance and a snippet with the matched
+ * terms wrapped in &lt;mark&gt; tags.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeSearchHit {
+    private final Recipe recipe;
+    private final double rank;
+    private final String snippet;
+}
@@ -1,9 +1,11 @@
 package com.lamngo.mealsync.domain.repository;
 
 import com.lamngo.mealsync.application.shared.OffsetPage;
+import com.lamngo.mealsync.application.shared.PageCursor;
 import com.lamngo.mealsync.domain.model.UserRecipe;
 import com.lamngo.mealsync.domain.model.UserRecipeType;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,4 +19,35 @@ public interface IUserRecipeRepo {
      Page<UserRecipe> getUserRecipesByUserIdAndType(UUID userId, UserRecipeType type, OffsetPage pageable);
      Optional<UserRecipe> getUserRecipeByUserIdAndRecipeIdAndType(UUID userId, UUID recipeId, UserRecipeType type);
      void deleteUserRecipe(UUID userRecipeId);
+
+     /**
+      * Offset page of every entry of a user's history of one type, newest first, with the recipe loaded.
+      */
+     Page<UserRecipe> getUserRecipes(UUID userId, UserRecipeType type, OffsetPage pageable);
+
+     /**
+      * Keyset page of every entry of a user's history of one type, newest first, with the recipe loaded.
+      * @param after Last (savedAt, id) of the previous page, or null for the first page
+      */
+     Slice<UserRecipe> getUserRecipesAfter(UUID userId, UserRecipeType type, PageCursor after, int limit);
+
+     long countUserRecipes(UUID userId, UserRecipeType type);
+
+     /**
+      * Offset page of a user's history of one type: the newest entry per recipe, newest first,
+      * with the recipe loaded. Deduplicated, paged and counted in the database.
+      */
+     Page<UserRecipe> getLatestUserRecipes(UUID userId, UserRecipeType type, OffsetPage pageable);
+
+     /**
+      * Keyset page of a user's history of one type: the newest entry per recipe, newest first,
+      * with the recipe loaded. The cursor position is the entry's savedAt (as UTC).
+      * @param after Last (savedAt, id) of the previous page, or null for the first page
+      */
+     Slice<UserRecipe> getLatestUserRecipesAfter(UUID userId, UserRecipeType type, PageCursor after, int limit);
+
+     /**
+      * Number of distinct recipes in a user's history of one type.
+      */
+     long countDistinctRecipes(UUID userId, UserRecipeType type);
 }
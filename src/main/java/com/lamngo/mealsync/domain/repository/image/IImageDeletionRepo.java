@@ -0,0 +1,30 @@
+package com.lamngo.mealsync.domain.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.ImageDeletion;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface IImageDeletionRepo {
+    List<ImageDeletion> saveAll(List<ImageDeletion> deletions);
+
+    /**
+     * Claims up to {@code limit} due deletions with SELECT ... FOR UPDATE SKIP LOCKED and leases them
+     * until {@code leaseUntil} (next_attempt_at is moved forward, attempts incremented), so other nodes
+     * skip them while the storage call runs outside the transaction.
+     * Must be called inside a transaction.
+     */
+    List<ImageDeletion> claimDueDeletions(int limit, Instant now, Instant leaseUntil);
+
+    void deleteAllByIds(List<UUID> ids);
+    void markForRetry(UUID id, String lastError, Instant nextAttemptAt);
+    long countPending();
+
+    /**
+     * Returns the subset of the given object keys that already have a deletion queued.
+     */
+    Set<String> findQueuedKeys(Collection<String> objectKeys);
+}
@@ -0,0 +1,35 @@
+package com.lamngo.mealsync.domain.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.ImageJob;
+import com.lamngo.mealsync.domain.model.image.ImageJobStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface IImageJobRepo {
+    Optional<ImageJob> findByRecipeId(UUID recipeId);
+    ImageJob save(ImageJob imageJob);
+    void deleteById(UUID id);
+
+    /**
+     * Claims up to {@code limit} due PENDING jobs with SELECT ... FOR UPDATE SKIP LOCKED,
+     * so concurrent workers on other nodes never receive the same job.
+     * Claimed jobs are moved to RUNNING and their attempt counter is incremented.
+     * Must be called inside a transaction.
+     */
+    List<ImageJob> claimDueJobs(int limit, String workerId, Instant now);
+
+    void markForRetry(UUID id, String lastError, Instant nextAttemptAt);
+    void markDead(UUID id, String lastError, Instant deadAt);
+
+    /**
+     * Returns RUNNING jobs locked before the cutoff (worker crashed or node restarted) to PENDING.
+     * @return number of jobs released
+     */
+    int releaseStaleJobs(Instant lockedBefore);
+
+    long countByStatus(ImageJobStatus status);
+    Optional<Instant> findOldestCreatedAt(ImageJobStatus status);
+}
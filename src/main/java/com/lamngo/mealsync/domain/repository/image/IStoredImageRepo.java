@@ -0,0 +1,11 @@
+package com.lamngo.mealsync.domain.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.StoredImage;
+
+import java.util.Optional;
+
+public interface IStoredImageRepo {
+    Optional<StoredImage> findByContentHash(String contentHash);
+    StoredImage save(StoredImage storedImage);
+    void deleteByContentHash(String contentHash);
+}
@@ -0,0 +1,50 @@
+package com.lamngo.mealsync.domain.repository.ingredient;
+
+import com.lamngo.mealsync.domain.model.ingredient.CanonicalIngredient;
+import com.lamngo.mealsync.domain.model.ingredient.IngredientAlias;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+public interface ICanonicalIngredientRepo {
+    List<CanonicalIngredient> findAll();
+
+    /**
+     * Ingredients created after the one with this id, e.g. by other nodes.
+     */
+    List<CanonicalIngredient> findAllAfter(int id);
+    Optional<CanonicalIngredient> findByName(String name);
+
+    /**
+     * Inserts an ingredient unless one with this name exists, in the caller's transaction, and returns
+     * the stored one. A concurrent insert of the same name does not make it fail.
+     */
+    CanonicalIngredient insertIfAbsent(String name, int frequency);
+    List<CanonicalIngredient> saveAll(Collection<CanonicalIngredient> ingredients);
+    List<IngredientAlias> findAllAliases();
+    IngredientAlias saveAlias(IngredientAlias alias);
+
+    /**
+     * Distinct recipe ingredient names without a canonical id yet, with the number of rows using each.
+     *
+     * @param after Only names sorting after this one; empty for the first batch
+     * @return Up to limit names, in name order
+     */
+    Map<String, Long> findUnresolvedIngredientNames(String after, int limit);
+
+    /**
+     * Recipes with an ingredient of one of these names that has no canonical id yet.
+     */
+    Set<UUID> findRecipeIdsWithUnresolvedIngredientNames(Collection<String> names);
+
+    /**
+     * Sets the canonical id of the recipe ingredients with one of these names that have none yet.
+     *
+     * @return The number of recipe ingredients updated
+     */
+    int assignToIngredientNames(int ingredientId, Collection<String> names);
+}
@@ -1,28 +1,101 @@
 package com.lamngo.mealsync.domain.repository.recipe;
 
 import com.lamngo.mealsync.application.shared.OffsetPage;
+import com.lamngo.mealsync.application.shared.PageCursor;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeImageUpdate;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
+import com.lamngo.mealsync.domain.model.recipe.RecipeSearchHit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface IRecipeRepo {
     Recipe createRecipe(Recipe recipe);
     Optional<Recipe> getRecipeById(UUID id);
     Page<Recipe> getAllRecipes(OffsetPage pageable);
-    Page<Recipe> getAllRecipesFiltered(OffsetPage pageable, String name, List<String> cuisines, List<String> tags,
-                                        List<String> ingredients, String difficulty,
-                                        Integer maxTotalTime, Integer minServings);
+
+    /**
+     * Read document of a recipe, from the recipes table alone (no child tables).
+     */
+    Optional<RecipeReadDocument> findReadDocument(UUID id);
+
+    /**
+     * Read documents of many recipes in one single-table query, in the order of the IDs.
+     * Unknown IDs are skipped.
+     */
+    List<RecipeReadDocument> findReadDocuments(List<UUID> ids);
+
+    /**
+     * Offset page of the (optionally filtered) listing, newest first, as read documents.
+     */
+    Page<RecipeReadDocument> getAllRecipesFiltered(OffsetPage pageable, String name, List<String> cuisines, List<String> tags,
+                                                   List<String> ingredients, String difficulty,
+                                                   Integer maxTotalTime, Integer minServings);
+
+    /**
+     * Keyset page of the (optionally filtered) listing, newest first: the recipes created before
+     * the cursor, or the newest ones when it is null. Does not count.
+     * @param after Last (createdAt, id) of the previous page, or null for the first page
+     * @param limit Page size
+     */
+    Slice<RecipeReadDocument> getRecipesAfter(PageCursor after, int limit, String name, List<String> cuisines, List<String> tags,
+                                              List<String> ingredients, String difficulty,
+                                              Integer maxTotalTime, Integer minServings);
+
+    /**
+     * Number of recipes matching the same filters as {@link #getRecipesAfter}.
+     */
+    long countRecipesFiltered(String name, List<String> cuisines, List<String> tags,
+                              List<String> ingredients, String difficulty,
+                              Integer maxTotalTime, Integer minServings);
+
+    /**
+     * Ranked full-text search over name, description, cuisine, tags and ingredient names.
+     * Every word must match; the last characters of a word may be missing (prefix match).
+     * Uses the PostgreSQL search_vector column when it is set up, otherwise a case-insensitive
+     * substring match (e.g. H2 in tests).
+     * @param query Words to search for
+     * @param pageable Page of results, most relevant first
+     */
+    Page<RecipeSearchHit> searchRecipes(String query, OffsetPage pageable);
     void deleteRecipe(UUID id);
     Optional<Recipe> findByIngredientKey(String ingredientKey);
     long countAllRecipes();
+
+    /**
+     * Number of recipes per lower-cased cuisine, difficulty and tag (a tag counts once per recipe),
+     * and per total time in minutes; one GROUP BY each. Null values are left out, except the null
+     * total time.
+     */
+    Map<String, Long> countByCuisine();
+    Map<String, Long> countByDifficulty();
+    Map<String, Long> countByTag();
+    Map<Integer, Long> countByTotalTime();
+
+    /**
+     * IDs of all recipes, oldest first.
+     */
+    List<UUID> findAllRecipeIds();
+
+    /**
+     * Distinct canonical ingredient ids per recipe, in one query over recipe_ingredients; each
+     * ingredient without one yet adds an IngredientVocabulary.UNKNOWN entry, so it still counts as an
+     * ingredient of the recipe. Recipes that do not exist (or have no ingredients) are missing from the map.
+     */
+    Map<UUID, int[]> findCanonicalIngredientIds(Collection<UUID> recipeIds);
     List<Recipe> findRecipesByCuisines(List<String> cuisines, int limit);
     List<Recipe> findAllRecipesForRecommendation(int limit);
     
     /**
      * Saves a recipe to the database. Can be used for both creating and updating.
+     * Like createRecipe and saveAllRecipes, re-renders the recipe's read document.
      * @param recipe The recipe to save
      * @return The saved recipe
      */
@@ -52,6 +125,42 @@ public interface IRecipeRepo {
      */
     Optional<Recipe> findSimilarRecipeByName(String recipeName, double similarityThreshold);
     
+    /**
+     * Finds another recipe with the same ingredient key that already has an image.
+     * @param ingredientKey Ingredient key to match
+     * @param excludeRecipeId Recipe that is looking for an image
+     * @return Optional recipe whose image can be reused
+     */
+    Optional<Recipe> findRecipeWithImageByIngredientKey(String ingredientKey, UUID excludeRecipeId);
+    
+    /**
+     * Finds the most similar recipe by name (pg_trgm) that already has an image.
+     * @param recipeName Recipe name to match
+     * @param excludeRecipeId Recipe that is looking for an image
+     * @param similarityThreshold Minimum similarity (0.0-1.0)
+     * @return Optional recipe whose image can be reused
+     */
+    Optional<Recipe> findSimilarRecipeWithImage(String recipeName, UUID excludeRecipeId, double similarityThreshold);
+    
+    /**
+     * Counts recipes pointing at the given image URL (images can be shared between recipes).
+     */
+    long countRecipesByImageUrl(String imageUrl);
+    
+    /**
+     * Returns the subset of the given URLs still referenced by a recipe
+     * (as full, card or thumbnail image). Used to detect orphaned storage objects.
+     */
+    Set<String> findReferencedImageUrls(Collection<String> imageUrls);
+    
+    /**
+     * Sets the image columns of many recipes with one batched, parameterized UPDATE, without loading the entities.
+     * Must be called inside a transaction.
+     * @param updates Image columns per recipe (one entry per recipe ID)
+     * @return IDs of the recipes that were updated (recipes deleted in the meantime are missing)
+     */
+    Set<UUID> updateImageUrls(List<RecipeImageUpdate> updates);
+    
     /**
      * Batch lookup recipes by ingredient keys.
      * More efficient than calling findByIngredientKey() multiple times.
@@ -1,5 +1,6 @@
 package com.lamngo.mealsync.infrastructure.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -7,6 +8,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -20,10 +22,47 @@ public class AsyncConfig {
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("async-image-");
         executor.initialize();
-        
+
         // Wrap executor to propagate SecurityContext to async operations
         // This ensures that @PreAuthorize and SecurityContext work correctly in async methods
         return new DelegatingSecurityContextExecutorService(executor.getThreadPoolExecutor());
     }
-}
 
+    /**
+     * CPU-bound pool for image transcoding (one thread per core).
+     * The queue is bounded and rejects when full so a burst of images degrades to
+     * storing originals instead of piling up decoded bitmaps in memory.
+     */
+    @Bean(name = "imageTranscodeExecutor")
+    public Executor imageTranscodeExecutor(
+            @Value("${app.images.transcode.queue-capacity:32}") int queueCapacity) {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-transcode-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool for blocking follow-up work of the image pipeline (orphaned variant deletes, on-demand job inserts),
+     * which would otherwise hold threads of the common ForkJoinPool that async stages and parallel streams share.
+     * The queue is bounded and rejects when full; callers treat that work as best effort.
+     */
+    @Bean(name = "imageBackgroundExecutor")
+    public Executor imageBackgroundExecutor(
+            @Value("${app.images.background.threads:4}") int threads,
+            @Value("${app.images.background.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-background-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
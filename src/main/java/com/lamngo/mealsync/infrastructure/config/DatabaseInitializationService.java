@@ -7,8 +7,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Automatically initializes PostgreSQL extensions and indexes on application
@@ -24,16 +28,108 @@ import java.util.List;
 public class DatabaseInitializationService implements ApplicationRunner {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseInitializationService.class);
 
+    /**
+     * Case-insensitive predicates of the filtered recipe listing (see RecipeFilterQuery). Plain column
+     * indexes are declared on the entities; these need expressions Hibernate cannot declare.
+     */
+    private static final Map<String, String> FILTER_INDEXES = new LinkedHashMap<>();
+    static {
+        FILTER_INDEXES.put("idx_recipes_cuisine_lower",
+                "CREATE INDEX IF NOT EXISTS idx_recipes_cuisine_lower ON recipes (lower(cuisine))");
+        FILTER_INDEXES.put("idx_recipes_difficulty_lower",
+                "CREATE INDEX IF NOT EXISTS idx_recipes_difficulty_lower ON recipes (lower(difficulty))");
+        FILTER_INDEXES.put("idx_recipe_tags_tag_lower",
+                "CREATE INDEX IF NOT EXISTS idx_recipe_tags_tag_lower ON recipe_tags (lower(tag), recipe_id)");
+    }
+
+    /**
+     * Substring (LIKE '%x%') filters; these need pg_trgm.
+     */
+    private static final Map<String, String> TRIGRAM_FILTER_INDEXES = new LinkedHashMap<>();
+    static {
+        TRIGRAM_FILTER_INDEXES.put("idx_recipes_name_lower_trgm",
+                "CREATE INDEX IF NOT EXISTS idx_recipes_name_lower_trgm ON recipes USING gin (lower(name) gin_trgm_ops)");
+        TRIGRAM_FILTER_INDEXES.put("idx_recipe_ingredients_name_lower_trgm",
+                "CREATE INDEX IF NOT EXISTS idx_recipe_ingredients_name_lower_trgm "
+                        + "ON recipe_ingredients USING gin (lower(name) gin_trgm_ops)");
+    }
+
+    /**
+     * Full-text search document of a recipe: name (weight A), cuisine and tags (B), ingredient names (C)
+     * and description (D). Tags and ingredients live in their own tables, so the recipes.search_vector
+     * column is kept up to date by triggers on all three tables instead of a generated column.
+     * Statements avoid ':' because they go through Hibernate's parameter parser.
+     */
+    private static final List<String> FULL_TEXT_SEARCH_DDL = List.of(
+            "ALTER TABLE recipes ADD COLUMN IF NOT EXISTS search_vector tsvector",
+            """
+            CREATE OR REPLACE FUNCTION recipe_search_document(p_id uuid, p_name text, p_cuisine text, p_description text)
+            RETURNS tsvector LANGUAGE sql STABLE AS $$
+                SELECT setweight(to_tsvector('english', coalesce(p_name, '')), 'A')
+                    || setweight(to_tsvector('english', coalesce(p_cuisine, '') || ' '
+                        || coalesce((SELECT string_agg(t.tag, ' ') FROM recipe_tags t WHERE t.recipe_id = p_id), '')), 'B')
+                    || setweight(to_tsvector('english',
+                        coalesce((SELECT string_agg(ri.name, ' ') FROM recipe_ingredients ri WHERE ri.recipe_id = p_id), '')), 'C')
+                    || setweight(to_tsvector('english', coalesce(p_description, '')), 'D')
+            $$
+            """,
+            """
+            CREATE OR REPLACE FUNCTION recipes_search_vector_refresh() RETURNS trigger LANGUAGE plpgsql AS $$
+            BEGIN
+                NEW.search_vector = recipe_search_document(NEW.id, NEW.name, NEW.cuisine, NEW.description);
+                RETURN NEW;
+            END
+            $$
+            """,
+            """
+            CREATE OR REPLACE FUNCTION recipe_children_search_vector_refresh() RETURNS trigger LANGUAGE plpgsql AS $$
+            BEGIN
+                IF TG_OP <> 'INSERT' THEN
+                    UPDATE recipes r SET search_vector = recipe_search_document(r.id, r.name, r.cuisine, r.description)
+                    WHERE r.id = OLD.recipe_id;
+                END IF;
+                IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.recipe_id IS DISTINCT FROM OLD.recipe_id) THEN
+                    UPDATE recipes r SET search_vector = recipe_search_document(r.id, r.name, r.cuisine, r.description)
+                    WHERE r.id = NEW.recipe_id;
+                END IF;
+                RETURN NULL;
+            END
+            $$
+            """,
+            "DROP TRIGGER IF EXISTS recipes_search_vector ON recipes",
+            "CREATE TRIGGER recipes_search_vector BEFORE INSERT OR UPDATE OF name, cuisine, description ON recipes "
+                    + "FOR EACH ROW EXECUTE FUNCTION recipes_search_vector_refresh()",
+            "DROP TRIGGER IF EXISTS recipe_tags_search_vector ON recipe_tags",
+            "CREATE TRIGGER recipe_tags_search_vector AFTER INSERT OR UPDATE OR DELETE ON recipe_tags "
+                    + "FOR EACH ROW EXECUTE FUNCTION recipe_children_search_vector_refresh()",
+            "DROP TRIGGER IF EXISTS recipe_ingredients_search_vector ON recipe_ingredients",
+            "CREATE TRIGGER recipe_ingredients_search_vector AFTER INSERT OR UPDATE OR DELETE ON recipe_ingredients "
+                    + "FOR EACH ROW EXECUTE FUNCTION recipe_children_search_vector_refresh()",
+            // Rows written before the triggers existed
+            "UPDATE recipes r SET search_vector = recipe_search_document(r.id, r.name, r.cuisine, r.description) "
+                    + "WHERE r.search_vector IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_recipes_search_vector ON recipes USING gin (search_vector)");
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    // Set once the search_vector column, its triggers and index exist; until then search falls back
+    private volatile boolean fullTextSearchReady;
+
+    // Native executeUpdate needs a transaction; each DDL statement gets its own
+    private final TransactionTemplate transactionTemplate;
+
+    public DatabaseInitializationService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     /**
-     * Automatically sets up pg_trgm extension and index on application startup.
+     * Automatically sets up pg_trgm extension and indexes on application startup.
      * This runs after the application context is fully initialized.
      * Uses ApplicationRunner to ensure it runs after Spring Data JPA is ready.
      * 
-     * Note: Not transactional because DDL statements are auto-commit and we want
-     * to handle exceptions gracefully without affecting transaction state.
+     * Note: Not transactional as a whole; every DDL statement runs in its own short
+     * transaction, so one failure does not affect the others.
      */
     @Override
     public void run(ApplicationArguments args) {
@@ -46,6 +142,10 @@ public class DatabaseInitializationService implements ApplicationRunner {
 
             logger.info("Initializing PostgreSQL extensions and indexes...");
 
+            // Independent of pg_trgm
+            createIndexes(FILTER_INDEXES);
+            initializeFullTextSearch();
+
             // Check if pg_trgm extension exists
             boolean extensionExists = checkExtensionExists("pg_trgm");
 
@@ -53,8 +153,7 @@ public class DatabaseInitializationService implements ApplicationRunner {
                 logger.info("Creating pg_trgm extension...");
                 try {
                     // CREATE EXTENSION IF NOT EXISTS is idempotent
-                    entityManager.createNativeQuery("CREATE EXTENSION IF NOT EXISTS pg_trgm")
-                            .executeUpdate();
+                    executeDdl("CREATE EXTENSION IF NOT EXISTS pg_trgm");
                     logger.info("✓ pg_trgm extension created successfully");
                 } catch (Exception e) {
                     // Extension creation requires superuser privileges
@@ -76,11 +175,10 @@ public class DatabaseInitializationService implements ApplicationRunner {
                 logger.info("Creating GIN index for recipe name similarity search...");
                 try {
                     // CREATE INDEX IF NOT EXISTS is idempotent
-                    entityManager.createNativeQuery("""
+                    executeDdl("""
                             CREATE INDEX IF NOT EXISTS idx_recipes_name_trgm
                             ON recipes USING gin(name gin_trgm_ops)
-                            """)
-                            .executeUpdate();
+                            """);
                     logger.info("✓ GIN index created successfully");
                 } catch (Exception e) {
                     logger.warn("⚠ Could not create GIN index: {}", e.getMessage());
@@ -89,6 +187,8 @@ public class DatabaseInitializationService implements ApplicationRunner {
                 logger.debug("✓ GIN index already exists");
             }
 
+            createIndexes(TRIGRAM_FILTER_INDEXES);
+
             logger.info("✓ Database extensions and indexes initialized successfully");
 
         } catch (Exception e) {
@@ -98,6 +198,52 @@ public class DatabaseInitializationService implements ApplicationRunner {
         }
     }
 
+    /**
+     * Sets up the maintained search_vector column used by recipe search. Every statement is idempotent,
+     * so this runs on every startup; failures leave search on its substring fallback.
+     */
+    private void initializeFullTextSearch() {
+        try {
+            for (String ddl : FULL_TEXT_SEARCH_DDL) {
+                executeDdl(ddl);
+            }
+            fullTextSearchReady = true;
+            logger.info("✓ Full-text recipe search initialized");
+        } catch (Exception e) {
+            logger.warn("⚠ Could not set up full-text recipe search, using substring matching: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether recipes.search_vector is maintained and indexed. False on H2 and before startup completes.
+     */
+    public boolean isFullTextSearchReady() {
+        return fullTextSearchReady;
+    }
+
+    /**
+     * Creates the indexes that do not exist yet. A failure is logged and only costs the speed of the
+     * queries that would use the index.
+     */
+    private void createIndexes(Map<String, String> indexes) {
+        for (Map.Entry<String, String> index : indexes.entrySet()) {
+            if (checkIndexExists(index.getKey())) {
+                logger.debug("✓ Index {} already exists", index.getKey());
+                continue;
+            }
+            try {
+                executeDdl(index.getValue());
+                logger.info("✓ Index {} created successfully", index.getKey());
+            } catch (Exception e) {
+                logger.warn("⚠ Could not create index {}: {}", index.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void executeDdl(String sql) {
+        transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(sql).executeUpdate());
+    }
+
     /**
      * Checks if the database is PostgreSQL.
      */
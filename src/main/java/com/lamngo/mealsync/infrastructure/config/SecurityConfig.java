@@ -47,6 +47,11 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/v1/users/forgot-password").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/users/reset-password").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/recipes").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/recipes/search").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/recipes/facets").permitAll()
+                        // Images from the local storage backend are public, like S3 object URLs
+                        .requestMatchers(HttpMethod.GET, "/api/v1/images/**").permitAll()
+                        .requestMatchers(HttpMethod.HEAD, "/api/v1/images/**").permitAll()
                         // All other requests require authentication
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,233 @@
+package com.lamngo.mealsync.infrastructure.messaging;
+
+import com.lamngo.mealsync.application.event.EventTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * {@link EventTransport} over PostgreSQL LISTEN/NOTIFY, so multiple app containers can share events
+ * without extra infrastructure.
+ *
+ * LISTEN needs a connection that stays open for the life of the node, so the listener opens its own
+ * connection outside the Hikari pool (a pooled one would trip leak detection and shrink the pool) and
+ * reconnects with a delay when it drops. NOTIFY is sent the same way by a single publisher thread on one
+ * held connection: publish only queues the payload, so the image URL writer and the afterCommit relays
+ * never wait on the database or check out a pooled connection. When app.events.postgres.publish-queue-capacity
+ * payloads are waiting, new ones are dropped and counted (mealsync.events.dropped{reason}).
+ * Active only for app.events.transport=postgres with a jdbc:postgresql URL; H2 test runs stay local.
+ */
+@Component
+@ConditionalOnExpression("'${app.events.transport:postgres}' == 'postgres' && '${spring.datasource.url:}'.startsWith('jdbc:postgresql:')")
+public class PostgresEventTransport implements EventTransport {
+    private static final Logger logger = LoggerFactory.getLogger(PostgresEventTransport.class);
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final long pollTimeoutMs;
+    private final long reconnectDelayMs;
+    private final BlockingQueue<String> outbox;
+    private final Counter overflowCounter;
+    private final Counter sendFailedCounter;
+
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+    private Thread publisherThread;
+    // Only used by the publisher thread
+    private Connection notifyConnection;
+    private PreparedStatement notifyStatement;
+
+    public PostgresEventTransport(
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${app.events.postgres.channel:mealsync_events}") String channel,
+            @Value("${app.events.postgres.poll-timeout-ms:10000}") long pollTimeoutMs,
+            @Value("${app.events.postgres.reconnect-delay-ms:5000}") long reconnectDelayMs,
+            @Value("${app.events.postgres.publish-queue-capacity:10000}") int publishQueueCapacity) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            // LISTEN takes an identifier, not a bind parameter
+            throw new IllegalArgumentException("Invalid app.events.postgres.channel: " + channel);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.pollTimeoutMs = Math.max(100, pollTimeoutMs);
+        this.reconnectDelayMs = Math.max(100, reconnectDelayMs);
+        this.outbox = new ArrayBlockingQueue<>(Math.max(1, publishQueueCapacity));
+        this.overflowCounter = Counter.builder("mealsync.events.dropped")
+                .description("Cluster events not sent to the other nodes")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.sendFailedCounter = Counter.builder("mealsync.events.dropped")
+                .description("Cluster events not sent to the other nodes")
+                .tag("reason", "send_failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(String payload) {
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Event payload exceeds the NOTIFY size limit");
+        }
+        if (!outbox.offer(payload)) {
+            overflowCounter.increment();
+            logger.debug("Cluster event queue is full, dropping event");
+        }
+    }
+
+    @Override
+    public synchronized void start(Consumer<String> handler) {
+        if (running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(() -> listen(handler), "pg-event-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        publisherThread = new Thread(this::sendQueued, "pg-event-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    private void sendQueued() {
+        while (running) {
+            String payload;
+            try {
+                payload = outbox.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                sendNotify(payload);
+            } catch (SQLException first) {
+                // The held connection may have been closed by the server while idle; retry once on a new one
+                closeNotifyConnection();
+                try {
+                    sendNotify(payload);
+                } catch (SQLException e) {
+                    closeNotifyConnection();
+                    sendFailedCounter.increment();
+                    logger.warn("Failed to publish cluster event: {}", e.getMessage());
+                }
+            }
+        }
+        closeNotifyConnection();
+    }
+
+    private void sendNotify(String payload) throws SQLException {
+        if (notifyStatement == null) {
+            notifyConnection = DriverManager.getConnection(url, username, password);
+            notifyStatement = notifyConnection.prepareStatement("SELECT pg_notify(?, ?)");
+        }
+        notifyStatement.setString(1, channel);
+        notifyStatement.setString(2, payload);
+        notifyStatement.execute();
+    }
+
+    private void closeNotifyConnection() {
+        Connection connection = notifyConnection;
+        notifyConnection = null;
+        notifyStatement = null;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Error closing notify connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void listen(Consumer<String> handler) {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                logger.info("Listening for cluster events on channel {}", channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    // Blocks up to the timeout; throws when the connection is lost
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            handler.accept(notification.getParameter());
+                        } catch (Exception e) {
+                            logger.warn("Cluster event handler failed: {}", e.getMessage());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cluster event listener lost its connection, reconnecting in {} ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Connection connection = listenConnection;
+        if (connection != null) {
+            try {
+                // Unblocks getNotifications
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Error closing listener connection: {}", e.getMessage());
+            }
+        }
+        for (Thread thread : new Thread[] {listenerThread, publisherThread}) {
+            if (thread == null) {
+                continue;
+            }
+            thread.interrupt();
+            try {
+                thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
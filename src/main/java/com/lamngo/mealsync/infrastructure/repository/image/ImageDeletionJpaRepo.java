@@ -0,0 +1,30 @@
+package com.lamngo.mealsync.infrastructure.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.ImageDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ImageDeletionJpaRepo extends JpaRepository<ImageDeletion, UUID> {
+
+    @Query("SELECT d.objectKey FROM ImageDeletion d WHERE d.objectKey IN :objectKeys")
+    List<String> findQueuedKeys(Collection<String> objectKeys);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ImageDeletion d WHERE d.id IN :ids")
+    int deleteAllByIdIn(Collection<UUID> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageDeletion d SET d.lastError = :lastError, d.nextAttemptAt = :nextAttemptAt WHERE d.id = :id")
+    int markForRetry(UUID id, String lastError, Instant nextAttemptAt);
+}
@@ -0,0 +1,81 @@
+package com.lamngo.mealsync.infrastructure.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.ImageDeletion;
+import com.lamngo.mealsync.domain.repository.image.IImageDeletionRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public class ImageDeletionRepo implements IImageDeletionRepo {
+
+    @Autowired
+    private ImageDeletionJpaRepo _imageDeletionJpaRepo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ImageDeletion> saveAll(List<ImageDeletion> deletions) {
+        return _imageDeletionJpaRepo.saveAll(deletions);
+    }
+
+    @Override
+    public List<ImageDeletion> claimDueDeletions(int limit, Instant now, Instant leaseUntil) {
+        // Same SKIP LOCKED claim as image_jobs; the lease replaces a RUNNING status
+        String sql = """
+            SELECT d.* FROM image_deletions d
+            WHERE d.next_attempt_at <= :now
+            ORDER BY d.next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """;
+
+        @SuppressWarnings("unchecked")
+        List<ImageDeletion> deletions = entityManager.createNativeQuery(sql, ImageDeletion.class)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        // Managed entities - changes are flushed when the surrounding transaction commits
+        for (ImageDeletion deletion : deletions) {
+            deletion.setNextAttemptAt(leaseUntil);
+            deletion.setAttempts(deletion.getAttempts() + 1);
+        }
+        return deletions;
+    }
+
+    @Override
+    public void deleteAllByIds(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        _imageDeletionJpaRepo.deleteAllByIdIn(ids);
+    }
+
+    @Override
+    public void markForRetry(UUID id, String lastError, Instant nextAttemptAt) {
+        _imageDeletionJpaRepo.markForRetry(id, lastError, nextAttemptAt);
+    }
+
+    @Override
+    public long countPending() {
+        return _imageDeletionJpaRepo.count();
+    }
+
+    @Override
+    public Set<String> findQueuedKeys(Collection<String> objectKeys) {
+        if (objectKeys == null || objectKeys.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(_imageDeletionJpaRepo.findQueuedKeys(objectKeys));
+    }
+}
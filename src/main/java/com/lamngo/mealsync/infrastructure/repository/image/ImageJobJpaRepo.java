@@ -0,0 +1,51 @@
+package com.lamngo.mealsync.infrastructure.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.ImageJob;
+import com.lamngo.mealsync.domain.model.image.ImageJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ImageJobJpaRepo extends JpaRepository<ImageJob, UUID> {
+    Optional<ImageJob> findByRecipeId(UUID recipeId);
+
+    long countByStatus(ImageJobStatus status);
+
+    @Query("SELECT MIN(j.createdAt) FROM ImageJob j WHERE j.status = :status")
+    Instant findOldestCreatedAt(ImageJobStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ImageJob j SET j.status = com.lamngo.mealsync.domain.model.image.ImageJobStatus.PENDING,
+                j.lastError = :lastError, j.nextAttemptAt = :nextAttemptAt, j.lockedAt = NULL, j.lockedBy = NULL
+            WHERE j.id = :id
+            """)
+    int markForRetry(UUID id, String lastError, Instant nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ImageJob j SET j.status = com.lamngo.mealsync.domain.model.image.ImageJobStatus.DEAD,
+                j.lastError = :lastError, j.deadAt = :deadAt, j.lockedAt = NULL, j.lockedBy = NULL
+            WHERE j.id = :id
+            """)
+    int markDead(UUID id, String lastError, Instant deadAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ImageJob j SET j.status = com.lamngo.mealsync.domain.model.image.ImageJobStatus.PENDING,
+                j.lockedAt = NULL, j.lockedBy = NULL
+            WHERE j.status = com.lamngo.mealsync.domain.model.image.ImageJobStatus.RUNNING
+              AND j.lockedAt < :lockedBefore
+            """)
+    int releaseStaleJobs(Instant lockedBefore);
+}
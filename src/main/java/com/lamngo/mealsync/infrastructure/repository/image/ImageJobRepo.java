@@ -0,0 +1,91 @@
+package com.lamngo.mealsync.infrastructure.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.ImageJob;
+import com.lamngo.mealsync.domain.model.image.ImageJobStatus;
+import com.lamngo.mealsync.domain.repository.image.IImageJobRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class ImageJobRepo implements IImageJobRepo {
+
+    @Autowired
+    private ImageJobJpaRepo _imageJobJpaRepo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<ImageJob> findByRecipeId(UUID recipeId) {
+        return _imageJobJpaRepo.findByRecipeId(recipeId);
+    }
+
+    @Override
+    public ImageJob save(ImageJob imageJob) {
+        return _imageJobJpaRepo.save(imageJob);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        _imageJobJpaRepo.deleteById(id);
+    }
+
+    @Override
+    public List<ImageJob> claimDueJobs(int limit, String workerId, Instant now) {
+        // SKIP LOCKED lets every node poll the same table without blocking on rows another worker is claiming
+        String sql = """
+            SELECT j.* FROM image_jobs j
+            WHERE j.status = 'PENDING' AND j.next_attempt_at <= :now
+            ORDER BY j.next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """;
+
+        @SuppressWarnings("unchecked")
+        List<ImageJob> jobs = entityManager.createNativeQuery(sql, ImageJob.class)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        // Managed entities - changes are flushed when the surrounding transaction commits
+        for (ImageJob job : jobs) {
+            job.setStatus(ImageJobStatus.RUNNING);
+            job.setLockedBy(workerId);
+            job.setLockedAt(now);
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        return jobs;
+    }
+
+    @Override
+    public void markForRetry(UUID id, String lastError, Instant nextAttemptAt) {
+        _imageJobJpaRepo.markForRetry(id, lastError, nextAttemptAt);
+    }
+
+    @Override
+    public void markDead(UUID id, String lastError, Instant deadAt) {
+        _imageJobJpaRepo.markDead(id, lastError, deadAt);
+    }
+
+    @Override
+    public int releaseStaleJobs(Instant lockedBefore) {
+        return _imageJobJpaRepo.releaseStaleJobs(lockedBefore);
+    }
+
+    @Override
+    public long countByStatus(ImageJobStatus status) {
+        return _imageJobJpaRepo.countByStatus(status);
+    }
+
+    @Override
+    public Optional<Instant> findOldestCreatedAt(ImageJobStatus status) {
+        return Optional.ofNullable(_imageJobJpaRepo.findOldestCreatedAt(status));
+    }
+}
@@ -0,0 +1,9 @@
+package com.lamngo.mealsync.infrastructure.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.StoredImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StoredImageJpaRepo extends JpaRepository<StoredImage, String> {
+}
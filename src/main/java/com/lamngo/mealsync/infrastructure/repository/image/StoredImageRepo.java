@@ -0,0 +1,30 @@
+package com.lamngo.mealsync.infrastructure.repository.image;
+
+import com.lamngo.mealsync.domain.model.image.StoredImage;
+import com.lamngo.mealsync.domain.repository.image.IStoredImageRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public class StoredImageRepo implements IStoredImageRepo {
+
+    @Autowired
+    private StoredImageJpaRepo _storedImageJpaRepo;
+
+    @Override
+    public Optional<StoredImage> findByContentHash(String contentHash) {
+        return _storedImageJpaRepo.findById(contentHash);
+    }
+
+    @Override
+    public StoredImage save(StoredImage storedImage) {
+        return _storedImageJpaRepo.save(storedImage);
+    }
+
+    @Override
+    public void deleteByContentHash(String contentHash) {
+        _storedImageJpaRepo.deleteById(contentHash);
+    }
+}
@@ -0,0 +1,64 @@
+package com.lamngo.mealsync.infrastructure.repository.ingredient;
+
+import com.lamngo.mealsync.domain.model.ingredient.CanonicalIngredient;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CanonicalIngredientJpaRepo extends JpaRepository<CanonicalIngredient, Integer> {
+    Optional<CanonicalIngredient> findByName(String name);
+
+    List<CanonicalIngredient> findByIdGreaterThanOrderById(Integer id);
+
+    /**
+     * A concurrent insert of the same name makes this one wait until it commits and then do nothing,
+     * instead of failing with a unique violation that would abort the caller's transaction.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO canonical_ingredients (name, frequency) VALUES (:name, :frequency)
+            ON CONFLICT (name) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsentOnConflict(String name, int frequency);
+
+    /**
+     * Portable form of {@link #insertIfAbsentOnConflict}, for H2.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO canonical_ingredients (name, frequency)
+            SELECT :name, :frequency WHERE NOT EXISTS (SELECT 1 FROM canonical_ingredients WHERE name = :name)
+            """, nativeQuery = true)
+    int insertIfAbsent(String name, int frequency);
+
+    @Query("""
+            SELECT ri.name, COUNT(ri) FROM RecipeIngredient ri
+            WHERE ri.canonicalIngredientId IS NULL AND ri.name > :after
+            GROUP BY ri.name
+            ORDER BY ri.name
+            """)
+    List<Object[]> findUnresolvedIngredientNames(String after, Limit limit);
+
+    @Query("""
+            SELECT DISTINCT ri.recipe.id FROM RecipeIngredient ri
+            WHERE ri.canonicalIngredientId IS NULL AND ri.name IN :names
+            """)
+    List<UUID> findRecipeIdsWithUnresolvedIngredientNames(Collection<String> names);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE RecipeIngredient ri SET ri.canonicalIngredientId = :ingredientId
+            WHERE ri.canonicalIngredientId IS NULL AND ri.name IN :names
+            """)
+    int assignToIngredientNames(Integer ingredientId, Collection<String> names);
+}
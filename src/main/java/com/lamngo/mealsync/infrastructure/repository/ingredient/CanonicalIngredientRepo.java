@@ -0,0 +1,100 @@
+package com.lamngo.mealsync.infrastructure.repository.ingredient;
+
+import com.lamngo.mealsync.domain.model.ingredient.CanonicalIngredient;
+import com.lamngo.mealsync.domain.model.ingredient.IngredientAlias;
+import com.lamngo.mealsync.domain.repository.ingredient.ICanonicalIngredientRepo;
+import org.jooq.SQLDialect;
+import org.jooq.tools.jdbc.JDBCUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public class CanonicalIngredientRepo implements ICanonicalIngredientRepo {
+
+    @Autowired
+    private CanonicalIngredientJpaRepo _canonicalIngredientJpaRepo;
+
+    @Autowired
+    private IngredientAliasJpaRepo _ingredientAliasJpaRepo;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Override
+    public List<CanonicalIngredient> findAll() {
+        return _canonicalIngredientJpaRepo.findAll();
+    }
+
+    @Override
+    public List<CanonicalIngredient> findAllAfter(int id) {
+        return _canonicalIngredientJpaRepo.findByIdGreaterThanOrderById(id);
+    }
+
+    @Override
+    public Optional<CanonicalIngredient> findByName(String name) {
+        return _canonicalIngredientJpaRepo.findByName(name);
+    }
+
+    @Override
+    public CanonicalIngredient insertIfAbsent(String name, int frequency) {
+        // Anything but H2 (the tests) is PostgreSQL, the production database
+        if (JDBCUtils.dialect(datasourceUrl).family() == SQLDialect.H2) {
+            _canonicalIngredientJpaRepo.insertIfAbsent(name, frequency);
+        } else {
+            _canonicalIngredientJpaRepo.insertIfAbsentOnConflict(name, frequency);
+        }
+        return _canonicalIngredientJpaRepo.findByName(name)
+                .orElseThrow(() -> new IllegalStateException("Canonical ingredient '" + name + "' was not stored"));
+    }
+
+    @Override
+    public List<CanonicalIngredient> saveAll(Collection<CanonicalIngredient> ingredients) {
+        return _canonicalIngredientJpaRepo.saveAllAndFlush(ingredients);
+    }
+
+    @Override
+    public List<IngredientAlias> findAllAliases() {
+        return _ingredientAliasJpaRepo.findAll();
+    }
+
+    @Override
+    public IngredientAlias saveAlias(IngredientAlias alias) {
+        return _ingredientAliasJpaRepo.saveAndFlush(alias);
+    }
+
+    @Override
+    public Map<String, Long> findUnresolvedIngredientNames(String after, int limit) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : _canonicalIngredientJpaRepo.findUnresolvedIngredientNames(after, Limit.of(limit))) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public Set<UUID> findRecipeIdsWithUnresolvedIngredientNames(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(_canonicalIngredientJpaRepo.findRecipeIdsWithUnresolvedIngredientNames(names));
+    }
+
+    @Override
+    public int assignToIngredientNames(int ingredientId, Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return 0;
+        }
+        return _canonicalIngredientJpaRepo.assignToIngredientNames(ingredientId, names);
+    }
+}
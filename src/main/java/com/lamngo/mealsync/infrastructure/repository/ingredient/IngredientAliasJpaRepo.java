@@ -0,0 +1,9 @@
+package com.lamngo.mealsync.infrastructure.repository.ingredient;
+
+import com.lamngo.mealsync.domain.model.ingredient.IngredientAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IngredientAliasJpaRepo extends JpaRepository<IngredientAlias, String> {
+}
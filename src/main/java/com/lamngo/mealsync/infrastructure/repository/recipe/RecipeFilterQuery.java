@@ -0,0 +1,214 @@
+package com.lamngo.mealsync.infrastructure.repository.recipe;
+
+import com.lamngo.mealsync.application.shared.PageCursor;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Query;
+import org.jooq.SQLDialect;
+import org.jooq.SortField;
+import org.jooq.Table;
+import org.jooq.conf.RenderQuotedNames;
+import org.jooq.conf.Settings;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the SQL behind the filtered recipe listing (GET /api/v1/recipes) with jOOQ, so only the
+ * requested page is read instead of the whole catalog.
+ *
+ * Every filter is optional and maps to an indexed predicate:
+ * - name: lower(name) LIKE '%x%' (trigram index on lower(name))
+ * - cuisines / difficulty: lower(...) IN / = (expression indexes)
+ * - tags: EXISTS over recipe_tags on lower(tag) (expression index on lower(tag), recipe_id)
+ * - ingredients: EXISTS over recipe_ingredients, any name containing any term (trigram index)
+ * - maxTotalTime / minServings: plain btree indexes
+ * The indexes are created by the entity mappings and DatabaseInitializationService. Matching is
+ * case-insensitive, as before; results are newest first with the id as tie-breaker so pages are stable.
+ * {@link #selectIdsAfter} pages by keyset on (created_at, id) instead of OFFSET, walking
+ * idx_recipe_created_at_id from the cursor.
+ *
+ * Table and column names are unquoted so the same SQL works on PostgreSQL and on H2 in tests.
+ * {@link #matchingAllTerms} is the substring fallback of full-text search for databases without
+ * the search_vector column.
+ */
+final class RecipeFilterQuery {
+    private static final char LIKE_ESCAPE = '!';
+
+    private static final Table<?> RECIPES = DSL.table(DSL.name("recipes")).as("r");
+    private static final Field<Object> RECIPE_ID = DSL.field(DSL.name("r", "id"));
+    private static final Field<String> RECIPE_NAME = DSL.field(DSL.name("r", "name"), String.class);
+    private static final Field<String> RECIPE_DESCRIPTION = DSL.field(DSL.name("r", "description"), String.class);
+    private static final Field<String> RECIPE_CUISINE = DSL.field(DSL.name("r", "cuisine"), String.class);
+    private static final Field<String> RECIPE_DIFFICULTY = DSL.field(DSL.name("r", "difficulty"), String.class);
+    private static final Field<Integer> RECIPE_TOTAL_TIME = DSL.field(DSL.name("r", "total_time"), Integer.class);
+    private static final Field<Integer> RECIPE_SERVINGS = DSL.field(DSL.name("r", "servings"), Integer.class);
+    private static final Field<Object> RECIPE_CREATED_AT = DSL.field(DSL.name("r", "created_at"));
+
+    private static final Table<?> TAGS = DSL.table(DSL.name("recipe_tags")).as("t");
+    private static final Field<Object> TAG_RECIPE_ID = DSL.field(DSL.name("t", "recipe_id"));
+    private static final Field<String> TAG = DSL.field(DSL.name("t", "tag"), String.class);
+
+    private static final Table<?> INGREDIENTS = DSL.table(DSL.name("recipe_ingredients")).as("ri");
+    private static final Field<Object> INGREDIENT_RECIPE_ID = DSL.field(DSL.name("ri", "recipe_id"));
+    private static final Field<String> INGREDIENT_NAME = DSL.field(DSL.name("ri", "name"), String.class);
+
+    private static final List<SortField<?>> NEWEST_FIRST = List.of(RECIPE_CREATED_AT.desc(), RECIPE_ID.desc());
+
+    private final DSLContext dsl;
+    private final Condition condition;
+    private final List<SortField<?>> order;
+
+    RecipeFilterQuery(SQLDialect dialect, String name, List<String> cuisines, List<String> tags,
+                      List<String> ingredients, String difficulty, Integer maxTotalTime, Integer minServings) {
+        this(dialect, buildCondition(name, cuisines, tags, ingredients, difficulty, maxTotalTime, minServings),
+                NEWEST_FIRST);
+    }
+
+    private RecipeFilterQuery(SQLDialect dialect, Condition condition, List<SortField<?>> order) {
+        this.dsl = DSL.using(dialect, new Settings().withRenderQuotedNames(RenderQuotedNames.NEVER));
+        this.condition = condition;
+        this.order = order;
+    }
+
+    /**
+     * Recipes whose name, description, cuisine, a tag or an ingredient name contains every term.
+     * Recipes matching all terms in the name come first, then newest first.
+     */
+    static RecipeFilterQuery matchingAllTerms(SQLDialect dialect, List<String> terms) {
+        List<Condition> termMatches = new ArrayList<>();
+        List<Condition> nameMatches = new ArrayList<>();
+        for (String term : lowerCase(terms)) {
+            String pattern = containsPattern(term);
+            Condition inName = DSL.lower(RECIPE_NAME).like(pattern, LIKE_ESCAPE);
+            nameMatches.add(inName);
+            termMatches.add(DSL.or(
+                    inName,
+                    DSL.lower(RECIPE_DESCRIPTION).like(pattern, LIKE_ESCAPE),
+                    DSL.lower(RECIPE_CUISINE).like(pattern, LIKE_ESCAPE),
+                    DSL.exists(DSL.selectOne()
+                            .from(TAGS)
+                            .where(TAG_RECIPE_ID.eq(RECIPE_ID))
+                            .and(DSL.lower(TAG).like(pattern, LIKE_ESCAPE))),
+                    DSL.exists(DSL.selectOne()
+                            .from(INGREDIENTS)
+                            .where(INGREDIENT_RECIPE_ID.eq(RECIPE_ID))
+                            .and(DSL.lower(INGREDIENT_NAME).like(pattern, LIKE_ESCAPE)))));
+        }
+        SortField<Integer> nameFirst = DSL.when(DSL.and(nameMatches), 0).otherwise(1).asc();
+        return new RecipeFilterQuery(dialect, DSL.and(termMatches),
+                List.of(nameFirst, RECIPE_CREATED_AT.desc(), RECIPE_ID.desc()));
+    }
+
+    /**
+     * IDs of the recipes on the requested page, in listing order.
+     */
+    Query selectIds(long offset, int limit) {
+        return dsl.select(RECIPE_ID)
+                .from(RECIPES)
+                .where(condition)
+                .orderBy(order)
+                .limit(limit)
+                .offset(offset);
+    }
+
+    /**
+     * IDs of the next recipes after the cursor (the first ones when it is null), newest first.
+     * Only valid for the default newest-first order.
+     */
+    Query selectIdsAfter(PageCursor after, int limit) {
+        Condition keyset = after == null
+                ? DSL.noCondition()
+                : DSL.row(RECIPE_CREATED_AT, RECIPE_ID).lt(after.getPosition(), after.getId());
+        return dsl.select(RECIPE_ID)
+                .from(RECIPES)
+                .where(condition)
+                .and(keyset)
+                .orderBy(order)
+                .limit(limit);
+    }
+
+    Query count() {
+        return dsl.selectCount()
+                .from(RECIPES)
+                .where(condition);
+    }
+
+    private static Condition buildCondition(String name, List<String> cuisines, List<String> tags,
+                                            List<String> ingredients, String difficulty,
+                                            Integer maxTotalTime, Integer minServings) {
+        List<Condition> conditions = new ArrayList<>();
+
+        if (name != null && !name.isEmpty()) {
+            conditions.add(DSL.lower(RECIPE_NAME).like(containsPattern(name), LIKE_ESCAPE));
+        }
+
+        List<String> lowerCuisines = lowerCase(cuisines);
+        if (!lowerCuisines.isEmpty()) {
+            conditions.add(DSL.lower(RECIPE_CUISINE).in(lowerCuisines));
+        }
+
+        List<String> lowerTags = lowerCase(tags);
+        if (!lowerTags.isEmpty()) {
+            conditions.add(DSL.exists(DSL.selectOne()
+                    .from(TAGS)
+                    .where(TAG_RECIPE_ID.eq(RECIPE_ID))
+                    .and(DSL.lower(TAG).in(lowerTags))));
+        }
+
+        List<String> ingredientTerms = lowerCase(ingredients);
+        if (!ingredientTerms.isEmpty()) {
+            List<Condition> nameMatches = new ArrayList<>();
+            for (String term : ingredientTerms) {
+                nameMatches.add(DSL.lower(INGREDIENT_NAME).like(containsPattern(term), LIKE_ESCAPE));
+            }
+            conditions.add(DSL.exists(DSL.selectOne()
+                    .from(INGREDIENTS)
+                    .where(INGREDIENT_RECIPE_ID.eq(RECIPE_ID))
+                    .and(DSL.or(nameMatches))));
+        }
+
+        if (difficulty != null) {
+            conditions.add(DSL.lower(RECIPE_DIFFICULTY).eq(difficulty.toLowerCase()));
+        }
+        if (maxTotalTime != null) {
+            conditions.add(RECIPE_TOTAL_TIME.le(maxTotalTime));
+        }
+        if (minServings != null) {
+            conditions.add(RECIPE_SERVINGS.ge(minServings));
+        }
+        return DSL.and(conditions);
+    }
+
+    private static List<String> lowerCase(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(String::toLowerCase)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * '%term%' with LIKE wildcards in the term escaped, so "50%" matches literally.
+     */
+    static String containsPattern(String term) {
+        StringBuilder pattern = new StringBuilder(term.length() + 2).append('%');
+        for (char c : term.toLowerCase().toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    static UUID toUuid(Object value) {
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+}
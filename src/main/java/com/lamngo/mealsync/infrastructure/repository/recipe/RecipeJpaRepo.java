@@ -2,12 +2,14 @@ package com.lamngo.mealsync.infrastructure.repository.recipe;
 
 import com.lamngo.mealsync.application.shared.OffsetPage;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,4 +32,43 @@ public interface RecipeJpaRepo extends JpaRepository<Recipe, UUID> {
      * More efficient than individual queries.
      */
     List<Recipe> findByIngredientKeyIn(List<String> ingredientKeys);
+
+    Optional<Recipe> findFirstByIngredientKeyAndIdNotAndImageUrlIsNotNull(String ingredientKey, UUID id);
+
+    long countByImageUrl(String imageUrl);
+
+    @Query("""
+            SELECT r.imageUrl, r.cardImageUrl, r.thumbnailImageUrl FROM Recipe r
+            WHERE r.imageUrl IN :urls OR r.cardImageUrl IN :urls OR r.thumbnailImageUrl IN :urls
+            """)
+    List<Object[]> findImageUrlsReferencing(Collection<String> urls);
+
+    // Single-table read of what the API serves: no child collections, no entity in the persistence context
+    @Query("""
+            SELECT new com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument(
+                r.id, r.createdAt, r.updatedAt, r.readDocument,
+                r.imageUrl, r.cardImageUrl, r.thumbnailImageUrl, r.imageBlurHash)
+            FROM Recipe r WHERE r.id IN :ids
+            """)
+    List<RecipeReadDocument> findReadDocumentsByIdIn(Collection<UUID> ids);
+
+    // Facet counts for recipe browsing, case-insensitive like the listing filters; a tag counts once per recipe
+    @Query("SELECT LOWER(r.cuisine), COUNT(r) FROM Recipe r GROUP BY LOWER(r.cuisine)")
+    List<Object[]> countByCuisine();
+
+    @Query("SELECT LOWER(r.difficulty), COUNT(r) FROM Recipe r GROUP BY LOWER(r.difficulty)")
+    List<Object[]> countByDifficulty();
+
+    @Query("SELECT LOWER(t), COUNT(DISTINCT r.id) FROM Recipe r JOIN r.tags t GROUP BY LOWER(t)")
+    List<Object[]> countByTag();
+
+    @Query("SELECT r.totalTime, COUNT(r) FROM Recipe r GROUP BY r.totalTime")
+    List<Object[]> countByTotalTime();
+
+    // Oldest first, so a full build of the ingredient index assigns recipes in creation order
+    @Query("SELECT r.id FROM Recipe r ORDER BY r.createdAt, r.id")
+    List<UUID> findAllIds();
+
+    @Query("SELECT ri.recipe.id, ri.canonicalIngredientId FROM RecipeIngredient ri WHERE ri.recipe.id IN :recipeIds")
+    List<Object[]> findCanonicalIngredientIdsByRecipeIdIn(Collection<UUID> recipeIds);
 }
@@ -0,0 +1,158 @@
+package com.lamngo.mealsync.infrastructure.repository.recipe;
+
+import com.lamngo.mealsync.application.event.RecipeChangedEvent;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process cache of recipe read documents, so repeated reads of hot recipes (recipe pages, SSE
+ * stream setup, listings) skip the database. Documents are immutable values, so unlike entities
+ * they can be shared between threads and transactions.
+ *
+ * Bounded to max-entries recipes, least recently read evicted first; 0 disables the cache.
+ * Entries are dropped when a recipe is saved, deleted or gets new images: right away by RecipeRepo,
+ * and again when the writing transaction completes or another node reports the change
+ * ({@link RecipeChangedEvent}). A read that started before an invalidation does not store its
+ * result (see {@link #generation()}), so a stale row read concurrently with a write is never cached.
+ */
+@Component
+public class RecipeReadDocumentCache {
+    private final int maxEntries;
+
+    // Access order: the eldest entry is the least recently read one
+    private final Map<UUID, RecipeReadDocument> documents;
+    // Bumped by every invalidation; guarded by documents
+    private long generation;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter invalidationCounter;
+
+    public RecipeReadDocumentCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.recipes.cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.documents = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, RecipeReadDocument> eldest) {
+                if (size() > RecipeReadDocumentCache.this.maxEntries) {
+                    sizeEvictionCounter.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hitCounter = Counter.builder("mealsync.recipe_cache.requests")
+                .description("Recipe read document lookups served from the cache or the database")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("mealsync.recipe_cache.requests")
+                .description("Recipe read document lookups served from the cache or the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.sizeEvictionCounter = Counter.builder("mealsync.recipe_cache.evictions")
+                .description("Recipes removed from the cache")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        this.invalidationCounter = Counter.builder("mealsync.recipe_cache.evictions")
+                .description("Recipes removed from the cache")
+                .tag("cause", "invalidated")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.recipe_cache.size", this, RecipeReadDocumentCache::size)
+                .description("Recipes in the read document cache")
+                .register(meterRegistry);
+        Gauge.builder("mealsync.recipe_cache.hit_ratio", this, RecipeReadDocumentCache::hitRatio)
+                .description("Share of recipe lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current invalidation generation. Take it before reading from the database and pass it to
+     * {@link #putAll}: the result is only stored if nothing was invalidated in between.
+     */
+    public long generation() {
+        synchronized (documents) {
+            return generation;
+        }
+    }
+
+    /**
+     * Cached documents of the given recipes; missing ones are not in the map.
+     */
+    public Map<UUID, RecipeReadDocument> getAll(Collection<UUID> ids) {
+        Map<UUID, RecipeReadDocument> found = new HashMap<>();
+        synchronized (documents) {
+            for (UUID id : ids) {
+                RecipeReadDocument document = documents.get(id);
+                if (document != null) {
+                    found.put(id, document);
+                }
+            }
+        }
+        hitCounter.increment(found.size());
+        missCounter.increment(ids.size() - found.size());
+        return found;
+    }
+
+    public void putAll(Collection<RecipeReadDocument> loaded, long readGeneration) {
+        if (maxEntries == 0 || loaded.isEmpty()) {
+            return;
+        }
+        synchronized (documents) {
+            if (readGeneration != generation) {
+                return;
+            }
+            for (RecipeReadDocument document : loaded) {
+                documents.put(document.getId(), document);
+            }
+        }
+    }
+
+    public void invalidate(Collection<UUID> ids) {
+        int removed = 0;
+        synchronized (documents) {
+            generation++;
+            for (UUID id : ids) {
+                if (documents.remove(id) != null) {
+                    removed++;
+                }
+            }
+        }
+        invalidationCounter.increment(removed);
+    }
+
+    /**
+     * Runs after the writing transaction has committed or rolled back (immediately for changes relayed
+     * from other nodes), so a read inside that transaction cannot leave its rows in the cache.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onRecipesChanged(RecipeChangedEvent event) {
+        invalidate(event.getRecipeIds());
+    }
+
+    private int size() {
+        synchronized (documents) {
+            return documents.size();
+        }
+    }
+
+    private double hitRatio() {
+        double hits = hitCounter.count();
+        double total = hits + missCounter.count();
+        return total == 0 ? 0 : hits / total;
+    }
+}
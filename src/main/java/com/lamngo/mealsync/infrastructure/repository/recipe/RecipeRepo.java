@@ -1,25 +1,62 @@
 package com.lamngo.mealsync.infrastructure.repository.recipe;
 
+import com.lamngo.mealsync.application.event.RecipeChangedEvent;
+import com.lamngo.mealsync.application.event.RecipeFacetsChangedEvent;
+import com.lamngo.mealsync.application.event.RecipeIngredientsChangedEvent;
+import com.lamngo.mealsync.application.service.ingredient.IngredientVocabulary;
+import com.lamngo.mealsync.application.service.recipe.RecipeReadDocumentCodec;
 import com.lamngo.mealsync.application.shared.OffsetPage;
+import com.lamngo.mealsync.application.shared.PageCursor;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import com.lamngo.mealsync.domain.model.recipe.RecipeImageUpdate;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
+import com.lamngo.mealsync.domain.model.recipe.RecipeSearchHit;
 import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import com.lamngo.mealsync.infrastructure.config.DatabaseInitializationService;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.jooq.SQLDialect;
+import org.jooq.conf.ParamType;
+import org.jooq.tools.jdbc.JDBCUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Repository
 public class RecipeRepo implements IRecipeRepo {
+    // Longer queries are cut; each term adds a prefix match to the tsquery
+    private static final int MAX_SEARCH_TERMS = 8;
+    private static final String UPDATE_IMAGE_URLS_SQL = "UPDATE recipes SET image_url = ?, card_image_url = ?, "
+            + "thumbnail_image_url = ?, image_blur_hash = ?, updated_at = ? WHERE id = ?";
 
     @Autowired
     private RecipeJpaRepo _recipeJpaRepo;
@@ -27,9 +64,37 @@ public class RecipeRepo implements IRecipeRepo {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Autowired
+    private DatabaseInitializationService databaseInitializationService;
+
+    @Autowired
+    private RecipeReadDocumentCodec readDocumentCodec;
+
+    @Autowired
+    private RecipeReadDocumentCache readDocumentCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IngredientVocabulary ingredientVocabulary;
+
     @Override
     public Recipe createRecipe(Recipe recipe) {
-        return _recipeJpaRepo.save(recipe);
+        assignCanonicalIngredients(recipe);
+        RecipeFacets before = storedFacets(recipe);
+        recipe.setReadDocument(readDocumentCodec.render(recipe));
+        if (recipe.getId() != null) {
+            recipesChanged(Set.of(recipe.getId()));
+        }
+        Recipe saved = _recipeJpaRepo.save(recipe);
+        // Only once the save went through; a failed save must not move the counters
+        facetsChanged(before, RecipeFacets.of(saved));
+        ingredientsChanged(Set.of(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -44,7 +109,12 @@ public class RecipeRepo implements IRecipeRepo {
 
     @Override
     public void deleteRecipe(UUID id) {
+        // deleteById loads the entity anyway; it is already in the persistence context here
+        Optional<RecipeFacets> removed = _recipeJpaRepo.findById(id).map(RecipeFacets::of);
         _recipeJpaRepo.deleteById(id);
+        recipesChanged(Set.of(id));
+        removed.ifPresent(facets -> facetsChanged(facets, null));
+        ingredientsChanged(Set.of(id));
     }
 
     @Override
@@ -57,6 +127,68 @@ public class RecipeRepo implements IRecipeRepo {
         return _recipeJpaRepo.count();
     }
 
+    @Override
+    public List<UUID> findAllRecipeIds() {
+        return _recipeJpaRepo.findAllIds();
+    }
+
+    @Override
+    public Map<UUID, int[]> findCanonicalIngredientIds(Collection<UUID> recipeIds) {
+        if (recipeIds == null || recipeIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, List<Integer>> idsByRecipe = new HashMap<>();
+        for (Object[] row : _recipeJpaRepo.findCanonicalIngredientIdsByRecipeIdIn(recipeIds)) {
+            idsByRecipe.computeIfAbsent((UUID) row[0], id -> new ArrayList<>())
+                    .add(row[1] == null ? IngredientVocabulary.UNKNOWN : (Integer) row[1]);
+        }
+        Map<UUID, int[]> ids = new HashMap<>();
+        idsByRecipe.forEach((recipeId, ingredientIds) -> {
+            int[] resolved = ingredientIds.stream().mapToInt(Integer::intValue)
+                    .filter(id -> id != IngredientVocabulary.UNKNOWN).distinct().toArray();
+            // Each unresolved ingredient is a different one, so they are not deduplicated
+            int unresolved = (int) ingredientIds.stream().filter(id -> id == IngredientVocabulary.UNKNOWN).count();
+            int[] all = Arrays.copyOf(resolved, resolved.length + unresolved);
+            Arrays.fill(all, resolved.length, all.length, IngredientVocabulary.UNKNOWN);
+            ids.put(recipeId, all);
+        });
+        return ids;
+    }
+
+    @Override
+    public Map<String, Long> countByCuisine() {
+        return countsByValue(_recipeJpaRepo.countByCuisine());
+    }
+
+    @Override
+    public Map<String, Long> countByDifficulty() {
+        return countsByValue(_recipeJpaRepo.countByDifficulty());
+    }
+
+    @Override
+    public Map<String, Long> countByTag() {
+        return countsByValue(_recipeJpaRepo.countByTag());
+    }
+
+    @Override
+    public Map<Integer, Long> countByTotalTime() {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Object[] row : _recipeJpaRepo.countByTotalTime()) {
+            counts.put((Integer) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> countsByValue(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.put((String) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
     @Override
     public List<Recipe> findRecipesByCuisines(List<String> cuisines, int limit) {
         List<String> lowerCaseCuisines = cuisines.stream()
@@ -72,7 +204,17 @@ public class RecipeRepo implements IRecipeRepo {
     
     @Override
     public Recipe saveRecipe(Recipe recipe) {
-        return _recipeJpaRepo.save(recipe);
+        assignCanonicalIngredients(recipe);
+        RecipeFacets before = storedFacets(recipe);
+        recipe.setReadDocument(readDocumentCodec.render(recipe));
+        if (recipe.getId() != null) {
+            recipesChanged(Set.of(recipe.getId()));
+        }
+        Recipe saved = _recipeJpaRepo.save(recipe);
+        // Only once the save went through; a failed save must not move the counters
+        facetsChanged(before, RecipeFacets.of(saved));
+        ingredientsChanged(Set.of(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -91,48 +233,351 @@ public class RecipeRepo implements IRecipeRepo {
     }
 
     @Override
-    public Page<Recipe> getAllRecipesFiltered(OffsetPage pageable, String name, List<String> cuisines, List<String> tags,
-                                               List<String> ingredients, String difficulty,
-                                               Integer maxTotalTime, Integer minServings) {
-        List<Recipe> allRecipes = _recipeJpaRepo.findAll();
+    public Optional<RecipeReadDocument> findReadDocument(UUID id) {
+        return findReadDocuments(List.of(id)).stream().findFirst();
+    }
+
+    @Override
+    public List<RecipeReadDocument> findReadDocuments(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, RecipeReadDocument> byId = readDocumentsByIds(ids);
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Page<RecipeReadDocument> getAllRecipesFiltered(OffsetPage pageable, String name, List<String> cuisines, List<String> tags,
+                                                          List<String> ingredients, String difficulty,
+                                                          Integer maxTotalTime, Integer minServings) {
+        RecipeFilterQuery filter = new RecipeFilterQuery(sqlDialect(), name, cuisines, tags, ingredients,
+                difficulty, maxTotalTime, minServings);
+
+        // Page of IDs first (LIMIT/OFFSET in the database), then the read documents of just that page
+        List<UUID> ids = new ArrayList<>();
+        for (Object id : createNativeQuery(filter.selectIds(pageable.getOffset(), pageable.getPageSize())).getResultList()) {
+            ids.add(RecipeFilterQuery.toUuid(id));
+        }
+        Map<UUID, RecipeReadDocument> byId = readDocumentsByIds(ids);
+        List<RecipeReadDocument> content = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        // The COUNT is skipped when the page itself tells the total (first or last page)
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> ((Number) createNativeQuery(filter.count()).getSingleResult()).longValue());
+    }
+
+    @Override
+    public Slice<RecipeReadDocument> getRecipesAfter(PageCursor after, int limit, String name, List<String> cuisines,
+                                                     List<String> tags, List<String> ingredients, String difficulty,
+                                                     Integer maxTotalTime, Integer minServings) {
+        RecipeFilterQuery filter = new RecipeFilterQuery(sqlDialect(), name, cuisines, tags, ingredients,
+                difficulty, maxTotalTime, minServings);
+
+        // One row more than the page tells whether there is a next page without counting
+        List<UUID> ids = new ArrayList<>();
+        for (Object id : createNativeQuery(filter.selectIdsAfter(after, limit + 1)).getResultList()) {
+            ids.add(RecipeFilterQuery.toUuid(id));
+        }
+        boolean hasNext = ids.size() > limit;
+        if (hasNext) {
+            ids = ids.subList(0, limit);
+        }
+        Map<UUID, RecipeReadDocument> byId = readDocumentsByIds(ids);
+        List<RecipeReadDocument> content = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new SliceImpl<>(content, PageRequest.of(0, limit), hasNext);
+    }
+
+    @Override
+    public long countRecipesFiltered(String name, List<String> cuisines, List<String> tags,
+                                     List<String> ingredients, String difficulty,
+                                     Integer maxTotalTime, Integer minServings) {
+        RecipeFilterQuery filter = new RecipeFilterQuery(sqlDialect(), name, cuisines, tags, ingredients,
+                difficulty, maxTotalTime, minServings);
+        return ((Number) createNativeQuery(filter.count()).getSingleResult()).longValue();
+    }
+
+    @Override
+    public Page<RecipeSearchHit> searchRecipes(String query, OffsetPage pageable) {
+        List<String> terms = searchTerms(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return databaseInitializationService.isFullTextSearchReady()
+                ? searchFullText(terms, pageable)
+                : searchSubstrings(terms, pageable);
+    }
+
+    /**
+     * Ranked search on recipes.search_vector (GIN index). ts_headline is expensive, so it only runs on
+     * the rows of the requested page.
+     */
+    private Page<RecipeSearchHit> searchFullText(List<String> terms, OffsetPage pageable) {
+        // Terms contain only letters and digits, so they cannot inject tsquery operators
+        String tsQuery = terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+        String sql = """
+            SELECT hit.id, hit.rank,
+                   ts_headline('english', hit.name || ' - ' || hit.description, to_tsquery('english', :query),
+                               'StartSel=<mark>, StopSel=</mark>, MinWords=8, MaxWords=25, MaxFragments=2') AS snippet
+            FROM (
+                SELECT r.id, r.name, r.description, ts_rank(r.search_vector, to_tsquery('english', :query)) AS rank
+                FROM recipes r
+                WHERE r.search_vector @@ to_tsquery('english', :query)
+                ORDER BY rank DESC, r.id
+                LIMIT :limit OFFSET :offset
+            ) hit
+            ORDER BY hit.rank DESC, hit.id
+            """;
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(sql)
+                .setParameter("query", tsQuery)
+                .setParameter("limit", pageable.getPageSize())
+                .setParameter("offset", pageable.getOffset())
+                .getResultList();
+
+        Map<UUID, Recipe> recipes = loadByIds(rows.stream().map(row -> RecipeFilterQuery.toUuid(row[0])).toList());
+        List<RecipeSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Recipe recipe = recipes.get(RecipeFilterQuery.toUuid(row[0]));
+            if (recipe != null) {
+                hits.add(new RecipeSearchHit(recipe, ((Number) row[1]).doubleValue(), (String) row[2]));
+            }
+        }
+        return PageableExecutionUtils.getPage(hits, pageable, () -> ((Number) entityManager.createNativeQuery(
+                        "SELECT count(*) FROM recipes r WHERE r.search_vector @@ to_tsquery('english', :query)")
+                .setParameter("query", tsQuery)
+                .getSingleResult()).longValue());
+    }
+
+    /**
+     * Fallback without search_vector (H2, or PostgreSQL before setup): every term as a case-insensitive
+     * substring. Rank is the share of terms found in the name; the snippet is highlighted in Java.
+     */
+    private Page<RecipeSearchHit> searchSubstrings(List<String> terms, OffsetPage pageable) {
+        RecipeFilterQuery search = RecipeFilterQuery.matchingAllTerms(sqlDialect(), terms);
+        List<UUID> ids = new ArrayList<>();
+        for (Object id : createNativeQuery(search.selectIds(pageable.getOffset(), pageable.getPageSize())).getResultList()) {
+            ids.add(RecipeFilterQuery.toUuid(id));
+        }
+        Map<UUID, Recipe> recipes = loadByIds(ids);
+        List<RecipeSearchHit> hits = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Recipe recipe = recipes.get(id);
+            if (recipe == null) {
+                continue;
+            }
+            String name = recipe.getName().toLowerCase();
+            long inName = terms.stream().filter(name::contains).count();
+            hits.add(new RecipeSearchHit(recipe, (double) inName / terms.size(),
+                    highlight(recipe.getName() + " - " + recipe.getDescription(), terms)));
+        }
+        return PageableExecutionUtils.getPage(hits, pageable,
+                () -> ((Number) createNativeQuery(search.count()).getSingleResult()).longValue());
+    }
+
+    /**
+     * Lower-cased words of the query; anything but letters and digits separates words.
+     */
+    static List<String> searchTerms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        return Arrays.stream(query.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_SEARCH_TERMS)
+                .toList();
+    }
 
-        List<Recipe> filteredRecipes = allRecipes.stream()
-                .filter(recipe -> {
-                    // Filter by name (case-insensitive partial match)
-                    boolean nameMatch = name == null || name.isEmpty() ||
-                            recipe.getName().toLowerCase().contains(name.toLowerCase());
+    /**
+     * Wraps every occurrence of a term in &lt;mark&gt; tags, like ts_headline does.
+     */
+    static String highlight(String text, List<String> terms) {
+        String lower = text.toLowerCase();
+        if (lower.length() != text.length()) {
+            // Lower-casing changed offsets (rare scripts); not worth a char-by-char mapping
+            return text;
+        }
+        boolean[] marked = new boolean[text.length()];
+        for (String term : terms) {
+            for (int i = lower.indexOf(term); i >= 0; i = lower.indexOf(term, i + term.length())) {
+                Arrays.fill(marked, i, i + term.length(), true);
+            }
+        }
+        StringBuilder result = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            if (marked[i] && (i == 0 || !marked[i - 1])) {
+                result.append("<mark>");
+            }
+            result.append(text.charAt(i));
+            if (marked[i] && (i == text.length() - 1 || !marked[i + 1])) {
+                result.append("</mark>");
+            }
+        }
+        return result.toString();
+    }
 
-                    // Filter by cuisines (if any cuisine matches)
-                    boolean cuisineMatch = cuisines == null || cuisines.isEmpty() ||
-                            cuisines.stream().anyMatch(c -> recipe.getCuisine().equalsIgnoreCase(c));
+    private Map<UUID, Recipe> loadByIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Recipe> byId = new HashMap<>();
+        for (Recipe recipe : _recipeJpaRepo.findAllById(ids)) {
+            byId.put(recipe.getId(), recipe);
+        }
+        return byId;
+    }
 
-                    // Filter by tags (if any tag matches)
-                    boolean tagMatch = tags == null || tags.isEmpty() ||
-                            tags.stream().anyMatch(t -> recipe.getTags().stream().anyMatch(rt -> rt.equalsIgnoreCase(t)));
+    /**
+     * Read documents by ID: from the cache, the rest from the database.
+     */
+    private Map<UUID, RecipeReadDocument> readDocumentsByIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        long generation = readDocumentCache.generation();
+        Map<UUID, RecipeReadDocument> byId = new HashMap<>(readDocumentCache.getAll(ids));
+        List<UUID> missing = ids.stream().filter(id -> !byId.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Map<UUID, RecipeReadDocument> loaded = loadReadDocuments(missing);
+            // Rows read inside a writing transaction may never be committed
+            if (!TransactionSynchronizationManager.isActualTransactionActive()
+                    || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                readDocumentCache.putAll(loaded.values(), generation);
+            }
+            byId.putAll(loaded);
+        }
+        return byId;
+    }
 
-                    // Filter by ingredients (if any ingredient matches in recipe ingredients)
-                    boolean ingredientMatch = ingredients == null || ingredients.isEmpty() ||
-                            ingredients.stream().anyMatch(i -> recipe.getIngredients().stream()
-                                    .anyMatch(ri -> ri.getName().toLowerCase().contains(i.toLowerCase())));
+    /**
+     * Read documents by ID from the recipes table alone. Rows saved before the read_document column
+     * existed are rendered from the entity; they get their document with their next save.
+     */
+    private Map<UUID, RecipeReadDocument> loadReadDocuments(List<UUID> ids) {
+        Map<UUID, RecipeReadDocument> byId = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (RecipeReadDocument document : _recipeJpaRepo.findReadDocumentsByIdIn(ids)) {
+            if (document.getDocument() == null) {
+                missing.add(document.getId());
+            } else {
+                byId.put(document.getId(), document);
+            }
+        }
+        for (Recipe recipe : loadByIds(missing).values()) {
+            byId.put(recipe.getId(), new RecipeReadDocument(recipe.getId(), recipe.getCreatedAt(),
+                    recipe.getUpdatedAt(), readDocumentCodec.render(recipe), recipe.getImageUrl(),
+                    recipe.getCardImageUrl(), recipe.getThumbnailImageUrl(), recipe.getImageBlurHash()));
+        }
+        return byId;
+    }
 
-                    // Filter by difficulty
-                    boolean difficultyMatch = difficulty == null || recipe.getDifficulty().equalsIgnoreCase(difficulty);
+    /**
+     * Drops the cached documents now and publishes the change, which drops them again once the
+     * transaction has completed and on the other nodes.
+     */
+    private void recipesChanged(Set<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        readDocumentCache.invalidate(ids);
+        eventPublisher.publishEvent(new RecipeChangedEvent(this, ids));
+    }
 
-                    // Filter by maxTotalTime
-                    boolean timeMatch = maxTotalTime == null || recipe.getTotalTime() <= maxTotalTime;
+    private void ingredientsChanged(Set<UUID> ids) {
+        eventPublisher.publishEvent(new RecipeIngredientsChangedEvent(this, ids));
+    }
 
-                    // Filter by minServings
-                    boolean servingsMatch = minServings == null || recipe.getServings() >= minServings;
+    /**
+     * Stores the canonical ingredient id next to each ingredient name; names the vocabulary cannot
+     * resolve right now keep a null id until its backfill.
+     */
+    private void assignCanonicalIngredients(Recipe recipe) {
+        if (recipe.getIngredients() == null) {
+            return;
+        }
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            int id = ingredientVocabulary.resolve(ingredient.getName());
+            ingredient.setCanonicalIngredientId(id == IngredientVocabulary.UNKNOWN ? null : id);
+        }
+    }
+
+    /**
+     * Facet values of a recipe as last saved, from its read document; null for a new recipe.
+     * Rows saved before the read_document column existed are read from their columns.
+     */
+    private RecipeFacets storedFacets(Recipe recipe) {
+        if (recipe.getId() == null) {
+            return null;
+        }
+        if (recipe.getReadDocument() == null) {
+            return loadStoredFacets(recipe.getId());
+        }
+        return readDocumentCodec.facetsOf(recipe.getReadDocument());
+    }
+
+    /**
+     * Reads the columns, not the entity, which the caller may already have changed; changes pending
+     * in the persistence context are not flushed first. Null when the recipe is not stored yet.
+     */
+    private RecipeFacets loadStoredFacets(UUID id) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT cuisine, difficulty, total_time FROM recipes WHERE id = :id")
+                .setParameter("id", id)
+                .setFlushMode(FlushModeType.COMMIT)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        List<String> tags = entityManager.createNativeQuery("SELECT tag FROM recipe_tags WHERE recipe_id = :id")
+                .setParameter("id", id)
+                .setFlushMode(FlushModeType.COMMIT)
+                .getResultList();
+        Object[] row = rows.get(0);
+        return new RecipeFacets((String) row[0], (String) row[1], List.copyOf(tags),
+                row[2] == null ? null : ((Number) row[2]).intValue());
+    }
+
+    /**
+     * Publishes what a save or delete changes in the browsing counts; nothing when the counted
+     * values are the same. Either side may be null (created or deleted recipe).
+     */
+    private void facetsChanged(RecipeFacets before, RecipeFacets after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        publishFacetsChanged(after == null ? List.of() : List.of(after), before == null ? List.of() : List.of(before));
+    }
 
-                    return nameMatch && cuisineMatch && tagMatch && ingredientMatch && difficultyMatch && timeMatch && servingsMatch;
-                })
-                .collect(Collectors.toList());
+    private void publishFacetsChanged(List<RecipeFacets> added, List<RecipeFacets> removed) {
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            eventPublisher.publishEvent(new RecipeFacetsChangedEvent(this, added, removed));
+        }
+    }
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), filteredRecipes.size());
-        List<Recipe> paginatedRecipes = filteredRecipes.subList(start, end);
+    private Query createNativeQuery(org.jooq.Query query) {
+        Query nativeQuery = entityManager.createNativeQuery(query.getSQL(ParamType.INDEXED));
+        List<Object> bindValues = query.getBindValues();
+        for (int i = 0; i < bindValues.size(); i++) {
+            nativeQuery.setParameter(i + 1, bindValues.get(i));
+        }
+        return nativeQuery;
+    }
 
-        return new PageImpl<>(paginatedRecipes, pageable, filteredRecipes.size());
+    private SQLDialect sqlDialect() {
+        SQLDialect dialect = JDBCUtils.dialect(datasourceUrl);
+        // Anything unrecognised is rendered as PostgreSQL, the production database
+        return dialect == SQLDialect.DEFAULT ? SQLDialect.POSTGRES : dialect;
     }
     
     @Override
@@ -164,6 +609,114 @@ public class RecipeRepo implements IRecipeRepo {
             return Optional.empty();
         }
     }
+
+    @Override
+    public Optional<Recipe> findRecipeWithImageByIngredientKey(String ingredientKey, UUID excludeRecipeId) {
+        if (ingredientKey == null || ingredientKey.isBlank()) {
+            return Optional.empty();
+        }
+        return _recipeJpaRepo.findFirstByIngredientKeyAndIdNotAndImageUrlIsNotNull(ingredientKey, excludeRecipeId);
+    }
+
+    @Override
+    public Optional<Recipe> findSimilarRecipeWithImage(String recipeName, UUID excludeRecipeId, double similarityThreshold) {
+        if (recipeName == null || recipeName.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        
+        // Same trigram lookup as findSimilarRecipeByName, restricted to recipes that already have an image
+        String sql = """
+            SELECT r.* FROM recipes r 
+            WHERE r.image_url IS NOT NULL 
+              AND r.id <> :excludeId 
+              AND similarity(r.name, :recipeName) >= :threshold
+            ORDER BY similarity(r.name, :recipeName) DESC
+            LIMIT 1
+            """;
+        
+        try {
+            @SuppressWarnings("unchecked")
+            List<Recipe> results = entityManager.createNativeQuery(sql, Recipe.class)
+                    .setParameter("recipeName", recipeName)
+                    .setParameter("excludeId", excludeRecipeId)
+                    .setParameter("threshold", similarityThreshold)
+                    .getResultList();
+            
+            return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+        } catch (Exception e) {
+            // pg_trgm not available (e.g. H2) - no similarity-based reuse
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public long countRecipesByImageUrl(String imageUrl) {
+        return _recipeJpaRepo.countByImageUrl(imageUrl);
+    }
+    
+    @Override
+    public Set<String> findReferencedImageUrls(Collection<String> imageUrls) {
+        if (imageUrls == null || imageUrls.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> referenced = new HashSet<>();
+        for (Object[] row : _recipeJpaRepo.findImageUrlsReferencing(imageUrls)) {
+            for (Object url : row) {
+                if (url != null && imageUrls.contains(url)) {
+                    referenced.add((String) url);
+                }
+            }
+        }
+        return referenced;
+    }
+    
+    @Override
+    public Set<UUID> updateImageUrls(List<RecipeImageUpdate> updates) {
+        if (updates == null || updates.isEmpty()) {
+            return Set.of();
+        }
+        
+        // One parameterized UPDATE sent as a JDBC batch: the statement text is the same for every
+        // batch size, so it is prepared (and planned) once per connection.
+        // Bulk updates skip @PreUpdate, so updated_at is set explicitly.
+        entityManager.flush();
+        Timestamp updatedAt = Timestamp.from(Instant.now());
+        Set<UUID> updated = new HashSet<>();
+        boolean countsKnown = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_IMAGE_URLS_SQL)) {
+                for (RecipeImageUpdate update : updates) {
+                    statement.setString(1, update.getImageUrl());
+                    statement.setString(2, update.getCardImageUrl());
+                    statement.setString(3, update.getThumbnailImageUrl());
+                    statement.setString(4, update.getImageBlurHash());
+                    statement.setTimestamp(5, updatedAt);
+                    statement.setObject(6, update.getRecipeId());
+                    statement.addBatch();
+                }
+                int[] counts = statement.executeBatch();
+                boolean known = true;
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                        known = false;
+                    } else if (counts[i] > 0) {
+                        updated.add(updates.get(i).getRecipeId());
+                    }
+                }
+                return known;
+            }
+        });
+        
+        Set<UUID> ids = updates.stream().map(RecipeImageUpdate::getRecipeId).collect(Collectors.toSet());
+        recipesChanged(ids);
+        if (countsKnown) {
+            // Recipes deleted while their image was being generated have an update count of 0
+            return updated;
+        }
+        return new HashSet<>(entityManager
+                .createQuery("SELECT r.id FROM Recipe r WHERE r.id IN :ids", UUID.class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
     
     @Override
     public Map<String, Optional<Recipe>> findByIngredientKeysBatch(List<String> ingredientKeys) {
@@ -190,7 +743,29 @@ public class RecipeRepo implements IRecipeRepo {
         if (recipes == null || recipes.isEmpty()) {
             return List.of();
         }
+        Set<UUID> updated = new HashSet<>();
+        List<RecipeFacets> added = new ArrayList<>();
+        List<RecipeFacets> removed = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            assignCanonicalIngredients(recipe);
+            RecipeFacets before = storedFacets(recipe);
+            recipe.setReadDocument(readDocumentCodec.render(recipe));
+            if (recipe.getId() != null) {
+                updated.add(recipe.getId());
+            }
+            RecipeFacets after = RecipeFacets.of(recipe);
+            if (!after.equals(before)) {
+                added.add(after);
+                if (before != null) {
+                    removed.add(before);
+                }
+            }
+        }
+        recipesChanged(updated);
         // Use Spring Data JPA's saveAll - performs batch insert in single transaction
-        return _recipeJpaRepo.saveAll(recipes);
+        List<Recipe> saved = _recipeJpaRepo.saveAll(recipes);
+        publishFacetsChanged(added, removed);
+        ingredientsChanged(saved.stream().map(Recipe::getId).collect(Collectors.toSet()));
+        return saved;
     }
 }
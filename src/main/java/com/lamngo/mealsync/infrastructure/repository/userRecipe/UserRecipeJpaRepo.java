@@ -2,11 +2,15 @@ package com.lamngo.mealsync.infrastructure.repository.userRecipe;
 
 import com.lamngo.mealsync.domain.model.UserRecipe;
 import com.lamngo.mealsync.domain.model.UserRecipeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,5 +33,88 @@ public interface UserRecipeJpaRepo extends JpaRepository<UserRecipe, UUID> {
     Optional<UserRecipe> findByUserIdAndRecipeIdAndType(UUID userId, UUID recipeId, UserRecipeType type);
 
     void deleteByIdAndUserId(UUID userRecipeId, UUID userId);
+
+    /**
+     * Every entry of a user's history, newest first, with the recipe fetched in the same query.
+     */
+    @Query(value = """
+            SELECT ur FROM UserRecipe ur JOIN FETCH ur.recipe
+            WHERE ur.user.id = :userId AND ur.type = :type
+            ORDER BY ur.savedAt DESC, ur.id DESC
+            """,
+            countQuery = "SELECT COUNT(ur) FROM UserRecipe ur WHERE ur.user.id = :userId AND ur.type = :type")
+    Page<UserRecipe> findHistory(UUID userId, UserRecipeType type, Pageable pageable);
+
+    @Query("""
+            SELECT ur FROM UserRecipe ur JOIN FETCH ur.recipe
+            WHERE ur.user.id = :userId AND ur.type = :type
+            ORDER BY ur.savedAt DESC, ur.id DESC
+            """)
+    List<UserRecipe> findHistory(UUID userId, UserRecipeType type, Limit limit);
+
+    /**
+     * Same as {@link #findHistory(UUID, UserRecipeType, Limit)}, continuing after the entry (savedAt, id).
+     */
+    @Query("""
+            SELECT ur FROM UserRecipe ur JOIN FETCH ur.recipe
+            WHERE ur.user.id = :userId AND ur.type = :type
+              AND (ur.savedAt < :savedAt OR (ur.savedAt = :savedAt AND ur.id < :id))
+            ORDER BY ur.savedAt DESC, ur.id DESC
+            """)
+    List<UserRecipe> findHistoryAfter(UUID userId, UserRecipeType type, LocalDateTime savedAt, UUID id, Limit limit);
+
+    long countByUserIdAndType(UUID userId, UserRecipeType type);
+
+    /**
+     * Newest entry per recipe of a user's history, newest first, with the recipe fetched in the same query.
+     * Older entries of the same recipe are skipped by the NOT EXISTS (idx_user_recipe_user_type_recipe),
+     * so a page walks idx_user_recipe_history instead of the whole history.
+     */
+    @Query("""
+            SELECT ur FROM UserRecipe ur JOIN FETCH ur.recipe
+            WHERE ur.user.id = :userId AND ur.type = :type
+              AND NOT EXISTS (SELECT 1 FROM UserRecipe newer
+                              WHERE newer.user.id = :userId AND newer.type = :type AND newer.recipe = ur.recipe
+                                AND (newer.savedAt > ur.savedAt OR (newer.savedAt = ur.savedAt AND newer.id > ur.id)))
+            ORDER BY ur.savedAt DESC, ur.id DESC
+            """)
+    List<UserRecipe> findLatestPerRecipe(UUID userId, UserRecipeType type, Limit limit);
+
+    /**
+     * Same as {@link #findLatestPerRecipe}, continuing after the entry (savedAt, id).
+     */
+    @Query("""
+            SELECT ur FROM UserRecipe ur JOIN FETCH ur.recipe
+            WHERE ur.user.id = :userId AND ur.type = :type
+              AND (ur.savedAt < :savedAt OR (ur.savedAt = :savedAt AND ur.id < :id))
+              AND NOT EXISTS (SELECT 1 FROM UserRecipe newer
+                              WHERE newer.user.id = :userId AND newer.type = :type AND newer.recipe = ur.recipe
+                                AND (newer.savedAt > ur.savedAt OR (newer.savedAt = ur.savedAt AND newer.id > ur.id)))
+            ORDER BY ur.savedAt DESC, ur.id DESC
+            """)
+    List<UserRecipe> findLatestPerRecipeAfter(UUID userId, UserRecipeType type, LocalDateTime savedAt, UUID id, Limit limit);
+
+    /**
+     * IDs of the newest entry per recipe of a user's history, newest first, for one offset page.
+     * DISTINCT ON reads idx_user_recipe_user_type_recipe in (recipe_id, saved_at DESC, id DESC) order,
+     * so the table is not touched and only the page leaves the database.
+     */
+    @Query(value = """
+            SELECT latest.id FROM (
+                SELECT DISTINCT ON (ur.recipe_id) ur.id, ur.saved_at
+                FROM user_recipe ur
+                WHERE ur.user_id = :userId AND ur.type = :type
+                ORDER BY ur.recipe_id, ur.saved_at DESC, ur.id DESC
+            ) latest
+            ORDER BY latest.saved_at DESC, latest.id DESC
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<UUID> findLatestPerRecipeIds(UUID userId, String type, int limit, long offset);
+
+    @Query("SELECT ur FROM UserRecipe ur JOIN FETCH ur.recipe WHERE ur.id IN :ids")
+    List<UserRecipe> findAllWithRecipeByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT COUNT(DISTINCT ur.recipe.id) FROM UserRecipe ur WHERE ur.user.id = :userId AND ur.type = :type")
+    long countDistinctRecipes(UUID userId, UserRecipeType type);
 }
 
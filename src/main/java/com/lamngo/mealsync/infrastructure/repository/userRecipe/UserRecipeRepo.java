@@ -1,15 +1,27 @@
 package com.lamngo.mealsync.infrastructure.repository.userRecipe;
 
 import com.lamngo.mealsync.application.shared.OffsetPage;
+import com.lamngo.mealsync.application.shared.PageCursor;
 import com.lamngo.mealsync.domain.model.UserRecipe;
 import com.lamngo.mealsync.domain.model.UserRecipeType;
 import com.lamngo.mealsync.domain.repository.IUserRecipeRepo;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 public class UserRecipeRepo implements IUserRecipeRepo {
@@ -53,4 +65,62 @@ public class UserRecipeRepo implements IUserRecipeRepo {
     public void deleteUserRecipe(UUID userRecipeId) {
         userRecipeJpaRepo.deleteById(userRecipeId);
     }
+
+    @Override
+    public Page<UserRecipe> getUserRecipes(UUID userId, UserRecipeType type, OffsetPage pageable) {
+        return userRecipeJpaRepo.findHistory(userId, type, pageable);
+    }
+
+    @Override
+    public Slice<UserRecipe> getUserRecipesAfter(UUID userId, UserRecipeType type, PageCursor after, int limit) {
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<UserRecipe> rows = after == null
+                ? userRecipeJpaRepo.findHistory(userId, type, fetchLimit)
+                : userRecipeJpaRepo.findHistoryAfter(userId, type,
+                        LocalDateTime.ofInstant(after.getPosition(), ZoneOffset.UTC), after.getId(), fetchLimit);
+        return toSlice(rows, limit);
+    }
+
+    @Override
+    public long countUserRecipes(UUID userId, UserRecipeType type) {
+        return userRecipeJpaRepo.countByUserIdAndType(userId, type);
+    }
+
+    @Override
+    public Page<UserRecipe> getLatestUserRecipes(UUID userId, UserRecipeType type, OffsetPage pageable) {
+        List<UUID> ids = userRecipeJpaRepo.findLatestPerRecipeIds(
+                userId, type.name(), pageable.getPageSize(), pageable.getOffset());
+        Map<UUID, UserRecipe> byId = ids.isEmpty()
+                ? Map.of()
+                : userRecipeJpaRepo.findAllWithRecipeByIdIn(ids).stream()
+                        .collect(Collectors.toMap(UserRecipe::getId, Function.identity()));
+        List<UserRecipe> content = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        // The COUNT is skipped when the page itself tells the total (first or last page)
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> userRecipeJpaRepo.countDistinctRecipes(userId, type));
+    }
+
+    @Override
+    public Slice<UserRecipe> getLatestUserRecipesAfter(UUID userId, UserRecipeType type, PageCursor after, int limit) {
+        // One row more than the page tells whether there is a next page without counting
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<UserRecipe> rows = after == null
+                ? userRecipeJpaRepo.findLatestPerRecipe(userId, type, fetchLimit)
+                : userRecipeJpaRepo.findLatestPerRecipeAfter(userId, type,
+                        LocalDateTime.ofInstant(after.getPosition(), ZoneOffset.UTC), after.getId(), fetchLimit);
+        return toSlice(rows, limit);
+    }
+
+    private static Slice<UserRecipe> toSlice(List<UserRecipe> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.of(0, limit), hasNext);
+    }
+
+    @Override
+    public long countDistinctRecipes(UUID userId, UserRecipeType type) {
+        return userRecipeJpaRepo.countDistinctRecipes(userId, type);
+    }
 }
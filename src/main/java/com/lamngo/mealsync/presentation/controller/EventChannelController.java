@@ -0,0 +1,64 @@
+package com.lamngo.mealsync.presentation.controller;
+
+import com.lamngo.mealsync.application.dto.recipe.ImageSubscriptionRequest;
+import com.lamngo.mealsync.application.service.recipe.RecipeImageStreamingService;
+import com.lamngo.mealsync.application.service.sse.UserChannelService;
+import com.lamngo.mealsync.domain.model.user.User;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Per-user event channel: one SSE connection carrying image updates, recipe history changes and
+ * subscription state changes, routed by topic. Replaces opening an image stream per generation batch.
+ */
+@RestController
+@RequestMapping("/api/v1/events")
+public class EventChannelController {
+    private final UserChannelService userChannelService;
+    private final RecipeImageStreamingService recipeImageStreamingService;
+
+    public EventChannelController(
+            UserChannelService userChannelService,
+            RecipeImageStreamingService recipeImageStreamingService) {
+        this.userChannelService = userChannelService;
+        this.recipeImageStreamingService = recipeImageStreamingService;
+    }
+
+    /**
+     * Opens the user's event channel.
+     *
+     * @param topics Topics to receive (images, recipes, subscription); all when omitted
+     * @param user The authenticated user
+     * @return SseEmitter for the channel
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter openChannel(
+            @RequestParam(required = false) List<String> topics,
+            @AuthenticationPrincipal User user) {
+        return userChannelService.openChannel(user.getId(), topics);
+    }
+
+    /**
+     * Subscribes the user's channel to the images of the given recipes and generates the missing ones.
+     * Recipes from /generate-recipes are subscribed automatically; this is for recipes opened later.
+     *
+     * @param request Recipe IDs to receive image updates for
+     * @param user The authenticated user
+     */
+    @PostMapping("/images")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> subscribeToImages(
+            @RequestBody @Valid ImageSubscriptionRequest request,
+            @AuthenticationPrincipal User user) {
+        recipeImageStreamingService.requestImages(user.getId(), request.getRecipeIds());
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,222 @@
+package com.lamngo.mealsync.presentation.controller;
+
+import com.lamngo.mealsync.application.service.storage.LocalImageStorage;
+import com.lamngo.mealsync.presentation.error.ResourceNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Serves images stored by {@link LocalImageStorage} (app.storage.type=local).
+ *
+ * Image keys are random and never rewritten, so responses are cacheable for a year and validated with a
+ * strong ETag (size + mtime). Single byte ranges are honoured for progressive loading. The body is handed
+ * to Tomcat's sendfile when the connector supports it, otherwise copied with FileChannel.transferTo, so
+ * image bytes never pass through a heap buffer of ours.
+ */
+@RestController
+@RequestMapping("/api/v1/images")
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class ImageController {
+    static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // Tomcat request attributes for NIO sendfile (see org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final String BASE_PATH = "/api/v1/images/";
+
+    private final LocalImageStorage imageStorage;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ImageController(LocalImageStorage imageStorage) {
+        this.imageStorage = imageStorage;
+    }
+
+    @RequestMapping(value = "/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getImage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolveFile(request);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("Image not found");
+        }
+        if (!attributes.isRegularFile()) {
+            throw new ResourceNotFoundException("Image not found");
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            long[] byteRange = parseRange(range, length);
+            if (byteRange == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (byteRange.length == 2) {
+                start = byteRange[0];
+                end = byteRange[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long contentLength = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(contentLength);
+        if ("HEAD".equals(request.getMethod()) || contentLength == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // Tomcat writes the file with sendfile after this method returns
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = contentLength;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    private Path resolveFile(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        int index = path.indexOf(BASE_PATH);
+        String key = index >= 0 ? path.substring(index + BASE_PATH.length()) : "";
+        if (key.isEmpty()) {
+            throw new ResourceNotFoundException("Image not found");
+        }
+        try {
+            return imageStorage.resolve(key);
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Image not found");
+        }
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etagListMatches(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP dates have second precision
+        return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * A Range is only applied when If-Range (if sent) still names the current representation.
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return lastModified / 1000 == request.getDateHeader(HttpHeaders.IF_RANGE) / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean etagListMatches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a Range header against the file length.
+     *
+     * @return {start, end} (inclusive) for a single satisfiable range, an empty array when the whole file
+     *         should be sent (unsupported unit or multiple ranges), or null when the range is not satisfiable
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start < 0 || start >= length || end < start) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.lamngo.mealsync.presentation.controller;
 
 import com.lamngo.mealsync.application.dto.recipe.PhotoRecipeRequest;
 import com.lamngo.mealsync.application.service.AI.GeminiImageApiClient;
-import com.lamngo.mealsync.application.service.AWS.S3Service;
+import com.lamngo.mealsync.application.service.storage.ImageStorage;
 import com.lamngo.mealsync.presentation.shared.SuccessResponseEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,11 +18,11 @@ import java.util.Base64;
 public class PhotoController {
 
     private final GeminiImageApiClient geminiImageApiClient;
-    private final S3Service s3UploadService;
+    private final ImageStorage imageStorage;
 
-    public PhotoController(GeminiImageApiClient geminiImageApiClient, S3Service s3UploadService) {
+    public PhotoController(GeminiImageApiClient geminiImageApiClient, ImageStorage imageStorage) {
         this.geminiImageApiClient = geminiImageApiClient;
-        this.s3UploadService = s3UploadService;
+        this.imageStorage = imageStorage;
     }
 
     @PostMapping("/generate")
@@ -32,7 +32,7 @@ public class PhotoController {
         String apiResponse = geminiImageApiClient.generateImage(request.getRecipeName(), request.getIngredients(), request.getDescription());
         byte[] imageBytes = decodeBase64ToBytes(apiResponse);
 
-        String imageUrl = s3UploadService.uploadImage(imageBytes, request.getRecipeName());
+        String imageUrl = imageStorage.uploadImage(imageBytes, request.getRecipeName());
         SuccessResponseEntity<String> body = new SuccessResponseEntity<>();
         body.setData(imageUrl);
 
@@ -4,22 +4,32 @@ import com.lamngo.mealsync.application.dto.recipe.DetectedIngredientDto;
 import com.lamngo.mealsync.application.dto.recipe.GenerateRecipeRequest;
 import com.lamngo.mealsync.application.dto.recipe.ManualIngredientDetectionRequest;
 import com.lamngo.mealsync.application.dto.recipe.RecipeCreateDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeFacetsDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeMatchRequest;
+import com.lamngo.mealsync.application.dto.recipe.RecipeMatchResultDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeSearchResultDto;
 import com.lamngo.mealsync.application.dto.recipe.RecipeUpdateDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeVersionDto;
 import com.lamngo.mealsync.application.dto.userRecipe.UserRecipeCreateDto;
 import com.lamngo.mealsync.application.dto.userRecipe.UserRecipeReadDto;
 import com.lamngo.mealsync.application.service.AI.AIRecipeService;
 import com.lamngo.mealsync.application.service.AI.IngredientDetectionService;
+import com.lamngo.mealsync.application.service.recipe.RecipeFacetIndex;
 import com.lamngo.mealsync.application.service.recipe.RecipeService;
 import com.lamngo.mealsync.application.service.subscription.SubscriptionService;
 import com.lamngo.mealsync.application.shared.PaginationResponse;
 import com.lamngo.mealsync.domain.model.user.User;
 import com.lamngo.mealsync.domain.model.user.UserPreference;
 import com.lamngo.mealsync.presentation.error.BadRequestException;
+import com.lamngo.mealsync.presentation.shared.RecipeETags;
 import com.lamngo.mealsync.presentation.shared.SuccessResponseEntity;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
@@ -32,8 +42,10 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 @RestController
@@ -45,18 +57,25 @@ public class RecipeController {
     private final com.lamngo.mealsync.application.service.recipe.RecipeImageStreamingService recipeImageStreamingService;
     private final IngredientDetectionService ingredientDetectionService;
     private final SubscriptionService subscriptionService;
+    private final RecipeFacetIndex recipeFacetIndex;
+
+    // How long clients may reuse a recipe (with its image) before revalidating it with If-None-Match
+    @Value("${app.recipes.http-cache.max-age-seconds:300}")
+    private long recipeMaxAgeSeconds;
 
     public RecipeController(
             RecipeService recipeService, 
             com.lamngo.mealsync.application.service.recipe.RecipeGenerationOrchestrator recipeGenerationOrchestrator,
             com.lamngo.mealsync.application.service.recipe.RecipeImageStreamingService recipeImageStreamingService,
             IngredientDetectionService ingredientDetectionService,
-            SubscriptionService subscriptionService) {
+            SubscriptionService subscriptionService,
+            RecipeFacetIndex recipeFacetIndex) {
         this.recipeService = recipeService;
         this.recipeGenerationOrchestrator = recipeGenerationOrchestrator;
         this.recipeImageStreamingService = recipeImageStreamingService;
         this.ingredientDetectionService = ingredientDetectionService;
         this.subscriptionService = subscriptionService;
+        this.recipeFacetIndex = recipeFacetIndex;
     }
 
     /**
@@ -113,6 +132,9 @@ public class RecipeController {
                 .toList();
         recipeGenerationOrchestrator.saveGeneratedRecipesToUserAsync(user.getId(), recipeIds);
 
+        // Image updates of the new batch also go to the user's event channel (GET /api/v1/events)
+        recipeImageStreamingService.watchImages(user.getId(), recipes);
+
         SuccessResponseEntity<List<RecipeReadDto>> body = new SuccessResponseEntity<>();
         body.setData(recipes);
         return ResponseEntity.ok(body);
@@ -149,11 +171,14 @@ public class RecipeController {
      * Clients can subscribe to this endpoint to receive real-time updates as images are generated.
      * 
      * @param recipeIds Comma-separated list of recipe IDs to stream images for
+     * @param lastEventId Sent by EventSource on reconnect; only image updates after it are replayed
      * @return SseEmitter for streaming image updates
      */
     @GetMapping(value = "/image-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("isAuthenticated()")
-    public SseEmitter streamImageGeneration(@RequestParam("recipeIds") String recipeIds) {
+    public SseEmitter streamImageGeneration(
+            @RequestParam("recipeIds") String recipeIds,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         if (recipeIds == null || recipeIds.isEmpty()) {
             throw new BadRequestException("recipeIds parameter is required");
         }
@@ -170,7 +195,7 @@ public class RecipeController {
         }
 
         // Delegate to streaming service
-        return recipeImageStreamingService.createImageStream(recipeIdList);
+        return recipeImageStreamingService.createImageStream(recipeIdList, lastEventId);
     }
 
     /**
@@ -295,42 +320,169 @@ public class RecipeController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Saved recipes, newest first. Pass cursor (empty for the first page, then the previous nextCursor)
+     * for keyset paging; offset paging is kept for older clients.
+     *
+     * @param includeTotal Whether cursor pages also count all saved recipes
+     */
     @GetMapping("/saved")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<PaginationResponse<UserRecipeReadDto>> getSavedRecipes(
             @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "0") int offset,
-            @RequestParam(defaultValue = "6") int limit) {
+            @RequestParam(defaultValue = "6") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
+        if (cursor != null) {
+            requireCursorLimit(limit);
+        }
         UUID userId = user.getId();
-        PaginationResponse<UserRecipeReadDto> savedRecipes = recipeService.getSavedRecipesByUserId(userId, limit, offset);
+        PaginationResponse<UserRecipeReadDto> savedRecipes = cursor != null
+                ? recipeService.getSavedRecipesAfter(userId, cursor, limit, includeTotal)
+                : recipeService.getSavedRecipesByUserId(userId, limit, offset);
 
         return ResponseEntity.ok(savedRecipes);
     }
 
+    /**
+     * Recently generated recipes, newest first, each recipe once. Paged by cursor or offset like /saved.
+     *
+     * @param includeTotal Whether cursor pages also count all generated recipes
+     */
     @GetMapping("/recent")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<PaginationResponse<RecipeReadDto>> getRecentGeneratedRecipes(
             @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "0") int offset,
-            @RequestParam(defaultValue = "6") int limit) {
+            @RequestParam(defaultValue = "6") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
         logger.info("Getting recent generated recipes for user: {}", user.getId());
+        if (cursor != null) {
+            requireCursorLimit(limit);
+        }
         UUID userId = user.getId();
-        PaginationResponse<RecipeReadDto> recentRecipes = recipeService.getRecentGeneratedRecipes(userId, limit, offset);
+        PaginationResponse<RecipeReadDto> recentRecipes = cursor != null
+                ? recipeService.getRecentGeneratedRecipesAfter(userId, cursor, limit, includeTotal)
+                : recipeService.getRecentGeneratedRecipes(userId, limit, offset);
 
         return ResponseEntity.ok(recentRecipes);
     }
 
+    /**
+     * A recipe, with a strong ETag and Last-Modified from its updatedAt. A matching If-None-Match is
+     * answered with 304 from the recipe's version alone, without reading its content. Responses are
+     * private (the endpoint needs authentication); recipes still waiting for their image are always
+     * revalidated, as opening them requests the image and the image will change them.
+     */
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<SuccessResponseEntity<RecipeReadDto>> getRecipeById(@PathVariable("id") String id) {
-        RecipeReadDto recipe = recipeService.getRecipeById(UUID.fromString(id));
+    public ResponseEntity<SuccessResponseEntity<RecipeReadDto>> getRecipeById(
+            @PathVariable("id") String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        UUID recipeId = UUID.fromString(id);
+        if (ifNoneMatch != null) {
+            RecipeVersionDto version = recipeService.getRecipeVersion(recipeId);
+            String etag = RecipeETags.forRecipe(version.getLastModified());
+            if (version.isImageReady() && RecipeETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .lastModified(version.getLastModified())
+                        .cacheControl(recipeCacheControl(true))
+                        .build();
+            }
+        }
+
+        RecipeReadDto recipe = recipeService.getRecipeById(recipeId);
+        // Images of non-eager recipes are generated the first time someone opens them
+        recipeGenerationOrchestrator.requestImageOnDemand(recipe);
         SuccessResponseEntity<RecipeReadDto> body = new SuccessResponseEntity<>();
         body.setData(recipe);
+        Instant lastModified = RecipeETags.lastModified(recipe);
+        if (lastModified == null) {
+            return ResponseEntity.ok(body);
+        }
+        boolean imageReady = recipe.getImageUrl() != null && !recipe.getImageUrl().isEmpty();
+        return ResponseEntity.ok()
+                .eTag(RecipeETags.forRecipe(lastModified))
+                .lastModified(lastModified)
+                .cacheControl(recipeCacheControl(imageReady))
+                .body(body);
+    }
+
+    private CacheControl recipeCacheControl(boolean imageReady) {
+        return imageReady
+                ? CacheControl.maxAge(recipeMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * Ranked full-text search over recipe names, descriptions, cuisines, tags and ingredients.
+     * Words are matched as prefixes ("chick" finds "chicken"); every word must match.
+     *
+     * @param q Search words
+     * @return Page of results, most relevant first, each with a highlighted snippet
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PaginationResponse<RecipeSearchResultDto>> searchRecipes(
+            @RequestParam("q") String q,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 50 || offset < 0) {
+            throw new BadRequestException("limit must be between 1 and 50 and offset must not be negative");
+        }
+        return ResponseEntity.ok(recipeService.searchRecipes(q, limit, offset));
+    }
+
+    /**
+     * Catalog recipes that can be cooked with the given ingredients, fewest missing ingredients first.
+     * Answered from the in-memory ingredient index, without generating anything.
+     *
+     * @param request Ingredients at hand, as sent to /generate-recipes
+     * @param limit Maximum number of recipes
+     * @return Recipes with the number of matched ingredients and the missing ones
+     */
+    @PostMapping("/match")
+    public ResponseEntity<SuccessResponseEntity<List<RecipeMatchResultDto>>> matchRecipes(
+            @RequestBody @Valid RecipeMatchRequest request,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new BadRequestException("limit must be between 1 and 50");
+        }
+        SuccessResponseEntity<List<RecipeMatchResultDto>> body = new SuccessResponseEntity<>();
+        body.setData(recipeService.matchRecipes(request.getIngredients(), limit));
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Number of recipes per cuisine, difficulty, tag and total time, for the filters of the listing.
+     * Served from in-memory counts; nothing is counted in the database per request.
+     *
+     * @param limit Maximum number of values per facet, most frequent first
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<SuccessResponseEntity<RecipeFacetsDto>> getRecipeFacets(
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("limit must be between 1 and 100");
+        }
+        SuccessResponseEntity<RecipeFacetsDto> body = new SuccessResponseEntity<>();
+        body.setData(recipeFacetIndex.getFacets(limit));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Recipe listing with optional filters. With cursor (empty for the first page, then the previous
+     * nextCursor) pages are newest first by keyset and only counted when includeTotal is true;
+     * without it the offset paging is used.
+     *
+     * Pages carry an ETag over the IDs and versions of their recipes. New recipes can show up on any
+     * request, so caches (clients and nginx, the listing is public) must revalidate every time; an
+     * unchanged page is answered with 304 and no body.
+     */
     @GetMapping
     public ResponseEntity<PaginationResponse<RecipeReadDto>> getAllRecipes(
             @RequestParam(defaultValue = "0") int offset,
@@ -341,7 +493,15 @@ public class RecipeController {
             @RequestParam(required = false) List<String> ingredients,
             @RequestParam(required = false) String difficulty,
             @RequestParam(required = false) Integer maxTotalTime,
-            @RequestParam(required = false) Integer minServings) {
+            @RequestParam(required = false) Integer minServings,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        if (cursor != null) {
+            requireCursorLimit(limit);
+            return listingResponse(recipeService.getRecipesAfter(cursor, limit, includeTotal, name, cuisines, tags,
+                    ingredients, difficulty, maxTotalTime, minServings));
+        }
 
         PaginationResponse<RecipeReadDto> response;
 
@@ -361,7 +521,22 @@ public class RecipeController {
             response = recipeService.getAllRecipes(limit, offset);
         }
 
-        return ResponseEntity.ok(response);
+        return listingResponse(response);
+    }
+
+    // Cursor pages fetch limit + 1 rows to detect the next page, so the limit is checked up front
+    private static void requireCursorLimit(int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new BadRequestException("limit must be between 1 and 50");
+        }
+    }
+
+    // Spring answers a matching If-None-Match with 304 for responses carrying an ETag
+    private ResponseEntity<PaginationResponse<RecipeReadDto>> listingResponse(PaginationResponse<RecipeReadDto> page) {
+        return ResponseEntity.ok()
+                .eTag(RecipeETags.forPage(page))
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(page);
     }
 
     @PutMapping("/{id}")
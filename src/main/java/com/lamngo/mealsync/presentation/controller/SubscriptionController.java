@@ -49,6 +49,7 @@ public class SubscriptionController {
             Authentication authentication) {
         User user = getCurrentUser(authentication);
         appleIAPService.validateAndProcessReceipt(user, request.getReceiptData());
+        subscriptionService.publishStatusChanged(user);
         
         SubscriptionStatusDto status = buildSubscriptionStatus(user);
         SuccessResponseEntity<SubscriptionStatusDto> response = new SuccessResponseEntity<>();
@@ -70,6 +71,7 @@ public class SubscriptionController {
             user, 
             request.getPurchaseToken(), 
             request.getProductId());
+        subscriptionService.publishStatusChanged(user);
         
         SubscriptionStatusDto status = buildSubscriptionStatus(user);
         SuccessResponseEntity<SubscriptionStatusDto> response = new SuccessResponseEntity<>();
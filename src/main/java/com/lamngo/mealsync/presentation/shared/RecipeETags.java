@@ -0,0 +1,69 @@
+package com.lamngo.mealsync.presentation.shared;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.shared.PaginationResponse;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Strong ETags of recipe responses, derived from the recipes' last modification instead of a hash of
+ * the body. Every write to a recipe sets updatedAt (entity saves through @PreUpdate, image updates
+ * explicitly), so the version changes whenever the content does.
+ */
+public final class RecipeETags {
+
+    private RecipeETags() {
+    }
+
+    /**
+     * ETag of a single recipe (GET /api/v1/recipes/{id}).
+     */
+    public static String forRecipe(Instant lastModified) {
+        return "\"" + Long.toHexString(lastModified.getEpochSecond()) + "-" + Integer.toHexString(lastModified.getNano()) + "\"";
+    }
+
+    /**
+     * Last modification of a recipe as served: updatedAt, or createdAt if it never changed.
+     */
+    public static Instant lastModified(RecipeReadDto recipe) {
+        return recipe.getUpdatedAt() != null ? recipe.getUpdatedAt() : recipe.getCreatedAt();
+    }
+
+    /**
+     * ETag of a page of recipes: the IDs and versions of its recipes plus the paging fields.
+     */
+    public static String forPage(PaginationResponse<RecipeReadDto> page) {
+        StringBuilder versions = new StringBuilder();
+        if (page.getData() != null) {
+            for (RecipeReadDto recipe : page.getData()) {
+                versions.append(recipe.getId()).append('@').append(lastModified(recipe)).append(';');
+            }
+        }
+        versions.append(page.getOffset()).append(';')
+                .append(page.getTotalElements()).append(';')
+                .append(page.isHasNext()).append(';')
+                .append(page.getNextCursor());
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header matches the ETag (weak comparison, as RFC 9110 requires for GET).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
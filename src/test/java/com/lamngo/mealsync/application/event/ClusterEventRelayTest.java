@@ -0,0 +1,218 @@
+package com.lamngo.mealsync.application.event;
+
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterEventRelayTest {
+
+    @Mock
+    private EventTransport transport;
+
+    @Mock
+    private ObjectProvider<EventTransport> transportProvider;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ClusterEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(transportProvider.getIfAvailable()).thenReturn(transport);
+        relay = new ClusterEventRelay(transportProvider, eventPublisher, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void onImageGenerated_shouldPublishLocalEventsToOtherNodes() {
+        UUID recipeId = UUID.randomUUID();
+
+        relay.onImageGenerated(event(this, recipeId));
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(transport).publish(payload.capture());
+        JSONObject message = new JSONObject(payload.getValue());
+        assertEquals(recipeId.toString(), message.getString("recipeId"));
+        assertEquals("https://cdn.example.com/full.jpg", message.getString("imageUrl"));
+        assertTrue(message.getBoolean("success"));
+    }
+
+    @Test
+    void onImageGenerated_shouldNotRelayEventsReceivedFromOtherNodes() {
+        relay.onImageGenerated(event(relay, UUID.randomUUID()));
+
+        verify(transport, never()).publish(anyString());
+    }
+
+    @Test
+    void onMessage_shouldRepublishEventsFromOtherNodes() {
+        UUID recipeId = UUID.randomUUID();
+        ClusterEventRelay otherNode = new ClusterEventRelay(transportProvider, mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry());
+
+        relay.onMessage(otherNode.toPayload(event(this, recipeId)));
+
+        ArgumentCaptor<ImageGeneratedEvent> captor = ArgumentCaptor.forClass(ImageGeneratedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        ImageGeneratedEvent republished = captor.getValue();
+        assertSame(relay, republished.getSource());
+        assertEquals(recipeId, republished.getRecipeId());
+        assertEquals("https://cdn.example.com/thumb.jpg", republished.getThumbnailImageUrl());
+        assertEquals("LKO2?U%2Tw=w]~RBVZRi};RPxuwH", republished.getBlurHash());
+        assertNull(republished.getErrorMessage());
+    }
+
+    @Test
+    void onMessage_shouldRepublishUserEventsWithOriginalTimestamp() {
+        UUID userId = UUID.randomUUID();
+        ClusterEventRelay otherNode = new ClusterEventRelay(transportProvider, mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry());
+        UserEvent original = new UserEvent(this, userId, UserEvent.TOPIC_SUBSCRIPTION, "subscription-status",
+                "{\"status\":\"ACTIVE\"}", 1700000000000L);
+
+        relay.onMessage(otherNode.toPayload(original));
+
+        ArgumentCaptor<UserEvent> captor = ArgumentCaptor.forClass(UserEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        UserEvent republished = captor.getValue();
+        assertSame(relay, republished.getSource());
+        assertEquals(userId, republished.getUserId());
+        assertEquals(UserEvent.TOPIC_SUBSCRIPTION, republished.getTopic());
+        assertEquals("subscription-status", republished.getName());
+        assertEquals("{\"status\":\"ACTIVE\"}", republished.getData());
+        assertEquals(1700000000000L, republished.getTimestamp());
+    }
+
+    @Test
+    void onUserEvent_shouldNotRelayEventsReceivedFromOtherNodes() {
+        relay.onUserEvent(new UserEvent(relay, UUID.randomUUID(), UserEvent.TOPIC_IMAGES, "image-update", "{}"));
+
+        verify(transport, never()).publish(anyString());
+    }
+
+    @Test
+    void onMessage_shouldRepublishUserChannelsClosedFromOtherNodes() {
+        UUID userId = UUID.randomUUID();
+        ClusterEventRelay otherNode = new ClusterEventRelay(transportProvider, mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry());
+
+        relay.onMessage(otherNode.toPayload(new UserChannelsClosedEvent(this, userId)));
+
+        ArgumentCaptor<UserChannelsClosedEvent> captor = ArgumentCaptor.forClass(UserChannelsClosedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertSame(relay, captor.getValue().getSource());
+        assertEquals(userId, captor.getValue().getUserId());
+    }
+
+    @Test
+    void onRecipeChanged_shouldRelayIdsInBoundedMessages() {
+        Set<UUID> recipeIds = new HashSet<>();
+        for (int i = 0; i < ClusterEventRelay.MAX_RECIPE_IDS_PER_MESSAGE + 1; i++) {
+            recipeIds.add(UUID.randomUUID());
+        }
+
+        relay.onRecipeChanged(new RecipeChangedEvent(this, recipeIds));
+
+        verify(transport, times(2)).publish(anyString());
+    }
+
+    @Test
+    void onMessage_shouldRepublishRecipeChangesFromOtherNodes() {
+        Set<UUID> recipeIds = Set.of(UUID.randomUUID(), UUID.randomUUID());
+        ClusterEventRelay otherNode = new ClusterEventRelay(transportProvider, mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry());
+        List<String> payloads = otherNode.toPayloads(new RecipeChangedEvent(this, recipeIds));
+
+        relay.onMessage(payloads.get(0));
+
+        ArgumentCaptor<RecipeChangedEvent> captor = ArgumentCaptor.forClass(RecipeChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertSame(relay, captor.getValue().getSource());
+        assertEquals(recipeIds, captor.getValue().getRecipeIds());
+        assertEquals(1, payloads.size());
+    }
+
+    @Test
+    void onRecipeChanged_shouldNotRelayChangesReceivedFromOtherNodes() {
+        relay.onRecipeChanged(new RecipeChangedEvent(relay, Set.of(UUID.randomUUID())));
+
+        verify(transport, never()).publish(anyString());
+    }
+
+    @Test
+    void onMessage_shouldRepublishIngredientChangesFromOtherNodes() {
+        Set<UUID> recipeIds = Set.of(UUID.randomUUID());
+        ClusterEventRelay otherNode = new ClusterEventRelay(transportProvider, mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry());
+
+        relay.onMessage(otherNode.toPayloads(new RecipeIngredientsChangedEvent(this, recipeIds)).get(0));
+
+        ArgumentCaptor<RecipeIngredientsChangedEvent> captor = ArgumentCaptor.forClass(RecipeIngredientsChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertSame(relay, captor.getValue().getSource());
+        assertEquals(recipeIds, captor.getValue().getRecipeIds());
+    }
+
+    @Test
+    void onMessage_shouldRepublishFacetChangesFromOtherNodes() {
+        RecipeFacets added = new RecipeFacets("Italian", "easy", List.of("quick", "dinner"), 15);
+        RecipeFacets removed = new RecipeFacets(null, null, List.of(), null);
+        ClusterEventRelay otherNode = new ClusterEventRelay(transportProvider, mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry());
+        List<String> payloads = otherNode.toPayloads(new RecipeFacetsChangedEvent(this, List.of(added), List.of(removed)));
+
+        relay.onMessage(payloads.get(0));
+
+        ArgumentCaptor<RecipeFacetsChangedEvent> captor = ArgumentCaptor.forClass(RecipeFacetsChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertSame(relay, captor.getValue().getSource());
+        assertEquals(List.of(added), captor.getValue().getAdded());
+        assertEquals(List.of(removed), captor.getValue().getRemoved());
+        assertEquals(1, payloads.size());
+    }
+
+    @Test
+    void onRecipeFacetsChanged_shouldRelayInBoundedMessages() {
+        List<RecipeFacets> added = new ArrayList<>();
+        for (int i = 0; i < ClusterEventRelay.MAX_RECIPE_FACETS_PER_MESSAGE + 1; i++) {
+            added.add(new RecipeFacets("Thai", "medium", List.of("spicy"), 30));
+        }
+
+        relay.onRecipeFacetsChanged(new RecipeFacetsChangedEvent(this, added, List.of()));
+
+        verify(transport, times(2)).publish(anyString());
+    }
+
+    @Test
+    void onMessage_shouldIgnoreOwnAndMalformedMessages() {
+        relay.onMessage(relay.toPayload(event(this, UUID.randomUUID())));
+        relay.onMessage("not json");
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private ImageGeneratedEvent event(Object source, UUID recipeId) {
+        return new ImageGeneratedEvent(source, recipeId, "Pasta", "https://cdn.example.com/full.jpg",
+                "https://cdn.example.com/card.jpg", "https://cdn.example.com/thumb.jpg",
+                "LKO2?U%2Tw=w]~RBVZRi};RPxuwH", true, null);
+    }
+}
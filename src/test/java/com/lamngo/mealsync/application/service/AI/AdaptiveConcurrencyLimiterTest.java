@@ -0,0 +1,95 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 16, 1000.0, meterRegistry);
+    }
+
+    @Test
+    void acquire_shouldQueueBeyondLimitAndGrantOnRelease() {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<AdaptiveConcurrencyLimiter.Permit> permit = limiter.acquire();
+            assertTrue(permit.isDone());
+            permits.add(permit.join());
+        }
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = limiter.acquire();
+        assertFalse(waiting.isDone());
+        assertEquals(1, limiter.getQueued());
+
+        permits.get(0).onIgnore();
+
+        assertTrue(waiting.isDone());
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void onSuccess_shouldGrowLimitWhileLatencyIsStable() {
+        for (int i = 0; i < 40; i++) {
+            List<AdaptiveConcurrencyLimiter.Permit> batch = new ArrayList<>();
+            for (int j = 0; j < limiter.getLimit(); j++) {
+                batch.add(limiter.acquire().join());
+            }
+            batch.forEach(AdaptiveConcurrencyLimiter.Permit::onSuccess);
+        }
+
+        assertEquals(16, limiter.getLimit());
+        assertEquals(16.0, meterRegistry.get("mealsync.concurrency.limit").tag("name", "test").gauge().value());
+    }
+
+    @Test
+    void onThrottled_shouldHalveLimitDownToMinimum() {
+        limiter.acquire().join().onThrottled();
+        assertEquals(2, limiter.getLimit());
+
+        limiter.acquire().join().onThrottled();
+        limiter.acquire().join().onThrottled();
+        assertEquals(1, limiter.getLimit());
+        assertEquals(3.0, meterRegistry.get("mealsync.concurrency.throttled").counter().count());
+    }
+
+    @Test
+    void onThrottled_shouldBackOffOncePerWindow() {
+        List<AdaptiveConcurrencyLimiter.Permit> burst = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            burst.add(limiter.acquire().join());
+        }
+
+        // All four were granted under the same limit: one decrease, not four
+        burst.forEach(AdaptiveConcurrencyLimiter.Permit::onThrottled);
+        assertEquals(2, limiter.getLimit());
+
+        // A call granted after the decrease can decrease it again
+        limiter.acquire().join().onThrottled();
+        assertEquals(1, limiter.getLimit());
+        assertEquals(5.0, meterRegistry.get("mealsync.concurrency.throttled").counter().count());
+    }
+
+    @Test
+    void release_shouldBeIdempotent() {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire().join();
+
+        permit.onSuccess();
+        permit.onIgnore();
+
+        assertEquals(0, limiter.getInFlight());
+    }
+}
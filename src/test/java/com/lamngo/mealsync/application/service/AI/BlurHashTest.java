@@ -0,0 +1,67 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlurHashTest {
+
+    private static final String BASE83 =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    @Test
+    void encode_shouldEncodeSizeFlagAndAverageColour() {
+        BufferedImage image = solidImage(32, 24, 0xFF0000);
+
+        String hash = BlurHash.encode(image, 4, 3);
+
+        assertEquals(28, hash.length());
+        // (componentsX - 1) + (componentsY - 1) * 9 = 21
+        assertEquals(21, decode83(hash.substring(0, 1)));
+        assertEquals(0xFF0000, decode83(hash.substring(2, 6)));
+    }
+
+    @Test
+    void encode_shouldOnlyContainBase83Characters() {
+        BufferedImage image = new BufferedImage(32, 24, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 32; x++) {
+            for (int y = 0; y < 24; y++) {
+                image.setRGB(x, y, x < 16 ? 0xFFFFFF : 0x000000);
+            }
+        }
+
+        String hash = BlurHash.encode(image, 4, 3);
+
+        for (char c : hash.toCharArray()) {
+            assertTrue(BASE83.indexOf(c) >= 0, "Unexpected character " + c);
+        }
+    }
+
+    @Test
+    void encode_shouldRejectInvalidComponentCount() {
+        BufferedImage image = solidImage(4, 4, 0x000000);
+
+        assertThrows(IllegalArgumentException.class, () -> BlurHash.encode(image, 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> BlurHash.encode(image, 4, 10));
+    }
+
+    private BufferedImage solidImage(int width, int height, int rgb) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+
+    private int decode83(String value) {
+        int result = 0;
+        for (char c : value.toCharArray()) {
+            result = result * 83 + BASE83.indexOf(c);
+        }
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package com.lamngo.mealsync.application.service.AI;
 
 import com.lamngo.mealsync.presentation.error.ImageGeneratorServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -18,7 +19,7 @@ class ImageGeneratorServiceTest {
     @BeforeEach
     void setUp() {
         promptLoader = mock(PromptLoader.class);
-        service = new GeminiImageApiClient(promptLoader);
+        service = new GeminiImageApiClient(promptLoader, new SimpleMeterRegistry());
         // Set required fields using ReflectionTestUtils
         ReflectionTestUtils.setField(service, "geminiApiKey", "dummy");
         ReflectionTestUtils.setField(service, "geminiApiBaseUrl", "http://dummy.url");
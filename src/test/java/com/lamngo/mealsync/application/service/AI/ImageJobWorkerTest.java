@@ -0,0 +1,204 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.mapper.recipe.RecipeMapper;
+import com.lamngo.mealsync.domain.model.image.ImageJob;
+import com.lamngo.mealsync.domain.model.image.ImageJobStatus;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.repository.image.IImageJobRepo;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageJobWorkerTest {
+
+    @Mock
+    private IImageJobRepo imageJobRepo;
+
+    @Mock
+    private IRecipeRepo recipeRepo;
+
+    @Mock
+    private RecipeMapper recipeMapper;
+
+    @Mock
+    private RecipeImageService recipeImageService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ImageJobWorker worker;
+    private ImageJob job;
+    private Recipe recipe;
+    private RecipeReadDto recipeDto;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new ImageJobWorker(imageJobRepo, recipeRepo, recipeMapper, recipeImageService,
+                transactionManager, meterRegistry, true, 4, 3, 1000, 60000, 300000);
+
+        job = new ImageJob();
+        job.setId(UUID.randomUUID());
+        job.setRecipeId(UUID.randomUUID());
+        job.setStatus(ImageJobStatus.RUNNING);
+        job.setAttempts(1);
+
+        recipe = new Recipe();
+        recipe.setId(job.getRecipeId());
+        recipeDto = new RecipeReadDto();
+        recipeDto.setId(job.getRecipeId());
+        recipeDto.setName("Test Recipe");
+    }
+
+    private void givenClaimedJob() {
+        when(recipeImageService.getGenerationConcurrencyLimit()).thenReturn(8);
+        when(imageJobRepo.claimDueJobs(eq(4), anyString(), any(Instant.class))).thenReturn(List.of(job));
+        when(recipeRepo.getRecipeById(job.getRecipeId())).thenReturn(Optional.of(recipe));
+        when(recipeMapper.toRecipeReadDto(recipe)).thenReturn(recipeDto);
+    }
+
+    @Test
+    void pollJobs_shouldDeleteJob_whenImageGenerated() {
+        givenClaimedJob();
+        when(recipeImageService.generateImage(recipeDto)).thenReturn(CompletableFuture.completedFuture(null));
+
+        worker.pollJobs();
+
+        verify(imageJobRepo).deleteById(job.getId());
+        assertEquals(1.0, meterRegistry.get("mealsync.image_jobs.completed").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void pollJobs_shouldScheduleRetry_whenAttemptsRemain() {
+        givenClaimedJob();
+        when(recipeImageService.generateImage(recipeDto))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("429 Too Many Requests")));
+
+        Instant before = Instant.now();
+        worker.pollJobs();
+
+        verify(imageJobRepo).markForRetry(eq(job.getId()), contains("429"),
+                argThat(nextAttempt -> !nextAttempt.isBefore(before.plusMillis(500))));
+        verify(imageJobRepo, never()).markDead(any(), anyString(), any());
+        verify(recipeImageService, never()).publishImageFailure(any(), anyString());
+    }
+
+    @Test
+    void pollJobs_shouldDeadLetter_whenMaxAttemptsReached() {
+        job.setAttempts(3);
+        givenClaimedJob();
+        when(recipeImageService.generateImage(recipeDto))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("boom")));
+
+        worker.pollJobs();
+
+        verify(imageJobRepo).markDead(eq(job.getId()), contains("boom"), any(Instant.class));
+        verify(imageJobRepo, never()).markForRetry(any(), anyString(), any());
+        verify(recipeImageService).publishImageFailure(eq(recipeDto), contains("boom"));
+    }
+
+    @Test
+    void pollJobs_shouldDropJob_whenRecipeDeleted() {
+        when(recipeImageService.getGenerationConcurrencyLimit()).thenReturn(8);
+        when(imageJobRepo.claimDueJobs(anyInt(), anyString(), any(Instant.class))).thenReturn(List.of(job));
+        when(recipeRepo.getRecipeById(job.getRecipeId())).thenReturn(Optional.empty());
+
+        worker.pollJobs();
+
+        verify(imageJobRepo).deleteById(job.getId());
+        verify(recipeImageService, never()).generateImage(any());
+    }
+
+    @Test
+    void pollJobs_shouldProcessRemainingJobs_whenDroppingOneFails() {
+        ImageJob next = new ImageJob();
+        next.setId(UUID.randomUUID());
+        next.setRecipeId(UUID.randomUUID());
+        next.setStatus(ImageJobStatus.RUNNING);
+        next.setAttempts(1);
+        Recipe nextRecipe = new Recipe();
+        nextRecipe.setId(next.getRecipeId());
+        RecipeReadDto nextDto = new RecipeReadDto();
+        nextDto.setId(next.getRecipeId());
+        when(recipeImageService.getGenerationConcurrencyLimit()).thenReturn(8);
+        when(imageJobRepo.claimDueJobs(anyInt(), anyString(), any(Instant.class))).thenReturn(List.of(job, next));
+        when(recipeRepo.getRecipeById(job.getRecipeId())).thenReturn(Optional.empty());
+        doThrow(new RuntimeException("connection reset")).when(imageJobRepo).deleteById(job.getId());
+        when(recipeRepo.getRecipeById(next.getRecipeId())).thenReturn(Optional.of(nextRecipe));
+        when(recipeMapper.toRecipeReadDto(nextRecipe)).thenReturn(nextDto);
+        when(recipeImageService.generateImage(nextDto)).thenReturn(CompletableFuture.completedFuture(null));
+
+        worker.pollJobs();
+
+        verify(recipeImageService).generateImage(nextDto);
+        verify(imageJobRepo).deleteById(next.getId());
+    }
+
+    @Test
+    void pollJobs_shouldClaimOnlyUpToAdaptiveLimit() {
+        when(recipeImageService.getGenerationConcurrencyLimit()).thenReturn(2);
+        when(imageJobRepo.claimDueJobs(eq(2), anyString(), any(Instant.class))).thenReturn(List.of());
+
+        worker.pollJobs();
+
+        verify(imageJobRepo).claimDueJobs(eq(2), anyString(), any(Instant.class));
+    }
+
+    @Test
+    void pollJobs_shouldNotClaim_whenDisabled() {
+        worker = new ImageJobWorker(imageJobRepo, recipeRepo, recipeMapper, recipeImageService,
+                transactionManager, meterRegistry, false, 4, 3, 1000, 60000, 300000);
+
+        worker.pollJobs();
+
+        verifyNoInteractions(imageJobRepo);
+    }
+
+    @Test
+    void maintainQueue_shouldReleaseStaleJobsAndRefreshGauges() {
+        when(imageJobRepo.releaseStaleJobs(any(Instant.class))).thenReturn(2);
+        when(imageJobRepo.countByStatus(ImageJobStatus.PENDING)).thenReturn(7L);
+        when(imageJobRepo.countByStatus(ImageJobStatus.DEAD)).thenReturn(1L);
+        when(imageJobRepo.findOldestCreatedAt(ImageJobStatus.PENDING))
+                .thenReturn(Optional.of(Instant.now().minusSeconds(120)));
+
+        worker.maintainQueue();
+
+        assertEquals(7.0, meterRegistry.get("mealsync.image_jobs.pending").gauge().value());
+        assertEquals(1.0, meterRegistry.get("mealsync.image_jobs.dead").gauge().value());
+        assertTrue(meterRegistry.get("mealsync.image_jobs.oldest_pending_age_seconds").gauge().value() >= 120);
+    }
+
+    @Test
+    void backoffMillis_shouldGrowExponentiallyAndRespectCap() {
+        for (int i = 0; i < 20; i++) {
+            long first = worker.backoffMillis(1);
+            long third = worker.backoffMillis(3);
+            long capped = worker.backoffMillis(30);
+            assertTrue(first >= 500 && first <= 1000);
+            assertTrue(third >= 2000 && third <= 4000);
+            assertTrue(capped >= 30000 && capped <= 60000);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageTranscoderTest {
+
+    private final ImageTranscoder imageTranscoder = new ImageTranscoder(Runnable::run);
+
+    @Test
+    void transcode_shouldProduceAllVariantsWithinMaxDimension() throws IOException {
+        byte[] png = createPng(2048, 1024);
+
+        Map<ImageVariant, byte[]> variants = imageTranscoder.transcode(png).getVariants();
+
+        assertEquals(ImageVariant.values().length, variants.size());
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(variants.get(variant)));
+            assertNotNull(decoded, "Variant should be a decodable JPEG: " + variant);
+            assertEquals(variant.getMaxDimension(), decoded.getWidth());
+            assertEquals(variant.getMaxDimension() / 2, decoded.getHeight());
+        }
+    }
+
+    @Test
+    void transcode_shouldNotUpscaleSmallImages() throws IOException {
+        byte[] png = createPng(100, 80);
+
+        Map<ImageVariant, byte[]> variants = imageTranscoder.transcode(png).getVariants();
+
+        BufferedImage full = ImageIO.read(new ByteArrayInputStream(variants.get(ImageVariant.FULL)));
+        assertEquals(100, full.getWidth());
+        assertEquals(80, full.getHeight());
+    }
+
+    @Test
+    void transcode_shouldProduceBlurHashPlaceholder() throws IOException {
+        byte[] png = createPng(640, 480);
+
+        String blurHash = imageTranscoder.transcode(png).getBlurHash();
+
+        // 1 size flag + 1 max AC + 4 DC + 2 per AC component (4x3 - 1)
+        assertNotNull(blurHash);
+        assertEquals(28, blurHash.length());
+    }
+
+    @Test
+    void transcodeAsync_shouldFail_whenImageCannotBeDecoded() {
+        CompletableFuture<TranscodedImage> future =
+                imageTranscoder.transcodeAsync("not an image".getBytes());
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(IOException.class, exception.getCause().getCause());
+    }
+
+    @Test
+    void transcodeAsync_shouldFail_whenPoolIsSaturated() {
+        ImageTranscoder saturated = new ImageTranscoder(task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+
+        CompletableFuture<TranscodedImage> future = saturated.transcodeAsync(new byte[0]);
+
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    private byte[] createPng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x += 8) {
+            for (int y = 0; y < height; y += 8) {
+                image.setRGB(x, y, 0xFF336699);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,117 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.domain.model.image.StoredImage;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.repository.image.IStoredImageRepo;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeImageReuseServiceTest {
+
+    @Mock
+    private IRecipeRepo recipeRepo;
+
+    @Mock
+    private IStoredImageRepo storedImageRepo;
+
+    private RecipeImageReuseService reuseService;
+    private RecipeReadDto recipeDto;
+
+    @BeforeEach
+    void setUp() {
+        reuseService = new RecipeImageReuseService(recipeRepo, storedImageRepo, true, 0.85, 3600000L);
+        recipeDto = new RecipeReadDto();
+        recipeDto.setId(UUID.randomUUID());
+        recipeDto.setName("Chicken Curry");
+        recipeDto.setIngredientKey("chicken_curry");
+    }
+
+    @Test
+    void findReusableImage_prefersIngredientKeyMatch() {
+        Recipe donor = new Recipe();
+        donor.setImageUrl("https://s3.example.com/full.jpg");
+        donor.setThumbnailImageUrl("https://s3.example.com/thumb.jpg");
+        when(recipeRepo.findRecipeWithImageByIngredientKey("chicken_curry", recipeDto.getId()))
+                .thenReturn(Optional.of(donor));
+
+        Optional<RecipeImageUrls> result = reuseService.findReusableImage(recipeDto);
+
+        assertTrue(result.isPresent());
+        assertEquals("https://s3.example.com/full.jpg", result.get().getImageUrl());
+        assertEquals("https://s3.example.com/thumb.jpg", result.get().getThumbnailImageUrl());
+        verify(recipeRepo, never()).findSimilarRecipeWithImage(anyString(), any(), anyDouble());
+    }
+
+    @Test
+    void findReusableImage_fallsBackToNameSimilarity() {
+        Recipe donor = new Recipe();
+        donor.setImageUrl("https://s3.example.com/similar.jpg");
+        when(recipeRepo.findRecipeWithImageByIngredientKey("chicken_curry", recipeDto.getId()))
+                .thenReturn(Optional.empty());
+        when(recipeRepo.findSimilarRecipeWithImage("Chicken Curry", recipeDto.getId(), 0.85))
+                .thenReturn(Optional.of(donor));
+
+        Optional<RecipeImageUrls> result = reuseService.findReusableImage(recipeDto);
+
+        assertEquals("https://s3.example.com/similar.jpg", result.orElseThrow().getImageUrl());
+    }
+
+    @Test
+    void findReusableImage_returnsEmpty_whenDisabled() {
+        reuseService = new RecipeImageReuseService(recipeRepo, storedImageRepo, false, 0.85, 3600000L);
+
+        assertTrue(reuseService.findReusableImage(recipeDto).isEmpty());
+        verifyNoInteractions(recipeRepo);
+    }
+
+    @Test
+    void findByContent_dropsEntry_whenImageNoLongerReferenced() {
+        StoredImage storedImage = new StoredImage();
+        storedImage.setContentHash("abc");
+        storedImage.setImageUrl("https://s3.example.com/deleted.jpg");
+        storedImage.setCreatedAt(Instant.now().minus(2, ChronoUnit.HOURS));
+        when(storedImageRepo.findByContentHash("abc")).thenReturn(Optional.of(storedImage));
+        when(recipeRepo.countRecipesByImageUrl("https://s3.example.com/deleted.jpg")).thenReturn(0L);
+
+        assertTrue(reuseService.findByContent("abc").isEmpty());
+        verify(storedImageRepo).deleteByContentHash("abc");
+    }
+
+    @Test
+    void findByContent_keepsRecentEntry_whoseUrlIsNotStoredYet() {
+        StoredImage storedImage = new StoredImage();
+        storedImage.setContentHash("abc");
+        storedImage.setImageUrl("https://s3.example.com/pending.jpg");
+        storedImage.setCreatedAt(Instant.now().minus(1, ChronoUnit.MINUTES));
+        when(storedImageRepo.findByContentHash("abc")).thenReturn(Optional.of(storedImage));
+
+        assertEquals("https://s3.example.com/pending.jpg", reuseService.findByContent("abc").orElseThrow().getImageUrl());
+        verify(storedImageRepo, never()).deleteByContentHash(anyString());
+        verifyNoInteractions(recipeRepo);
+    }
+
+    @Test
+    void contentHash_isStableSha256Hex() {
+        String hash = reuseService.contentHash("image".getBytes());
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, reuseService.contentHash("image".getBytes()));
+        assertNotEquals(hash, reuseService.contentHash("other".getBytes()));
+    }
+}
@@ -3,28 +3,37 @@ package com.lamngo.mealsync.application.service.AI;
 import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
 import com.lamngo.mealsync.application.event.ImageGeneratedEvent;
 import com.lamngo.mealsync.application.service.AWS.S3Service;
+import com.lamngo.mealsync.domain.model.image.ImageJob;
+import com.lamngo.mealsync.domain.model.image.ImageJobStatus;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.repository.image.IImageJobRepo;
 import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import com.lamngo.mealsync.presentation.error.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +48,15 @@ class RecipeImageServiceTest {
     @Mock
     private S3Service s3Service;
 
+    @Mock
+    private ImageTranscoder imageTranscoder;
+
+    @Mock
+    private RecipeImageReuseService imageReuseService;
+
+    @Mock
+    private IImageJobRepo imageJobRepo;
+
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
@@ -48,7 +66,9 @@ class RecipeImageServiceTest {
     @Mock
     private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
+    @Mock
+    private RecipeImageUrlWriter imageUrlWriter;
+
     private RecipeImageService recipeImageService;
 
     private RecipeReadDto recipeDto;
@@ -56,10 +76,10 @@ class RecipeImageServiceTest {
 
     @BeforeEach
     void setUp() {
-        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
         recipeImageService = new RecipeImageService(
-                recipeRepo, geminiImageApiClient, s3Service, 
-                eventPublisher, promptLoader, transactionManager);
+                recipeRepo, geminiImageApiClient, s3Service, imageTranscoder, imageReuseService,
+                imageJobRepo, eventPublisher, promptLoader, transactionManager, imageUrlWriter, Runnable::run,
+                600000L, 3600000L);
 
         recipeDto = new RecipeReadDto();
         recipeDto.setId(UUID.randomUUID());
@@ -73,149 +93,410 @@ class RecipeImageServiceTest {
     }
 
     @Test
-    void generateImagesForRecipes_shouldReturnCompletedFuture_whenListIsEmpty() {
+    void enqueueImagesForRecipes_shouldDoNothing_whenListIsEmpty() {
+        // When
+        recipeImageService.enqueueImagesForRecipes(List.of());
+
+        // Then
+        verifyNoInteractions(recipeRepo, imageJobRepo, geminiImageApiClient);
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldDoNothing_whenRecipesAlreadyHaveImages() {
         // Given
-        List<RecipeReadDto> emptyList = List.of();
+        recipeDto.setImageUrl("https://example.com/image.jpg");
 
         // When
-        CompletableFuture<Void> future = recipeImageService.generateImagesForRecipes(emptyList);
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
 
         // Then
-        assertNotNull(future);
-        assertTrue(future.isDone());
-        verify(geminiImageApiClient, never()).callGeminiAPISingleAsync(anyString());
+        verifyNoInteractions(imageJobRepo, geminiImageApiClient);
     }
 
     @Test
-    void generateImagesForRecipes_shouldReturnCompletedFuture_whenRecipesAlreadyHaveImages() {
+    void enqueueImagesForRecipes_shouldCreateJob_whenRecipeNeedsImage() {
         // Given
-        recipeDto.setImageUrl("https://example.com/image.jpg");
-        List<RecipeReadDto> recipes = List.of(recipeDto);
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.empty());
 
         // When
-        CompletableFuture<Void> future = recipeImageService.generateImagesForRecipes(recipes);
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
 
         // Then
-        assertNotNull(future);
+        ArgumentCaptor<ImageJob> jobCaptor = ArgumentCaptor.forClass(ImageJob.class);
+        verify(imageJobRepo).save(jobCaptor.capture());
+        assertEquals(recipeDto.getId(), jobCaptor.getValue().getRecipeId());
+        assertEquals(ImageJobStatus.PENDING, jobCaptor.getValue().getStatus());
         verify(geminiImageApiClient, never()).callGeminiAPISingleAsync(anyString());
     }
 
     @Test
-    void generateImagesForRecipes_shouldGenerateImages_whenRecipesNeedImages() {
+    void enqueueImagesForRecipes_shouldSkipRecipeAlreadyInFlight() {
+        // Given
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.empty());
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // When - a second viewer asks for the same recipe
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then
+        verify(recipeRepo, times(1)).getRecipesByIds(anyList());
+        verify(imageJobRepo, times(1)).save(any(ImageJob.class));
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldRequeue_afterImageEventClearsInFlight() {
+        // Given
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.empty());
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // When
+        recipeImageService.onImageGenerated(new ImageGeneratedEvent(
+                this, recipeDto.getId(), recipeDto.getName(), null, false, "failed"));
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then
+        verify(recipeRepo, times(2)).getRecipesByIds(anyList());
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldNotDuplicateQueuedJob() {
+        // Given
+        ImageJob existing = new ImageJob();
+        existing.setRecipeId(recipeDto.getId());
+        existing.setStatus(ImageJobStatus.RUNNING);
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.of(existing));
+
+        // When
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then
+        verify(imageJobRepo, never()).save(any(ImageJob.class));
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldNotReviveRecentlyDeadJob() {
+        // Given
+        ImageJob dead = new ImageJob();
+        dead.setRecipeId(recipeDto.getId());
+        dead.setStatus(ImageJobStatus.DEAD);
+        dead.setAttempts(5);
+        dead.setDeadAt(Instant.now().minusSeconds(60));
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.of(dead));
+
+        // When
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then
+        verify(imageJobRepo, never()).save(any(ImageJob.class));
+        assertEquals(ImageJobStatus.DEAD, dead.getStatus());
+    }
+
+    @Test
+    void hasGivenUp_shouldOnlyHoldForDeadJobsInTheirCooldown() {
+        ImageJob dead = new ImageJob();
+        dead.setRecipeId(recipeDto.getId());
+        dead.setStatus(ImageJobStatus.DEAD);
+        dead.setDeadAt(Instant.now().minusSeconds(60));
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.of(dead));
+
+        assertTrue(recipeImageService.hasGivenUp(recipeDto.getId()));
+
+        dead.setDeadAt(Instant.now().minusSeconds(7200));
+        assertFalse(recipeImageService.hasGivenUp(recipeDto.getId()));
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldReviveDeadJobAfterCooldownKeepingHistory() {
+        // Given
+        ImageJob dead = new ImageJob();
+        dead.setRecipeId(recipeDto.getId());
+        dead.setStatus(ImageJobStatus.DEAD);
+        dead.setAttempts(5);
+        dead.setLastError("boom");
+        dead.setDeadAt(Instant.now().minusSeconds(7200));
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.of(dead));
+
+        // When
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then
+        verify(imageJobRepo).save(dead);
+        assertEquals(ImageJobStatus.PENDING, dead.getStatus());
+        // A single further attempt: the worker dead-letters it again if that one fails
+        assertEquals(5, dead.getAttempts());
+        assertEquals("boom", dead.getLastError());
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldPublishStoredImage_whenDtoIsStale() {
+        // Given
+        recipe.setImageUrl("https://s3.example.com/already.jpg");
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+
+        // When
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then
+        ArgumentCaptor<ImageGeneratedEvent> eventCaptor = ArgumentCaptor.forClass(ImageGeneratedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertTrue(eventCaptor.getValue().isSuccess());
+        assertEquals("https://s3.example.com/already.jpg", eventCaptor.getValue().getImageUrl());
+        verifyNoInteractions(imageJobRepo);
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldReuseImage_whenEquivalentRecipeHasImage() {
+        // Given
+        RecipeImageUrls existing = new RecipeImageUrls(
+                "https://s3.example.com/full.jpg", "https://s3.example.com/card.jpg", "https://s3.example.com/thumb.jpg",
+                "LKO2?U%2Tw=w]~RBVZRi};RPxuwH");
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageReuseService.findReusableImage(recipeDto)).thenReturn(Optional.of(existing));
+        when(imageUrlWriter.submit(recipeDto.getId(), recipeDto.getName(), existing))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then
+        verify(imageUrlWriter).submit(recipeDto.getId(), recipeDto.getName(), existing);
+        verifyNoInteractions(imageJobRepo, geminiImageApiClient);
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldQueueJob_whenReusedImageCannotBeStored() {
+        // Given
+        RecipeImageUrls existing = RecipeImageUrls.originalOnly("https://s3.example.com/full.jpg");
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageReuseService.findReusableImage(recipeDto)).thenReturn(Optional.of(existing));
+        when(imageUrlWriter.submit(recipeDto.getId(), recipeDto.getName(), existing))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("db down")));
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.empty());
+
+        // When
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then
+        verify(imageJobRepo).save(any(ImageJob.class));
+    }
+
+    @Test
+    void enqueueImagesForRecipes_shouldNotWaitForReusedImageToBeStored() {
+        // Given
+        RecipeImageUrls existing = RecipeImageUrls.originalOnly("https://s3.example.com/full.jpg");
+        CompletableFuture<Void> write = new CompletableFuture<>();
+        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe));
+        when(imageReuseService.findReusableImage(recipeDto)).thenReturn(Optional.of(existing));
+        when(imageUrlWriter.submit(recipeDto.getId(), recipeDto.getName(), existing)).thenReturn(write);
+
+        // When
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+        recipeImageService.enqueueImagesForRecipes(List.of(recipeDto));
+
+        // Then - returned with the write pending, and the recipe counts as in flight meanwhile
+        verify(imageUrlWriter, times(1)).submit(recipeDto.getId(), recipeDto.getName(), existing);
+        verifyNoInteractions(imageJobRepo);
+
+        // When the write fails, a generation job is queued instead
+        when(imageJobRepo.findByRecipeId(recipeDto.getId())).thenReturn(Optional.empty());
+        write.completeExceptionally(new RuntimeException("db down"));
+
+        verify(imageJobRepo).save(any(ImageJob.class));
+    }
+
+    @Test
+    void generateImage_shouldStoreImageThroughWriter() {
         // Given
         String base64Image = Base64.getEncoder().encodeToString("fake image data".getBytes());
         String imageUrl = "https://s3.example.com/image.jpg";
         
-        CompletableFuture<String> imageFuture = CompletableFuture.completedFuture(base64Image);
-        
         when(promptLoader.loadAndFormatPrompt(anyString(), any())).thenReturn("test prompt");
-        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString())).thenReturn(imageFuture);
-        when(s3Service.uploadImage(any(byte[].class), anyString())).thenReturn(imageUrl);
-        when(recipeRepo.getRecipeById(any(UUID.class))).thenReturn(Optional.of(recipe));
-        when(recipeRepo.saveRecipe(any(Recipe.class))).thenReturn(recipe);
-
-        List<RecipeReadDto> recipes = List.of(recipeDto);
+        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(base64Image));
+        when(imageTranscoder.transcodeAsync(any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Unsupported image format")));
+        when(s3Service.uploadImageAsync(any(byte[].class), anyString())).thenReturn(CompletableFuture.completedFuture(imageUrl));
+        when(imageUrlWriter.submit(eq(recipeDto.getId()), anyString(), any(RecipeImageUrls.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         // When
-        CompletableFuture<Void> future = recipeImageService.generateImagesForRecipes(recipes);
+        recipeImageService.generateImage(recipeDto).join();
 
         // Then
-        assertNotNull(future);
-        // Wait for async operations
-        future.join();
-        
         verify(geminiImageApiClient, times(1)).callGeminiAPISingleAsync(anyString());
-        verify(s3Service, times(1)).uploadImage(any(byte[].class), anyString());
-        verify(recipeRepo, times(1)).getRecipeById(any(UUID.class));
-        verify(recipeRepo, times(1)).saveRecipe(any(Recipe.class));
-        
-        ArgumentCaptor<ImageGeneratedEvent> eventCaptor = ArgumentCaptor.forClass(ImageGeneratedEvent.class);
-        verify(eventPublisher, atLeastOnce()).publishEvent(eventCaptor.capture());
+        verify(s3Service, times(1)).uploadImageAsync(any(byte[].class), anyString());
+        ArgumentCaptor<RecipeImageUrls> urlsCaptor = ArgumentCaptor.forClass(RecipeImageUrls.class);
+        verify(imageUrlWriter).submit(eq(recipeDto.getId()), eq(recipeDto.getName()), urlsCaptor.capture());
+        assertEquals(imageUrl, urlsCaptor.getValue().getImageUrl());
+        // Loading and saving the entity is left to the batching writer
+        verify(recipeRepo, never()).getRecipeById(any(UUID.class));
+        verify(recipeRepo, never()).saveRecipe(any(Recipe.class));
     }
 
     @Test
-    void generateImagesForRecipes_shouldPublishEvent_whenImageGenerationFails() {
+    void generateImage_shouldUploadVariants_whenTranscodeSucceeds() {
         // Given
-        CompletableFuture<String> failedFuture = new CompletableFuture<>();
-        failedFuture.completeExceptionally(new RuntimeException("Image generation failed"));
-        
-        when(promptLoader.loadAndFormatPrompt(anyString(), any())).thenReturn("test prompt");
-        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString())).thenReturn(failedFuture);
+        String base64Image = Base64.getEncoder().encodeToString("fake image data".getBytes());
+        Map<ImageVariant, byte[]> variants = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.values()) {
+            variants.put(variant, variant.getSuffix().getBytes());
+        }
 
-        List<RecipeReadDto> recipes = List.of(recipeDto);
+        when(promptLoader.loadAndFormatPrompt(anyString(), any())).thenReturn("test prompt");
+        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(base64Image));
+        when(imageTranscoder.transcodeAsync(any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(new TranscodedImage(variants, "LKO2?U%2Tw=w]~RBVZRi};RPxuwH")));
+        when(s3Service.uploadObjectAsync(anyString(), any(byte[].class), eq("image/jpeg")))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        "https://s3.example.com/" + invocation.getArgument(0, String.class)));
+        when(imageUrlWriter.submit(eq(recipeDto.getId()), anyString(), any(RecipeImageUrls.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         // When
-        CompletableFuture<Void> future = recipeImageService.generateImagesForRecipes(recipes);
+        recipeImageService.generateImage(recipeDto).join();
 
         // Then
-        assertNotNull(future);
-        future.join();
-        
-        ArgumentCaptor<ImageGeneratedEvent> eventCaptor = ArgumentCaptor.forClass(ImageGeneratedEvent.class);
-        verify(eventPublisher, atLeastOnce()).publishEvent(eventCaptor.capture());
-        
-        ImageGeneratedEvent event = eventCaptor.getValue();
-        assertFalse(event.isSuccess());
-        assertNotNull(event.getErrorMessage());
+        verify(s3Service, times(3)).uploadObjectAsync(anyString(), any(byte[].class), eq("image/jpeg"));
+        verify(s3Service, never()).uploadImageAsync(any(byte[].class), anyString());
+        ArgumentCaptor<RecipeImageUrls> urlsCaptor = ArgumentCaptor.forClass(RecipeImageUrls.class);
+        verify(imageUrlWriter).submit(eq(recipeDto.getId()), anyString(), urlsCaptor.capture());
+        RecipeImageUrls stored = urlsCaptor.getValue();
+        assertTrue(stored.getImageUrl().endsWith("-full.jpg"));
+        assertTrue(stored.getCardImageUrl().endsWith("-card.jpg"));
+        assertTrue(stored.getThumbnailImageUrl().endsWith("-thumb.jpg"));
+        assertEquals("LKO2?U%2Tw=w]~RBVZRi};RPxuwH", stored.getBlurHash());
     }
 
     @Test
-    void generateImagesForRecipes_shouldPublishEvent_whenS3UploadFails() {
+    void generateImage_shouldDeleteUploadedVariants_whenAnotherVariantFails() {
         // Given
         String base64Image = Base64.getEncoder().encodeToString("fake image data".getBytes());
-        CompletableFuture<String> imageFuture = CompletableFuture.completedFuture(base64Image);
-        
+        String imageUrl = "https://s3.example.com/image.png";
+        Map<ImageVariant, byte[]> variants = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.values()) {
+            variants.put(variant, variant.getSuffix().getBytes());
+        }
+
         when(promptLoader.loadAndFormatPrompt(anyString(), any())).thenReturn("test prompt");
-        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString())).thenReturn(imageFuture);
-        when(s3Service.uploadImage(any(byte[].class), anyString())).thenReturn(null);
+        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(base64Image));
+        when(imageTranscoder.transcodeAsync(any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(new TranscodedImage(variants, "LKO2?U%2Tw=w]~RBVZRi};RPxuwH")));
+        when(s3Service.uploadObjectAsync(anyString(), any(byte[].class), eq("image/jpeg")))
+                .thenAnswer(invocation -> {
+                    String key = invocation.getArgument(0, String.class);
+                    return key.endsWith("-card.jpg")
+                            ? CompletableFuture.failedFuture(new RuntimeException("Failed to upload image"))
+                            : CompletableFuture.completedFuture("https://s3.example.com/" + key);
+                });
+        when(s3Service.deleteObjects(anyList())).thenReturn(Map.of());
+        when(s3Service.uploadImageAsync(any(byte[].class), anyString())).thenReturn(CompletableFuture.completedFuture(imageUrl));
+        when(imageUrlWriter.submit(eq(recipeDto.getId()), anyString(), any(RecipeImageUrls.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
-        List<RecipeReadDto> recipes = List.of(recipeDto);
+        // When
+        recipeImageService.generateImage(recipeDto).join();
+
+        // Then
+        ArgumentCaptor<List<String>> deletedKeys = ArgumentCaptor.forClass(List.class);
+        verify(s3Service, timeout(1000)).deleteObjects(deletedKeys.capture());
+        assertEquals(2, deletedKeys.getValue().size());
+        assertTrue(deletedKeys.getValue().stream().noneMatch(key -> key.endsWith("-card.jpg")));
+        ArgumentCaptor<RecipeImageUrls> urlsCaptor = ArgumentCaptor.forClass(RecipeImageUrls.class);
+        verify(imageUrlWriter).submit(eq(recipeDto.getId()), anyString(), urlsCaptor.capture());
+        assertEquals(imageUrl, urlsCaptor.getValue().getImageUrl());
+    }
+
+    @Test
+    void generateImage_shouldSkipUpload_whenIdenticalBytesAlreadyStored() {
+        // Given
+        String base64Image = Base64.getEncoder().encodeToString("fake image data".getBytes());
+        RecipeImageUrls existing = RecipeImageUrls.originalOnly("https://s3.example.com/existing.png");
+        when(promptLoader.loadAndFormatPrompt(anyString(), any())).thenReturn("test prompt");
+        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(base64Image));
+        when(imageReuseService.contentHash(any(byte[].class))).thenReturn("abc123");
+        when(imageReuseService.findByContent("abc123")).thenReturn(Optional.of(existing));
+        when(imageUrlWriter.submit(recipeDto.getId(), recipeDto.getName(), existing))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         // When
-        CompletableFuture<Void> future = recipeImageService.generateImagesForRecipes(recipes);
+        recipeImageService.generateImage(recipeDto).join();
 
         // Then
-        assertNotNull(future);
-        future.join();
-        
-        ArgumentCaptor<ImageGeneratedEvent> eventCaptor = ArgumentCaptor.forClass(ImageGeneratedEvent.class);
-        verify(eventPublisher, atLeastOnce()).publishEvent(eventCaptor.capture());
-        
-        ImageGeneratedEvent event = eventCaptor.getValue();
-        assertFalse(event.isSuccess());
+        verify(imageTranscoder, never()).transcodeAsync(any(byte[].class));
+        verify(s3Service, never()).uploadImageAsync(any(byte[].class), anyString());
+        verify(imageReuseService, never()).recordContent(anyString(), any());
+        verify(imageUrlWriter).submit(recipeDto.getId(), recipeDto.getName(), existing);
+    }
+
+    @Test
+    void generateImage_shouldFailWithoutEvent_whenImageGenerationFails() {
+        // Given
+        when(promptLoader.loadAndFormatPrompt(anyString(), any())).thenReturn("test prompt");
+        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Image generation failed")));
+
+        // When/Then
+        CompletableFuture<Void> future = recipeImageService.generateImage(recipeDto);
+        assertThrows(CompletionException.class, future::join);
+        // The worker decides between retry and dead letter; no failure event per attempt
+        verifyNoInteractions(eventPublisher, imageUrlWriter);
     }
 
     @Test
-    void generateImagesForRecipes_shouldPublishEvent_whenRecipeNotFound() {
+    void generateImage_shouldFail_whenS3UploadFails() {
         // Given
         String base64Image = Base64.getEncoder().encodeToString("fake image data".getBytes());
-        String imageUrl = "https://s3.example.com/image.jpg";
-        CompletableFuture<String> imageFuture = CompletableFuture.completedFuture(base64Image);
-        
         when(promptLoader.loadAndFormatPrompt(anyString(), any())).thenReturn("test prompt");
-        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString())).thenReturn(imageFuture);
-        when(s3Service.uploadImage(any(byte[].class), anyString())).thenReturn(imageUrl);
-        when(recipeRepo.getRecipeById(any(UUID.class))).thenReturn(Optional.empty());
+        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(base64Image));
+        when(imageTranscoder.transcodeAsync(any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Unsupported image format")));
+        when(s3Service.uploadImageAsync(any(byte[].class), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When/Then
+        CompletableFuture<Void> future = recipeImageService.generateImage(recipeDto);
+        assertThrows(CompletionException.class, future::join);
+        verifyNoInteractions(eventPublisher, imageUrlWriter);
+    }
 
-        List<RecipeReadDto> recipes = List.of(recipeDto);
+    @Test
+    void generateImage_shouldFail_whenWriterFails() {
+        // Given
+        String base64Image = Base64.getEncoder().encodeToString("fake image data".getBytes());
+        String imageUrl = "https://s3.example.com/image.jpg";
+        when(promptLoader.loadAndFormatPrompt(anyString(), any())).thenReturn("test prompt");
+        when(geminiImageApiClient.callGeminiAPISingleAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(base64Image));
+        when(imageTranscoder.transcodeAsync(any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Unsupported image format")));
+        when(s3Service.uploadImageAsync(any(byte[].class), anyString())).thenReturn(CompletableFuture.completedFuture(imageUrl));
+        when(imageUrlWriter.submit(eq(recipeDto.getId()), anyString(), any(RecipeImageUrls.class)))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceNotFoundException("Recipe not found")));
+
+        // When/Then
+        CompletableFuture<Void> future = recipeImageService.generateImage(recipeDto);
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(ResourceNotFoundException.class, exception.getCause());
+    }
 
+    @Test
+    void publishImageFailure_shouldPublishFailureEvent() {
         // When
-        CompletableFuture<Void> future = recipeImageService.generateImagesForRecipes(recipes);
+        recipeImageService.publishImageFailure(recipeDto, "Image generation failed: boom");
 
         // Then
-        assertNotNull(future);
-        future.join();
-        
         ArgumentCaptor<ImageGeneratedEvent> eventCaptor = ArgumentCaptor.forClass(ImageGeneratedEvent.class);
-        verify(eventPublisher, atLeastOnce()).publishEvent(eventCaptor.capture());
-        
-        // Check all captured events - there should be at least one failure event
-        // Note: The implementation publishes both a failure event (when recipe not found)
-        // and a success event (after transaction), so we check that a failure event exists
-        List<ImageGeneratedEvent> allEvents = eventCaptor.getAllValues();
-        boolean hasFailureEvent = allEvents.stream()
-                .anyMatch(e -> !e.isSuccess() && "Recipe not found".equals(e.getErrorMessage()));
-        assertTrue(hasFailureEvent, "Should have published a failure event when recipe is not found");
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertFalse(eventCaptor.getValue().isSuccess());
+        assertEquals("Image generation failed: boom", eventCaptor.getValue().getErrorMessage());
     }
 }
-
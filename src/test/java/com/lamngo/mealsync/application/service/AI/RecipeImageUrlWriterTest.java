@@ -0,0 +1,161 @@
+package com.lamngo.mealsync.application.service.AI;
+
+import com.lamngo.mealsync.application.event.ImageGeneratedEvent;
+import com.lamngo.mealsync.domain.model.recipe.RecipeImageUpdate;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import com.lamngo.mealsync.presentation.error.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeImageUrlWriterTest {
+
+    @Mock
+    private IRecipeRepo recipeRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RecipeImageUrlWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        // Long interval so only the explicit flush() calls below write
+        writer = new RecipeImageUrlWriter(recipeRepo, eventPublisher, transactionManager,
+                new SimpleMeterRegistry(), 100, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldStoreAllPendingImagesInOneUpdate() {
+        // Given
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(recipeRepo.updateImageUrls(anyList())).thenReturn(Set.of(first, second));
+        CompletableFuture<Void> firstFuture = writer.submit(first, "First", urls("first"));
+        CompletableFuture<Void> secondFuture = writer.submit(second, "Second", urls("second"));
+
+        // When
+        writer.flush();
+
+        // Then
+        ArgumentCaptor<List<RecipeImageUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(recipeRepo, times(1)).updateImageUrls(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals("https://s3.example.com/first-full.jpg", captor.getValue().get(0).getImageUrl());
+        assertEquals("LKO2?U%2Tw=w]~RBVZRi};RPxuwH", captor.getValue().get(0).getImageBlurHash());
+        assertDoesNotThrow(() -> firstFuture.join());
+        assertDoesNotThrow(() -> secondFuture.join());
+        verify(eventPublisher, times(2)).publishEvent(any(ImageGeneratedEvent.class));
+    }
+
+    @Test
+    void flush_shouldPublishEventsAfterTheUpdate() {
+        // Given
+        UUID recipeId = UUID.randomUUID();
+        when(recipeRepo.updateImageUrls(anyList())).thenReturn(Set.of(recipeId));
+        writer.submit(recipeId, "Recipe", urls("recipe"));
+
+        // When
+        writer.flush();
+
+        // Then
+        InOrder inOrder = inOrder(recipeRepo, eventPublisher);
+        inOrder.verify(recipeRepo).updateImageUrls(anyList());
+        ArgumentCaptor<ImageGeneratedEvent> eventCaptor = ArgumentCaptor.forClass(ImageGeneratedEvent.class);
+        inOrder.verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertTrue(eventCaptor.getValue().isSuccess());
+        assertEquals(recipeId, eventCaptor.getValue().getRecipeId());
+        assertEquals("https://s3.example.com/recipe-thumb.jpg", eventCaptor.getValue().getThumbnailImageUrl());
+    }
+
+    @Test
+    void flush_shouldFailOnlyMissingRecipes() {
+        // Given
+        UUID existing = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        when(recipeRepo.updateImageUrls(anyList())).thenReturn(Set.of(existing));
+        CompletableFuture<Void> existingFuture = writer.submit(existing, "Existing", urls("existing"));
+        CompletableFuture<Void> deletedFuture = writer.submit(deleted, "Deleted", urls("deleted"));
+
+        // When
+        writer.flush();
+
+        // Then
+        assertDoesNotThrow(() -> existingFuture.join());
+        CompletionException exception = assertThrows(CompletionException.class, deletedFuture::join);
+        assertInstanceOf(ResourceNotFoundException.class, exception.getCause());
+        verify(eventPublisher, times(1)).publishEvent(any(ImageGeneratedEvent.class));
+    }
+
+    @Test
+    void flush_shouldFailWholeBatchWithoutEvents_whenUpdateFails() {
+        // Given
+        when(recipeRepo.updateImageUrls(anyList())).thenThrow(new RuntimeException("connection refused"));
+        CompletableFuture<Void> future = writer.submit(UUID.randomUUID(), "Recipe", urls("recipe"));
+
+        // When
+        writer.flush();
+
+        // Then
+        assertThrows(CompletionException.class, future::join);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldKeepLastWrite_whenRecipeAppearsTwice() {
+        // Given
+        UUID recipeId = UUID.randomUUID();
+        when(recipeRepo.updateImageUrls(anyList())).thenReturn(Set.of(recipeId));
+        CompletableFuture<Void> first = writer.submit(recipeId, "Recipe", urls("old"));
+        CompletableFuture<Void> second = writer.submit(recipeId, "Recipe", urls("new"));
+
+        // When
+        writer.flush();
+
+        // Then
+        ArgumentCaptor<List<RecipeImageUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(recipeRepo).updateImageUrls(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("https://s3.example.com/new-full.jpg", captor.getValue().get(0).getImageUrl());
+        assertDoesNotThrow(() -> first.join());
+        assertDoesNotThrow(() -> second.join());
+    }
+
+    private RecipeImageUrls urls(String name) {
+        return new RecipeImageUrls(
+                "https://s3.example.com/" + name + "-full.jpg",
+                "https://s3.example.com/" + name + "-card.jpg",
+                "https://s3.example.com/" + name + "-thumb.jpg",
+                "LKO2?U%2Tw=w]~RBVZRi};RPxuwH");
+    }
+}
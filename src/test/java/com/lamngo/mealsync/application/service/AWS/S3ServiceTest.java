@@ -1,11 +1,15 @@
 package com.lamngo.mealsync.application.service.AWS;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
@@ -13,6 +17,12 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -20,18 +30,27 @@ import static org.mockito.Mockito.*;
 class S3ServiceTest {
     @Mock
     private S3Client s3Client;
+    @Mock
+    private S3AsyncClient s3AsyncClient;
     private S3Service s3Service;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         // Provide dummy AWS values for region, accessKeyId, secretAccessKey
-        s3Service = new S3Service("us-east-1", "dummy-key", "dummy-secret");
+        s3Service = new S3Service("us-east-1", "dummy-key", "dummy-secret",
+                2, 8 * 1024 * 1024, 8 * 1024 * 1024, new SimpleMeterRegistry());
         // Set bucketName and region via reflection since they're injected by @Value
         ReflectionTestUtils.setField(s3Service, "bucketName", "test-bucket");
         ReflectionTestUtils.setField(s3Service, "region", "us-east-1");
         // Inject mock s3Client
         ReflectionTestUtils.setField(s3Service, "s3Client", s3Client);
+        ReflectionTestUtils.setField(s3Service, "s3AsyncClient", s3AsyncClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Service.shutdown();
     }
 
     @Test
@@ -66,6 +85,77 @@ class S3ServiceTest {
         assertTrue(exception.getMessage().contains("Failed to upload image"));
     }
 
+    @Test
+    void uploadImageAsync_success() {
+        byte[] imageBytes = new byte[]{1, 2, 3};
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+
+        String resultUrl = s3Service.uploadImageAsync(imageBytes, "test.png").join();
+
+        assertTrue(resultUrl.startsWith("https://test-bucket.s3.us-east-1.amazonaws.com/recipes/"));
+        assertTrue(resultUrl.endsWith(".png"));
+        verify(s3AsyncClient).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void uploadImageAsync_s3Exception() {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("S3 error").build()));
+
+        CompletionException exception = assertThrows(CompletionException.class, () ->
+                s3Service.uploadImageAsync(new byte[]{1, 2, 3}, "test.png").join());
+        assertTrue(exception.getCause().getMessage().contains("Failed to upload image"));
+    }
+
+    @Test
+    void uploadImageAsync_queuesUploadsBeyondConcurrencyLimit() {
+        CompletableFuture<PutObjectResponse> first = new CompletableFuture<>();
+        CompletableFuture<PutObjectResponse> second = new CompletableFuture<>();
+        CompletableFuture<PutObjectResponse> third = new CompletableFuture<>();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(first, second, third);
+
+        CompletableFuture<String> upload1 = s3Service.uploadImageAsync(new byte[]{1}, "one.png");
+        CompletableFuture<String> upload2 = s3Service.uploadImageAsync(new byte[]{2}, "two.png");
+        CompletableFuture<String> upload3 = s3Service.uploadImageAsync(new byte[]{3}, "three.png");
+
+        // Limit is 2, so the third upload must wait for a slot
+        verify(s3AsyncClient, times(2)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+
+        first.complete(PutObjectResponse.builder().build());
+        verify(s3AsyncClient, timeout(1000).times(3)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+
+        second.complete(PutObjectResponse.builder().build());
+        third.complete(PutObjectResponse.builder().build());
+        assertNotNull(upload1.join());
+        assertNotNull(upload2.join());
+        assertNotNull(upload3.join());
+    }
+
+    @Test
+    void uploadImageAsync_startsQueuedUploadsFailingAtOnceWithoutRecursing() {
+        CompletableFuture<PutObjectResponse> first = new CompletableFuture<>();
+        CompletableFuture<PutObjectResponse> second = new CompletableFuture<>();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(first, second)
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("S3 down")));
+
+        List<CompletableFuture<String>> uploads = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            uploads.add(s3Service.uploadImageAsync(new byte[]{1}, "image" + i + ".png"));
+        }
+        first.complete(PutObjectResponse.builder().build());
+        second.complete(PutObjectResponse.builder().build());
+
+        CompletableFuture.allOf(uploads.subList(2, uploads.size()).toArray(CompletableFuture[]::new))
+                .handle((ignored, throwable) -> null)
+                .orTimeout(10, TimeUnit.SECONDS)
+                .join();
+        assertTrue(uploads.stream().skip(2).allMatch(CompletableFuture::isCompletedExceptionally));
+    }
+
     @Test
     void deleteImage_success() {
         String imageUrl = "https://test-bucket.s3.us-east-1.amazonaws.com/recipes/test-image.png";
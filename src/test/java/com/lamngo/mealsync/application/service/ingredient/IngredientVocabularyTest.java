@@ -0,0 +1,163 @@
+package com.lamngo.mealsync.application.service.ingredient;
+
+import com.lamngo.mealsync.application.event.RecipeIngredientsChangedEvent;
+import com.lamngo.mealsync.domain.model.ingredient.CanonicalIngredient;
+import com.lamngo.mealsync.domain.repository.ingredient.ICanonicalIngredientRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IngredientVocabularyTest {
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    private ICanonicalIngredientRepo ingredientRepo;
+    private ApplicationEventPublisher eventPublisher;
+    private IngredientVocabulary vocabulary;
+
+    @BeforeEach
+    void setUp() {
+        ingredientRepo = mock(ICanonicalIngredientRepo.class);
+        when(ingredientRepo.findAllAfter(anyInt())).thenReturn(List.of());
+        when(ingredientRepo.findAllAliases()).thenReturn(List.of());
+        when(ingredientRepo.findUnresolvedIngredientNames(anyString(), anyInt())).thenReturn(Map.of());
+        when(ingredientRepo.insertIfAbsent(anyString(), anyInt())).thenAnswer(invocation ->
+                withId(new CanonicalIngredient(invocation.getArgument(0), invocation.getArgument(1))));
+        when(ingredientRepo.saveAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<CanonicalIngredient> ingredients = invocation.getArgument(0);
+            return ingredients.stream().map(IngredientVocabularyTest.this::withId).toList();
+        });
+        when(ingredientRepo.saveAlias(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        vocabulary = new IngredientVocabulary(ingredientRepo, mock(PlatformTransactionManager.class), eventPublisher,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void key_shouldIgnoreSpellingPreparationAndPlurals() {
+        assertEquals("cherry tomato", IngredientVocabulary.key(" Fresh Cherry-Tomatoes! "));
+        assertEquals("creme fraiche", IngredientVocabulary.key("Crème Fraîche"));
+        assertEquals("egg", IngredientVocabulary.key("Large EGGS"));
+        assertEquals("berry", IngredientVocabulary.key("berries"));
+        assertEquals("peach", IngredientVocabulary.key("peaches"));
+        assertEquals("bay leaf", IngredientVocabulary.key("bay leaves"));
+        assertEquals("couscous", IngredientVocabulary.key("couscous"));
+        assertEquals("fresh", IngredientVocabulary.key("Fresh"));
+        assertNull(IngredientVocabulary.key(" ,. "));
+        assertNull(IngredientVocabulary.key(null));
+    }
+
+    @Test
+    void onApplicationReady_shouldSeedIngredientsAndSynonymsAndBackfill() {
+        when(ingredientRepo.findUnresolvedIngredientNames("", 500)).thenReturn(Map.of("Tomatoes", 3L, "!!", 1L));
+        when(ingredientRepo.assignToIngredientNames(anyInt(), anyCollection())).thenReturn(3);
+
+        vocabulary.onApplicationReady();
+
+        // Listed twice in the seed file, stored once with its first frequency
+        ArgumentCaptor<Collection<CanonicalIngredient>> seeded = ArgumentCaptor.forClass(Collection.class);
+        verify(ingredientRepo).saveAll(seeded.capture());
+        List<CanonicalIngredient> sugar = seeded.getValue().stream()
+                .filter(ingredient -> ingredient.getName().equals("sugar"))
+                .toList();
+        assertEquals(1, sugar.size());
+        assertEquals(-1, sugar.get(0).getFrequency());
+
+        int greenOnion = vocabulary.idOf("Green Onions");
+        assertNotEquals(IngredientVocabulary.UNKNOWN, greenOnion);
+        assertEquals(greenOnion, vocabulary.idOf("scallions"));
+        assertEquals("green onion", vocabulary.nameOf(greenOnion));
+        verify(ingredientRepo).assignToIngredientNames(vocabulary.idOf("tomato"), List.of("Tomatoes"));
+    }
+
+    @Test
+    void backfill_shouldPublishTheRecipesWhoseIngredientsWereAssigned() {
+        UUID recipeId = UUID.randomUUID();
+        when(ingredientRepo.findUnresolvedIngredientNames("", 500)).thenReturn(Map.of("Saffron", 1L));
+        when(ingredientRepo.findRecipeIdsWithUnresolvedIngredientNames(List.of("Saffron"))).thenReturn(Set.of(recipeId));
+        when(ingredientRepo.assignToIngredientNames(anyInt(), anyCollection())).thenReturn(1);
+
+        vocabulary.backfill();
+
+        ArgumentCaptor<RecipeIngredientsChangedEvent> event = ArgumentCaptor.forClass(RecipeIngredientsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(recipeId), event.getValue().getRecipeIds());
+    }
+
+    @Test
+    void backfill_shouldPassOverNamesThatCannotBeResolved() {
+        Map<String, Long> unresolvable = new LinkedHashMap<>();
+        unresolvable.put("!!", 4L);
+        unresolvable.put("--", 2L);
+        when(ingredientRepo.findUnresolvedIngredientNames(anyString(), eq(500))).thenAnswer(invocation ->
+                switch ((String) invocation.getArgument(0)) {
+                    case "" -> unresolvable;
+                    case "--" -> Map.of("Saffron", 1L);
+                    default -> Map.of();
+                });
+
+        vocabulary.backfill();
+
+        verify(ingredientRepo).assignToIngredientNames(vocabulary.idOf("saffron"), List.of("Saffron"));
+        verify(ingredientRepo, times(3)).findUnresolvedIngredientNames(anyString(), anyInt());
+    }
+
+    @Test
+    void resolve_shouldCreateUnknownIngredientsOnce() {
+        int saffron = vocabulary.resolve("Saffron");
+
+        assertNotEquals(IngredientVocabulary.UNKNOWN, saffron);
+        assertEquals(saffron, vocabulary.resolve("saffron"));
+        assertEquals(saffron, vocabulary.idOf("SAFFRON"));
+        assertEquals(IngredientVocabulary.UNKNOWN, vocabulary.resolve("--"));
+        verify(ingredientRepo, times(1)).insertIfAbsent(anyString(), anyInt());
+    }
+
+    @Test
+    void resolve_shouldUseTheIngredientCreatedConcurrently() {
+        CanonicalIngredient existing = new CanonicalIngredient("sumac", 0);
+        existing.setId(42);
+        when(ingredientRepo.insertIfAbsent(eq("sumac"), anyInt())).thenReturn(existing);
+
+        assertEquals(42, vocabulary.resolve("Sumac"));
+        assertEquals("sumac", vocabulary.nameOf(42));
+    }
+
+    @Test
+    void resolve_shouldOnlyRememberIngredientCreatedInCallersTransactionAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            int saffron = vocabulary.resolve("Saffron");
+            assertEquals(IngredientVocabulary.UNKNOWN, vocabulary.idOf("saffron"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            assertEquals(saffron, vocabulary.idOf("saffron"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private CanonicalIngredient withId(CanonicalIngredient ingredient) {
+        ingredient.setId(nextId.getAndIncrement());
+        return ingredient;
+    }
+}
@@ -0,0 +1,55 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import com.lamngo.mealsync.application.event.ImageGeneratedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageEventReplayBufferTest {
+
+    @Test
+    void get_shouldReturnLatestEventForRecipe() {
+        ImageEventReplayBuffer buffer = new ImageEventReplayBuffer(new SimpleMeterRegistry(), 10, 600_000);
+        UUID recipeId = UUID.randomUUID();
+
+        buffer.onImageGenerated(event(recipeId, false, System.currentTimeMillis() - 1000));
+        buffer.onImageGenerated(event(recipeId, true, System.currentTimeMillis()));
+
+        assertTrue(buffer.get(recipeId).orElseThrow().isSuccess());
+    }
+
+    @Test
+    void get_shouldEvictOldestRecipe_whenFull() {
+        ImageEventReplayBuffer buffer = new ImageEventReplayBuffer(new SimpleMeterRegistry(), 2, 600_000);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+
+        buffer.onImageGenerated(event(first, true, now));
+        buffer.onImageGenerated(event(second, true, now));
+        buffer.onImageGenerated(event(third, true, now));
+
+        assertTrue(buffer.get(first).isEmpty());
+        assertTrue(buffer.get(second).isPresent());
+        assertTrue(buffer.get(third).isPresent());
+    }
+
+    @Test
+    void get_shouldIgnoreExpiredEvents() {
+        ImageEventReplayBuffer buffer = new ImageEventReplayBuffer(new SimpleMeterRegistry(), 10, 1000);
+        UUID recipeId = UUID.randomUUID();
+
+        buffer.onImageGenerated(event(recipeId, true, System.currentTimeMillis() - 5000));
+
+        assertTrue(buffer.get(recipeId).isEmpty());
+    }
+
+    private ImageGeneratedEvent event(UUID recipeId, boolean success, long timestamp) {
+        return new ImageGeneratedEvent(this, recipeId, "Recipe", success ? "https://example.com/image.jpg" : null,
+                null, null, null, success, success ? null : "Generation failed", timestamp);
+    }
+}
@@ -0,0 +1,94 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeFacetsDto;
+import com.lamngo.mealsync.application.event.RecipeFacetsChangedEvent;
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecipeFacetIndexTest {
+    private IRecipeRepo recipeRepo;
+    private RecipeFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepo = mock(IRecipeRepo.class);
+        when(recipeRepo.countByCuisine()).thenReturn(Map.of("italian", 2L, "thai", 1L));
+        when(recipeRepo.countByDifficulty()).thenReturn(Map.of("easy", 3L));
+        when(recipeRepo.countByTag()).thenReturn(Map.of("quick", 2L, "spicy", 1L));
+        Map<Integer, Long> totalTimes = new HashMap<>();
+        totalTimes.put(10, 1L);
+        totalTimes.put(45, 1L);
+        totalTimes.put(null, 1L);
+        when(recipeRepo.countByTotalTime()).thenReturn(totalTimes);
+        when(recipeRepo.countAllRecipes()).thenReturn(3L);
+        index = new RecipeFacetIndex(recipeRepo);
+        index.rebuild();
+    }
+
+    @Test
+    void getFacets_shouldListMostFrequentValuesFirst() {
+        RecipeFacetsDto facets = index.getFacets(20);
+
+        assertEquals(3, facets.getTotalRecipes());
+        assertEquals(List.of(new RecipeFacetsDto.ValueCount("italian", 2), new RecipeFacetsDto.ValueCount("thai", 1)),
+                facets.getCuisines());
+        assertEquals(List.of(new RecipeFacetsDto.ValueCount("italian", 2)), index.getFacets(1).getCuisines());
+        // Cumulative like maxTotalTime: 10 min counts everywhere, 45 min from the 60 bucket on
+        assertEquals(List.of(1L, 1L, 2L, 2L),
+                facets.getTotalTime().stream().map(RecipeFacetsDto.TimeBucketCount::getCount).toList());
+    }
+
+    @Test
+    void onFacetsChanged_shouldMoveCountsWithoutQuerying() {
+        clearInvocations(recipeRepo);
+
+        index.onFacetsChanged(new RecipeFacetsChangedEvent(this,
+                List.of(new RecipeFacets("Mexican", "Easy", List.of("Quick", "quick"), 20)),
+                List.of(new RecipeFacets("Thai", "easy", List.of("spicy"), 10))));
+        RecipeFacetsDto facets = index.getFacets(20);
+
+        assertEquals(3, facets.getTotalRecipes());
+        assertEquals(List.of(new RecipeFacetsDto.ValueCount("italian", 2), new RecipeFacetsDto.ValueCount("mexican", 1)),
+                facets.getCuisines());
+        // A tag counts once per recipe; a count at zero is no longer listed
+        assertEquals(List.of(new RecipeFacetsDto.ValueCount("quick", 3)), facets.getTags());
+        assertEquals(List.of(0L, 1L, 2L, 2L),
+                facets.getTotalTime().stream().map(RecipeFacetsDto.TimeBucketCount::getCount).toList());
+        verifyNoInteractions(recipeRepo);
+    }
+
+    @Test
+    void onFacetsChanged_shouldNotListValuesOnlyEverRemoved() {
+        index.onFacetsChanged(new RecipeFacetsChangedEvent(this, List.of(),
+                List.of(new RecipeFacets("French", null, List.of(), null))));
+
+        RecipeFacetsDto facets = index.getFacets(20);
+        assertEquals(2, facets.getTotalRecipes());
+        assertEquals(2, facets.getCuisines().size());
+    }
+
+    @Test
+    void facetCounter_shouldKeepCountsAcrossGrowth() {
+        FacetCounter counter = new FacetCounter(0);
+        for (int i = 0; i < 1000; i++) {
+            counter.add("tag-" + (i % 100), 1);
+        }
+        counter.add("tag-7", -20);
+
+        assertEquals(10, counter.get("tag-1"));
+        assertEquals(0, counter.get("tag-7"));
+        assertEquals(0, counter.get("unknown"));
+        int[] listed = new int[1];
+        counter.forEach((key, count) -> listed[0]++);
+        assertEquals(99, listed[0]);
+    }
+}
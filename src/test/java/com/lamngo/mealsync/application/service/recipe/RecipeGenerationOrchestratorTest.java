@@ -8,9 +8,10 @@ import com.lamngo.mealsync.domain.model.user.UserPreference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.UUID;
@@ -33,7 +34,9 @@ class RecipeGenerationOrchestratorTest {
         @Mock
         private RecipeService recipeService;
 
-        @InjectMocks
+        @Mock
+        private ApplicationEventPublisher eventPublisher;
+
         private RecipeGenerationOrchestrator orchestrator;
 
         private UserPreference userPreference;
@@ -42,6 +45,9 @@ class RecipeGenerationOrchestratorTest {
 
         @BeforeEach
         void setUp() {
+                orchestrator = new RecipeGenerationOrchestrator(aiRecipeService, recipeImageService, recipeService,
+                                eventPublisher, Runnable::run, 1);
+
                 userPreference = new UserPreference();
 
                 ingredientDto = DetectedIngredientDto.builder()
@@ -65,8 +71,6 @@ class RecipeGenerationOrchestratorTest {
 
                 when(aiRecipeService.fetchRecipesFromOpenAIAsync(anyList(), any(UserPreference.class)))
                                 .thenReturn(recipesFuture);
-                when(recipeImageService.generateImagesForRecipes(anyList()))
-                                .thenReturn(CompletableFuture.completedFuture(null));
 
                 // When
                 List<RecipeReadDto> result = orchestrator.generateRecipesFromIngredients(ingredients, userPreference);
@@ -76,7 +80,51 @@ class RecipeGenerationOrchestratorTest {
                 assertEquals(1, result.size());
                 assertEquals(recipeDto.getId(), result.get(0).getId());
                 verify(aiRecipeService, times(1)).fetchRecipesFromOpenAIAsync(anyList(), any(UserPreference.class));
-                verify(recipeImageService, times(1)).generateImagesForRecipes(anyList());
+                verify(recipeImageService, times(1)).enqueueImagesForRecipes(anyList());
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void generateRecipesFromIngredients_shouldQueueImagesOnlyForEagerRecipes() {
+                // Given
+                RecipeReadDto second = new RecipeReadDto();
+                second.setId(UUID.randomUUID());
+                second.setName("Second Recipe");
+                List<RecipeReadDto> recipes = List.of(recipeDto, second);
+
+                when(aiRecipeService.fetchRecipesFromOpenAIAsync(anyList(), any(UserPreference.class)))
+                                .thenReturn(CompletableFuture.completedFuture(recipes));
+
+                // When
+                List<RecipeReadDto> result = orchestrator.generateRecipesFromIngredients(List.of(ingredientDto), userPreference);
+
+                // Then
+                assertEquals(2, result.size());
+                ArgumentCaptor<List<RecipeReadDto>> captor = ArgumentCaptor.forClass(List.class);
+                verify(recipeImageService).enqueueImagesForRecipes(captor.capture());
+                assertEquals(List.of(recipeDto), captor.getValue());
+        }
+
+        @Test
+        void requestImageOnDemand_shouldQueueRecipeWithoutImage() {
+                // When
+                orchestrator.requestImageOnDemand(recipeDto);
+
+                // Then
+                // Queued off the request thread
+                verify(recipeImageService, timeout(1000)).enqueueImagesForRecipes(List.of(recipeDto));
+        }
+
+        @Test
+        void requestImageOnDemand_shouldSkipRecipeWithImage() {
+                // Given
+                recipeDto.setImageUrl("https://example.com/image.jpg");
+
+                // When
+                orchestrator.requestImageOnDemand(recipeDto);
+
+                // Then
+                verifyNoInteractions(recipeImageService);
         }
 
         @Test
@@ -98,6 +146,7 @@ class RecipeGenerationOrchestratorTest {
                         Thread.currentThread().interrupt();
                 }
                 verify(recipeService, timeout(1000).times(1)).addGeneratedRecipesToUser(userId, recipeIds);
+                verify(eventPublisher, timeout(1000)).publishEvent(any(com.lamngo.mealsync.application.event.UserEvent.class));
         }
 
 }
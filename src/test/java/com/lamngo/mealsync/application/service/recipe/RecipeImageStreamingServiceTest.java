@@ -2,20 +2,25 @@ package com.lamngo.mealsync.application.service.recipe;
 
 import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
 import com.lamngo.mealsync.application.event.ImageGeneratedEvent;
+import com.lamngo.mealsync.application.event.UserChannelsClosedEvent;
+import com.lamngo.mealsync.application.event.UserEvent;
 import com.lamngo.mealsync.application.service.AI.RecipeImageService;
+import com.lamngo.mealsync.application.service.sse.SseHub;
 import com.lamngo.mealsync.presentation.error.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyList;
@@ -30,7 +35,13 @@ class RecipeImageStreamingServiceTest {
     @Mock
     private RecipeImageService recipeImageService;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SseHub sseHub;
+
+    private ImageEventReplayBuffer replayBuffer;
+
     private RecipeImageStreamingService streamingService;
 
     private RecipeReadDto recipeDto;
@@ -38,12 +49,21 @@ class RecipeImageStreamingServiceTest {
 
     @BeforeEach
     void setUp() {
+        sseHub = new SseHub(new SimpleMeterRegistry(), 64, "close");
+        replayBuffer = new ImageEventReplayBuffer(new SimpleMeterRegistry(), 100, 600_000);
+        streamingService = new RecipeImageStreamingService(recipeService, recipeImageService, sseHub, replayBuffer,
+                eventPublisher, 1_800_000);
         recipeId = UUID.randomUUID();
         recipeDto = new RecipeReadDto();
         recipeDto.setId(recipeId);
         recipeDto.setName("Test Recipe");
     }
 
+    @AfterEach
+    void tearDown() {
+        sseHub.shutdown();
+    }
+
     @Test
     void createImageStream_shouldThrowException_whenRecipeIdsIsNull() {
         // When/Then
@@ -67,8 +87,6 @@ class RecipeImageStreamingServiceTest {
         List<RecipeReadDto> recipes = List.of(recipeDto);
         
         when(recipeService.getRecipesByIds(anyList())).thenReturn(recipes);
-        when(recipeImageService.generateImagesForRecipes(anyList()))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         // When
         SseEmitter emitter = streamingService.createImageStream(recipeIds);
@@ -76,7 +94,7 @@ class RecipeImageStreamingServiceTest {
         // Then
         assertNotNull(emitter);
         verify(recipeService, times(1)).getRecipesByIds(recipeIds);
-        verify(recipeImageService, times(1)).generateImagesForRecipes(recipes);
+        verify(recipeImageService, times(1)).enqueueImagesForRecipes(recipes);
     }
 
     @Test
@@ -101,8 +119,6 @@ class RecipeImageStreamingServiceTest {
         List<RecipeReadDto> recipes = List.of(recipeDto);
         
         when(recipeService.getRecipesByIds(anyList())).thenReturn(recipes);
-        when(recipeImageService.generateImagesForRecipes(anyList()))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         SseEmitter emitter = streamingService.createImageStream(recipeIds);
 
@@ -125,8 +141,6 @@ class RecipeImageStreamingServiceTest {
         List<RecipeReadDto> recipes = List.of(recipeDto);
         
         when(recipeService.getRecipesByIds(anyList())).thenReturn(recipes);
-        when(recipeImageService.generateImagesForRecipes(anyList()))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         SseEmitter emitter = streamingService.createImageStream(recipeIds);
 
@@ -161,8 +175,6 @@ class RecipeImageStreamingServiceTest {
         List<RecipeReadDto> recipes = List.of(recipeDto);
         
         when(recipeService.getRecipesByIds(anyList())).thenReturn(recipes);
-        when(recipeImageService.generateImagesForRecipes(anyList()))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         // When
         SseEmitter emitter = streamingService.createImageStream(recipeIds);
@@ -171,5 +183,195 @@ class RecipeImageStreamingServiceTest {
         assertNotNull(emitter);
         // Emitter should be set up with completion handlers
     }
-}
 
+    @Test
+    void createImageStream_shouldNotQueueJobs_whenAllRecipesHaveImages() {
+        // Given
+        recipeDto.setImageUrl("https://example.com/image.jpg");
+        when(recipeService.getRecipesByIds(anyList())).thenReturn(List.of(recipeDto));
+
+        // When
+        SseEmitter emitter = streamingService.createImageStream(List.of(recipeId));
+
+        // Then
+        assertNotNull(emitter);
+        verify(recipeImageService, never()).enqueueImagesForRecipes(anyList());
+    }
+
+    @Test
+    void createImageStream_shouldHandleQueueFailure() {
+        // Given
+        when(recipeService.getRecipesByIds(anyList())).thenReturn(List.of(recipeDto));
+        doThrow(new RuntimeException("DB down")).when(recipeImageService).enqueueImagesForRecipes(anyList());
+
+        // When
+        SseEmitter emitter = streamingService.createImageStream(List.of(recipeId));
+
+        // Then
+        assertNotNull(emitter);
+    }
+
+    @Test
+    void createImageStream_shouldReplayFinishedImage_insteadOfQueueingAgain() {
+        // Given - the image finished while the client was reconnecting
+        when(recipeService.getRecipesByIds(anyList())).thenReturn(List.of(recipeDto));
+        replayBuffer.onImageGenerated(new ImageGeneratedEvent(
+                this, recipeId, "Test Recipe", "https://example.com/image.jpg", true, null));
+
+        // When
+        SseEmitter emitter = streamingService.createImageStream(List.of(recipeId), null);
+
+        // Then
+        assertNotNull(emitter);
+        verify(recipeImageService, never()).enqueueImagesForRecipes(anyList());
+    }
+
+    @Test
+    void createImageStream_shouldOnlyQueueRecipesWithoutReplayedImage() {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        RecipeReadDto other = new RecipeReadDto();
+        other.setId(otherId);
+        other.setName("Other Recipe");
+        when(recipeService.getRecipesByIds(anyList())).thenReturn(List.of(recipeDto, other));
+        ImageGeneratedEvent finished = new ImageGeneratedEvent(
+                this, recipeId, "Test Recipe", "https://example.com/image.jpg", true, null);
+        replayBuffer.onImageGenerated(finished);
+
+        // When - the client has already seen that event
+        streamingService.createImageStream(List.of(recipeId, otherId), String.valueOf(finished.getTimestamp()));
+
+        // Then
+        verify(recipeImageService, times(1)).enqueueImagesForRecipes(List.of(other));
+    }
+
+    @Test
+    void createImageStream_shouldReplayFailedImage_andStillQueueTheRecipe() {
+        // Given - the last attempt failed while the client was reconnecting
+        when(recipeService.getRecipesByIds(anyList())).thenReturn(List.of(recipeDto));
+        replayBuffer.onImageGenerated(new ImageGeneratedEvent(
+                this, recipeId, "Test Recipe", null, false, "Image generation failed"));
+
+        // When
+        streamingService.createImageStream(List.of(recipeId), null);
+
+        // Then - the failure is replayed, but the stream keeps waiting for the retry
+        verify(recipeImageService, times(1)).enqueueImagesForRecipes(List.of(recipeDto));
+    }
+
+    @Test
+    void createImageStream_shouldNotWaitForRecipeWhoseImageGenerationGaveUp() {
+        // Given - the job was dead-lettered and is not retried for a while
+        when(recipeService.getRecipesByIds(anyList())).thenReturn(List.of(recipeDto));
+        when(recipeImageService.hasGivenUp(recipeId)).thenReturn(true);
+        replayBuffer.onImageGenerated(new ImageGeneratedEvent(
+                this, recipeId, "Test Recipe", null, false, "Image generation failed"));
+
+        // When
+        streamingService.createImageStream(List.of(recipeId), null);
+
+        // Then - the failure is final for this stream
+        verify(recipeImageService, never()).enqueueImagesForRecipes(anyList());
+    }
+
+    @Test
+    void requestImages_shouldQueueRecipeWhoseBufferedImageFailed() {
+        // Given
+        replayBuffer.onImageGenerated(new ImageGeneratedEvent(
+                this, recipeId, "Test Recipe", null, false, "Image generation failed"));
+        when(recipeService.getRecipesByIds(anyList())).thenReturn(List.of(recipeDto));
+
+        // When
+        streamingService.requestImages(UUID.randomUUID(), List.of(recipeId));
+
+        // Then
+        verify(recipeImageService).enqueueImagesForRecipes(List.of(recipeDto));
+    }
+
+    @Test
+    void watchImages_shouldPublishImageUpdateToUserWhenImageIsGenerated() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        streamingService.watchImages(userId, List.of(recipeDto));
+        verifyNoInteractions(eventPublisher);
+
+        // When
+        ImageGeneratedEvent event = new ImageGeneratedEvent(
+                this, recipeId, "Test Recipe", "https://example.com/image.jpg", true, null);
+        streamingService.handleImageGenerated(event);
+        streamingService.handleImageGenerated(event);
+
+        // Then - delivered once, the watch ends with the first update
+        ArgumentCaptor<UserEvent> captor = ArgumentCaptor.forClass(UserEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        UserEvent published = captor.getValue();
+        assertEquals(userId, published.getUserId());
+        assertEquals(UserEvent.TOPIC_IMAGES, published.getTopic());
+        assertEquals("image-update", published.getName());
+        assertEquals(event.getTimestamp(), published.getTimestamp());
+        assertTrue(published.getData().contains("https://example.com/image.jpg"));
+    }
+
+    @Test
+    void watchImages_shouldPublishFinishedImagesImmediately() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        recipeDto.setImageUrl("https://example.com/stored.jpg");
+
+        // When
+        streamingService.watchImages(userId, List.of(recipeDto));
+
+        // Then
+        verify(eventPublisher).publishEvent(any(UserEvent.class));
+        verify(recipeImageService, never()).enqueueImagesForRecipes(anyList());
+    }
+
+    @Test
+    void watchImages_shouldWatchForAUserWhoseChannelIsOnAnotherNode() {
+        // Given - no channel of the user on this node; the UserEvent is relayed to the node that has it
+        UUID userId = UUID.randomUUID();
+        streamingService.watchImages(userId, List.of(recipeDto));
+
+        // When
+        streamingService.handleImageGenerated(new ImageGeneratedEvent(
+                this, recipeId, "Test Recipe", "https://example.com/image.jpg", true, null));
+
+        // Then
+        verify(eventPublisher).publishEvent(any(UserEvent.class));
+    }
+
+    @Test
+    void onUserChannelsClosed_shouldDropTheUsersWatches() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        streamingService.watchImages(userId, List.of(recipeDto));
+        streamingService.watchImages(otherUserId, List.of(recipeDto));
+
+        // When
+        streamingService.onUserChannelsClosed(new UserChannelsClosedEvent(this, userId));
+        streamingService.handleImageGenerated(new ImageGeneratedEvent(
+                this, recipeId, "Test Recipe", "https://example.com/image.jpg", true, null));
+
+        // Then - only the user who still has a channel gets the update
+        ArgumentCaptor<UserEvent> captor = ArgumentCaptor.forClass(UserEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(otherUserId, captor.getValue().getUserId());
+    }
+
+    @Test
+    void requestImages_shouldQueueOnlyRecipesWithoutImage() {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        RecipeReadDto other = new RecipeReadDto();
+        other.setId(otherId);
+        other.setImageUrl("https://example.com/stored.jpg");
+        when(recipeService.getRecipesByIds(anyList())).thenReturn(List.of(recipeDto, other));
+
+        // When
+        streamingService.requestImages(UUID.randomUUID(), List.of(recipeId, otherId));
+
+        // Then
+        verify(recipeImageService).enqueueImagesForRecipes(List.of(recipeDto));
+    }
+}
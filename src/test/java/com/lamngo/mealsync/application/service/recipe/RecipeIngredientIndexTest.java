@@ -0,0 +1,146 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import com.lamngo.mealsync.application.event.RecipeIngredientsChangedEvent;
+import com.lamngo.mealsync.application.service.ingredient.IngredientVocabulary;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredientMatch;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class RecipeIngredientIndexTest {
+    private final UUID omelette = UUID.randomUUID();
+    private final UUID pancakes = UUID.randomUUID();
+    private final UUID curry = UUID.randomUUID();
+    // Canonical ingredient ids
+    private final Map<String, Integer> ingredientIds = Map.of(
+            "egg", 1, "salt", 2, "milk", 3, "flour", 4, "chicken", 5, "coconut milk", 6, "water", 7);
+
+    private IRecipeRepo recipeRepo;
+    private RecipeIngredientIndex index;
+
+    @BeforeEach
+    void setUp() {
+        IngredientVocabulary vocabulary = mock(IngredientVocabulary.class);
+        when(vocabulary.idOf(any())).thenAnswer(invocation -> {
+            String key = IngredientVocabulary.key(invocation.getArgument(0));
+            return key == null ? IngredientVocabulary.UNKNOWN : ingredientIds.getOrDefault(key, IngredientVocabulary.UNKNOWN);
+        });
+        when(vocabulary.nameOf(anyInt())).thenAnswer(invocation -> ingredientIds.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(invocation.getArgument(0)))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null));
+        recipeRepo = mock(IRecipeRepo.class);
+        when(recipeRepo.findAllRecipeIds()).thenReturn(List.of(omelette, pancakes, curry));
+        when(recipeRepo.findCanonicalIngredientIds(anyCollection())).thenReturn(Map.of(
+                omelette, new int[]{1, 2},
+                pancakes, new int[]{1, 3, 4},
+                curry, new int[]{5, 6, 2}));
+        index = new RecipeIngredientIndex(recipeRepo, vocabulary, new SimpleMeterRegistry(), List.of("salt", "Water"));
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void match_shouldRankFewestMissingFirst() {
+        List<RecipeIngredientMatch> matches = index.match(List.of(" EGGS", "milk"), 10);
+
+        assertEquals(List.of(omelette, pancakes), matches.stream().map(RecipeIngredientMatch::getRecipeId).toList());
+        // Salt is a pantry staple: the omelette is complete
+        assertEquals(2, matches.get(0).getMatchedIngredients());
+        assertEquals(List.of(), matches.get(0).getMissingIngredients());
+        assertEquals(List.of("flour"), matches.get(1).getMissingIngredients());
+        assertEquals(3, matches.get(1).getTotalIngredients());
+    }
+
+    @Test
+    void match_shouldNotMatchOnPantryStaplesAlone() {
+        assertEquals(List.of(), index.match(List.of("water"), 10));
+        assertEquals(List.of(), index.match(List.of("  ", "-"), 10));
+        assertEquals(1, index.match(List.of("eggs"), 1).size());
+    }
+
+    @Test
+    void onIngredientsChanged_shouldReindexAndRemoveRecipes() {
+        when(recipeRepo.findCanonicalIngredientIds(Set.of(pancakes, curry)))
+                .thenReturn(Map.of(pancakes, new int[]{1, 3}));
+
+        index.onIngredientsChanged(new RecipeIngredientsChangedEvent(this, Set.of(pancakes, curry)));
+
+        index.reindexPending();
+
+        List<RecipeIngredientMatch> matches = index.match(List.of("eggs", "milk", "chicken"), 10);
+        // The pancakes were indexed again, so they are now the newest recipe
+        assertEquals(List.of(pancakes, omelette), matches.stream().map(RecipeIngredientMatch::getRecipeId).toList());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void match_shouldCountUnresolvedIngredientsAsMissing() {
+        // The omelette has an ingredient the vocabulary has not resolved yet
+        when(recipeRepo.findCanonicalIngredientIds(Set.of(omelette)))
+                .thenReturn(Map.of(omelette, new int[]{1, 2, IngredientVocabulary.UNKNOWN}));
+        index.onIngredientsChanged(new RecipeIngredientsChangedEvent(this, Set.of(omelette)));
+        index.reindexPending();
+
+        List<RecipeIngredientMatch> matches = index.match(List.of("eggs"), 10);
+
+        RecipeIngredientMatch match = matches.get(0);
+        assertEquals(omelette, match.getRecipeId());
+        assertEquals(2, match.getMatchedIngredients());
+        assertEquals(3, match.getTotalIngredients());
+        assertEquals(List.of(), match.getMissingIngredients());
+    }
+
+    @Test
+    void match_shouldRecognizeSpellingsAndSkipUnknownIngredients() {
+        List<RecipeIngredientMatch> matches = index.match(List.of("Fresh Chicken", "coconut-milk", "saffron"), 10);
+
+        assertEquals(List.of(curry), matches.stream().map(RecipeIngredientMatch::getRecipeId).toList());
+        assertEquals(3, matches.get(0).getMatchedIngredients());
+        assertEquals(List.of(), index.match(List.of("saffron"), 10));
+    }
+
+    @Test
+    void intBitmap_shouldSwitchToBitsWhenDenseAndKeepOrder() {
+        IntBitmap bitmap = new IntBitmap();
+        List<Integer> expected = new ArrayList<>();
+        // A dense container (more than 4096 values under the same high bits) and a sparse one
+        for (int value = 0; value < 10_000; value += 2) {
+            bitmap.add(value);
+            expected.add(value);
+        }
+        bitmap.add(70_000);
+        bitmap.add(70_000);
+        bitmap.add(3);
+        expected.add(3);
+        expected.add(70_000);
+        expected.sort(null);
+
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        assertEquals(expected, values);
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertTrue(bitmap.contains(9_998));
+        assertFalse(bitmap.contains(9_999));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(-1));
+    }
+}
@@ -0,0 +1,108 @@
+package com.lamngo.mealsync.application.service.recipe;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lamngo.mealsync.application.dto.recipe.RecipeIngredientReadDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.mapper.recipe.RecipeMapper;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecipeReadDocumentCodecTest {
+    private RecipeMapper recipeMapper;
+    private RecipeReadDocumentCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        recipeMapper = mock(RecipeMapper.class);
+        codec = new RecipeReadDocumentCodec(recipeMapper, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void render_shouldLeaveOutIdTimestampsAndImages() {
+        Recipe recipe = new Recipe();
+        when(recipeMapper.toRecipeReadDto(recipe)).thenReturn(readDto());
+
+        String document = codec.render(recipe);
+
+        assertTrue(document.contains("\"name\":\"Pad Thai\""));
+        assertTrue(document.contains("\"unit\":\"g\""));
+        for (String field : List.of("\"id\"", "createdAt", "updatedAt", "imageUrl", "cardImageUrl",
+                "thumbnailImageUrl", "imageBlurHash")) {
+            assertFalse(document.contains(field), field + " should not be in the document");
+        }
+    }
+
+    @Test
+    void toDto_shouldOverlayColumnsOnTheDocument() {
+        when(recipeMapper.toRecipeReadDto(any())).thenReturn(readDto());
+        String document = codec.render(new Recipe());
+        UUID id = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2025-03-01T10:00:00Z");
+        Instant updatedAt = Instant.parse("2025-03-02T10:00:00Z");
+
+        RecipeReadDto dto = codec.toDto(new RecipeReadDocument(id, createdAt, updatedAt, document,
+                "https://cdn/full.jpg", "https://cdn/card.jpg", "https://cdn/thumb.jpg", "LEHV6nWB"));
+
+        RecipeReadDto expected = readDto();
+        expected.setId(id);
+        expected.setCreatedAt(createdAt);
+        expected.setUpdatedAt(updatedAt);
+        expected.setImageUrl("https://cdn/full.jpg");
+        expected.setCardImageUrl("https://cdn/card.jpg");
+        expected.setThumbnailImageUrl("https://cdn/thumb.jpg");
+        expected.setImageBlurHash("LEHV6nWB");
+        assertEquals(expected, dto);
+    }
+
+    @Test
+    void toDto_shouldIgnoreFieldsTheDtoNoLongerHas() {
+        RecipeReadDto dto = codec.toDto(new RecipeReadDocument(UUID.randomUUID(), Instant.now(), null,
+                "{\"name\":\"Pad Thai\",\"retired\":true}", null, null, null, null));
+
+        assertEquals("Pad Thai", dto.getName());
+    }
+
+    @Test
+    void facetsOf_shouldReadCountedValuesOfTheDocument() {
+        when(recipeMapper.toRecipeReadDto(any())).thenReturn(readDto());
+
+        RecipeFacets facets = codec.facetsOf(codec.render(new Recipe()));
+
+        assertEquals(new RecipeFacets("Thai", "easy", List.of("quick"), 20), facets);
+    }
+
+    private static RecipeReadDto readDto() {
+        return RecipeReadDto.builder()
+                .id(UUID.randomUUID())
+                .name("Pad Thai")
+                .ingredients(List.of(new RecipeIngredientReadDto("noodles", "200", "g")))
+                .instructions(List.of("Soak", "Fry"))
+                .cuisine("Thai")
+                .imageUrl("https://cdn/old.jpg")
+                .ingredientKey("noodles")
+                .description("Stir-fried noodles")
+                .preparationTime(10)
+                .cookingTime(10)
+                .totalTime(20)
+                .servings(2)
+                .calories(550.0)
+                .protein(20.0)
+                .carbohydrates(70.0)
+                .fat(18.0)
+                .difficulty("easy")
+                .tags(List.of("quick"))
+                .source("AI")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.lamngo.mealsync.application.service.recipe;
 
+import com.lamngo.mealsync.application.service.ingredient.IngredientVocabulary;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
 import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
 import com.lamngo.mealsync.domain.model.user.User;
@@ -26,6 +27,9 @@ class RecipeRecommendationServiceTest {
     @Mock
     private IRecipeRepo recipeRepo;
 
+    @Mock
+    private IngredientVocabulary ingredientVocabulary;
+
     @InjectMocks
     private RecipeRecommendationService recommendationService;
 
@@ -155,6 +159,23 @@ class RecipeRecommendationServiceTest {
         // recipe1 has tomato, so it should have lower score or be filtered
     }
 
+    @Test
+    void getRecommendedRecipes_shouldMatchDislikedIngredientsByCanonicalId() {
+        // Given
+        preference.setDislikedIngredients(List.of("Coriander"));
+        Recipe salsa = createRecipe(UUID.randomUUID(), "Salsa", "Mexican", List.of("tomato", "cilantro"));
+        salsa.getIngredients().get(1).setCanonicalIngredientId(9);
+        when(ingredientVocabulary.idOf("coriander")).thenReturn(9);
+        when(recipeRepo.findRecipesByCuisines(anyList(), anyInt())).thenReturn(List.of(salsa, recipe2));
+
+        // When
+        List<Recipe> recommendations = recommendationService.getRecommendedRecipes(user, 10);
+
+        // Then
+        // Same score otherwise: cilantro is the same ingredient as coriander
+        assertEquals(List.of(recipe2, salsa), recommendations);
+    }
+
     @Test
     void getRecommendedRecipes_shouldFallbackToAllRecipes_whenNoCuisineMatches() {
         // Given
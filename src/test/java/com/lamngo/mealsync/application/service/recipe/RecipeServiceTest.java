@@ -7,20 +7,33 @@ import com.lamngo.mealsync.application.mapper.recipe.RecipeIngredientMapper;
 import com.lamngo.mealsync.application.mapper.recipe.RecipeMapper;
 import com.lamngo.mealsync.application.service.AWS.S3Service;
 import com.lamngo.mealsync.application.shared.OffsetPage;
+import com.lamngo.mealsync.application.shared.PageCursor;
 import com.lamngo.mealsync.application.shared.PaginationResponse;
 import com.lamngo.mealsync.domain.model.UserRecipe;
 import com.lamngo.mealsync.domain.model.UserRecipeType;
+import com.lamngo.mealsync.domain.model.image.ImageDeletion;
 import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredientMatch;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
+import com.lamngo.mealsync.domain.model.recipe.RecipeSearchHit;
 import com.lamngo.mealsync.domain.model.user.User;
 import com.lamngo.mealsync.domain.repository.IUserRecipeRepo;
+import com.lamngo.mealsync.domain.repository.image.IImageDeletionRepo;
 import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
 import com.lamngo.mealsync.domain.repository.user.IUserRepo;
+import com.lamngo.mealsync.presentation.error.BadRequestException;
 import com.lamngo.mealsync.presentation.error.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +48,9 @@ class RecipeServiceTest {
     private RecipeIngredientMapper recipeIngredientMapper;
     private RecipeRecommendationService recommendationService;
     private S3Service s3Service;
+    private IImageDeletionRepo imageDeletionRepo;
+    private RecipeReadDocumentCodec readDocumentCodec;
+    private RecipeIngredientIndex ingredientIndex;
     private RecipeService recipeService;
 
     @BeforeEach
@@ -47,7 +63,10 @@ class RecipeServiceTest {
         recipeIngredientMapper = mock(RecipeIngredientMapper.class);
         recommendationService = mock(RecipeRecommendationService.class);
         s3Service = mock(S3Service.class);
-        recipeService = new RecipeService(recipeRepo, recipeMapper, userRecipeRepo, userRecipeMapper, userRepo, recipeIngredientMapper, recommendationService, s3Service);
+        imageDeletionRepo = mock(IImageDeletionRepo.class);
+        readDocumentCodec = mock(RecipeReadDocumentCodec.class);
+        ingredientIndex = mock(RecipeIngredientIndex.class);
+        recipeService = new RecipeService(recipeRepo, recipeMapper, userRecipeRepo, userRecipeMapper, userRepo, recipeIngredientMapper, recommendationService, s3Service, imageDeletionRepo, readDocumentCodec, ingredientIndex);
     }
 
     @Test
@@ -74,21 +93,64 @@ class RecipeServiceTest {
     @Test
     void getRecipeById_found() {
         UUID id = UUID.randomUUID();
-        Recipe recipe = mock(Recipe.class);
+        RecipeReadDocument document = mock(RecipeReadDocument.class);
         RecipeReadDto readDto = mock(RecipeReadDto.class);
-        when(recipeRepo.getRecipeById(id)).thenReturn(Optional.of(recipe));
-        when(recipeMapper.toRecipeReadDto(recipe)).thenReturn(readDto);
+        when(recipeRepo.findReadDocument(id)).thenReturn(Optional.of(document));
+        when(readDocumentCodec.toDto(document)).thenReturn(readDto);
         RecipeReadDto result = recipeService.getRecipeById(id);
         assertEquals(readDto, result);
+        // Served without loading the entity
+        verify(recipeRepo, never()).getRecipeById(any());
+        verifyNoInteractions(recipeMapper);
     }
 
     @Test
     void getRecipeById_notFound() {
         UUID id = UUID.randomUUID();
-        when(recipeRepo.getRecipeById(id)).thenReturn(Optional.empty());
+        when(recipeRepo.findReadDocument(id)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> recipeService.getRecipeById(id));
     }
 
+    @Test
+    void getRecipesByIds_shouldServeReadDocumentsInOrder() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        RecipeReadDocument firstDocument = mock(RecipeReadDocument.class);
+        RecipeReadDocument secondDocument = mock(RecipeReadDocument.class);
+        RecipeReadDto firstDto = mock(RecipeReadDto.class);
+        RecipeReadDto secondDto = mock(RecipeReadDto.class);
+        when(recipeRepo.findReadDocuments(List.of(first, second))).thenReturn(List.of(firstDocument, secondDocument));
+        when(readDocumentCodec.toDto(firstDocument)).thenReturn(firstDto);
+        when(readDocumentCodec.toDto(secondDocument)).thenReturn(secondDto);
+
+        assertEquals(List.of(firstDto, secondDto), recipeService.getRecipesByIds(List.of(first, second)));
+        verify(recipeRepo, never()).getRecipesByIds(anyList());
+    }
+
+    @Test
+    void matchRecipes_shouldKeepIndexRankingAndReadOnlyMatchedRecipes() {
+        UUID best = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        DetectedIngredientDto egg = DetectedIngredientDto.builder().name("Egg").quantity("2").unit("pieces").build();
+        when(ingredientIndex.match(List.of("Egg"), 5)).thenReturn(List.of(
+                new RecipeIngredientMatch(best, 1, 1, List.of()),
+                new RecipeIngredientMatch(second, 1, 2, List.of("milk"))));
+        RecipeReadDocument bestDocument = mock(RecipeReadDocument.class);
+        RecipeReadDocument secondDocument = mock(RecipeReadDocument.class);
+        RecipeReadDto bestDto = RecipeReadDto.builder().id(best).build();
+        RecipeReadDto secondDto = RecipeReadDto.builder().id(second).build();
+        when(recipeRepo.findReadDocuments(List.of(best, second))).thenReturn(List.of(bestDocument, secondDocument));
+        when(readDocumentCodec.toDto(bestDocument)).thenReturn(bestDto);
+        when(readDocumentCodec.toDto(secondDocument)).thenReturn(secondDto);
+
+        List<RecipeMatchResultDto> results = recipeService.matchRecipes(List.of(egg), 5);
+
+        assertEquals(List.of(bestDto, secondDto), results.stream().map(RecipeMatchResultDto::getRecipe).toList());
+        assertEquals(List.of("milk"), results.get(1).getMissingIngredients());
+        assertEquals(2, results.get(1).getTotalIngredients());
+        assertThrows(BadRequestException.class, () -> recipeService.matchRecipes(List.of(), 5));
+    }
+
     @Test
     void getAllRecipes_success() {
         int limit = 10, offset = 0;
@@ -106,6 +168,30 @@ class RecipeServiceTest {
         assertEquals(readDto, resp.getData().get(0));
     }
 
+    @Test
+    void searchRecipes_shouldMapHitsWithRankAndSnippet() {
+        Recipe recipe = mock(Recipe.class);
+        RecipeReadDto readDto = mock(RecipeReadDto.class);
+        OffsetPage page = new OffsetPage(10, 0);
+        when(recipeRepo.searchRecipes(eq("chick curry"), any(OffsetPage.class))).thenReturn(new PageImpl<>(
+                List.of(new RecipeSearchHit(recipe, 0.6, "<mark>Chicken</mark> <mark>curry</mark>")), page, 1));
+        when(recipeMapper.toRecipeReadDto(recipe)).thenReturn(readDto);
+
+        PaginationResponse<RecipeSearchResultDto> resp = recipeService.searchRecipes("chick curry", 10, 0);
+
+        assertEquals(1, resp.getTotalElements());
+        RecipeSearchResultDto result = resp.getData().get(0);
+        assertEquals(readDto, result.getRecipe());
+        assertEquals(0.6, result.getRank());
+        assertEquals("<mark>Chicken</mark> <mark>curry</mark>", result.getSnippet());
+    }
+
+    @Test
+    void searchRecipes_blankQuery_shouldThrow() {
+        assertThrows(BadRequestException.class, () -> recipeService.searchRecipes("  ", 10, 0));
+        verifyNoInteractions(recipeRepo);
+    }
+
     @Test
     void updateRecipe_success() {
         UUID id = UUID.randomUUID();
@@ -130,16 +216,36 @@ class RecipeServiceTest {
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void deleteRecipe_success() {
         UUID id = UUID.randomUUID();
         Recipe recipe = mock(Recipe.class);
         when(recipeRepo.getRecipeById(id)).thenReturn(Optional.of(recipe));
-        when(recipe.getImageUrl()).thenReturn("https://s3.amazonaws.com/bucket/image.jpg");
-        doNothing().when(s3Service).deleteImage(anyString());
+        when(recipe.getImageUrl()).thenReturn("https://bucket.s3.eu-north-1.amazonaws.com/recipes/image.jpg");
+        when(s3Service.extractKeyFromUrl("https://bucket.s3.eu-north-1.amazonaws.com/recipes/image.jpg"))
+                .thenReturn("recipes/image.jpg");
         doNothing().when(recipeRepo).deleteRecipe(id);
         recipeService.deleteRecipe(id);
         verify(recipeRepo).deleteRecipe(id);
-        verify(s3Service).deleteImage("https://s3.amazonaws.com/bucket/image.jpg");
+        // Deleted later by the outbox drain, not inside the transaction
+        verify(s3Service, never()).deleteImage(anyString());
+        ArgumentCaptor<List<ImageDeletion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(imageDeletionRepo).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("recipes/image.jpg", captor.getValue().get(0).getObjectKey());
+    }
+
+    @Test
+    void deleteRecipe_keepsSharedImage() {
+        UUID id = UUID.randomUUID();
+        Recipe recipe = mock(Recipe.class);
+        when(recipeRepo.getRecipeById(id)).thenReturn(Optional.of(recipe));
+        when(recipe.getImageUrl()).thenReturn("https://s3.amazonaws.com/bucket/image.jpg");
+        when(recipeRepo.countRecipesByImageUrl("https://s3.amazonaws.com/bucket/image.jpg")).thenReturn(2L);
+        recipeService.deleteRecipe(id);
+        verify(recipeRepo).deleteRecipe(id);
+        verify(s3Service, never()).deleteImage(anyString());
+        verifyNoInteractions(imageDeletionRepo);
     }
 
     @Test
@@ -337,180 +443,59 @@ class RecipeServiceTest {
     @Test
     void getRecentGeneratedRecipes_success() {
         UUID userId = UUID.randomUUID();
-        int limit = 5;
-        int offset = 0;
-
-        UUID recipeId1 = UUID.randomUUID();
-        UUID recipeId2 = UUID.randomUUID();
-        
         Recipe recipe1 = mock(Recipe.class);
-        when(recipe1.getId()).thenReturn(recipeId1);
         Recipe recipe2 = mock(Recipe.class);
-        when(recipe2.getId()).thenReturn(recipeId2);
-
-        UserRecipe userRecipe1 = new UserRecipe();
-        userRecipe1.setRecipe(recipe1);
-        userRecipe1.setType(UserRecipeType.GENERATED);
-        userRecipe1.setSavedAt(LocalDateTime.now().minusHours(1));
-
-        UserRecipe userRecipe2 = new UserRecipe();
-        userRecipe2.setRecipe(recipe2);
-        userRecipe2.setType(UserRecipeType.GENERATED);
-        userRecipe2.setSavedAt(LocalDateTime.now().minusHours(2));
-
-        List<UserRecipe> userRecipes = List.of(userRecipe1, userRecipe2);
-
         RecipeReadDto readDto1 = mock(RecipeReadDto.class);
-        when(readDto1.getId()).thenReturn(recipeId1);
         RecipeReadDto readDto2 = mock(RecipeReadDto.class);
-        when(readDto2.getId()).thenReturn(recipeId2);
-
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED)))
-                .thenReturn(userRecipes);
-        // Mock getRecipesByIds which is called internally
-        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe1, recipe2));
         when(recipeMapper.toRecipeReadDto(recipe1)).thenReturn(readDto1);
         when(recipeMapper.toRecipeReadDto(recipe2)).thenReturn(readDto2);
+        OffsetPage page = new OffsetPage(5, 0);
+        when(userRecipeRepo.getLatestUserRecipes(eq(userId), eq(UserRecipeType.GENERATED), any(OffsetPage.class)))
+                .thenReturn(new PageImpl<>(List.of(historyEntry(recipe1), historyEntry(recipe2)), page, 2));
 
-        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, limit, offset);
+        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, 5, 0);
 
-        // Should only return GENERATED type recipes, sorted by most recent first
-        assertEquals(2, result.getData().size());
-        assertEquals(readDto1.getId(), result.getData().get(0).getId()); // Most recent
-        assertEquals(readDto2.getId(), result.getData().get(1).getId());
+        // Order and dedup come from the repository (newest entry per recipe first)
+        assertEquals(List.of(readDto1, readDto2), result.getData());
         assertEquals(0, result.getOffset());
         assertEquals(5, result.getLimit());
         assertEquals(2L, result.getTotalElements());
         assertEquals(false, result.isHasNext());
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED));
+        verify(recipeRepo, never()).getRecipesByIds(anyList());
     }
 
     @Test
     void getRecentGeneratedRecipes_emptyList() {
         UUID userId = UUID.randomUUID();
-        int limit = 10;
-        int offset = 0;
-
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED)))
-                .thenReturn(Collections.emptyList());
-
-        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, limit, offset);
-
-        assertTrue(result.getData().isEmpty());
-        assertEquals(0L, result.getTotalElements());
-        assertEquals(false, result.isHasNext());
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED));
-    }
-
-    @Test
-    void getRecentGeneratedRecipes_onlySavedRecipes() {
-        UUID userId = UUID.randomUUID();
-        int limit = 10;
-        int offset = 0;
+        when(userRecipeRepo.getLatestUserRecipes(eq(userId), eq(UserRecipeType.GENERATED), any(OffsetPage.class)))
+                .thenReturn(Page.empty(new OffsetPage(10, 0)));
 
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED)))
-                .thenReturn(Collections.emptyList());
-
-        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, limit, offset);
+        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, 10, 0);
 
         assertTrue(result.getData().isEmpty());
         assertEquals(0L, result.getTotalElements());
         assertEquals(false, result.isHasNext());
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED));
     }
 
     @Test
     void getRecentGeneratedRecipes_respectsLimit() {
         UUID userId = UUID.randomUUID();
-        int limit = 2;
-        int offset = 0;
-
-        List<UserRecipe> userRecipes = new ArrayList<>();
-        List<RecipeReadDto> readDtos = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            UUID recipeId = UUID.randomUUID();
-            Recipe recipe = mock(Recipe.class);
-            when(recipe.getId()).thenReturn(recipeId);
-            
-            UserRecipe userRecipe = new UserRecipe();
-            userRecipe.setRecipe(recipe);
-            userRecipe.setType(UserRecipeType.GENERATED);
-            userRecipe.setSavedAt(LocalDateTime.now().minusHours(i));
-            userRecipes.add(userRecipe);
-            
-            RecipeReadDto readDto = mock(RecipeReadDto.class);
-            when(readDto.getId()).thenReturn(recipeId);
-            readDtos.add(readDto);
-            when(recipeMapper.toRecipeReadDto(recipe)).thenReturn(readDto);
-        }
-
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED)))
-                .thenReturn(userRecipes);
-        // Mock getRecipesByIds which is called internally
-        List<Recipe> allRecipes = userRecipes.stream().map(UserRecipe::getRecipe).collect(java.util.stream.Collectors.toList());
-        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(allRecipes);
-
-        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, limit, offset);
-
-        assertEquals(2, result.getData().size());
-        assertEquals(2, result.getLimit());
-        assertEquals(5L, result.getTotalElements());
-        assertEquals(true, result.isHasNext());
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED));
-    }
-    
-    @Test
-    void getRecentGeneratedRecipes_deduplicatesRecipes() {
-        UUID userId = UUID.randomUUID();
-        int limit = 10;
-        int offset = 0;
-
-        UUID recipeId1 = UUID.randomUUID();
-        UUID recipeId2 = UUID.randomUUID();
-        
         Recipe recipe1 = mock(Recipe.class);
-        when(recipe1.getId()).thenReturn(recipeId1);
         Recipe recipe2 = mock(Recipe.class);
-        when(recipe2.getId()).thenReturn(recipeId2);
-
-        // Create duplicate entries for recipe1 (older and newer)
-        UserRecipe userRecipe1Old = new UserRecipe();
-        userRecipe1Old.setRecipe(recipe1);
-        userRecipe1Old.setType(UserRecipeType.GENERATED);
-        userRecipe1Old.setSavedAt(LocalDateTime.now().minusDays(2));
-
-        UserRecipe userRecipe1New = new UserRecipe();
-        userRecipe1New.setRecipe(recipe1);
-        userRecipe1New.setType(UserRecipeType.GENERATED);
-        userRecipe1New.setSavedAt(LocalDateTime.now()); // Most recent
-
-        UserRecipe userRecipe2 = new UserRecipe();
-        userRecipe2.setRecipe(recipe2);
-        userRecipe2.setType(UserRecipeType.GENERATED);
-        userRecipe2.setSavedAt(LocalDateTime.now().minusDays(1));
-
-        List<UserRecipe> userRecipes = new ArrayList<>(List.of(userRecipe1Old, userRecipe1New, userRecipe2));
-        
-        RecipeReadDto readDto1 = mock(RecipeReadDto.class);
-        when(readDto1.getId()).thenReturn(recipeId1);
-        RecipeReadDto readDto2 = mock(RecipeReadDto.class);
-        when(readDto2.getId()).thenReturn(recipeId2);
+        when(recipeMapper.toRecipeReadDto(any(Recipe.class))).thenReturn(mock(RecipeReadDto.class));
+        ArgumentCaptor<OffsetPage> pageCaptor = ArgumentCaptor.forClass(OffsetPage.class);
+        when(userRecipeRepo.getLatestUserRecipes(eq(userId), eq(UserRecipeType.GENERATED), pageCaptor.capture()))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(historyEntry(recipe1), historyEntry(recipe2)),
+                        invocation.getArgument(2), 5));
 
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED)))
-                .thenReturn(userRecipes);
-        // Mock getRecipesByIds which is called internally
-        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe1, recipe2));
-        when(recipeMapper.toRecipeReadDto(recipe1)).thenReturn(readDto1);
-        when(recipeMapper.toRecipeReadDto(recipe2)).thenReturn(readDto2);
+        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, 2, 2);
 
-        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, limit, offset);
-
-        // Should only return 2 unique recipes (recipe1 deduplicated, keeping most recent)
+        assertEquals(2, pageCaptor.getValue().getLimit());
+        assertEquals(2, pageCaptor.getValue().getOffset());
         assertEquals(2, result.getData().size());
-        assertEquals(2L, result.getTotalElements());
-        // Most recent recipe1 should be first
-        assertEquals(readDto1, result.getData().get(0));
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.GENERATED));
+        assertEquals(2, result.getLimit());
+        assertEquals(5L, result.getTotalElements());
+        assertEquals(true, result.isHasNext());
     }
 
     @Test
@@ -584,185 +569,193 @@ class RecipeServiceTest {
     }
 
     @Test
-    void getSavedRecipesByUserId_success() {
+    void getRecentGeneratedRecipes_onlySavedRecipes() {
         UUID userId = UUID.randomUUID();
-        int limit = 5;
-        int offset = 0;
+        when(userRecipeRepo.getLatestUserRecipes(eq(userId), eq(UserRecipeType.GENERATED), any(OffsetPage.class)))
+                .thenReturn(Page.empty(new OffsetPage(10, 0)));
 
-        UUID recipeId1 = UUID.randomUUID();
-        UUID recipeId2 = UUID.randomUUID();
+        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, 10, 0);
+
+        // Saved entries are not part of the recent history
+        assertTrue(result.getData().isEmpty());
+        assertEquals(0L, result.getTotalElements());
+        assertEquals(false, result.isHasNext());
+        verify(userRecipeRepo, never()).getLatestUserRecipes(any(), eq(UserRecipeType.SAVED), any());
+        verify(userRecipeRepo, never()).getUserRecipes(any(), any(), any());
+    }
+
+    @Test
+    void getRecentGeneratedRecipes_deduplicatesRecipes() {
+        UUID userId = UUID.randomUUID();
         Recipe recipe1 = mock(Recipe.class);
-        when(recipe1.getId()).thenReturn(recipeId1);
         Recipe recipe2 = mock(Recipe.class);
-        when(recipe2.getId()).thenReturn(recipeId2);
+        RecipeReadDto readDto1 = mock(RecipeReadDto.class);
+        RecipeReadDto readDto2 = mock(RecipeReadDto.class);
+        when(recipeMapper.toRecipeReadDto(recipe1)).thenReturn(readDto1);
+        when(recipeMapper.toRecipeReadDto(recipe2)).thenReturn(readDto2);
+        // recipe1 was generated twice; the repository returns its newest entry only
+        when(userRecipeRepo.getLatestUserRecipes(eq(userId), eq(UserRecipeType.GENERATED), any(OffsetPage.class)))
+                .thenReturn(new PageImpl<>(List.of(historyEntry(recipe1), historyEntry(recipe2)),
+                        new OffsetPage(10, 0), 2));
 
-        UserRecipe userRecipe1 = mock(UserRecipe.class);
-        when(userRecipe1.getRecipe()).thenReturn(recipe1);
-        when(userRecipe1.getSavedAt()).thenReturn(LocalDateTime.now().minusDays(1));
+        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipes(userId, 10, 0);
 
-        UserRecipe userRecipe2 = mock(UserRecipe.class);
-        when(userRecipe2.getRecipe()).thenReturn(recipe2);
-        when(userRecipe2.getSavedAt()).thenReturn(LocalDateTime.now());
+        assertEquals(List.of(readDto1, readDto2), result.getData());
+        assertEquals(2L, result.getTotalElements());
+        verify(userRecipeRepo, never()).getUserRecipes(any(), any(), any());
+    }
 
-        List<UserRecipe> savedRecipes = new ArrayList<>(List.of(userRecipe1, userRecipe2));
+    @Test
+    void getSavedRecipesByUserId_success() {
+        UUID userId = UUID.randomUUID();
+        UserRecipe userRecipe1 = historyEntry(mock(Recipe.class));
+        UserRecipe userRecipe2 = historyEntry(mock(Recipe.class));
         UserRecipeReadDto readDto1 = mock(UserRecipeReadDto.class);
         UserRecipeReadDto readDto2 = mock(UserRecipeReadDto.class);
-        RecipeReadDto recipeReadDto1 = mock(RecipeReadDto.class);
-        RecipeReadDto recipeReadDto2 = mock(RecipeReadDto.class);
-        when(recipeReadDto1.getId()).thenReturn(recipeId1);
-        when(recipeReadDto2.getId()).thenReturn(recipeId2);
-        when(readDto1.getRecipe()).thenReturn(recipeReadDto1);
-        when(readDto2.getRecipe()).thenReturn(recipeReadDto2);
-
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.SAVED)))
-                .thenReturn(savedRecipes);
-        // Mock getRecipesByIds which is called internally - it returns RecipeReadDto, not Recipe
-        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(List.of(recipe1, recipe2));
-        when(recipeMapper.toRecipeReadDto(recipe1)).thenReturn(recipeReadDto1);
-        when(recipeMapper.toRecipeReadDto(recipe2)).thenReturn(recipeReadDto2);
         when(userRecipeMapper.toUserRecipeReadDto(userRecipe1)).thenReturn(readDto1);
         when(userRecipeMapper.toUserRecipeReadDto(userRecipe2)).thenReturn(readDto2);
+        when(userRecipeRepo.getUserRecipes(eq(userId), eq(UserRecipeType.SAVED), any(OffsetPage.class)))
+                .thenReturn(new PageImpl<>(List.of(userRecipe1, userRecipe2), new OffsetPage(5, 0), 2));
 
-        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesByUserId(userId, limit, offset);
+        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesByUserId(userId, 5, 0);
 
-        assertEquals(2, result.getData().size());
+        assertEquals(List.of(readDto1, readDto2), result.getData());
         assertEquals(0, result.getOffset());
         assertEquals(5, result.getLimit());
         assertEquals(2L, result.getTotalElements());
         assertEquals(false, result.isHasNext());
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.SAVED));
+        verify(userRecipeRepo, never()).getUserRecipesByUserIdAndType(any(), any());
     }
 
     @Test
     void getSavedRecipesByUserId_respectsLimit() {
         UUID userId = UUID.randomUUID();
-        int limit = 2;
-        int offset = 0;
-
-        List<UserRecipe> savedRecipes = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            UserRecipe userRecipe = mock(UserRecipe.class);
-            Recipe recipe = mock(Recipe.class);
-            UUID recipeId = UUID.randomUUID();
-            when(recipe.getId()).thenReturn(recipeId);
-            when(userRecipe.getRecipe()).thenReturn(recipe);
-            when(userRecipe.getSavedAt()).thenReturn(LocalDateTime.now().minusDays(i));
-            savedRecipes.add(userRecipe);
-        }
-
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.SAVED)))
-                .thenReturn(savedRecipes);
-        // Mock getRecipesByIds which is called internally - extract recipes from savedRecipes
-        List<Recipe> allRecipes = savedRecipes.stream()
-                .map(ur -> ur.getRecipe())
-                .filter(r -> r != null)
-                .collect(java.util.stream.Collectors.toList());
-        when(recipeRepo.getRecipesByIds(anyList())).thenReturn(allRecipes);
-        
-        // Create unique RecipeReadDto for each Recipe with matching IDs
-        java.util.Map<Recipe, RecipeReadDto> recipeToDtoMap = new java.util.HashMap<>();
-        for (Recipe recipe : allRecipes) {
-            RecipeReadDto recipeDto = mock(RecipeReadDto.class);
-            UUID recipeId = recipe.getId();
-            when(recipeDto.getId()).thenReturn(recipeId);
-            recipeToDtoMap.put(recipe, recipeDto);
-        }
-        
-        // Mock mapper to return DTOs with recipe IDs that match the Recipe IDs
-        when(userRecipeMapper.toUserRecipeReadDto(any(UserRecipe.class))).thenAnswer(invocation -> {
-            UserRecipe userRecipe = invocation.getArgument(0);
-            UserRecipeReadDto userRecipeDto = mock(UserRecipeReadDto.class);
-            Recipe recipe = userRecipe.getRecipe();
-            RecipeReadDto recipeDto = recipeToDtoMap.get(recipe);
-            when(userRecipeDto.getRecipe()).thenReturn(recipeDto);
-            return userRecipeDto;
-        });
-        // Mock recipe mapper for getRecipesByIds - return the matching RecipeReadDto
-        when(recipeMapper.toRecipeReadDto(any(Recipe.class))).thenAnswer(invocation -> {
-            Recipe recipe = invocation.getArgument(0);
-            return recipeToDtoMap.get(recipe);
-        });
-
-        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesByUserId(userId, limit, offset);
+        when(userRecipeMapper.toUserRecipeReadDto(any(UserRecipe.class))).thenReturn(mock(UserRecipeReadDto.class));
+        when(userRecipeRepo.getUserRecipes(eq(userId), eq(UserRecipeType.SAVED), any(OffsetPage.class)))
+                .thenAnswer(invocation -> new PageImpl<>(
+                        List.of(historyEntry(mock(Recipe.class)), historyEntry(mock(Recipe.class))),
+                        invocation.getArgument(2), 5));
+
+        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesByUserId(userId, 2, 0);
 
         assertEquals(2, result.getData().size());
         assertEquals(2, result.getLimit());
         assertEquals(5L, result.getTotalElements());
         assertEquals(true, result.isHasNext());
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.SAVED));
     }
 
     @Test
     void getSavedRecipesByUserId_emptyList() {
         UUID userId = UUID.randomUUID();
-        int limit = 10;
-        int offset = 0;
+        when(userRecipeRepo.getUserRecipes(eq(userId), eq(UserRecipeType.SAVED), any(OffsetPage.class)))
+                .thenReturn(Page.empty(new OffsetPage(6, 0)));
 
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.SAVED)))
-                .thenReturn(Collections.emptyList());
-
-        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesByUserId(userId, limit, offset);
+        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesByUserId(userId, 6, 0);
 
         assertTrue(result.getData().isEmpty());
         assertEquals(0L, result.getTotalElements());
         assertEquals(false, result.isHasNext());
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.SAVED));
     }
 
     @Test
     void getSavedRecipesByUserId_returnsAllSavedRecipes() {
         UUID userId = UUID.randomUUID();
-        int limit = 10;
-        int offset = 0;
-
-        UUID recipeId1 = UUID.randomUUID();
-        UUID recipeId2 = UUID.randomUUID();
-        
         Recipe recipe1 = mock(Recipe.class);
-        when(recipe1.getId()).thenReturn(recipeId1);
         Recipe recipe2 = mock(Recipe.class);
-        when(recipe2.getId()).thenReturn(recipeId2);
-
-        // Create multiple entries for recipe1 (older and newer) - duplicates are allowed
-        UserRecipe userRecipe1Old = mock(UserRecipe.class);
-        when(userRecipe1Old.getRecipe()).thenReturn(recipe1);
-        when(userRecipe1Old.getSavedAt()).thenReturn(LocalDateTime.now().minusDays(2));
-
-        UserRecipe userRecipe1New = mock(UserRecipe.class);
-        when(userRecipe1New.getRecipe()).thenReturn(recipe1);
-        when(userRecipe1New.getSavedAt()).thenReturn(LocalDateTime.now()); // Most recent
-
-        UserRecipe userRecipe2 = mock(UserRecipe.class);
-        when(userRecipe2.getRecipe()).thenReturn(recipe2);
-        when(userRecipe2.getSavedAt()).thenReturn(LocalDateTime.now().minusDays(1));
-
-        List<UserRecipe> savedRecipes = new ArrayList<>(List.of(userRecipe1Old, userRecipe1New, userRecipe2));
-        UserRecipeReadDto readDto1Old = mock(UserRecipeReadDto.class);
+        // Multiple entries for recipe1 (newer and older) - duplicates are allowed
+        UserRecipe userRecipe1New = historyEntry(recipe1);
+        UserRecipe userRecipe2 = historyEntry(recipe2);
+        UserRecipe userRecipe1Old = historyEntry(recipe1);
         UserRecipeReadDto readDto1New = mock(UserRecipeReadDto.class);
         UserRecipeReadDto readDto2 = mock(UserRecipeReadDto.class);
-        
-        RecipeReadDto recipeReadDto1 = mock(RecipeReadDto.class);
-        RecipeReadDto recipeReadDto2 = mock(RecipeReadDto.class);
-        when(recipeReadDto1.getId()).thenReturn(recipeId1);
-        when(recipeReadDto2.getId()).thenReturn(recipeId2);
-        
-        when(readDto1Old.getRecipe()).thenReturn(recipeReadDto1);
-        when(readDto1New.getRecipe()).thenReturn(recipeReadDto1);
-        when(readDto2.getRecipe()).thenReturn(recipeReadDto2);
-
-        when(userRecipeRepo.getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.SAVED)))
-                .thenReturn(savedRecipes);
-        when(userRecipeMapper.toUserRecipeReadDto(userRecipe1Old)).thenReturn(readDto1Old);
+        UserRecipeReadDto readDto1Old = mock(UserRecipeReadDto.class);
         when(userRecipeMapper.toUserRecipeReadDto(userRecipe1New)).thenReturn(readDto1New);
         when(userRecipeMapper.toUserRecipeReadDto(userRecipe2)).thenReturn(readDto2);
+        when(userRecipeMapper.toUserRecipeReadDto(userRecipe1Old)).thenReturn(readDto1Old);
+        when(userRecipeRepo.getUserRecipes(eq(userId), eq(UserRecipeType.SAVED), any(OffsetPage.class)))
+                .thenReturn(new PageImpl<>(List.of(userRecipe1New, userRecipe2, userRecipe1Old),
+                        new OffsetPage(10, 0), 3));
 
-        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesByUserId(userId, limit, offset);
+        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesByUserId(userId, 10, 0);
 
-        // Should return all 3 saved recipes (no deduplication)
-        assertEquals(3, result.getData().size());
+        // Should return all 3 saved entries (no deduplication), most recent first
+        assertEquals(List.of(readDto1New, readDto2, readDto1Old), result.getData());
         assertEquals(3L, result.getTotalElements());
-        // Most recent should be first (sorted by savedAt DESC)
-        assertEquals(readDto1New, result.getData().get(0));
-        verify(userRecipeRepo).getUserRecipesByUserIdAndType(eq(userId), eq(UserRecipeType.SAVED));
+        verify(userRecipeRepo, never()).getLatestUserRecipes(any(), any(), any());
+    }
+
+    private static UserRecipe historyEntry(Recipe recipe) {
+        UserRecipe userRecipe = new UserRecipe();
+        userRecipe.setId(UUID.randomUUID());
+        userRecipe.setRecipe(recipe);
+        return userRecipe;
+    }
+
+    @Test
+    void getRecipesAfter_shouldReturnCursorOfLastRecipeWithoutCounting() {
+        RecipeReadDocument recipe = mock(RecipeReadDocument.class);
+        UUID recipeId = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2025-03-01T10:15:30.123456Z");
+        when(recipe.getId()).thenReturn(recipeId);
+        when(recipe.getCreatedAt()).thenReturn(createdAt);
+        PageCursor after = new PageCursor(Instant.parse("2025-03-02T00:00:00Z"), UUID.randomUUID());
+        when(recipeRepo.getRecipesAfter(after, 1, null, List.of("Thai"), null, null, null, null, null))
+                .thenReturn(new SliceImpl<>(List.of(recipe), PageRequest.of(0, 1), true));
+        when(readDocumentCodec.toDto(recipe)).thenReturn(mock(RecipeReadDto.class));
+
+        PaginationResponse<RecipeReadDto> result = recipeService.getRecipesAfter(after.encode(), 1, false,
+                null, List.of("Thai"), null, null, null, null, null);
+
+        assertEquals(1, result.getData().size());
+        assertTrue(result.isHasNext());
+        assertNull(result.getTotalElements());
+        assertEquals(new PageCursor(createdAt, recipeId), PageCursor.decode(result.getNextCursor()));
+        verify(recipeRepo, never()).countRecipesFiltered(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getRecentGeneratedRecipesAfter_lastPage_shouldHaveNoCursorAndCountWhenAsked() {
+        UUID userId = UUID.randomUUID();
+        Recipe recipe = mock(Recipe.class);
+        UserRecipe entry = mock(UserRecipe.class);
+        when(entry.getRecipe()).thenReturn(recipe);
+        RecipeReadDto readDto = mock(RecipeReadDto.class);
+        when(recipeMapper.toRecipeReadDto(recipe)).thenReturn(readDto);
+        when(userRecipeRepo.getLatestUserRecipesAfter(userId, UserRecipeType.GENERATED, null, 6))
+                .thenReturn(new SliceImpl<>(List.of(entry), PageRequest.of(0, 6), false));
+        when(userRecipeRepo.countDistinctRecipes(userId, UserRecipeType.GENERATED)).thenReturn(1L);
+
+        PaginationResponse<RecipeReadDto> result = recipeService.getRecentGeneratedRecipesAfter(userId, "", 6, true);
+
+        assertEquals(List.of(readDto), result.getData());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals(1L, result.getTotalElements());
+    }
+
+    @Test
+    void getSavedRecipesAfter_shouldContinueFromSavedAtAndId() {
+        UUID userId = UUID.randomUUID();
+        UUID lastId = UUID.randomUUID();
+        LocalDateTime savedAt = LocalDateTime.of(2025, 3, 1, 8, 0);
+        UserRecipe entry = mock(UserRecipe.class);
+        when(entry.getId()).thenReturn(lastId);
+        when(entry.getSavedAt()).thenReturn(savedAt);
+        when(userRecipeMapper.toUserRecipeReadDto(entry)).thenReturn(mock(UserRecipeReadDto.class));
+        PageCursor after = new PageCursor(Instant.parse("2025-03-02T00:00:00Z"), UUID.randomUUID());
+        when(userRecipeRepo.getUserRecipesAfter(userId, UserRecipeType.SAVED, after, 1))
+                .thenReturn(new SliceImpl<>(List.of(entry), PageRequest.of(0, 1), true));
+
+        PaginationResponse<UserRecipeReadDto> result = recipeService.getSavedRecipesAfter(userId, after.encode(), 1, false);
+
+        assertEquals(new PageCursor(savedAt.toInstant(ZoneOffset.UTC), lastId), PageCursor.decode(result.getNextCursor()));
+        verify(userRecipeRepo, never()).countUserRecipes(any(), any());
+    }
+
+    @Test
+    void getSavedRecipesAfter_invalidCursor_shouldThrow() {
+        assertThrows(BadRequestException.class,
+                () -> recipeService.getSavedRecipesAfter(UUID.randomUUID(), "not-a-cursor", 6, false));
+        verifyNoInteractions(userRecipeRepo);
     }
 }
@@ -0,0 +1,130 @@
+package com.lamngo.mealsync.application.service.sse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SseHubTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch writerEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseWriter = new CountDownLatch(1);
+    private SseHub hub;
+
+    @AfterEach
+    void tearDown() {
+        releaseWriter.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    void send_shouldWriteQueuedEventsOnWriterThread() throws Exception {
+        hub = new SseHub(meterRegistry, 8, "close");
+        SseEmitter emitter = mock(SseEmitter.class);
+        SseSubscriber subscriber = hub.subscribe(emitter);
+
+        assertTrue(subscriber.send("image-update", "{}"));
+        assertTrue(subscriber.send("image-update", "{}"));
+
+        verify(emitter, timeout(1000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(1, hub.getActiveStreams());
+    }
+
+    @Test
+    void send_shouldNotBlockPublisher_andCloseSlowConsumer_whenQueueIsFull() throws Exception {
+        hub = new SseHub(meterRegistry, 2, "close");
+        SseEmitter emitter = blockingEmitter();
+        SseSubscriber subscriber = hub.subscribe(emitter);
+        AtomicBoolean closed = new AtomicBoolean();
+        subscriber.onClose(() -> closed.set(true));
+
+        subscriber.send("image-update", "1");
+        assertTrue(writerEntered.await(1, TimeUnit.SECONDS));
+        assertTrue(subscriber.send("image-update", "2"));
+        assertTrue(subscriber.send("image-update", "3"));
+        assertFalse(subscriber.send("image-update", "4"));
+
+        assertTrue(subscriber.isClosed());
+        assertTrue(closed.get());
+        assertEquals(0, hub.getActiveStreams());
+        assertEquals(1.0, meterRegistry.get("mealsync.sse.slow_consumers").counter().count());
+
+        releaseWriter.countDown();
+        verify(emitter, timeout(1000)).complete();
+    }
+
+    @Test
+    void send_shouldDropNewestEvent_whenPolicyIsDropNewest() throws Exception {
+        hub = new SseHub(meterRegistry, 1, "drop-newest");
+        SseSubscriber subscriber = hub.subscribe(blockingEmitter());
+
+        subscriber.send("image-update", "1");
+        assertTrue(writerEntered.await(1, TimeUnit.SECONDS));
+        assertTrue(subscriber.send("image-update", "2"));
+        assertFalse(subscriber.send("image-update", "3"));
+
+        assertFalse(subscriber.isClosed());
+        assertEquals(1.0, meterRegistry.get("mealsync.sse.events").tag("outcome", "dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("mealsync.sse.queue.depth").gauge().value());
+    }
+
+    @Test
+    void complete_shouldFlushQueuedEventsBeforeCompletingEmitter() throws Exception {
+        hub = new SseHub(meterRegistry, 8, "close");
+        SseEmitter emitter = mock(SseEmitter.class);
+        SseSubscriber subscriber = hub.subscribe(emitter);
+
+        subscriber.send("image-update", "{}");
+        subscriber.complete();
+
+        verify(emitter, timeout(1000)).complete();
+        verify(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        assertFalse(subscriber.send("image-update", "{}"));
+        assertEquals(0, hub.getActiveStreams());
+    }
+
+    @Test
+    void write_shouldCloseSubscriber_whenClientIsGone() throws Exception {
+        hub = new SseHub(meterRegistry, 8, "close");
+        SseEmitter emitter = mock(SseEmitter.class);
+        doThrow(new java.io.IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        SseSubscriber subscriber = hub.subscribe(emitter);
+
+        subscriber.send("image-update", "{}");
+
+        verify(emitter, timeout(1000)).completeWithError(any());
+        assertTrue(subscriber.isClosed());
+        assertEquals(0, hub.getActiveStreams());
+    }
+
+    @Test
+    void sendHeartbeats_shouldOnlyPingIdleStreams() throws Exception {
+        hub = new SseHub(meterRegistry, 8, "close");
+        SseEmitter emitter = mock(SseEmitter.class);
+        hub.subscribe(emitter);
+
+        hub.sendHeartbeats();
+
+        verify(emitter, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(0.0, meterRegistry.get("mealsync.sse.events").tag("outcome", "sent").counter().count());
+    }
+
+    private SseEmitter blockingEmitter() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        doAnswer(invocation -> {
+            writerEntered.countDown();
+            releaseWriter.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        return emitter;
+    }
+}
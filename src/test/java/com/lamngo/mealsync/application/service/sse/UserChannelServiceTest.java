@@ -0,0 +1,119 @@
+package com.lamngo.mealsync.application.service.sse;
+
+import com.lamngo.mealsync.application.event.UserChannelsClosedEvent;
+import com.lamngo.mealsync.application.event.UserEvent;
+import com.lamngo.mealsync.presentation.error.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChannelServiceTest {
+
+    @Mock
+    private SseHub sseHub;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<SseSubscriber> subscribers = new ArrayList<>();
+    private UserChannelService channelService;
+
+    @BeforeEach
+    void setUp() {
+        channelService = new UserChannelService(sseHub, eventPublisher, new SimpleMeterRegistry(), 1_800_000);
+        lenient().when(sseHub.subscribe(any(SseEmitter.class))).thenAnswer(invocation -> {
+            SseSubscriber subscriber = new SseSubscriber(invocation.getArgument(0), sseHub);
+            subscribers.add(subscriber);
+            return subscriber;
+        });
+    }
+
+    @Test
+    void openChannel_shouldSendReadyEventWithTopics() {
+        UUID userId = UUID.randomUUID();
+
+        channelService.openChannel(userId, List.of("images"));
+
+        SseMessage ready = sentMessages(subscribers.get(0)).get(0);
+        assertEquals("ready", ready.getName());
+        assertEquals("images", new JSONObject(ready.getData()).getJSONArray("topics").getString(0));
+        assertTrue(channelService.hasChannel(userId));
+    }
+
+    @Test
+    void onUserEvent_shouldRouteByUserAndTopic() {
+        UUID userId = UUID.randomUUID();
+        channelService.openChannel(userId, List.of("subscription"));
+        channelService.openChannel(userId, null);
+        channelService.openChannel(UUID.randomUUID(), null);
+
+        channelService.onUserEvent(new UserEvent(this, userId, UserEvent.TOPIC_IMAGES, "image-update",
+                "{\"recipeId\":\"r1\"}", 1700000000000L));
+
+        // Only the user's channel that did not filter out "images"
+        assertEquals(1, sentMessages(subscribers.get(0)).size());
+        assertEquals(1, sentMessages(subscribers.get(2)).size());
+        List<SseMessage> delivered = sentMessages(subscribers.get(1));
+        assertEquals(2, delivered.size());
+        SseMessage update = delivered.get(1);
+        assertEquals("images", update.getName());
+        assertEquals("1700000000000", update.getId());
+        JSONObject data = new JSONObject(update.getData());
+        assertEquals("image-update", data.getString("type"));
+        assertEquals("r1", data.getJSONObject("data").getString("recipeId"));
+    }
+
+    @Test
+    void openChannel_shouldRejectUnknownTopics() {
+        assertThrows(BadRequestException.class,
+                () -> channelService.openChannel(UUID.randomUUID(), List.of("weather")));
+        verifyNoInteractions(sseHub);
+    }
+
+    @Test
+    void closedChannel_shouldBeUnregistered() {
+        UUID userId = UUID.randomUUID();
+        channelService.openChannel(userId, null);
+
+        subscribers.get(0).fireClosed();
+
+        assertFalse(channelService.hasChannel(userId));
+    }
+
+    @Test
+    void closingLastChannel_shouldPublishUserChannelsClosedEvent() {
+        UUID userId = UUID.randomUUID();
+        channelService.openChannel(userId, null);
+        channelService.openChannel(userId, null);
+
+        subscribers.get(0).fireClosed();
+        verifyNoInteractions(eventPublisher);
+        subscribers.get(1).fireClosed();
+
+        ArgumentCaptor<UserChannelsClosedEvent> captor = ArgumentCaptor.forClass(UserChannelsClosedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(userId, captor.getValue().getUserId());
+    }
+
+    private List<SseMessage> sentMessages(SseSubscriber subscriber) {
+        ArgumentCaptor<SseMessage> captor = ArgumentCaptor.forClass(SseMessage.class);
+        verify(sseHub, atLeast(0)).offer(eq(subscriber), captor.capture());
+        return captor.getAllValues();
+    }
+}
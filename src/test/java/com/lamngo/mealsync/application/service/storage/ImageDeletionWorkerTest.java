@@ -0,0 +1,164 @@
+package com.lamngo.mealsync.application.service.storage;
+
+import com.lamngo.mealsync.domain.model.image.ImageDeletion;
+import com.lamngo.mealsync.domain.repository.image.IImageDeletionRepo;
+import com.lamngo.mealsync.domain.repository.recipe.IRecipeRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageDeletionWorkerTest {
+
+    @Mock
+    private IImageDeletionRepo imageDeletionRepo;
+
+    @Mock
+    private IRecipeRepo recipeRepo;
+
+    @Mock
+    private ImageStorage imageStorage;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImageDeletionWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new ImageDeletionWorker(imageDeletionRepo, recipeRepo, imageStorage, transactionManager,
+                new SimpleMeterRegistry(), true, 1000, 10, 300000, 60000, 3600000,
+                true, 1, 200, 86400000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainDeletions_shouldDeleteClaimedKeysInOneBatch() {
+        // Given
+        ImageDeletion first = deletion("recipes/a-full.jpg");
+        ImageDeletion second = deletion("recipes/a-thumb.jpg");
+        when(imageDeletionRepo.claimDueDeletions(eq(1000), any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(first, second));
+        when(imageStorage.deleteObjects(anyList())).thenReturn(Map.of());
+
+        // When
+        worker.drainDeletions();
+
+        // Then
+        ArgumentCaptor<List<String>> keysCaptor = ArgumentCaptor.forClass(List.class);
+        verify(imageStorage, times(1)).deleteObjects(keysCaptor.capture());
+        assertEquals(List.of("recipes/a-full.jpg", "recipes/a-thumb.jpg"), keysCaptor.getValue());
+        verify(imageDeletionRepo).deleteAllByIds(List.of(first.getId(), second.getId()));
+        verify(imageDeletionRepo, never()).markForRetry(any(UUID.class), anyString(), any(Instant.class));
+    }
+
+    @Test
+    void drainDeletions_shouldRetryOnlyFailedKeys() {
+        // Given
+        ImageDeletion deleted = deletion("recipes/ok.jpg");
+        ImageDeletion failed = deletion("recipes/denied.jpg");
+        failed.setAttempts(2);
+        when(imageDeletionRepo.claimDueDeletions(anyInt(), any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(deleted, failed));
+        when(imageStorage.deleteObjects(anyList())).thenReturn(Map.of("recipes/denied.jpg", "AccessDenied: denied"));
+
+        // When
+        worker.drainDeletions();
+
+        // Then
+        verify(imageDeletionRepo).deleteAllByIds(List.of(deleted.getId()));
+        verify(imageDeletionRepo).markForRetry(eq(failed.getId()), eq("AccessDenied: denied"), any(Instant.class));
+    }
+
+    @Test
+    void drainDeletions_shouldRetryWholeBatch_whenRequestFails() {
+        // Given
+        ImageDeletion deletion = deletion("recipes/a.jpg");
+        when(imageDeletionRepo.claimDueDeletions(anyInt(), any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(deletion));
+        when(imageStorage.deleteObjects(anyList())).thenThrow(new RuntimeException("Failed to delete images"));
+
+        // When
+        worker.drainDeletions();
+
+        // Then
+        verify(imageDeletionRepo).markForRetry(eq(deletion.getId()), eq("Failed to delete images"), any(Instant.class));
+        verify(imageDeletionRepo).deleteAllByIds(List.of());
+    }
+
+    @Test
+    void backoffMillis_shouldGrowExponentiallyUpToMax() {
+        assertEquals(60000, worker.backoffMillis(1));
+        assertEquals(120000, worker.backoffMillis(2));
+        assertEquals(3600000, worker.backoffMillis(20));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcileOrphans_shouldQueueOnlyOldUnreferencedObjects() {
+        // Given
+        Instant old = Instant.now().minus(2, ChronoUnit.DAYS);
+        StoredObjectPage page = new StoredObjectPage(List.of(
+                new StoredObject("recipes/used.jpg", old),
+                new StoredObject("recipes/orphan.jpg", old),
+                new StoredObject("recipes/fresh.jpg", Instant.now())), null);
+        when(imageStorage.listObjects("recipes/", null, 1000)).thenReturn(page);
+        when(imageStorage.buildObjectUrl(anyString())).thenAnswer(invocation -> "https://bucket/" + invocation.getArgument(0));
+        when(recipeRepo.findReferencedImageUrls(anyCollection())).thenReturn(Set.of("https://bucket/recipes/used.jpg"));
+        when(imageDeletionRepo.findQueuedKeys(anyCollection())).thenReturn(Set.of());
+
+        // When
+        worker.reconcileOrphans();
+
+        // Then
+        ArgumentCaptor<List<ImageDeletion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(imageDeletionRepo).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("recipes/orphan.jpg", captor.getValue().get(0).getObjectKey());
+    }
+
+    @Test
+    void reconcileOrphans_shouldSkipKeysAlreadyQueued() {
+        // Given
+        Instant old = Instant.now().minus(2, ChronoUnit.DAYS);
+        when(imageStorage.listObjects("recipes/", null, 1000))
+                .thenReturn(new StoredObjectPage(List.of(new StoredObject("recipes/orphan.jpg", old)), null));
+        when(imageStorage.buildObjectUrl(anyString())).thenAnswer(invocation -> "https://bucket/" + invocation.getArgument(0));
+        when(recipeRepo.findReferencedImageUrls(anyCollection())).thenReturn(Set.of());
+        when(imageDeletionRepo.findQueuedKeys(anyCollection())).thenReturn(Set.of("recipes/orphan.jpg"));
+
+        // When
+        worker.reconcileOrphans();
+
+        // Then
+        verify(imageDeletionRepo, never()).saveAll(anyList());
+    }
+
+    private ImageDeletion deletion(String key) {
+        ImageDeletion deletion = new ImageDeletion(key);
+        deletion.setId(UUID.randomUUID());
+        deletion.setAttempts(1);
+        return deletion;
+    }
+}
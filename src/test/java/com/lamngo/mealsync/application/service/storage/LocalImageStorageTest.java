@@ -0,0 +1,78 @@
+package com.lamngo.mealsync.application.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalImageStorageTest {
+
+    @TempDir
+    Path rootDir;
+
+    private LocalImageStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalImageStorage(rootDir.toString(), "http://localhost:8081/api/v1/images/");
+    }
+
+    @Test
+    void uploadObjectAsync_shouldWriteFileAndReturnPublicUrl() throws Exception {
+        String url = storage.uploadObjectAsync("recipes/a-full.jpg", new byte[]{1, 2, 3}, "image/jpeg").join();
+
+        assertEquals("http://localhost:8081/api/v1/images/recipes/a-full.jpg", url);
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(rootDir.resolve("recipes/a-full.jpg")));
+        try (var files = Files.list(rootDir.resolve("recipes"))) {
+            assertEquals(1, files.count(), "No temp file should be left behind");
+        }
+    }
+
+    @Test
+    void uploadObjectAsync_shouldFail_whenKeyEscapesRoot() {
+        var future = storage.uploadObjectAsync("../outside.jpg", new byte[]{1}, "image/jpeg");
+
+        assertTrue(future.isCompletedExceptionally());
+        assertFalse(Files.exists(rootDir.resolveSibling("outside.jpg")));
+    }
+
+    @Test
+    void extractKeyFromUrl_shouldReverseBuildObjectUrl() {
+        String url = storage.buildObjectUrl("recipes/b-card.jpg");
+
+        assertEquals("recipes/b-card.jpg", storage.extractKeyFromUrl(url));
+        assertNull(storage.extractKeyFromUrl("https://bucket.s3.us-east-1.amazonaws.com/recipes/b-card.jpg"));
+    }
+
+    @Test
+    void deleteObjects_shouldDeleteFilesAndIgnoreMissingOnes() {
+        storage.uploadObjectAsync("recipes/c.jpg", new byte[]{1}, "image/jpeg").join();
+
+        Map<String, String> failed = storage.deleteObjects(List.of("recipes/c.jpg", "recipes/missing.jpg"));
+
+        assertTrue(failed.isEmpty());
+        assertFalse(Files.exists(rootDir.resolve("recipes/c.jpg")));
+    }
+
+    @Test
+    void listObjects_shouldPageInKeyOrder() {
+        for (String name : List.of("c", "a", "b")) {
+            storage.uploadObjectAsync("recipes/" + name + ".jpg", new byte[]{1}, "image/jpeg").join();
+        }
+
+        StoredObjectPage first = storage.listObjects("recipes/", null, 2);
+        StoredObjectPage second = storage.listObjects("recipes/", first.getNextContinuationToken(), 2);
+
+        assertEquals(List.of("recipes/a.jpg", "recipes/b.jpg"),
+                first.getObjects().stream().map(StoredObject::getKey).toList());
+        assertEquals("recipes/b.jpg", first.getNextContinuationToken());
+        assertEquals(List.of("recipes/c.jpg"), second.getObjects().stream().map(StoredObject::getKey).toList());
+        assertNull(second.getNextContinuationToken());
+    }
+}
@@ -1,5 +1,6 @@
 package com.lamngo.mealsync.application.service.subscription;
 
+import com.lamngo.mealsync.application.event.UserEvent;
 import com.lamngo.mealsync.domain.model.user.SubscriptionPlan;
 import com.lamngo.mealsync.domain.model.user.SubscriptionStatus;
 import com.lamngo.mealsync.domain.model.user.User;
@@ -11,6 +12,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -25,6 +27,9 @@ class SubscriptionServiceTest {
     @Mock
     private IUserRepo userRepo;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
@@ -209,6 +214,29 @@ class SubscriptionServiceTest {
         verify(userRepo).save(realUser);
     }
 
+    @Test
+    void incrementScanUsage_shouldPublishSubscriptionStatusToUserChannel() {
+        // Given
+        User realUser = new User();
+        realUser.setId(java.util.UUID.randomUUID());
+        realUser.setSubscriptionPlan(SubscriptionPlan.TRIAL);
+        realUser.setSubscriptionStatus(SubscriptionStatus.TRIAL);
+        realUser.setTrialEndDate(Instant.now().plus(2, ChronoUnit.DAYS));
+        realUser.setScansUsed(1);
+
+        // When
+        subscriptionService.incrementScanUsage(realUser);
+
+        // Then
+        ArgumentCaptor<UserEvent> captor = ArgumentCaptor.forClass(UserEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        UserEvent event = captor.getValue();
+        assertEquals(realUser.getId(), event.getUserId());
+        assertEquals(UserEvent.TOPIC_SUBSCRIPTION, event.getTopic());
+        assertTrue(event.getData().contains("\"scansUsed\":2"));
+        assertTrue(event.getData().contains("\"canScan\":true"));
+    }
+
     @Test
     void incrementScanUsage_shouldNotIncrementForPremium() {
         // Given
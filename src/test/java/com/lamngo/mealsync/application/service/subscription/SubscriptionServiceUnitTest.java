@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 
@@ -20,6 +21,9 @@ class SubscriptionServiceUnitTest {
     @Mock
     private IUserRepo userRepo;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
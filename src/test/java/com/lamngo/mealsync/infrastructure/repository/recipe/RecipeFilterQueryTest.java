@@ -0,0 +1,82 @@
+package com.lamngo.mealsync.infrastructure.repository.recipe;
+
+import com.lamngo.mealsync.application.shared.PageCursor;
+import org.jooq.Query;
+import org.jooq.SQLDialect;
+import org.jooq.conf.ParamType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeFilterQueryTest {
+
+    @Test
+    void selectIds_withoutFilters_shouldOnlyOrderAndPaginate() {
+        Query query = new RecipeFilterQuery(SQLDialect.H2, null, null, null, null, null, null, null)
+                .selectIds(20, 10);
+
+        String sql = query.getSQL(ParamType.INDEXED);
+        assertEquals("select r.id from recipes r order by r.created_at desc, r.id desc limit ? offset ?",
+                sql.replace(" where true", ""));
+        assertEquals(List.of(10L, 20L), query.getBindValues());
+    }
+
+    @Test
+    void selectIds_shouldBindEveryFilterCaseInsensitively() {
+        Query query = new RecipeFilterQuery(SQLDialect.POSTGRES, "Pasta", List.of("Italian", "FRENCH"),
+                List.of("Quick"), List.of("Egg", "milk"), "Easy", 30, 2).selectIds(0, 5);
+
+        String sql = query.getSQL(ParamType.INDEXED);
+        assertTrue(sql.contains("lower(r.name) like ? escape '!'"));
+        assertTrue(sql.contains("lower(r.cuisine) in (?, ?)"));
+        assertTrue(sql.contains("exists (select 1 as one from recipe_tags as t where (t.recipe_id = r.id and lower(t.tag) in (?)))"));
+        assertTrue(sql.contains("(lower(ri.name) like ? escape '!' or lower(ri.name) like ? escape '!')"));
+        assertTrue(sql.contains("lower(r.difficulty) = ?"));
+        assertTrue(sql.contains("r.total_time <= ?"));
+        assertTrue(sql.contains("r.servings >= ?"));
+        assertEquals(List.of("%pasta%", "italian", "french", "quick", "%egg%", "%milk%", "easy", 30, 2, 0L, 5L),
+                query.getBindValues());
+    }
+
+    @Test
+    void selectIdsAfter_shouldSeekPastTheCursorInsteadOfOffset() {
+        PageCursor after = new PageCursor(Instant.parse("2025-03-01T10:15:30Z"), UUID.randomUUID());
+        Query query = new RecipeFilterQuery(SQLDialect.H2, null, List.of("Thai"), null, null, null, null, null)
+                .selectIdsAfter(after, 7);
+
+        String sql = query.getSQL(ParamType.INDEXED);
+        assertTrue(sql.contains("lower(r.cuisine) in ("));
+        assertTrue(sql.contains("(r.created_at, r.id) < (cast(? as timestamp with time zone), cast(? as uuid))"));
+        assertTrue(sql.endsWith("order by r.created_at desc, r.id desc limit ?"));
+        assertFalse(sql.contains("offset"));
+        assertEquals(List.of("thai", after.getPosition(), after.getId(), 7L), query.getBindValues());
+    }
+
+    @Test
+    void selectIdsAfter_withoutCursor_shouldStartAtTheNewest() {
+        Query query = new RecipeFilterQuery(SQLDialect.H2, null, null, null, null, null, null, null)
+                .selectIdsAfter(null, 3);
+
+        assertEquals("select r.id from recipes r order by r.created_at desc, r.id desc limit ?",
+                query.getSQL(ParamType.INDEXED).replace(" where true", ""));
+    }
+
+    @Test
+    void count_shouldUseSameFiltersWithoutPagination() {
+        Query query = new RecipeFilterQuery(SQLDialect.POSTGRES, null, List.of("Thai"), null, null, null, null, null)
+                .count();
+
+        assertEquals("select count(*) from recipes as r where lower(r.cuisine) in (?)",
+                query.getSQL(ParamType.INDEXED));
+        assertEquals(List.of("thai"), query.getBindValues());
+    }
+
+    @Test
+    void containsPattern_shouldEscapeLikeWildcards() {
+        assertEquals("%50!%!_off!!%", RecipeFilterQuery.containsPattern("50%_OFF!"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.lamngo.mealsync.infrastructure.repository.recipe;
+
+import com.lamngo.mealsync.application.event.RecipeChangedEvent;
+import com.lamngo.mealsync.domain.model.recipe.RecipeReadDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeReadDocumentCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void getAll_shouldReturnCachedDocumentsAndCountHitsAndMisses() {
+        RecipeReadDocumentCache cache = new RecipeReadDocumentCache(meterRegistry, 10);
+        RecipeReadDocument pasta = document();
+        cache.putAll(List.of(pasta), cache.generation());
+
+        Map<UUID, RecipeReadDocument> found = cache.getAll(List.of(pasta.getId(), UUID.randomUUID()));
+
+        assertEquals(Map.of(pasta.getId(), pasta), found);
+        assertEquals(1.0, meterRegistry.get("mealsync.recipe_cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("mealsync.recipe_cache.requests").tag("result", "miss").counter().count());
+        assertEquals(0.5, meterRegistry.get("mealsync.recipe_cache.hit_ratio").gauge().value());
+    }
+
+    @Test
+    void putAll_shouldEvictLeastRecentlyReadRecipe() {
+        RecipeReadDocumentCache cache = new RecipeReadDocumentCache(meterRegistry, 2);
+        RecipeReadDocument first = document();
+        RecipeReadDocument second = document();
+        cache.putAll(List.of(first, second), cache.generation());
+        cache.getAll(List.of(first.getId()));
+
+        RecipeReadDocument third = document();
+        cache.putAll(List.of(third), cache.generation());
+
+        assertEquals(Set.of(first.getId(), third.getId()),
+                cache.getAll(List.of(first.getId(), second.getId(), third.getId())).keySet());
+        assertEquals(1.0, meterRegistry.get("mealsync.recipe_cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void putAll_shouldNotStoreReadsThatStartedBeforeAnInvalidation() {
+        RecipeReadDocumentCache cache = new RecipeReadDocumentCache(meterRegistry, 10);
+        RecipeReadDocument stale = document();
+        long generation = cache.generation();
+
+        cache.onRecipesChanged(new RecipeChangedEvent(this, Set.of(stale.getId())));
+        cache.putAll(List.of(stale), generation);
+
+        assertTrue(cache.getAll(List.of(stale.getId())).isEmpty());
+    }
+
+    @Test
+    void invalidate_shouldDropTheRecipe() {
+        RecipeReadDocumentCache cache = new RecipeReadDocumentCache(meterRegistry, 10);
+        RecipeReadDocument pasta = document();
+        RecipeReadDocument curry = document();
+        cache.putAll(List.of(pasta, curry), cache.generation());
+
+        cache.invalidate(List.of(pasta.getId()));
+
+        assertEquals(Set.of(curry.getId()), cache.getAll(List.of(pasta.getId(), curry.getId())).keySet());
+        assertEquals(1.0, meterRegistry.get("mealsync.recipe_cache.evictions").tag("cause", "invalidated").counter().count());
+    }
+
+    @Test
+    void zeroMaxEntries_shouldDisableTheCache() {
+        RecipeReadDocumentCache cache = new RecipeReadDocumentCache(meterRegistry, 0);
+        RecipeReadDocument pasta = document();
+
+        cache.putAll(List.of(pasta), cache.generation());
+
+        assertTrue(cache.getAll(List.of(pasta.getId())).isEmpty());
+    }
+
+    private static RecipeReadDocument document() {
+        return new RecipeReadDocument(UUID.randomUUID(), Instant.now(), null, "{\"name\":\"Pasta\"}",
+                null, null, null, null);
+    }
+}
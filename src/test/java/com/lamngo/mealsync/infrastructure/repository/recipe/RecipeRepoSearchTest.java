@@ -0,0 +1,31 @@
+package com.lamngo.mealsync.infrastructure.repository.recipe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeRepoSearchTest {
+
+    @Test
+    void searchTerms_shouldSplitOnAnythingButLettersAndDigits() {
+        assertEquals(List.of("chick", "tikka", "crème", "5"),
+                RecipeRepo.searchTerms("Chick  tikka: & crème!5 chick"));
+        assertEquals(List.of(), RecipeRepo.searchTerms(" :* | ! "));
+        assertEquals(List.of(), RecipeRepo.searchTerms(null));
+    }
+
+    @Test
+    void searchTerms_shouldCapTheNumberOfTerms() {
+        assertEquals(8, RecipeRepo.searchTerms("a b c d e f g h i j").size());
+    }
+
+    @Test
+    void highlight_shouldMarkEveryOccurrenceAndMergeOverlaps() {
+        assertEquals("<mark>Chick</mark>en - Crispy <mark>chick</mark>en with <mark>rice</mark>",
+                RecipeRepo.highlight("Chicken - Crispy chicken with rice", List.of("chick", "rice")));
+        assertEquals("<mark>Banana</mark> bread",
+                RecipeRepo.highlight("Banana bread", List.of("banana", "ana")));
+    }
+}
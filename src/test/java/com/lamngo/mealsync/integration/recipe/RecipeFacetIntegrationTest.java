@@ -0,0 +1,102 @@
+package com.lamngo.mealsync.integration.recipe;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeFacetsDto;
+import com.lamngo.mealsync.application.event.RecipeFacetsChangedEvent;
+import com.lamngo.mealsync.application.service.recipe.RecipeFacetIndex;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeFacets;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
+import com.lamngo.mealsync.integration.BaseIntegrationTest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The GROUP BY queries the facet counts are rebuilt from, case-insensitive like the listing filters,
+ * and the facet changes published by saves.
+ */
+@RecordApplicationEvents
+class RecipeFacetIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RecipeFacetIndex recipeFacetIndex;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void rebuild_shouldCountRecipesPerFacetValue() {
+        recipeRepo.createRecipe(recipe("Carbonara", "Italian", 20, List.of("Quick", "dinner")));
+        recipeRepo.createRecipe(recipe("Lasagna", "italian", 90, List.of("dinner", "Dinner")));
+        recipeRepo.createRecipe(recipe("Pad Thai", "Thai", 30, List.of("quick")));
+
+        recipeFacetIndex.rebuild();
+        RecipeFacetsDto facets = recipeFacetIndex.getFacets(20);
+
+        assertEquals(3, facets.getTotalRecipes());
+        assertEquals(List.of(new RecipeFacetsDto.ValueCount("italian", 2), new RecipeFacetsDto.ValueCount("thai", 1)),
+                facets.getCuisines());
+        assertEquals(List.of(new RecipeFacetsDto.ValueCount("dinner", 2), new RecipeFacetsDto.ValueCount("quick", 2)),
+                facets.getTags());
+        assertEquals(List.of(0L, 2L, 2L, 3L),
+                facets.getTotalTime().stream().map(RecipeFacetsDto.TimeBucketCount::getCount).toList());
+    }
+
+    @Test
+    void saveRecipe_shouldTreatRecipeWithoutReadDocumentAsChangedNotCreated() {
+        Recipe saved = recipeRepo.createRecipe(recipe("Carbonara", "Italian", 20, List.of("dinner")));
+        // Saved before the read_document column existed
+        entityManager.createNativeQuery("UPDATE recipes SET read_document = NULL WHERE id = :id")
+                .setParameter("id", saved.getId())
+                .executeUpdate();
+        entityManager.clear();
+        applicationEvents.clear();
+
+        Recipe stored = recipeRepo.getRecipeById(saved.getId()).orElseThrow();
+        stored.setCuisine("Roman");
+        recipeRepo.saveRecipe(stored);
+
+        RecipeFacetsChangedEvent event = applicationEvents.stream(RecipeFacetsChangedEvent.class)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(List.of(new RecipeFacets("Italian", "easy", List.of("dinner"), 20)), event.getRemoved());
+        assertEquals(List.of(new RecipeFacets("Roman", "easy", List.of("dinner"), 20)), event.getAdded());
+    }
+
+    private static Recipe recipe(String name, String cuisine, int totalTime, List<String> tags) {
+        Recipe recipe = new Recipe();
+        recipe.setName(name);
+        recipe.setCuisine(cuisine);
+        recipe.setIngredientKey(name.toLowerCase());
+        recipe.setDescription(name + " for tests");
+        recipe.setInstructions(new ArrayList<>(List.of("Cook")));
+        recipe.setPreparationTime(5);
+        recipe.setCookingTime(totalTime - 5);
+        recipe.setTotalTime(totalTime);
+        recipe.setServings(2);
+        recipe.setCalories(400.0);
+        recipe.setProtein(20.0);
+        recipe.setCarbohydrates(50.0);
+        recipe.setFat(10.0);
+        recipe.setDifficulty("easy");
+        recipe.setTags(new ArrayList<>(tags));
+        RecipeIngredient ingredient = new RecipeIngredient();
+        ingredient.setName("salt");
+        ingredient.setQuantity("1");
+        ingredient.setUnit("g");
+        ingredient.setRecipe(recipe);
+        recipe.setIngredients(new ArrayList<>(List.of(ingredient)));
+        return recipe;
+    }
+}
@@ -0,0 +1,73 @@
+package com.lamngo.mealsync.integration.recipe;
+
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeImageUpdate;
+import com.lamngo.mealsync.integration.BaseIntegrationTest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The batched image URL UPDATE stores each recipe's own columns and reports recipes that no longer exist.
+ */
+class RecipeImageUrlUpdateIntegrationTest extends BaseIntegrationTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void updateImageUrls_shouldSetEachRecipesColumnsAndSkipDeletedRecipes() {
+        UUID first = recipeRepo.createRecipe(recipe("First")).getId();
+        UUID second = recipeRepo.createRecipe(recipe("Second")).getId();
+        UUID deleted = UUID.randomUUID();
+
+        Set<UUID> updated = recipeRepo.updateImageUrls(List.of(
+                update(first, "first"), update(second, "second"), update(deleted, "deleted")));
+        entityManager.clear();
+
+        assertEquals(Set.of(first, second), updated);
+        Recipe stored = recipeRepo.getRecipeById(second).orElseThrow();
+        assertEquals("https://s3.example.com/second-full.jpg", stored.getImageUrl());
+        assertEquals("https://s3.example.com/second-card.jpg", stored.getCardImageUrl());
+        assertEquals("https://s3.example.com/second-thumb.jpg", stored.getThumbnailImageUrl());
+        assertEquals("hash-second", stored.getImageBlurHash());
+        assertNotNull(stored.getUpdatedAt());
+        assertEquals("https://s3.example.com/first-full.jpg", recipeRepo.getRecipeById(first).orElseThrow().getImageUrl());
+    }
+
+    private static RecipeImageUpdate update(UUID recipeId, String name) {
+        return new RecipeImageUpdate(recipeId,
+                "https://s3.example.com/" + name + "-full.jpg",
+                "https://s3.example.com/" + name + "-card.jpg",
+                "https://s3.example.com/" + name + "-thumb.jpg",
+                "hash-" + name);
+    }
+
+    private static Recipe recipe(String name) {
+        Recipe recipe = new Recipe();
+        recipe.setName(name);
+        recipe.setCuisine("International");
+        recipe.setIngredientKey(name.toLowerCase());
+        recipe.setDescription(name + " for tests");
+        recipe.setInstructions(new ArrayList<>(List.of("Cook")));
+        recipe.setPreparationTime(5);
+        recipe.setCookingTime(10);
+        recipe.setTotalTime(15);
+        recipe.setServings(2);
+        recipe.setCalories(400.0);
+        recipe.setProtein(20.0);
+        recipe.setCarbohydrates(50.0);
+        recipe.setFat(10.0);
+        recipe.setDifficulty("easy");
+        recipe.setTags(new ArrayList<>(List.of("quick")));
+        recipe.setIngredients(new ArrayList<>());
+        return recipe;
+    }
+}
@@ -0,0 +1,113 @@
+package com.lamngo.mealsync.integration.recipe;
+
+import com.lamngo.mealsync.application.dto.recipe.DetectedIngredientDto;
+import com.lamngo.mealsync.application.dto.recipe.RecipeMatchResultDto;
+import com.lamngo.mealsync.application.service.ingredient.IngredientVocabulary;
+import com.lamngo.mealsync.application.service.recipe.RecipeIngredientIndex;
+import com.lamngo.mealsync.application.service.recipe.RecipeService;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
+import com.lamngo.mealsync.integration.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The ingredient index built from the database, and the match results served from it. Recipe
+ * ingredients are stored with the id of their canonical ingredient, which the index compares.
+ */
+class RecipeIngredientMatchIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RecipeIngredientIndex recipeIngredientIndex;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private IngredientVocabulary ingredientVocabulary;
+
+    @Test
+    void matchRecipes_shouldRankRecipesByMissingIngredients() {
+        recipeRepo.createRecipe(recipe("Omelette", List.of("Eggs", "Butter", "Salt")));
+        recipeRepo.createRecipe(recipe("Pancakes", List.of("eggs", "milk", "flour", "butter")));
+        recipeRepo.createRecipe(recipe("Green Curry", List.of("chicken", "coconut milk")));
+        recipeIngredientIndex.rebuild();
+
+        List<RecipeMatchResultDto> results = recipeService.matchRecipes(
+                List.of(ingredient("eggs"), ingredient("Butter"), ingredient("milk")), 10);
+
+        assertEquals(List.of("Omelette", "Pancakes"), results.stream().map(result -> result.getRecipe().getName()).toList());
+        assertEquals(List.of(), results.get(0).getMissingIngredients());
+        assertEquals(3, results.get(1).getMatchedIngredients());
+        assertEquals(List.of("flour"), results.get(1).getMissingIngredients());
+    }
+
+    @Test
+    void matchRecipes_shouldMatchPluralsAndSynonymsByCanonicalId() {
+        Recipe salad = recipeRepo.createRecipe(recipe("Onion Salad", List.of("Scallions", "Fresh Tomatoes")));
+        recipeIngredientIndex.rebuild();
+
+        assertEquals(ingredientVocabulary.idOf("green onion"), salad.getIngredients().get(0).getCanonicalIngredientId());
+        assertEquals(ingredientVocabulary.idOf("tomato"), salad.getIngredients().get(1).getCanonicalIngredientId());
+
+        List<RecipeMatchResultDto> results = recipeService.matchRecipes(List.of(ingredient("spring onions")), 10);
+
+        assertEquals(List.of("Onion Salad"), results.stream().map(result -> result.getRecipe().getName()).toList());
+        assertEquals(List.of("tomato"), results.get(0).getMissingIngredients());
+    }
+
+    @Test
+    void matchRecipes_shouldNotRankRecipeWithUnresolvedIngredientAsComplete() {
+        recipeRepo.createRecipe(recipe("Toast", List.of("Bread", "Butter")));
+        // Nothing is left of this name to resolve, so it is stored without a canonical ingredient
+        Recipe mystery = recipeRepo.createRecipe(recipe("Mystery Toast", List.of("Bread", "Butter", "!!")));
+        recipeIngredientIndex.rebuild();
+
+        assertNull(mystery.getIngredients().get(2).getCanonicalIngredientId());
+        List<RecipeMatchResultDto> results = recipeService.matchRecipes(
+                List.of(ingredient("bread"), ingredient("butter")), 10);
+
+        assertEquals(List.of("Toast", "Mystery Toast"), results.stream().map(result -> result.getRecipe().getName()).toList());
+        assertEquals(3, results.get(1).getTotalIngredients());
+        assertEquals(2, results.get(1).getMatchedIngredients());
+    }
+
+    private static DetectedIngredientDto ingredient(String name) {
+        return DetectedIngredientDto.builder().name(name).quantity("1").unit("").build();
+    }
+
+    private static Recipe recipe(String name, List<String> ingredientNames) {
+        Recipe recipe = new Recipe();
+        recipe.setName(name);
+        recipe.setCuisine("International");
+        recipe.setIngredientKey(name.toLowerCase());
+        recipe.setDescription(name + " for tests");
+        recipe.setInstructions(new ArrayList<>(List.of("Cook")));
+        recipe.setPreparationTime(5);
+        recipe.setCookingTime(10);
+        recipe.setTotalTime(15);
+        recipe.setServings(2);
+        recipe.setCalories(400.0);
+        recipe.setProtein(20.0);
+        recipe.setCarbohydrates(50.0);
+        recipe.setFat(10.0);
+        recipe.setDifficulty("easy");
+        recipe.setTags(new ArrayList<>(List.of("quick")));
+        List<RecipeIngredient> ingredients = new ArrayList<>();
+        for (String ingredientName : ingredientNames) {
+            RecipeIngredient ingredient = new RecipeIngredient();
+            ingredient.setName(ingredientName);
+            ingredient.setQuantity("1");
+            ingredient.setUnit("g");
+            ingredient.setRecipe(recipe);
+            ingredients.add(ingredient);
+        }
+        recipe.setIngredients(ingredients);
+        return recipe;
+    }
+}
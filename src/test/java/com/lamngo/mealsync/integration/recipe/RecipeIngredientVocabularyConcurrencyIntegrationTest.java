@@ -0,0 +1,105 @@
+package com.lamngo.mealsync.integration.recipe;
+
+import com.lamngo.mealsync.application.service.ingredient.IngredientVocabulary;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
+import com.lamngo.mealsync.integration.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recipes with new ingredients saved concurrently, each transaction holding one of a pool with no
+ * connection to spare: creating the ingredients must not need another one.
+ */
+@TestPropertySource(properties = {
+        // Own database, as these transactions commit
+        "spring.datasource.url=jdbc:h2:mem:vocabularyconcurrency",
+        "spring.datasource.hikari.maximum-pool-size=" + RecipeIngredientVocabularyConcurrencyIntegrationTest.THREADS,
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+class RecipeIngredientVocabularyConcurrencyIntegrationTest extends BaseIntegrationTest {
+    static final int THREADS = 4;
+
+    @Autowired
+    private IngredientVocabulary ingredientVocabulary;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void createRecipe_shouldCreateNewIngredientsWithoutASecondConnection() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CyclicBarrier allHoldConnections = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Recipe>> saved = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Recipe recipe = recipe("Concurrent " + i, "Rare Spice " + i);
+                saved.add(executor.submit(() -> transaction.execute(status -> {
+                    await(allHoldConnections);
+                    return recipeRepo.createRecipe(recipe);
+                })));
+            }
+
+            for (int i = 0; i < THREADS; i++) {
+                Integer id = saved.get(i).get(30, TimeUnit.SECONDS).getIngredients().get(0).getCanonicalIngredientId();
+                assertNotNull(id);
+                assertEquals(id, ingredientVocabulary.idOf("Rare Spice " + i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Recipe recipe(String name, String ingredientName) {
+        Recipe recipe = new Recipe();
+        recipe.setName(name);
+        recipe.setCuisine("International");
+        recipe.setIngredientKey(name.toLowerCase());
+        recipe.setDescription(name + " for tests");
+        recipe.setInstructions(new ArrayList<>(List.of("Cook")));
+        recipe.setPreparationTime(5);
+        recipe.setCookingTime(10);
+        recipe.setTotalTime(15);
+        recipe.setServings(2);
+        recipe.setCalories(400.0);
+        recipe.setProtein(20.0);
+        recipe.setCarbohydrates(50.0);
+        recipe.setFat(10.0);
+        recipe.setDifficulty("easy");
+        recipe.setTags(new ArrayList<>(List.of("quick")));
+        RecipeIngredient ingredient = new RecipeIngredient();
+        ingredient.setName(ingredientName);
+        ingredient.setQuantity("1");
+        ingredient.setUnit("g");
+        ingredient.setRecipe(recipe);
+        recipe.setIngredients(new ArrayList<>(List.of(ingredient)));
+        return recipe;
+    }
+}
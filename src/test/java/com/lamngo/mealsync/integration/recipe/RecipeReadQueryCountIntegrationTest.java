@@ -0,0 +1,128 @@
+package com.lamngo.mealsync.integration.recipe;
+
+import com.lamngo.mealsync.application.dto.recipe.RecipeReadDto;
+import com.lamngo.mealsync.application.service.recipe.RecipeService;
+import com.lamngo.mealsync.application.shared.PaginationResponse;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
+import com.lamngo.mealsync.domain.model.user.User;
+import com.lamngo.mealsync.integration.BaseIntegrationTest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards against N+1 queries on recipe reads: single-recipe, by-ID and listing reads come from the
+ * read document alone, and entities mapped to DTOs (recommendations) load ingredients, instructions
+ * and tags in batches, so the statement count does not grow with the number of recipes.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RecipeReadQueryCountIntegrationTest extends BaseIntegrationTest {
+    private static final int RECIPES = 12;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<UUID> recipeIds = new ArrayList<>();
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = createTestUser("reads@example.com", "password123", "Reads User");
+        for (int i = 0; i < RECIPES; i++) {
+            recipeIds.add(recipeRepo.createRecipe(recipe("Recipe " + i, "key-" + i)).getId());
+        }
+        // Start from an empty persistence context so every read really hits the database
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getRecipesByIds_shouldReadOnlyTheRecipesTable() {
+        List<RecipeReadDto> recipes = recipeService.getRecipesByIds(recipeIds);
+
+        assertEquals(RECIPES, recipes.size());
+        assertEquals(recipeIds, recipes.stream().map(RecipeReadDto::getId).toList());
+        recipes.forEach(recipe -> assertEquals(2, recipe.getIngredients().size()));
+        // read documents only, no child tables
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getRecipeById_shouldReadOneRow() {
+        RecipeReadDto recipe = recipeService.getRecipeById(recipeIds.get(0));
+
+        assertEquals("Recipe 0", recipe.getName());
+        assertEquals(List.of("Boil", "Serve"), recipe.getInstructions());
+        assertNotNull(recipe.getCreatedAt());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void recipeListing_shouldUseConstantNumberOfQueries() {
+        PaginationResponse<RecipeReadDto> page = recipeService.getRecipesAfter("", 10, false,
+                null, null, null, null, null, null, null);
+
+        assertEquals(10, page.getData().size());
+        page.getData().forEach(recipe -> assertFalse(recipe.getTags().isEmpty()));
+        // page of IDs + read documents
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void recommendations_shouldNotQueryPerCandidate() {
+        List<RecipeReadDto> recommended = recipeService.getRecommendedRecipes(user.getId(), RECIPES);
+
+        assertEquals(RECIPES, recommended.size());
+        // One query per recipe and collection would be 3 x 12; batches keep it constant
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "Expected at most 10 statements, got " + statistics.getPrepareStatementCount());
+    }
+
+    private static Recipe recipe(String name, String ingredientKey) {
+        Recipe recipe = new Recipe();
+        recipe.setName(name);
+        recipe.setCuisine("Italian");
+        recipe.setIngredientKey(ingredientKey);
+        recipe.setDescription(name + " for tests");
+        recipe.setInstructions(new ArrayList<>(List.of("Boil", "Serve")));
+        recipe.setPreparationTime(5);
+        recipe.setCookingTime(10);
+        recipe.setTotalTime(15);
+        recipe.setServings(2);
+        recipe.setCalories(400.0);
+        recipe.setProtein(20.0);
+        recipe.setCarbohydrates(50.0);
+        recipe.setFat(10.0);
+        recipe.setDifficulty("easy");
+        recipe.setTags(new ArrayList<>(List.of("quick", "dinner")));
+        List<RecipeIngredient> ingredients = new ArrayList<>();
+        for (String ingredientName : List.of("pasta", "salt")) {
+            RecipeIngredient ingredient = new RecipeIngredient();
+            ingredient.setName(ingredientName);
+            ingredient.setQuantity("1");
+            ingredient.setUnit("g");
+            ingredient.setRecipe(recipe);
+            ingredients.add(ingredient);
+        }
+        recipe.setIngredients(ingredients);
+        return recipe;
+    }
+}
@@ -0,0 +1,141 @@
+package com.lamngo.mealsync.integration.recipe;
+
+import com.lamngo.mealsync.application.shared.OffsetPage;
+import com.lamngo.mealsync.application.shared.PageCursor;
+import com.lamngo.mealsync.domain.model.UserRecipe;
+import com.lamngo.mealsync.domain.model.UserRecipeType;
+import com.lamngo.mealsync.domain.model.recipe.Recipe;
+import com.lamngo.mealsync.domain.model.recipe.RecipeIngredient;
+import com.lamngo.mealsync.domain.model.user.User;
+import com.lamngo.mealsync.domain.repository.IUserRecipeRepo;
+import com.lamngo.mealsync.integration.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saved and recent history queries, paged in the database: recent history keeps the newest entry per
+ * recipe, saved history keeps every entry.
+ */
+class UserRecipeHistoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private IUserRecipeRepo userRecipeRepo;
+
+    private User user;
+    private Recipe pasta;
+    private Recipe curry;
+
+    @BeforeEach
+    void setUp() {
+        user = createTestUser("history@example.com", "password123", "History User");
+        pasta = recipeRepo.createRecipe(recipe("Pasta", "pasta-key"));
+        curry = recipeRepo.createRecipe(recipe("Curry", "curry-key"));
+
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 12, 0);
+        generated(pasta, now.minusDays(3));
+        generated(curry, now.minusDays(2));
+        generated(pasta, now.minusDays(1));
+    }
+
+    @Test
+    void getLatestUserRecipes_shouldKeepNewestEntryPerRecipe() {
+        Page<UserRecipe> page = userRecipeRepo.getLatestUserRecipes(user.getId(), UserRecipeType.GENERATED,
+                new OffsetPage(10, 0));
+
+        assertEquals(List.of(pasta.getId(), curry.getId()), recipeIds(page.getContent()));
+        assertEquals(2L, page.getTotalElements());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void getLatestUserRecipes_shouldPageAfterDeduplication() {
+        Page<UserRecipe> page = userRecipeRepo.getLatestUserRecipes(user.getId(), UserRecipeType.GENERATED,
+                new OffsetPage(1, 1));
+
+        assertEquals(List.of(curry.getId()), recipeIds(page.getContent()));
+        assertEquals(2L, page.getTotalElements());
+        assertTrue(userRecipeRepo.getLatestUserRecipes(user.getId(), UserRecipeType.SAVED, new OffsetPage(6, 0))
+                .isEmpty());
+    }
+
+    @Test
+    void getLatestUserRecipesAfter_shouldContinueFromTheCursor() {
+        Slice<UserRecipe> first = userRecipeRepo.getLatestUserRecipesAfter(user.getId(), UserRecipeType.GENERATED,
+                null, 1);
+        UserRecipe last = first.getContent().get(0);
+        PageCursor cursor = new PageCursor(last.getSavedAt().toInstant(ZoneOffset.UTC), last.getId());
+
+        Slice<UserRecipe> second = userRecipeRepo.getLatestUserRecipesAfter(user.getId(), UserRecipeType.GENERATED,
+                cursor, 1);
+
+        assertEquals(List.of(pasta.getId()), recipeIds(first.getContent()));
+        assertTrue(first.hasNext());
+        assertEquals(List.of(curry.getId()), recipeIds(second.getContent()));
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void getUserRecipes_shouldKeepEveryEntry() {
+        Page<UserRecipe> page = userRecipeRepo.getUserRecipes(user.getId(), UserRecipeType.GENERATED,
+                new OffsetPage(2, 0));
+        UserRecipe last = page.getContent().get(1);
+        Slice<UserRecipe> next = userRecipeRepo.getUserRecipesAfter(user.getId(), UserRecipeType.GENERATED,
+                new PageCursor(last.getSavedAt().toInstant(ZoneOffset.UTC), last.getId()), 2);
+
+        assertEquals(List.of(pasta.getId(), curry.getId()), recipeIds(page.getContent()));
+        assertEquals(3L, page.getTotalElements());
+        assertEquals(List.of(pasta.getId()), recipeIds(next.getContent()));
+        assertFalse(next.hasNext());
+        assertEquals(3L, userRecipeRepo.countUserRecipes(user.getId(), UserRecipeType.GENERATED));
+    }
+
+    private void generated(Recipe recipe, LocalDateTime savedAt) {
+        UserRecipe userRecipe = new UserRecipe();
+        userRecipe.setUser(user);
+        userRecipe.setRecipe(recipe);
+        userRecipe.setType(UserRecipeType.GENERATED);
+        userRecipe.setSavedAt(savedAt);
+        userRecipeRepo.saveUserRecipe(userRecipe);
+    }
+
+    private static List<UUID> recipeIds(List<UserRecipe> entries) {
+        return entries.stream().map(entry -> entry.getRecipe().getId()).toList();
+    }
+
+    private static Recipe recipe(String name, String ingredientKey) {
+        Recipe recipe = new Recipe();
+        recipe.setName(name);
+        recipe.setCuisine("Italian");
+        recipe.setIngredientKey(ingredientKey);
+        recipe.setDescription(name + " for tests");
+        recipe.setInstructions(new ArrayList<>(List.of("Cook")));
+        recipe.setPreparationTime(5);
+        recipe.setCookingTime(10);
+        recipe.setTotalTime(15);
+        recipe.setServings(2);
+        recipe.setCalories(400.0);
+        recipe.setProtein(20.0);
+        recipe.setCarbohydrates(50.0);
+        recipe.setFat(10.0);
+        recipe.setDifficulty("easy");
+        recipe.setTags(new ArrayList<>(List.of("quick")));
+        RecipeIngredient ingredient = new RecipeIngredient();
+        ingredient.setName("salt");
+        ingredient.setQuantity("1");
+        ingredient.setUnit("g");
+        ingredient.setRecipe(recipe);
+        recipe.setIngredients(new ArrayList<>(List.of(ingredient)));
+        return recipe;
+    }
+}
@@ -0,0 +1,117 @@
+package com.lamngo.mealsync.presentation.controller;
+
+import com.lamngo.mealsync.application.service.storage.LocalImageStorage;
+import com.lamngo.mealsync.presentation.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageControllerTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @TempDir
+    Path rootDir;
+
+    private ImageController controller;
+
+    @BeforeEach
+    void setUp() {
+        LocalImageStorage storage = new LocalImageStorage(rootDir.toString(), "http://localhost:8081/api/v1/images");
+        storage.uploadObjectAsync("recipes/a-full.jpg", CONTENT, "image/jpeg").join();
+        controller = new ImageController(storage);
+    }
+
+    @Test
+    void getImage_shouldServeWholeFileWithCachingHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(request("recipes/a-full.jpg"), response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+        assertEquals("image/jpeg", response.getContentType());
+        assertEquals(ImageController.CACHE_CONTROL, response.getHeader("Cache-Control"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("ETag"));
+        assertNotNull(response.getHeader("Last-Modified"));
+    }
+
+    @Test
+    void getImage_shouldReturn304_whenEtagMatches() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        controller.getImage(request("recipes/a-full.jpg"), first);
+
+        MockHttpServletRequest conditional = request("recipes/a-full.jpg");
+        conditional.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getImage(conditional, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void getImage_shouldServeSingleRange() throws Exception {
+        MockHttpServletRequest request = request("recipes/a-full.jpg");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void getImage_shouldUseSendfile_whenConnectorSupportsIt() throws Exception {
+        MockHttpServletRequest request = request("recipes/a-full.jpg");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(7L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void getImage_shouldReturn416_whenRangeIsNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = request("recipes/a-full.jpg");
+        request.addHeader("Range", "bytes=20-30");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getImage(request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void getImage_shouldThrowNotFound_forMissingOrEscapingKeys() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> controller.getImage(request("recipes/missing.jpg"), new MockHttpServletResponse()));
+        assertThrows(ResourceNotFoundException.class,
+                () -> controller.getImage(request("../secret.txt"), new MockHttpServletResponse()));
+    }
+
+    @Test
+    void parseRange_shouldFallBackToWholeFile_forMultipleRanges() {
+        assertEquals(0, ImageController.parseRange("bytes=0-1,4-5", 10).length);
+        assertArrayEquals(new long[]{5, 9}, ImageController.parseRange("bytes=5-", 10));
+    }
+
+    private MockHttpServletRequest request(String key) {
+        return new MockHttpServletRequest("GET", "/api/v1/images/" + key);
+    }
+}
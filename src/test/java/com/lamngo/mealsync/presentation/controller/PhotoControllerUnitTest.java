@@ -2,7 +2,7 @@ package com.lamngo.mealsync.presentation.controller;
 
 import com.lamngo.mealsync.application.dto.recipe.PhotoRecipeRequest;
 import com.lamngo.mealsync.application.service.AI.GeminiImageApiClient;
-import com.lamngo.mealsync.application.service.AWS.S3Service;
+import com.lamngo.mealsync.application.service.storage.ImageStorage;
 import com.lamngo.mealsync.presentation.shared.SuccessResponseEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,7 +18,7 @@ import static org.mockito.Mockito.*;
 
 class PhotoControllerUnitTest {
     @Mock GeminiImageApiClient geminiImageApiClient;
-    @Mock S3Service s3UploadService;
+    @Mock ImageStorage imageStorage;
     @InjectMocks PhotoController controller;
 
     @BeforeEach
@@ -33,7 +33,7 @@ class PhotoControllerUnitTest {
         String fakeBase64 = java.util.Base64.getEncoder().encodeToString("imagebytes".getBytes());
         String fakeUrl = "http://example.com/image.png";
         when(geminiImageApiClient.generateImage(eq("Omelette"), anyList(), eq("A fluffy omelette"))).thenReturn(fakeBase64);
-        when(s3UploadService.uploadImage(any(byte[].class), eq("Omelette"))).thenReturn(fakeUrl);
+        when(imageStorage.uploadImage(any(byte[].class), eq("Omelette"))).thenReturn(fakeUrl);
         ResponseEntity<SuccessResponseEntity<String>> response = controller.generateAndUploadImage(request);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(fakeUrl, response.getBody().getData());
@@ -7,6 +7,7 @@ import com.lamngo.mealsync.application.dto.userRecipe.UserRecipeCreateDto;
 import com.lamngo.mealsync.application.dto.userRecipe.UserRecipeReadDto;
 import com.lamngo.mealsync.application.service.AI.AIRecipeService;
 import com.lamngo.mealsync.application.service.AI.IngredientDetectionService;
+import com.lamngo.mealsync.application.service.recipe.RecipeFacetIndex;
 import com.lamngo.mealsync.application.service.recipe.RecipeService;
 import com.lamngo.mealsync.application.service.subscription.SubscriptionService;
 import com.lamngo.mealsync.application.shared.PaginationResponse;
@@ -15,6 +16,7 @@ import com.lamngo.mealsync.domain.model.user.SubscriptionStatus;
 import com.lamngo.mealsync.domain.model.user.User;
 import com.lamngo.mealsync.domain.model.user.UserPreference;
 import com.lamngo.mealsync.presentation.error.BadRequestException;
+import com.lamngo.mealsync.presentation.shared.RecipeETags;
 import com.lamngo.mealsync.presentation.shared.SuccessResponseEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +26,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -38,6 +41,7 @@ class RecipeControllerUnitTest {
     @Mock com.lamngo.mealsync.application.service.recipe.RecipeImageStreamingService recipeImageStreamingService;
     @Mock IngredientDetectionService ingredientDetectionService;
     @Mock SubscriptionService subscriptionService;
+    @Mock RecipeFacetIndex recipeFacetIndex;
     @InjectMocks RecipeController controller;
 
     @BeforeEach
@@ -82,6 +86,7 @@ class RecipeControllerUnitTest {
         verify(subscriptionService).incrementScanUsage(user);
         verify(recipeGenerationOrchestrator).generateRecipesFromIngredients(eq(request.getIngredients()), any(UserPreference.class));
         verify(recipeGenerationOrchestrator).saveGeneratedRecipesToUserAsync(eq(userId), anyList());
+        verify(recipeImageStreamingService).watchImages(userId, recipes);
         verify(ingredientDetectionService, never()).detectRawIngredientsAsync(any());
     }
 
@@ -155,7 +160,7 @@ class RecipeControllerUnitTest {
         when(recipeService.getSavedRecipesByUserId(userId, 6, 0)).thenReturn(paginationResponse);
 
         ResponseEntity<PaginationResponse<UserRecipeReadDto>> resp =
-                controller.getSavedRecipes(user, 0, 6);
+                controller.getSavedRecipes(user, 0, 6, null, false);
 
         assertEquals(200, resp.getStatusCodeValue());
         assertNotNull(resp.getBody());
@@ -183,7 +188,7 @@ class RecipeControllerUnitTest {
         when(recipeService.getSavedRecipesByUserId(userId, 6, 0)).thenReturn(paginationResponse);
 
         ResponseEntity<PaginationResponse<UserRecipeReadDto>> resp =
-                controller.getSavedRecipes(user, 0, 6);
+                controller.getSavedRecipes(user, 0, 6, null, false);
 
         assertEquals(200, resp.getStatusCodeValue());
         assertNotNull(resp.getBody());
@@ -192,6 +197,18 @@ class RecipeControllerUnitTest {
         verify(recipeService).getSavedRecipesByUserId(userId, 6, 0);
     }
 
+    @Test
+    void cursorPages_withLimitOutOfRange_throwBadRequestException() {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(UUID.randomUUID());
+
+        assertThrows(BadRequestException.class, () -> controller.getSavedRecipes(user, 0, -2, "", false));
+        assertThrows(BadRequestException.class, () -> controller.getRecentGeneratedRecipes(user, 0, 0, "", false));
+        assertThrows(BadRequestException.class,
+                () -> controller.getAllRecipes(0, 51, null, null, null, null, null, null, null, "", false));
+        verifyNoInteractions(recipeService);
+    }
+
     @Test
     void createRecipe_success() {
         RecipeCreateDto dto = new RecipeCreateDto();
@@ -207,11 +224,59 @@ class RecipeControllerUnitTest {
         UUID id = UUID.randomUUID();
         RecipeReadDto readDto = new RecipeReadDto();
         when(recipeService.getRecipeById(id)).thenReturn(readDto);
-        ResponseEntity<SuccessResponseEntity<RecipeReadDto>> resp = controller.getRecipeById(id.toString());
+        ResponseEntity<SuccessResponseEntity<RecipeReadDto>> resp = controller.getRecipeById(id.toString(), null);
         assertEquals(200, resp.getStatusCodeValue());
         assertEquals(readDto, resp.getBody().getData());
     }
 
+    @Test
+    void getRecipeById_shouldSendValidatorsAndPrivateCaching() {
+        UUID id = UUID.randomUUID();
+        Instant updatedAt = Instant.parse("2025-03-01T10:00:00.123Z");
+        RecipeReadDto readDto = RecipeReadDto.builder().id(id).imageUrl("https://cdn/full.jpg")
+                .createdAt(updatedAt.minusSeconds(60)).updatedAt(updatedAt).build();
+        when(recipeService.getRecipeById(id)).thenReturn(readDto);
+
+        ResponseEntity<SuccessResponseEntity<RecipeReadDto>> resp = controller.getRecipeById(id.toString(), null);
+
+        assertEquals(RecipeETags.forRecipe(updatedAt), resp.getHeaders().getETag());
+        assertEquals(updatedAt.toEpochMilli() / 1000 * 1000, resp.getHeaders().getLastModified());
+        assertTrue(resp.getHeaders().getCacheControl().contains("private"));
+        verify(recipeService, never()).getRecipeVersion(any());
+    }
+
+    @Test
+    void getRecipeById_matchingETag_shouldReturnNotModifiedWithoutReadingTheRecipe() {
+        UUID id = UUID.randomUUID();
+        Instant updatedAt = Instant.parse("2025-03-01T10:00:00Z");
+        when(recipeService.getRecipeVersion(id)).thenReturn(new RecipeVersionDto(id, updatedAt, true));
+
+        ResponseEntity<SuccessResponseEntity<RecipeReadDto>> resp =
+                controller.getRecipeById(id.toString(), "W/\"other\", " + RecipeETags.forRecipe(updatedAt));
+
+        assertEquals(304, resp.getStatusCodeValue());
+        assertNull(resp.getBody());
+        assertEquals(RecipeETags.forRecipe(updatedAt), resp.getHeaders().getETag());
+        verify(recipeService, never()).getRecipeById(any());
+        verifyNoInteractions(recipeGenerationOrchestrator);
+    }
+
+    @Test
+    void getRecipeById_withoutImage_shouldServeInFullToRequestTheImage() {
+        UUID id = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2025-03-01T10:00:00Z");
+        RecipeReadDto readDto = RecipeReadDto.builder().id(id).createdAt(createdAt).build();
+        when(recipeService.getRecipeVersion(id)).thenReturn(new RecipeVersionDto(id, createdAt, false));
+        when(recipeService.getRecipeById(id)).thenReturn(readDto);
+
+        ResponseEntity<SuccessResponseEntity<RecipeReadDto>> resp =
+                controller.getRecipeById(id.toString(), RecipeETags.forRecipe(createdAt));
+
+        assertEquals(200, resp.getStatusCodeValue());
+        assertTrue(resp.getHeaders().getCacheControl().contains("no-cache"));
+        verify(recipeGenerationOrchestrator).requestImageOnDemand(readDto);
+    }
+
     @Test
     void getAllRecipes_success() {
         PaginationResponse<RecipeReadDto> page = PaginationResponse.<RecipeReadDto>builder()
@@ -222,9 +287,11 @@ class RecipeControllerUnitTest {
                 .hasNext(false)
                 .build();
         when(recipeService.getAllRecipes(anyInt(), anyInt())).thenReturn(page);
-        ResponseEntity<PaginationResponse<RecipeReadDto>> resp = controller.getAllRecipes(0, 2,null, null, null, null, null, null, null);
+        ResponseEntity<PaginationResponse<RecipeReadDto>> resp = controller.getAllRecipes(0, 2,null, null, null, null, null, null, null, null, false);
         assertEquals(200, resp.getStatusCodeValue());
         assertEquals(page, resp.getBody());
+        assertEquals(RecipeETags.forPage(page), resp.getHeaders().getETag());
+        assertEquals("no-cache, public", resp.getHeaders().getCacheControl());
     }
 
     @Test
@@ -503,7 +570,7 @@ class RecipeControllerUnitTest {
         when(recipeService.getRecentGeneratedRecipes(userId, 6, 0)).thenReturn(paginationResponse);
 
         ResponseEntity<PaginationResponse<RecipeReadDto>> resp =
-                controller.getRecentGeneratedRecipes(user, 0, 6);
+                controller.getRecentGeneratedRecipes(user, 0, 6, null, false);
 
         assertEquals(200, resp.getStatusCodeValue());
         assertNotNull(resp.getBody());
@@ -531,7 +598,7 @@ class RecipeControllerUnitTest {
         when(recipeService.getRecentGeneratedRecipes(userId, 6, 0)).thenReturn(paginationResponse);
 
         ResponseEntity<PaginationResponse<RecipeReadDto>> resp =
-                controller.getRecentGeneratedRecipes(user, 0, 6);
+                controller.getRecentGeneratedRecipes(user, 0, 6, null, false);
 
         assertEquals(200, resp.getStatusCodeValue());
         assertNotNull(resp.getBody());
@@ -556,7 +623,7 @@ class RecipeControllerUnitTest {
         when(recipeService.getRecentGeneratedRecipes(userId, 20, 0)).thenReturn(paginationResponse);
 
         ResponseEntity<PaginationResponse<RecipeReadDto>> resp =
-                controller.getRecentGeneratedRecipes(user, 0, 20);
+                controller.getRecentGeneratedRecipes(user, 0, 20, null, false);
 
         assertEquals(200, resp.getStatusCodeValue());
         assertNotNull(resp.getBody());
@@ -614,4 +681,30 @@ class RecipeControllerUnitTest {
         verify(recipeGenerationOrchestrator).generateRecipesFromIngredients(eq(request.getIngredients()), any(UserPreference.class));
         verify(recipeGenerationOrchestrator).saveGeneratedRecipesToUserAsync(eq(userId), anyList());
     }
+
+    @Test
+    void getRecipeFacets_returnsCountsFromIndex() {
+        RecipeFacetsDto facets = RecipeFacetsDto.builder().totalRecipes(3).build();
+        when(recipeFacetIndex.getFacets(20)).thenReturn(facets);
+
+        ResponseEntity<SuccessResponseEntity<RecipeFacetsDto>> resp = controller.getRecipeFacets(20);
+
+        assertEquals(200, resp.getStatusCode().value());
+        assertSame(facets, resp.getBody().getData());
+        assertThrows(BadRequestException.class, () -> controller.getRecipeFacets(0));
+    }
+
+    @Test
+    void matchRecipes_returnsRankedRecipes() {
+        DetectedIngredientDto egg = DetectedIngredientDto.builder().name("egg").quantity("2").unit("pieces").build();
+        RecipeMatchRequest request = new RecipeMatchRequest(List.of(egg));
+        List<RecipeMatchResultDto> results = List.of(new RecipeMatchResultDto(new RecipeReadDto(), 1, 2, List.of("milk")));
+        when(recipeService.matchRecipes(request.getIngredients(), 10)).thenReturn(results);
+
+        ResponseEntity<SuccessResponseEntity<List<RecipeMatchResultDto>>> resp = controller.matchRecipes(request, 10);
+
+        assertEquals(200, resp.getStatusCode().value());
+        assertEquals(results, resp.getBody().getData());
+        assertThrows(BadRequestException.class, () -> controller.matchRecipes(request, 51));
+    }
 }